@@ -0,0 +1,41 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.formula.base;
+
+/**
+ * A CompiledExpression is a formula (or a portion of a formula) that has been compiled
+ * from the parsed tree of nodes into a form that can be directly evaluated.
+ * 
+ * Items which can be determined without knowing the values of variables (such as the
+ * OperatorAction to be used for an Operator, or the FormulaFunction to be called) are
+ * resolved once, when the CompiledExpression is built, rather than on each evaluation.
+ */
+@FunctionalInterface
+public interface CompiledExpression
+{
+
+	/**
+	 * Evaluates this CompiledExpression in the context of the given EvaluationManager.
+	 * 
+	 * The given EvaluationManager must be consistent with the EvaluationManager used to
+	 * compile this CompiledExpression (it must have the same libraries and an instance
+	 * of the same ImplementedScope).
+	 * 
+	 * @param manager
+	 *            The EvaluationManager for the context of the evaluation
+	 * @return The result of evaluating this CompiledExpression
+	 */
+	public Object evaluate(EvaluationManager manager);
+
+}
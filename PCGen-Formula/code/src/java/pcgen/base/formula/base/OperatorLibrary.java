@@ -110,6 +110,29 @@ public interface OperatorLibrary
 	public Optional<FormatManager<?>> processAbstract(Operator operator, Class<?> format1,
 		Class<?> format2, Optional<FormatManager<?>> asserted);
 
+	/**
+	 * Returns the OperatorAction that would be used by evaluate to process the given
+	 * Operator on arguments of the given classes.
+	 * 
+	 * This allows the OperatorAction to be resolved once and then reused for any
+	 * arguments of the same classes.
+	 * 
+	 * @param operator
+	 *            The Operator to be evaluated
+	 * @param format1
+	 *            The class of the first argument to the operation
+	 * @param format2
+	 *            The class of the second argument to the operation
+	 * @param asserted
+	 *            The Optional FormatManager indicating the asserted format for the
+	 *            variables
+	 * @return An Optional containing the OperatorAction that would be used by evaluate
+	 *         for arguments of the given classes; empty if this OperatorLibrary has no
+	 *         OperatorAction that can process the given classes
+	 */
+	public Optional<OperatorAction> getAction(Operator operator, Class<?> format1,
+		Class<?> format2, Optional<FormatManager<?>> asserted);
+
 	/**
 	 * Adds a UnaryAction to the FunctionLibrary.
 	 * 
@@ -173,4 +196,21 @@ public interface OperatorLibrary
 	 *         OperatorLibrary has an OperatorAction for the given Operator arguments
 	 */
 	public Optional<FormatManager<?>> processAbstract(Operator operator, Class<?> format);
+
+	/**
+	 * Returns the UnaryAction that would be used by evaluate to process the given
+	 * Operator on an argument of the given class.
+	 * 
+	 * This allows the UnaryAction to be resolved once and then reused for any argument
+	 * of the same class.
+	 * 
+	 * @param operator
+	 *            The Operator to be evaluated
+	 * @param format
+	 *            The class of the argument to the operation
+	 * @return An Optional containing the UnaryAction that would be used by evaluate for
+	 *         an argument of the given class; empty if this OperatorLibrary has no
+	 *         UnaryAction that can process the given class
+	 */
+	public Optional<UnaryAction> getAction(Operator operator, Class<?> format);
 }
@@ -18,6 +18,7 @@
 package pcgen.base.formula.factory;
 
 import java.util.Objects;
+import java.util.Optional;
 
 import pcgen.base.formula.base.DependencyManager;
 import pcgen.base.formula.base.EvaluationManager;
@@ -31,6 +32,7 @@ import pcgen.base.formula.base.ScopeInstanceFactory;
 import pcgen.base.formula.base.VariableLibrary;
 import pcgen.base.formula.base.VariableStore;
 import pcgen.base.formula.base.WriteableVariableStore;
+import pcgen.base.formula.inst.CompiledFormulaCache;
 
 /**
  * A ManagerFactory is an object designed to produce the various manager objects used by
@@ -69,6 +71,11 @@ public class SimpleManagerFactory implements ManagerFactory
 	 */
 	private final ScopeInstanceFactory siFactory;
 
+	/**
+	 * The CompiledFormulaCache this ManagerFactory will place into EvaluationManagers.
+	 */
+	private final CompiledFormulaCache formulaCache;
+
 	/**
 	 * Construct a new ManagerFactory with the given arguments.
 	 * 
@@ -96,6 +103,19 @@ public class SimpleManagerFactory implements ManagerFactory
 		this.functionLib = Objects.requireNonNull(functionLib);
 		this.varStore = Objects.requireNonNull(varStore);
 		this.siFactory = Objects.requireNonNull(siFactory);
+		this.formulaCache = new CompiledFormulaCache(functionLib, opLib, varLib);
+	}
+
+	private SimpleManagerFactory(SimpleManagerFactory source,
+		WriteableVariableStore newVarStore)
+	{
+		this.scopeLib = source.scopeLib;
+		this.opLib = source.opLib;
+		this.varLib = source.varLib;
+		this.functionLib = source.functionLib;
+		this.varStore = Objects.requireNonNull(newVarStore);
+		this.siFactory = source.siFactory;
+		this.formulaCache = source.formulaCache;
 	}
 
 	@Override
@@ -131,13 +151,12 @@ public class SimpleManagerFactory implements ManagerFactory
 		manager = manager.getWith(EvaluationManager.VARLIB, varLib);
 		manager = manager.getWith(EvaluationManager.SIFACTORY, siFactory);
 		manager = manager.getWith(EvaluationManager.RESULTS, varStore);
-		return manager;
+		return manager.getWith(CompiledFormulaCache.KEY, Optional.of(formulaCache));
 	}
 
 	@Override
 	public SimpleManagerFactory createReplacement(WriteableVariableStore newVarStore)
 	{
-		return new SimpleManagerFactory(scopeLib, opLib, varLib, functionLib,
-			newVarStore, siFactory);
+		return new SimpleManagerFactory(this, newVarStore);
 	}
 }
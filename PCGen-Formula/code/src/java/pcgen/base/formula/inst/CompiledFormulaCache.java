@@ -0,0 +1,181 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.formula.inst;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import pcgen.base.formula.base.CompiledExpression;
+import pcgen.base.formula.base.EvaluationManager;
+import pcgen.base.formula.base.FunctionLibrary;
+import pcgen.base.formula.base.ImplementedScope;
+import pcgen.base.formula.base.OperatorLibrary;
+import pcgen.base.formula.base.ScopeInstance;
+import pcgen.base.formula.base.VariableLibrary;
+import pcgen.base.util.FormatManager;
+import pcgen.base.util.TypedKey;
+
+/**
+ * A CompiledFormulaCache stores the CompiledExpression for formulas, keyed by the text
+ * of the formula, the format of the formula and the ImplementedScope in which the
+ * formula is evaluated.
+ * 
+ * A CompiledFormulaCache is bound to a specific FunctionLibrary, OperatorLibrary and
+ * VariableLibrary, since those are resolved when a formula is compiled. It will only
+ * provide a CompiledExpression for an EvaluationManager that contains those libraries.
+ * 
+ * A CompiledFormulaCache can be placed into an EvaluationManager (using KEY), in which
+ * case ComplexNEPFormula will use it when resolving a formula.
+ * 
+ * CompiledFormulaCache is thread-safe.
+ */
+public class CompiledFormulaCache
+{
+	/**
+	 * A TypedKey for use in storing a CompiledFormulaCache in an EvaluationManager.
+	 */
+	public static final TypedKey<Optional<CompiledFormulaCache>> KEY =
+			new TypedKey<>(Optional.empty());
+
+	/**
+	 * The FunctionLibrary to which this CompiledFormulaCache is bound.
+	 */
+	private final FunctionLibrary functionLib;
+
+	/**
+	 * The OperatorLibrary to which this CompiledFormulaCache is bound.
+	 */
+	private final OperatorLibrary opLib;
+
+	/**
+	 * The VariableLibrary to which this CompiledFormulaCache is bound.
+	 */
+	private final VariableLibrary varLib;
+
+	/**
+	 * The CompiledExpression objects in this CompiledFormulaCache.
+	 */
+	private final Map<CacheKey, CompiledExpression> cache = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a new CompiledFormulaCache bound to the given libraries.
+	 * 
+	 * @param functionLib
+	 *            The FunctionLibrary to which this CompiledFormulaCache is bound
+	 * @param opLib
+	 *            The OperatorLibrary to which this CompiledFormulaCache is bound
+	 * @param varLib
+	 *            The VariableLibrary to which this CompiledFormulaCache is bound
+	 */
+	public CompiledFormulaCache(FunctionLibrary functionLib, OperatorLibrary opLib,
+		VariableLibrary varLib)
+	{
+		this.functionLib = Objects.requireNonNull(functionLib);
+		this.opLib = Objects.requireNonNull(opLib);
+		this.varLib = Objects.requireNonNull(varLib);
+	}
+
+	/**
+	 * Returns the CompiledExpression for the given ComplexNEPFormula when evaluated with
+	 * the given EvaluationManager. The formula is compiled if no CompiledExpression is
+	 * already present in this CompiledFormulaCache.
+	 * 
+	 * Returns empty if the given EvaluationManager does not contain the libraries to
+	 * which this CompiledFormulaCache is bound.
+	 * 
+	 * @param formula
+	 *            The ComplexNEPFormula for which the CompiledExpression should be
+	 *            returned
+	 * @param manager
+	 *            The EvaluationManager with which the formula will be evaluated
+	 * @return An Optional containing the CompiledExpression for the given
+	 *         ComplexNEPFormula
+	 */
+	public Optional<CompiledExpression> getCompiled(ComplexNEPFormula<?> formula,
+		EvaluationManager manager)
+	{
+		if ((manager.get(EvaluationManager.FUNCTION) != functionLib)
+			|| (manager.get(EvaluationManager.OPLIB) != opLib)
+			|| (manager.get(EvaluationManager.VARLIB) != varLib))
+		{
+			return Optional.empty();
+		}
+		ScopeInstance scopeInst = manager.get(EvaluationManager.INSTANCE);
+		ImplementedScope scope =
+				(scopeInst == null) ? null : scopeInst.getImplementedScope();
+		CacheKey key = new CacheKey(formula.getExpression(),
+			formula.getFormatManager(), scope);
+		return Optional.of(cache.computeIfAbsent(key, k -> formula.compile(manager)));
+	}
+
+	/**
+	 * Returns the number of CompiledExpression objects in this CompiledFormulaCache.
+	 * 
+	 * @return The number of CompiledExpression objects in this CompiledFormulaCache
+	 */
+	public int size()
+	{
+		return cache.size();
+	}
+
+	/**
+	 * A CacheKey is the key for a CompiledExpression in a CompiledFormulaCache.
+	 */
+	private static final class CacheKey
+	{
+		/**
+		 * The text of the formula.
+		 */
+		private final String expression;
+
+		/**
+		 * The format of the formula.
+		 */
+		private final FormatManager<?> formatManager;
+
+		/**
+		 * The ImplementedScope in which the formula is evaluated (may be null).
+		 */
+		private final ImplementedScope scope;
+
+		private CacheKey(String expression, FormatManager<?> formatManager,
+			ImplementedScope scope)
+		{
+			this.expression = expression;
+			this.formatManager = formatManager;
+			this.scope = scope;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return expression.hashCode() * 31 + Objects.hashCode(scope);
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (obj instanceof CacheKey)
+			{
+				CacheKey other = (CacheKey) obj;
+				return expression.equals(other.expression)
+					&& formatManager.equals(other.formatManager)
+					&& Objects.equals(scope, other.scope);
+			}
+			return false;
+		}
+	}
+}
@@ -21,6 +21,7 @@ import java.io.StringReader;
 import java.util.Objects;
 import java.util.Optional;
 
+import pcgen.base.formula.base.CompiledExpression;
 import pcgen.base.formula.base.DependencyManager;
 import pcgen.base.formula.base.EvaluationManager;
 import pcgen.base.formula.base.FormulaSemantics;
@@ -29,6 +30,7 @@ import pcgen.base.formula.exception.SemanticsFailureException;
 import pcgen.base.formula.parse.FormulaParser;
 import pcgen.base.formula.parse.ParseException;
 import pcgen.base.formula.parse.SimpleNode;
+import pcgen.base.formula.visitor.CompileVisitor;
 import pcgen.base.formula.visitor.DependencyVisitor;
 import pcgen.base.formula.visitor.EvaluateVisitor;
 import pcgen.base.formula.visitor.ReconstructionVisitor;
@@ -62,6 +64,15 @@ public class ComplexNEPFormula<T> implements NEPFormula<T>
 	private static final EvaluateVisitor EVALUATE_VISITOR =
 			new EvaluateVisitor();
 
+	private static final CompileVisitor COMPILE_VISITOR =
+			new CompileVisitor();
+
+	/**
+	 * The String representation of the formula used to construct this
+	 * ComplexNEPFormula.
+	 */
+	private final String expression;
+
 	/**
 	 * The root node of the tree representing the calculation of this
 	 * ComplexNEPFormula.
@@ -105,9 +116,10 @@ public class ComplexNEPFormula<T> implements NEPFormula<T>
 	public ComplexNEPFormula(String expression, FormatManager<T> formatManager)
 	{
 		this.formatManager = Objects.requireNonNull(formatManager);
+		this.expression = Objects.requireNonNull(expression);
 		try
 		{
-			StringReader reader = new StringReader(Objects.requireNonNull(expression));
+			StringReader reader = new StringReader(expression);
 			root = new FormulaParser(reader).query();
 		}
 		catch (ParseException e)
@@ -135,6 +147,10 @@ public class ComplexNEPFormula<T> implements NEPFormula<T>
 	 * implement the appropriate processing (precision in the case of numbers)
 	 * desired for the given calculation.
 	 * 
+	 * If the given EvaluationManager contains a CompiledFormulaCache, the
+	 * CompiledExpression for this ComplexNEPFormula is evaluated, rather than
+	 * visiting the tree of nodes.
+	 * 
 	 * @param manager
 	 *            The EvaluationManager for the context of the formula
 	 * @return The value calculated for the ComplexNEPFormula.
@@ -144,11 +160,46 @@ public class ComplexNEPFormula<T> implements NEPFormula<T>
 	{
 		EvaluationManager evalManager =
 				manager.getWith(EvaluationManager.ASSERTED, Optional.of(formatManager));
+		Optional<CompiledExpression> compiled = manager.get(CompiledFormulaCache.KEY)
+			.flatMap(cache -> cache.getCompiled(this, evalManager));
 		@SuppressWarnings("unchecked")
-		T result = (T) EVALUATE_VISITOR.visit(root, evalManager);
+		T result = (T) (compiled.isPresent() ? compiled.get().evaluate(evalManager)
+			: EVALUATE_VISITOR.visit(root, evalManager));
 		return result;
 	}
 
+	/**
+	 * Compiles this ComplexNEPFormula into a CompiledExpression for evaluation in the
+	 * context of the given EvaluationManager.
+	 * 
+	 * The libraries and the ScopeInstance in the given EvaluationManager are used to
+	 * compile the formula. The returned CompiledExpression may be evaluated with any
+	 * EvaluationManager that has the same libraries and an instance of the same
+	 * ImplementedScope.
+	 * 
+	 * @param manager
+	 *            The EvaluationManager for the context of the formula
+	 * @return The CompiledExpression for this ComplexNEPFormula
+	 */
+	public CompiledExpression compile(EvaluationManager manager)
+	{
+		EvaluationManager compileManager =
+				manager.getWith(EvaluationManager.ASSERTED, Optional.of(formatManager));
+		return (CompiledExpression) COMPILE_VISITOR.visit(root, compileManager);
+	}
+
+	/**
+	 * Returns the String representation of the formula used to construct this
+	 * ComplexNEPFormula.
+	 * 
+	 * @return The String representation of the formula used to construct this
+	 *         ComplexNEPFormula
+	 */
+	public String getExpression()
+	{
+		return expression;
+	}
+
 	/**
 	 * Determines the dependencies for this formula, including the VariableID
 	 * objects representing the variables within the ComplexNEPFormula.
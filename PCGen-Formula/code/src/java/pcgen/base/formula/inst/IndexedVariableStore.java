@@ -0,0 +1,248 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.formula.inst;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import pcgen.base.formula.base.ScopeInstance;
+import pcgen.base.formula.base.VariableID;
+import pcgen.base.formula.base.VariableStore;
+import pcgen.base.formula.base.WriteableVariableStore;
+
+/**
+ * An IndexedVariableStore is a WriteableVariableStore that stores values in flat arrays,
+ * using the slot assigned to the variable definition of each VariableID by a (shared)
+ * VariableIndex.
+ * 
+ * The values are held separately for each ScopeInstance, and the arrays of each
+ * ScopeInstance only grow to the highest slot used in that ScopeInstance, so the size of
+ * an IndexedVariableStore depends only on the variables stored in it.
+ * 
+ * Integer and Double values (the values produced by the NUMBER format) are stored
+ * unboxed. All other values are stored as objects.
+ * 
+ * As with SimpleVariableStore, old values are overwritten by newer values, and null
+ * values are not allowed.
+ */
+public class IndexedVariableStore implements WriteableVariableStore
+{
+
+	/**
+	 * Indicates a slot has no value.
+	 */
+	private static final byte EMPTY = 0;
+
+	/**
+	 * Indicates a slot has a value stored in the objects array.
+	 */
+	private static final byte OBJECT = 1;
+
+	/**
+	 * Indicates a slot has an Integer value stored in the numbers array.
+	 */
+	private static final byte INTEGER = 2;
+
+	/**
+	 * Indicates a slot has a Double value stored (as raw long bits) in the numbers array.
+	 */
+	private static final byte DOUBLE = 3;
+
+	/**
+	 * The VariableIndex providing the slot for each VariableID.
+	 */
+	private final VariableIndex index;
+
+	/**
+	 * The values in this IndexedVariableStore, by ScopeInstance.
+	 */
+	private final Map<ScopeInstance, ScopeValues> values = new LinkedHashMap<>();
+
+	/**
+	 * Constructs a new IndexedVariableStore using the given VariableIndex.
+	 * 
+	 * @param index
+	 *            The VariableIndex providing the slot for each VariableID
+	 */
+	public IndexedVariableStore(VariableIndex index)
+	{
+		this.index = Objects.requireNonNull(index);
+	}
+
+	@Override
+	public <T> T get(VariableID<T> varID)
+	{
+		ScopeValues scopeValues = values.get(varID.getScope());
+		return (scopeValues == null) ? null : scopeValues.get(index.getSlot(varID));
+	}
+
+	@Override
+	public boolean containsVariable(VariableID<?> varID)
+	{
+		ScopeValues scopeValues = values.get(varID.getScope());
+		return (scopeValues != null) && scopeValues.contains(index.getSlot(varID));
+	}
+
+	@Override
+	public <T> T put(VariableID<T> varID, T value)
+	{
+		Class<T> varFormat = varID.getVariableFormat();
+		if (!varFormat.isAssignableFrom(value.getClass()))
+		{
+			throw new IllegalArgumentException(
+				"VariableID format misassignment.  Expected: "
+					+ varFormat.getSimpleName() + " but got "
+					+ value.getClass().getSimpleName());
+		}
+		int slot = index.intern(varID);
+		return values.computeIfAbsent(varID.getScope(), s -> new ScopeValues())
+			.put(slot, value);
+	}
+
+	@Override
+	public Collection<VariableID<?>> getVariables()
+	{
+		List<VariableID<?>> variables = new ArrayList<>();
+		for (Map.Entry<ScopeInstance, ScopeValues> entry : values.entrySet())
+		{
+			byte[] kinds = entry.getValue().kinds;
+			for (int slot = 0; slot < kinds.length; slot++)
+			{
+				if (kinds[slot] != EMPTY)
+				{
+					variables.add(index.getVariableID(entry.getKey(), slot));
+				}
+			}
+		}
+		return Collections.unmodifiableList(variables);
+	}
+
+	@Override
+	public void importFrom(VariableStore varStore)
+	{
+		for (VariableID<?> varID : varStore.getVariables())
+		{
+			importVariable(varStore, varID);
+		}
+	}
+
+	private <T> void importVariable(VariableStore varStore, VariableID<T> varID)
+	{
+		put(varID, varStore.get(varID));
+	}
+
+	/**
+	 * The values of the variables of one ScopeInstance, by slot.
+	 */
+	private static final class ScopeValues
+	{
+		/**
+		 * The kind of value (EMPTY, OBJECT, INTEGER or DOUBLE) in each slot.
+		 */
+		private byte[] kinds = new byte[0];
+
+		/**
+		 * The unboxed Integer and Double values, by slot.
+		 */
+		private long[] numbers = new long[0];
+
+		/**
+		 * The values that are not stored unboxed, by slot. Allocated only when a
+		 * non-numeric value is stored.
+		 */
+		private Object[] objects = null;
+
+		private boolean contains(int slot)
+		{
+			return (slot >= 0) && (slot < kinds.length) && (kinds[slot] != EMPTY);
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T> T get(int slot)
+		{
+			if ((slot < 0) || (slot >= kinds.length))
+			{
+				return null;
+			}
+			switch (kinds[slot])
+			{
+				case OBJECT:
+					return (T) objects[slot];
+				case INTEGER:
+					return (T) Integer.valueOf((int) numbers[slot]);
+				case DOUBLE:
+					return (T) Double.valueOf(Double.longBitsToDouble(numbers[slot]));
+				default:
+					return null;
+			}
+		}
+
+		private <T> T put(int slot, T value)
+		{
+			ensureCapacity(slot);
+			T old = get(slot);
+			if (value instanceof Integer)
+			{
+				numbers[slot] = (Integer) value;
+				setKind(slot, INTEGER);
+			}
+			else if (value instanceof Double)
+			{
+				numbers[slot] = Double.doubleToRawLongBits((Double) value);
+				setKind(slot, DOUBLE);
+			}
+			else
+			{
+				if (objects == null)
+				{
+					objects = new Object[kinds.length];
+				}
+				objects[slot] = value;
+				kinds[slot] = OBJECT;
+			}
+			return old;
+		}
+
+		private void setKind(int slot, byte kind)
+		{
+			if (kinds[slot] == OBJECT)
+			{
+				//Don't retain the old object
+				objects[slot] = null;
+			}
+			kinds[slot] = kind;
+		}
+
+		private void ensureCapacity(int slot)
+		{
+			if (slot < kinds.length)
+			{
+				return;
+			}
+			int newLength = Math.max(slot + 1, kinds.length + (kinds.length >> 1));
+			kinds = Arrays.copyOf(kinds, newLength);
+			numbers = Arrays.copyOf(numbers, newLength);
+			if (objects != null)
+			{
+				objects = Arrays.copyOf(objects, newLength);
+			}
+		}
+	}
+}
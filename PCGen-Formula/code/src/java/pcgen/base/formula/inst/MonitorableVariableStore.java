@@ -15,11 +15,13 @@
  */
 package pcgen.base.formula.inst;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Objects;
 import java.util.TreeMap;
 
 import pcgen.base.formula.base.VariableID;
+import pcgen.base.formula.base.WriteableVariableStore;
 import pcgen.base.util.DoubleKeyMapToList;
 import pcgen.base.util.EnhancedWeakReference;
 import pcgen.base.util.MapToList;
@@ -28,10 +30,20 @@ import pcgen.base.util.TreeMapToList;
 /**
  * A MonitorableVariableStore is a WriteableVariableStore that allows VariableListener
  * objects to listen for changes to the variables within this VariableStore.
+ * 
+ * By default the values are stored as in a SimpleVariableStore, but an alternate
+ * WriteableVariableStore (e.g. an IndexedVariableStore) can be provided to hold the
+ * values.
  */
 public class MonitorableVariableStore extends SimpleVariableStore
 {
 
+	/**
+	 * The WriteableVariableStore holding the values of this MonitorableVariableStore, or
+	 * null if the values are held by the underlying SimpleVariableStore.
+	 */
+	private final WriteableVariableStore storage;
+
 	/**
 	 * The listeners, identified by priority and which VariableID they are listening to.
 	 */
@@ -46,6 +58,32 @@ public class MonitorableVariableStore extends SimpleVariableStore
 	private final MapToList<Integer, EnhancedWeakReference<VariableListener<?>>> generalListenerList =
 			new TreeMapToList<>();
 
+	/**
+	 * Constructs a new MonitorableVariableStore which holds values as a
+	 * SimpleVariableStore.
+	 */
+	public MonitorableVariableStore()
+	{
+		storage = null;
+	}
+
+	/**
+	 * Constructs a new MonitorableVariableStore which holds values in the given
+	 * WriteableVariableStore.
+	 * 
+	 * It is assumed that the WriteableVariableStore provided will not be written by any
+	 * other object, as changes made directly to that WriteableVariableStore will not be
+	 * reported to VariableListeners.
+	 * 
+	 * @param storage
+	 *            The WriteableVariableStore which will hold the values of this
+	 *            MonitorableVariableStore
+	 */
+	public MonitorableVariableStore(WriteableVariableStore storage)
+	{
+		this.storage = Objects.requireNonNull(storage);
+	}
+
 	/**
 	 * Adds a VariableListener for the given VariableID.
 	 * 
@@ -206,10 +244,29 @@ public class MonitorableVariableStore extends SimpleVariableStore
 				.removeFromListFor(priority, reference));
 	}
 
+	@Override
+	public <T> T get(VariableID<T> varID)
+	{
+		return (storage == null) ? super.get(varID) : storage.get(varID);
+	}
+
+	@Override
+	public boolean containsVariable(VariableID<?> varID)
+	{
+		return (storage == null) ? super.containsVariable(varID)
+			: storage.containsVariable(varID);
+	}
+
+	@Override
+	public Collection<VariableID<?>> getVariables()
+	{
+		return (storage == null) ? super.getVariables() : storage.getVariables();
+	}
+
 	@Override
 	public <T> T put(VariableID<T> varID, T value)
 	{
-		T old = super.put(varID, value);
+		T old = (storage == null) ? super.put(varID, value) : storage.put(varID, value);
 		if (!value.equals(old))
 		{
 			fireVariableChanged(varID, old, value);
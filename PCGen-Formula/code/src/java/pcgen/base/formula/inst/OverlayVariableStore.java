@@ -0,0 +1,87 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.formula.inst;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import pcgen.base.formula.base.VariableID;
+import pcgen.base.formula.base.VariableStore;
+
+/**
+ * An OverlayVariableStore is a WriteableVariableStore that records values locally, while
+ * resolving any VariableID it does not contain from an underlying VariableStore.
+ * 
+ * The underlying VariableStore is never written by an OverlayVariableStore. This allows
+ * an OverlayVariableStore to be used as a thread-confined "slice" of a shared
+ * VariableStore, provided the shared VariableStore is not written while the slice is in
+ * use. The values in the slice can later be merged into the shared VariableStore (see
+ * WriteableVariableStore.importFrom).
+ */
+public class OverlayVariableStore extends SimpleVariableStore
+{
+
+	/**
+	 * The underlying VariableStore used by this OverlayVariableStore.
+	 */
+	private final VariableStore backgroundStore;
+
+	/**
+	 * Constructs a new OverlayVariableStore with the given underlying VariableStore.
+	 * 
+	 * @param backgroundStore
+	 *            The underlying VariableStore for this OverlayVariableStore
+	 */
+	public OverlayVariableStore(VariableStore backgroundStore)
+	{
+		this.backgroundStore = Objects.requireNonNull(backgroundStore);
+	}
+
+	@Override
+	public <T> T get(VariableID<T> varID)
+	{
+		T result = super.get(varID);
+		return (result == null) ? backgroundStore.get(varID) : result;
+	}
+
+	@Override
+	public boolean containsVariable(VariableID<?> varID)
+	{
+		return super.containsVariable(varID) || backgroundStore.containsVariable(varID);
+	}
+
+	@Override
+	public Collection<VariableID<?>> getVariables()
+	{
+		List<VariableID<?>> variables = new ArrayList<>();
+		variables.addAll(super.getVariables());
+		variables.addAll(backgroundStore.getVariables());
+		return variables;
+	}
+
+	/**
+	 * Returns the VariableIDs for which a value has been placed directly into this
+	 * OverlayVariableStore (not including those only present in the underlying
+	 * VariableStore).
+	 * 
+	 * @return The VariableIDs for which a value has been placed directly into this
+	 *         OverlayVariableStore
+	 */
+	public Collection<VariableID<?>> getLocalVariables()
+	{
+		return super.getVariables();
+	}
+}
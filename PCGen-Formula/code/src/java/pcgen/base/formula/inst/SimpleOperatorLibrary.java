@@ -62,24 +62,26 @@ public class SimpleOperatorLibrary implements OperatorLibrary
 
 	@Override
 	public Object evaluate(Operator operator, Object o)
+	{
+		return getAction(operator, o.getClass())
+			.orElseThrow(() -> new IllegalStateException(
+				"Evaluate called on invalid Unary Operator: "
+						+ operator.getSymbol() + " cannot process "
+						+ o.getClass().getSimpleName()))
+			.evaluate(o);
+	}
+
+	@Override
+	public Optional<UnaryAction> getAction(Operator operator, Class<?> format)
 	{
 		List<UnaryAction> actionList = unaryMTL.getListFor(operator);
 		if (actionList == null)
 		{
-			throw new IllegalStateException(
-				"Evaluate called on invalid Unary Operator: "
-					+ operator.getSymbol() + " cannot process "
-					+ o.getClass().getSimpleName());
+			return Optional.empty();
 		}
 		return actionList.stream()
-				.filter(
-					action -> action.abstractEvaluate(o.getClass()).isPresent())
-				.findFirst()
-				.orElseThrow(() -> new IllegalStateException(
-					"Evaluate called on invalid Unary Operator: "
-							+ operator.getSymbol() + " cannot process "
-							+ o.getClass().getSimpleName()))
-				.evaluate(o);
+				.filter(action -> action.abstractEvaluate(format).isPresent())
+				.findFirst();
 	}
 
 	@Override
@@ -101,26 +103,29 @@ public class SimpleOperatorLibrary implements OperatorLibrary
 	@Override
 	public Object evaluate(Operator operator, Object left, Object right,
 		Optional<FormatManager<?>> asserted)
+	{
+		return getAction(operator, left.getClass(), right.getClass(), asserted)
+			.orElseThrow(() -> new IllegalStateException(
+				"Evaluate called on invalid Operator: "
+						+ operator.getSymbol() + " cannot process "
+						+ left.getClass().getSimpleName() + " and "
+						+ right.getClass().getSimpleName()))
+			.evaluate(left, right);
+	}
+
+	@Override
+	public Optional<OperatorAction> getAction(Operator operator, Class<?> format1,
+		Class<?> format2, Optional<FormatManager<?>> asserted)
 	{
 		List<OperatorAction> actionList = operatorMTL.getListFor(operator);
 		if (actionList == null)
 		{
-			throw new IllegalStateException(
-				"Evaluate called on invalid Operator: " + operator.getSymbol()
-				+ " cannot process " + left.getClass().getSimpleName() + " and "
-				+ right.getClass().getSimpleName());
+			return Optional.empty();
 		}
 		return actionList.stream()
 				.filter(action -> action
-					.abstractEvaluate(left.getClass(), right.getClass(), asserted)
-					.isPresent())
-				.findFirst()
-				.orElseThrow(() -> new IllegalStateException(
-					"Evaluate called on invalid Operator: "
-							+ operator.getSymbol() + " cannot process "
-							+ left.getClass().getSimpleName() + " and "
-							+ right.getClass().getSimpleName()))
-				.evaluate(left, right);
+					.abstractEvaluate(format1, format2, asserted).isPresent())
+				.findFirst();
 	}
 
 	@Override
@@ -0,0 +1,209 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.formula.inst;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import pcgen.base.formula.base.ImplementedScope;
+import pcgen.base.formula.base.ScopeInstance;
+import pcgen.base.formula.base.VariableID;
+import pcgen.base.lang.CaseInsensitiveString;
+import pcgen.base.util.FormatManager;
+
+/**
+ * A VariableIndex assigns each variable definition a dense, non-negative integer slot.
+ * 
+ * A variable definition is identified by the ImplementedScope, name and format of a
+ * VariableID, but not by its ScopeInstance. All VariableIDs that differ only in their
+ * ScopeInstance (e.g. the same variable on two characters, or on two objects of the same
+ * scope) are therefore assigned the same slot. Slots are numbered separately for each
+ * ImplementedScope, starting at zero, so the slots of a scope are bounded by the number
+ * of variables defined in that scope.
+ * 
+ * A VariableIndex is intended to be shared by every IndexedVariableStore built from the
+ * same data (e.g. every character using a given dataset). Since it holds no
+ * ScopeInstance, it does not retain any object (or character) owning a variable. Slots
+ * can be assigned as variables are loaded (see intern), but will also be assigned on
+ * demand.
+ * 
+ * A VariableIndex is safe for use by multiple threads.
+ */
+public class VariableIndex
+{
+
+	/**
+	 * The variable definitions of each ImplementedScope.
+	 */
+	private final Map<ImplementedScope, ScopeIndex> scopes = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the slot for the given VariableID, assigning a new slot if the variable
+	 * definition of the VariableID has not previously been interned in this
+	 * VariableIndex.
+	 * 
+	 * @param varID
+	 *            The VariableID for which the slot should be returned
+	 * @return The slot for the given VariableID
+	 */
+	public int intern(VariableID<?> varID)
+	{
+		return scopes.computeIfAbsent(getImplementedScope(varID), s -> new ScopeIndex())
+			.intern(new Definition(varID));
+	}
+
+	/**
+	 * Returns the slot for the given VariableID, or -1 if the variable definition of the
+	 * VariableID has not been interned in this VariableIndex.
+	 * 
+	 * @param varID
+	 *            The VariableID for which the slot should be returned
+	 * @return The slot for the given VariableID, or -1 if the variable definition of the
+	 *         VariableID has not been interned in this VariableIndex
+	 */
+	public int getSlot(VariableID<?> varID)
+	{
+		ScopeIndex scopeIndex = scopes.get(getImplementedScope(varID));
+		return (scopeIndex == null) ? -1 : scopeIndex.getSlot(new Definition(varID));
+	}
+
+	/**
+	 * Returns the VariableID in the given ScopeInstance for the variable definition
+	 * assigned to the given slot.
+	 * 
+	 * @param scopeInst
+	 *            The ScopeInstance of the VariableID to be returned
+	 * @param slot
+	 *            The slot for which the VariableID should be returned
+	 * @return The VariableID in the given ScopeInstance for the variable definition
+	 *         assigned to the given slot
+	 */
+	public VariableID<?> getVariableID(ScopeInstance scopeInst, int slot)
+	{
+		return scopes.get(scopeInst.getImplementedScope()).getDefinition(slot)
+			.getVariableID(scopeInst);
+	}
+
+	/**
+	 * Returns the number of slots assigned in this VariableIndex for the given
+	 * ImplementedScope.
+	 * 
+	 * @param scope
+	 *            The ImplementedScope for which the number of slots should be returned
+	 * @return The number of slots assigned in this VariableIndex for the given
+	 *         ImplementedScope
+	 */
+	public int size(ImplementedScope scope)
+	{
+		ScopeIndex scopeIndex = scopes.get(scope);
+		return (scopeIndex == null) ? 0 : scopeIndex.size();
+	}
+
+	private static ImplementedScope getImplementedScope(VariableID<?> varID)
+	{
+		return varID.getScope().getImplementedScope();
+	}
+
+	/**
+	 * The slots of the variables defined in one ImplementedScope.
+	 */
+	private static final class ScopeIndex
+	{
+		/**
+		 * The slot assigned to each Definition.
+		 */
+		private final Map<Definition, Integer> slots = new ConcurrentHashMap<>();
+
+		/**
+		 * The Definitions in this ScopeIndex, in slot order.
+		 */
+		private final List<Definition> definitions = new ArrayList<>();
+
+		private int intern(Definition definition)
+		{
+			Integer slot = slots.get(definition);
+			return (slot == null) ? assign(definition) : slot;
+		}
+
+		private synchronized int assign(Definition definition)
+		{
+			Integer slot = slots.get(definition);
+			if (slot == null)
+			{
+				slot = definitions.size();
+				definitions.add(definition);
+				slots.put(definition, slot);
+			}
+			return slot;
+		}
+
+		private int getSlot(Definition definition)
+		{
+			Integer slot = slots.get(definition);
+			return (slot == null) ? -1 : slot;
+		}
+
+		private synchronized Definition getDefinition(int slot)
+		{
+			return definitions.get(slot);
+		}
+
+		private synchronized int size()
+		{
+			return definitions.size();
+		}
+	}
+
+	/**
+	 * The name and format of a variable, independent of the ScopeInstance of any
+	 * VariableID.
+	 */
+	private static final class Definition
+	{
+		private final CaseInsensitiveString name;
+
+		private final FormatManager<?> formatManager;
+
+		private Definition(VariableID<?> varID)
+		{
+			name = new CaseInsensitiveString(varID.getName());
+			formatManager = varID.getFormatManager();
+		}
+
+		private VariableID<?> getVariableID(ScopeInstance scopeInst)
+		{
+			return new VariableID<>(scopeInst, formatManager, name.toString());
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return name.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (obj instanceof Definition)
+			{
+				Definition other = (Definition) obj;
+				return name.equals(other.name)
+					&& formatManager.equals(other.formatManager);
+			}
+			return false;
+		}
+	}
+}
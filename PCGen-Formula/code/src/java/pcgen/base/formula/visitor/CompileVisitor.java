@@ -0,0 +1,701 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.formula.visitor;
+
+import java.lang.reflect.Array;
+import java.util.Objects;
+import java.util.Optional;
+
+import pcgen.base.formula.base.CompiledExpression;
+import pcgen.base.formula.base.EvaluationManager;
+import pcgen.base.formula.base.FormulaFunction;
+import pcgen.base.formula.base.FunctionLibrary;
+import pcgen.base.formula.base.ImplementedScope;
+import pcgen.base.formula.base.OperatorAction;
+import pcgen.base.formula.base.OperatorLibrary;
+import pcgen.base.formula.base.ScopeInstance;
+import pcgen.base.formula.base.UnaryAction;
+import pcgen.base.formula.base.VariableID;
+import pcgen.base.formula.base.VariableLibrary;
+import pcgen.base.formula.base.VariableStore;
+import pcgen.base.formula.parse.ASTArithmetic;
+import pcgen.base.formula.parse.ASTEquality;
+import pcgen.base.formula.parse.ASTExpon;
+import pcgen.base.formula.parse.ASTFParen;
+import pcgen.base.formula.parse.ASTGeometric;
+import pcgen.base.formula.parse.ASTLogical;
+import pcgen.base.formula.parse.ASTNum;
+import pcgen.base.formula.parse.ASTPCGenBracket;
+import pcgen.base.formula.parse.ASTPCGenLookup;
+import pcgen.base.formula.parse.ASTPCGenSingleWord;
+import pcgen.base.formula.parse.ASTParen;
+import pcgen.base.formula.parse.ASTQuotString;
+import pcgen.base.formula.parse.ASTRelational;
+import pcgen.base.formula.parse.ASTRoot;
+import pcgen.base.formula.parse.ASTUnaryMinus;
+import pcgen.base.formula.parse.ASTUnaryNot;
+import pcgen.base.formula.parse.FormulaParserVisitor;
+import pcgen.base.formula.parse.Node;
+import pcgen.base.formula.parse.Operator;
+import pcgen.base.formula.parse.SimpleNode;
+import pcgen.base.util.FormatManager;
+
+/**
+ * CompileVisitor visits a formula in tree form in order to compile the formula into a
+ * CompiledExpression. The result of evaluating the CompiledExpression is identical to
+ * the result of visiting the tree with an EvaluateVisitor.
+ * 
+ * The data parameter to the visit methods should be an EvaluationManager that contains
+ * the libraries (FunctionLibrary, OperatorLibrary and VariableLibrary), the
+ * ScopeInstance and the asserted format that will be present when the
+ * CompiledExpression is evaluated. The VariableStore in the EvaluationManager is not
+ * used during compilation.
+ * 
+ * The FormulaFunction for each function call, the format of each variable and the
+ * asserted format of each node are resolved during compilation. The OperatorAction for
+ * each operator is resolved on first use and reused as long as the classes of the
+ * arguments do not change.
+ * 
+ * The arguments to a FormulaFunction are still evaluated by an EvaluateVisitor, as
+ * required by the contract of FormulaFunction.
+ * 
+ * CompileVisitor has the same expectations as EvaluateVisitor with respect to the
+ * validity of the formula: Its behavior is not defined if SemanticsVisitor indicated
+ * the formula is not valid.
+ */
+@SuppressWarnings({"PMD.TooManyMethods", "PMD.ExcessiveImports"})
+public class CompileVisitor implements FormulaParserVisitor
+{
+
+	/**
+	 * The EvaluateVisitor used to evaluate the arguments to FormulaFunctions (and any
+	 * portion of the formula which cannot be compiled).
+	 */
+	private static final EvaluateVisitor EVALUATE_VISITOR = new EvaluateVisitor();
+
+	/**
+	 * Visits a SimpleNode. Because this cannot be processed, due to lack of knowledge as
+	 * to the exact type of SimpleNode encountered, the node is visited, which - through
+	 * double dispatch - will result in another method on this CompileVisitor being
+	 * called.
+	 */
+	@Override
+	public Object visit(SimpleNode node, Object data)
+	{
+		//Delegate to the appropriate class
+		return node.jjtAccept(this, data);
+	}
+
+	/**
+	 * Compiles the (single) child of this node, as a root is simply a structural
+	 * placeholder.
+	 */
+	@Override
+	public Object visit(ASTRoot node, Object data)
+	{
+		return compileSingleChild(node, data);
+	}
+
+	/**
+	 * Compiles the node, based on the Operator in the node.
+	 */
+	@Override
+	public Object visit(ASTLogical node, Object data)
+	{
+		return compileRelational(node, data);
+	}
+
+	/**
+	 * Compiles the node, based on the Operator in the node.
+	 */
+	@Override
+	public Object visit(ASTEquality node, Object data)
+	{
+		return compileRelational(node, data);
+	}
+
+	/**
+	 * Compiles the node, based on the Operator in the node.
+	 */
+	@Override
+	public Object visit(ASTRelational node, Object data)
+	{
+		return compileRelational(node, data);
+	}
+
+	/**
+	 * Compiles the node, based on the Operator in the node.
+	 */
+	@Override
+	public Object visit(ASTArithmetic node, Object data)
+	{
+		return compileOperatorNode(node, data);
+	}
+
+	/**
+	 * Compiles the node, based on the Operator in the node.
+	 */
+	@Override
+	public Object visit(ASTGeometric node, Object data)
+	{
+		return compileOperatorNode(node, data);
+	}
+
+	/**
+	 * Compiles the node, which is a unary negation.
+	 */
+	@Override
+	public Object visit(ASTUnaryMinus node, Object data)
+	{
+		return compileUnaryNode(node, data);
+	}
+
+	/**
+	 * Compiles the node, which is a unary negation.
+	 */
+	@Override
+	public Object visit(ASTUnaryNot node, Object data)
+	{
+		return compileUnaryNode(node, data);
+	}
+
+	/**
+	 * Compiles the exponential node.
+	 */
+	@Override
+	public Object visit(ASTExpon node, Object data)
+	{
+		return compileOperatorNode(node, data);
+	}
+
+	/**
+	 * Compiles the (single) child of this node, as grouping parenthesis are logically
+	 * present only to define order of operations (now implicit in the tree structure).
+	 */
+	@Override
+	public Object visit(ASTParen node, Object data)
+	{
+		return compileSingleChild(node, data);
+	}
+
+	/**
+	 * Compiles the node, which is a numeric value, into a constant.
+	 */
+	@Override
+	public Object visit(ASTNum node, Object data)
+	{
+		Object value = EVALUATE_VISITOR.visit(node, data);
+		return (CompiledExpression) manager -> value;
+	}
+
+	/**
+	 * Compiles a FormulaFunction or an array variable encountered in the formula.
+	 * 
+	 * The FormulaFunction being called is resolved from the FunctionLibrary during
+	 * compilation.
+	 */
+	@Override
+	public Object visit(ASTPCGenLookup node, Object data)
+	{
+		EvaluationManager context = (EvaluationManager) data;
+		ASTPCGenSingleWord fnode = (ASTPCGenSingleWord) node.jjtGetChild(0);
+		String name = fnode.getText();
+		Node argNode = node.jjtGetChild(1);
+		Node[] args = VisitorUtilities.accumulateArguments(argNode);
+		if (argNode instanceof ASTFParen)
+		{
+			FunctionLibrary ftnLib = context.get(EvaluationManager.FUNCTION);
+			FormulaFunction function =
+					(ftnLib == null) ? null : ftnLib.getFunction(name);
+			if (function == null)
+			{
+				return compileUncompiled(node, context);
+			}
+			Optional<FormatManager<?>> asserted =
+					context.get(EvaluationManager.ASSERTED);
+			return (CompiledExpression) manager -> function.evaluate(EVALUATE_VISITOR,
+				args.clone(), withAsserted(manager, asserted));
+		}
+		else if (argNode instanceof ASTPCGenBracket)
+		{
+			CompiledExpression array = compileVariable(name, context);
+			CompiledExpression index =
+					(CompiledExpression) visit((SimpleNode) args[0], data);
+			return (CompiledExpression) manager -> Array
+				.get(array.evaluate(manager), (Integer) index.evaluate(manager));
+		}
+		throw new IllegalStateException("Invalid Formula (unrecognized node: "
+			+ argNode + ")");
+	}
+
+	/**
+	 * Compiles a variable within the formula.
+	 */
+	@Override
+	public Object visit(ASTPCGenSingleWord node, Object data)
+	{
+		return compileVariable(node.getText(), (EvaluationManager) data);
+	}
+
+	/**
+	 * This type of node is ONLY encountered as part of a function. Reaching this node in
+	 * CompileVisitor indicates a tree structure problem in the formula.
+	 */
+	@Override
+	public Object visit(ASTPCGenBracket node, Object data)
+	{
+		//Should be stripped by the FormulaFunction
+		throw new IllegalStateException(
+			"Compile called on invalid Formula (reached Function Brackets)");
+	}
+
+	/**
+	 * This type of node is ONLY encountered as part of a function. Reaching this node in
+	 * CompileVisitor indicates a tree structure problem in the formula.
+	 */
+	@Override
+	public Object visit(ASTFParen node, Object data)
+	{
+		//Should be stripped by the FormulaFunction
+		throw new IllegalStateException(
+			"Compile called on invalid Formula (reached Function Parenthesis)");
+	}
+
+	/**
+	 * Compiles a Quoted String. The asserted format (if any) used to convert the String
+	 * is resolved during compilation.
+	 */
+	@Override
+	public Object visit(ASTQuotString node, Object data)
+	{
+		EvaluationManager context = (EvaluationManager) data;
+		Optional<FormatManager<?>> asserted = context.get(EvaluationManager.ASSERTED);
+		String text = node.getText();
+		if (!asserted.isPresent())
+		{
+			return (CompiledExpression) manager -> text;
+		}
+		FormatManager<?> formatManager = asserted.get();
+		return (CompiledExpression) manager -> {
+			try
+			{
+				return formatManager.convert(text);
+			}
+			catch (IllegalArgumentException e)
+			{
+				//Give up and return a String
+				return text;
+			}
+		};
+	}
+
+	/**
+	 * Compiles an operator node. Must have 2 children and a node that contains an
+	 * Operator.
+	 * 
+	 * @param node
+	 *            The node that contains an Operator and has exactly 2 children.
+	 * @param data
+	 *            The EvaluationManager used in compilation
+	 * @return The CompiledExpression for the operation acting on the 2 children
+	 */
+	private CompiledExpression compileOperatorNode(SimpleNode node, Object data)
+	{
+		CompiledExpression left =
+				(CompiledExpression) node.jjtGetChild(0).jjtAccept(this, data);
+		CompiledExpression right =
+				(CompiledExpression) node.jjtGetChild(1).jjtAccept(this, data);
+		EvaluationManager context = (EvaluationManager) data;
+		return new BinaryExpression(context.get(EvaluationManager.OPLIB),
+			node.getOperator(), context.get(EvaluationManager.ASSERTED), left, right);
+	}
+
+	/**
+	 * Compiles an operator node. Must have 1 child and a node that contains a Unary
+	 * Operator.
+	 * 
+	 * @param node
+	 *            The node that contains a Unary Operator and has exactly 1 child.
+	 * @param data
+	 *            The EvaluationManager used in compilation
+	 * @return The CompiledExpression for the operation acting on the child
+	 */
+	private CompiledExpression compileUnaryNode(SimpleNode node, Object data)
+	{
+		CompiledExpression argument =
+				(CompiledExpression) node.jjtGetChild(0).jjtAccept(this, data);
+		EvaluationManager context = (EvaluationManager) data;
+		return new UnaryExpression(context.get(EvaluationManager.OPLIB),
+			node.getOperator(), argument);
+	}
+
+	/**
+	 * Compiles a single child node.
+	 * 
+	 * @param node
+	 *            The node for which the (single) child will be compiled
+	 * @param data
+	 *            The EvaluationManager used in compilation
+	 * @return The CompiledExpression for the child of the given node
+	 */
+	private Object compileSingleChild(SimpleNode node, Object data)
+	{
+		return node.jjtGetChild(0).jjtAccept(this, data);
+	}
+
+	/**
+	 * Compiles a relational node. Must have 2 children and a node that contains an
+	 * Operator.
+	 * 
+	 * @param node
+	 *            The node that contains an Operator and has exactly 2 children.
+	 * @param data
+	 *            The EvaluationManager used in compilation
+	 * @return The CompiledExpression for the operation acting on the 2 children
+	 */
+	private CompiledExpression compileRelational(SimpleNode node, Object data)
+	{
+		EvaluationManager context = (EvaluationManager) data;
+		//Pass in empty since we can't assert what each side of the logical expression is
+		return compileOperatorNode(node,
+			context.getWith(EvaluationManager.ASSERTED, Optional.empty()));
+	}
+
+	/**
+	 * Compiles a specific variable. If the variable is legal, the format of the variable
+	 * is resolved during compilation. Otherwise, the variable is processed by the
+	 * EvaluateVisitor during evaluation.
+	 * 
+	 * @param varName
+	 *            The name of the variable to be compiled
+	 * @param context
+	 *            The EvaluationManager used in compilation
+	 * @return The CompiledExpression for the given variable
+	 */
+	private CompiledExpression compileVariable(String varName,
+		EvaluationManager context)
+	{
+		VariableLibrary varLibrary = context.get(EvaluationManager.VARLIB);
+		ScopeInstance scopeInst = context.get(EvaluationManager.INSTANCE);
+		if ((varLibrary != null) && (scopeInst != null))
+		{
+			Optional<FormatManager<?>> formatManager = varLibrary
+				.getVariableFormat(scopeInst.getImplementedScope(), varName);
+			if (formatManager.isPresent())
+			{
+				return new VariableExpression(varLibrary, varName, formatManager.get());
+			}
+		}
+		Optional<FormatManager<?>> asserted = context.get(EvaluationManager.ASSERTED);
+		return manager -> EVALUATE_VISITOR.visitVariable(varName,
+			withAsserted(manager, asserted));
+	}
+
+	/**
+	 * Returns a CompiledExpression that simply uses the EvaluateVisitor to evaluate the
+	 * given node.
+	 * 
+	 * @param node
+	 *            The node to be evaluated by the EvaluateVisitor
+	 * @param context
+	 *            The EvaluationManager used in compilation
+	 * @return A CompiledExpression that evaluates the given node with the EvaluateVisitor
+	 */
+	private CompiledExpression compileUncompiled(SimpleNode node,
+		EvaluationManager context)
+	{
+		Optional<FormatManager<?>> asserted = context.get(EvaluationManager.ASSERTED);
+		return manager -> EVALUATE_VISITOR.visit(node, withAsserted(manager, asserted));
+	}
+
+	/**
+	 * Returns an EvaluationManager equivalent to the given EvaluationManager, except
+	 * with the given asserted format. Returns the given EvaluationManager if it already
+	 * has the given asserted format.
+	 * 
+	 * @param manager
+	 *            The EvaluationManager provided for evaluation
+	 * @param asserted
+	 *            The asserted format (as resolved during compilation)
+	 * @return An EvaluationManager with the given asserted format
+	 */
+	private static EvaluationManager withAsserted(EvaluationManager manager,
+		Optional<FormatManager<?>> asserted)
+	{
+		if (manager.get(EvaluationManager.ASSERTED).equals(asserted))
+		{
+			return manager;
+		}
+		return manager.getWith(EvaluationManager.ASSERTED, asserted);
+	}
+
+	/**
+	 * A BinaryExpression is the CompiledExpression for an Operator acting on two
+	 * arguments.
+	 */
+	private static final class BinaryExpression implements CompiledExpression
+	{
+		/**
+		 * The OperatorLibrary used to resolve the OperatorAction.
+		 */
+		private final OperatorLibrary opLib;
+
+		/**
+		 * The Operator for this BinaryExpression.
+		 */
+		private final Operator operator;
+
+		/**
+		 * The asserted format for this BinaryExpression.
+		 */
+		private final Optional<FormatManager<?>> asserted;
+
+		/**
+		 * The CompiledExpression for the first argument.
+		 */
+		private final CompiledExpression left;
+
+		/**
+		 * The CompiledExpression for the second argument.
+		 */
+		private final CompiledExpression right;
+
+		/**
+		 * The most recently resolved OperatorAction (and the classes for which it was
+		 * resolved).
+		 */
+		private volatile ActionBinding<OperatorAction> binding;
+
+		private BinaryExpression(OperatorLibrary opLib, Operator operator,
+			Optional<FormatManager<?>> asserted, CompiledExpression left,
+			CompiledExpression right)
+		{
+			this.opLib = Objects.requireNonNull(opLib);
+			this.operator = Objects.requireNonNull(operator);
+			this.asserted = asserted;
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		public Object evaluate(EvaluationManager manager)
+		{
+			Object leftResult = left.evaluate(manager);
+			Object rightResult = right.evaluate(manager);
+			Class<?> leftClass = leftResult.getClass();
+			Class<?> rightClass = rightResult.getClass();
+			ActionBinding<OperatorAction> current = binding;
+			if ((current == null) || !current.matches(leftClass, rightClass))
+			{
+				Optional<OperatorAction> action =
+						opLib.getAction(operator, leftClass, rightClass, asserted);
+				if (!action.isPresent())
+				{
+					//Let the library report the problem
+					return opLib.evaluate(operator, leftResult, rightResult, asserted);
+				}
+				current = new ActionBinding<>(leftClass, rightClass, action.get());
+				binding = current;
+			}
+			return current.action.evaluate(leftResult, rightResult);
+		}
+	}
+
+	/**
+	 * A UnaryExpression is the CompiledExpression for a Unary Operator acting on one
+	 * argument.
+	 */
+	private static final class UnaryExpression implements CompiledExpression
+	{
+		/**
+		 * The OperatorLibrary used to resolve the UnaryAction.
+		 */
+		private final OperatorLibrary opLib;
+
+		/**
+		 * The Unary Operator for this UnaryExpression.
+		 */
+		private final Operator operator;
+
+		/**
+		 * The CompiledExpression for the argument.
+		 */
+		private final CompiledExpression argument;
+
+		/**
+		 * The most recently resolved UnaryAction (and the class for which it was
+		 * resolved).
+		 */
+		private volatile ActionBinding<UnaryAction> binding;
+
+		private UnaryExpression(OperatorLibrary opLib, Operator operator,
+			CompiledExpression argument)
+		{
+			this.opLib = Objects.requireNonNull(opLib);
+			this.operator = Objects.requireNonNull(operator);
+			this.argument = argument;
+		}
+
+		@Override
+		public Object evaluate(EvaluationManager manager)
+		{
+			Object result = argument.evaluate(manager);
+			Class<?> resultClass = result.getClass();
+			ActionBinding<UnaryAction> current = binding;
+			if ((current == null) || !current.matches(resultClass, null))
+			{
+				Optional<UnaryAction> action = opLib.getAction(operator, resultClass);
+				if (!action.isPresent())
+				{
+					//Let the library report the problem
+					return opLib.evaluate(operator, result);
+				}
+				current = new ActionBinding<>(resultClass, null, action.get());
+				binding = current;
+			}
+			return current.action.evaluate(result);
+		}
+	}
+
+	/**
+	 * An ActionBinding is an immutable record of the action resolved for a given set of
+	 * argument classes.
+	 * 
+	 * @param <A>
+	 *            The type of action stored by this ActionBinding
+	 */
+	private static final class ActionBinding<A>
+	{
+		/**
+		 * The class of the first argument.
+		 */
+		private final Class<?> firstClass;
+
+		/**
+		 * The class of the second argument (null for a Unary Operator).
+		 */
+		private final Class<?> secondClass;
+
+		/**
+		 * The action resolved for the classes in this ActionBinding.
+		 */
+		private final A action;
+
+		private ActionBinding(Class<?> firstClass, Class<?> secondClass, A action)
+		{
+			this.firstClass = firstClass;
+			this.secondClass = secondClass;
+			this.action = action;
+		}
+
+		private boolean matches(Class<?> first, Class<?> second)
+		{
+			return (firstClass == first) && (secondClass == second);
+		}
+	}
+
+	/**
+	 * A VariableExpression is the CompiledExpression for a legal variable.
+	 */
+	private static final class VariableExpression implements CompiledExpression
+	{
+		/**
+		 * The VariableLibrary used to resolve the VariableID.
+		 */
+		private final VariableLibrary varLibrary;
+
+		/**
+		 * The name of the variable.
+		 */
+		private final String varName;
+
+		/**
+		 * The FormatManager for the variable.
+		 */
+		private final FormatManager<?> formatManager;
+
+		/**
+		 * How the variable was most recently resolved (and the ImplementedScope for which
+		 * it was resolved). This is keyed by the ImplementedScope rather than the
+		 * ScopeInstance, so it is shared by every character evaluating this expression
+		 * and does not retain any ScopeInstance.
+		 */
+		private volatile ScopeResolution resolved;
+
+		private VariableExpression(VariableLibrary varLibrary, String varName,
+			FormatManager<?> formatManager)
+		{
+			this.varLibrary = varLibrary;
+			this.varName = varName;
+			this.formatManager = formatManager;
+		}
+
+		@Override
+		public Object evaluate(EvaluationManager manager)
+		{
+			ScopeInstance scopeInst = manager.get(EvaluationManager.INSTANCE);
+			VariableID<?> varID = getVariableID(scopeInst);
+			VariableStore resolver = manager.get(EvaluationManager.RESULTS);
+			if (resolver.containsVariable(varID))
+			{
+				return resolver.get(varID);
+			}
+			return varLibrary.getDefault(formatManager);
+		}
+
+		private VariableID<?> getVariableID(ScopeInstance scopeInst)
+		{
+			ImplementedScope implScope = scopeInst.getImplementedScope();
+			ScopeResolution current = resolved;
+			if ((current != null) && (current.implScope == implScope)
+				&& (current.localFormat != null))
+			{
+				return new VariableID<>(scopeInst, current.localFormat, varName);
+			}
+			VariableID<?> varID = varLibrary.getVariableID(scopeInst, varName);
+			if ((current == null) || (current.implScope != implScope))
+			{
+				resolved = new ScopeResolution(implScope,
+					(varID.getScope() == scopeInst) ? varID.getFormatManager() : null);
+			}
+			return varID;
+		}
+	}
+
+	/**
+	 * A ScopeResolution is an immutable record of how a variable is resolved for the
+	 * ScopeInstances of a given ImplementedScope.
+	 */
+	private static final class ScopeResolution
+	{
+		/**
+		 * The ImplementedScope for which the variable was resolved.
+		 */
+		private final ImplementedScope implScope;
+
+		/**
+		 * The FormatManager of the variable if it is defined in the ImplementedScope
+		 * itself, so that the VariableID is in the ScopeInstance being evaluated. null if
+		 * the variable is drawn from another scope, in which case the VariableLibrary
+		 * must resolve the ScopeInstance holding the variable.
+		 */
+		private final FormatManager<?> localFormat;
+
+		private ScopeResolution(ImplementedScope implScope, FormatManager<?> localFormat)
+		{
+			this.implScope = implScope;
+			this.localFormat = localFormat;
+		}
+	}
+}
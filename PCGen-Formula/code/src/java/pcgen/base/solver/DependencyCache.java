@@ -0,0 +1,411 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.solver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import pcgen.base.formula.base.DependencyManager;
+import pcgen.base.formula.base.DependencyStrategy;
+import pcgen.base.formula.base.DynamicManager;
+import pcgen.base.formula.base.ImplementedScope;
+import pcgen.base.formula.base.IndirectDependency;
+import pcgen.base.formula.base.ScopeInstance;
+import pcgen.base.formula.base.StaticStrategy;
+import pcgen.base.formula.base.VariableID;
+import pcgen.base.formula.base.VariableList;
+import pcgen.base.util.FormatManager;
+import pcgen.base.util.Indirect;
+import pcgen.base.util.TypedKey;
+
+/**
+ * A DependencyCache stores the dependencies captured from a Modifier, so that the
+ * Modifier does not need to be analyzed again when it is added to (or remains on) a
+ * variable in another ScopeInstance of the same ImplementedScope.
+ * 
+ * The dependencies are keyed by the Modifier, the ImplementedScope in which the
+ * Modifier is evaluated and the asserted format. As the VariableIDs captured from a
+ * Modifier are bound to a ScopeInstance, they are not stored directly. Instead, the
+ * names of the variables visited during the analysis are stored, and are resolved
+ * (through the StaticStrategy of the DependencyManager) each time the dependencies are
+ * used. This relies on the analysis of a Modifier depending only on the ImplementedScope,
+ * as is already the case for FormulaSemantics.
+ * 
+ * Only Modifiers whose dependencies are fully described by those variable names (and any
+ * indirect dependencies) are stored. A Modifier with dynamic dependencies, or one that
+ * adds VariableIDs in another way, is analyzed each time it is used.
+ * 
+ * A DependencyCache holds a limited number of entries, discarding the least recently
+ * used entry when full. A DependencyCache is placed into a DependencyManager (using KEY)
+ * by a SolverDependencyManager; it assumes that the other contents of the
+ * DependencyManager (the libraries) do not change.
+ * 
+ * DependencyCache is thread-safe.
+ */
+public class DependencyCache
+{
+	/**
+	 * A TypedKey for use in storing a DependencyCache in a DependencyManager.
+	 */
+	public static final TypedKey<Optional<DependencyCache>> KEY =
+			new TypedKey<>(Optional.empty());
+
+	/**
+	 * The default maximum number of entries in a DependencyCache.
+	 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+	/**
+	 * Stored for a Modifier whose dependencies cannot be reused.
+	 */
+	private static final CapturedDependencies NOT_REUSABLE =
+			new CapturedDependencies(null, null);
+
+	/**
+	 * The captured dependencies in this DependencyCache, in access order.
+	 */
+	private final Map<CacheKey, CapturedDependencies> cache;
+
+	/**
+	 * The number of times a Modifier was analyzed by this DependencyCache.
+	 */
+	private int captureCount = 0;
+
+	/**
+	 * Constructs a new DependencyCache holding at most DEFAULT_MAXIMUM_SIZE entries.
+	 */
+	public DependencyCache()
+	{
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Constructs a new DependencyCache holding at most the given number of entries.
+	 * 
+	 * @param maximumSize
+	 *            The maximum number of entries in the DependencyCache
+	 */
+	public DependencyCache(int maximumSize)
+	{
+		if (maximumSize < 1)
+		{
+			throw new IllegalArgumentException(
+				"DependencyCache size must be positive: " + maximumSize);
+		}
+		cache = new LinkedHashMap<>(16, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(
+				Map.Entry<CacheKey, CapturedDependencies> eldest)
+			{
+				return size() > maximumSize;
+			}
+		};
+	}
+
+	/**
+	 * Captures the dependencies of the given Modifier into the given DependencyManager.
+	 * If the given DependencyManager contains a DependencyCache, it is used to avoid
+	 * repeated analysis of the Modifier.
+	 * 
+	 * @param modifier
+	 *            The Modifier for which the dependencies should be captured
+	 * @param depManager
+	 *            The DependencyManager into which the dependencies should be captured
+	 */
+	public static void captureDependencies(Modifier<?> modifier,
+		DependencyManager depManager)
+	{
+		Optional<DependencyCache> cache = depManager.get(KEY);
+		if (cache.isPresent())
+		{
+			cache.get().capture(modifier, depManager);
+		}
+		else
+		{
+			modifier.captureDependencies(depManager);
+		}
+	}
+
+	/**
+	 * Captures the dependencies of the given Modifier into the given DependencyManager,
+	 * using the dependencies in this DependencyCache if they were previously captured in
+	 * the same ImplementedScope.
+	 * 
+	 * @param modifier
+	 *            The Modifier for which the dependencies should be captured
+	 * @param depManager
+	 *            The DependencyManager into which the dependencies should be captured
+	 */
+	public void capture(Modifier<?> modifier, DependencyManager depManager)
+	{
+		Optional<StaticStrategy> strategy = getStaticStrategy(depManager);
+		ScopeInstance scopeInst = depManager.get(DependencyManager.INSTANCE);
+		if (!strategy.isPresent() || (scopeInst == null))
+		{
+			countCapture();
+			modifier.captureDependencies(depManager);
+			return;
+		}
+		CacheKey key = new CacheKey(modifier, scopeInst.getImplementedScope(),
+			depManager.get(DependencyManager.ASSERTED));
+		CapturedDependencies captured = get(key);
+		if (captured == null)
+		{
+			countCapture();
+			put(key,
+				CapturedDependencies.capture(modifier, depManager, strategy.get()));
+		}
+		else if (captured == NOT_REUSABLE)
+		{
+			countCapture();
+			modifier.captureDependencies(depManager);
+		}
+		else
+		{
+			captured.addTo(depManager, strategy.get());
+		}
+	}
+
+	private static Optional<StaticStrategy> getStaticStrategy(
+		DependencyManager depManager)
+	{
+		Optional<DependencyStrategy> strategy =
+				depManager.get(DependencyManager.VARSTRATEGY);
+		if (strategy.isPresent() && (strategy.get() instanceof StaticStrategy)
+			&& depManager.get(DependencyManager.VARIABLES).isPresent())
+		{
+			return Optional.of((StaticStrategy) strategy.get());
+		}
+		return Optional.empty();
+	}
+
+	private synchronized CapturedDependencies get(CacheKey key)
+	{
+		return cache.get(key);
+	}
+
+	private synchronized void put(CacheKey key, CapturedDependencies captured)
+	{
+		cache.put(key, (captured == null) ? NOT_REUSABLE : captured);
+	}
+
+	private synchronized void countCapture()
+	{
+		captureCount++;
+	}
+
+	/**
+	 * Returns the number of Modifiers for which dependencies are stored in this
+	 * DependencyCache.
+	 * 
+	 * @return The number of Modifiers for which dependencies are stored in this
+	 *         DependencyCache
+	 */
+	public synchronized int size()
+	{
+		return cache.size();
+	}
+
+	/**
+	 * Returns the number of times a Modifier was analyzed (rather than its dependencies
+	 * being reused) by this DependencyCache.
+	 * 
+	 * @return The number of times a Modifier was analyzed by this DependencyCache
+	 */
+	public synchronized int getCaptureCount()
+	{
+		return captureCount;
+	}
+
+	/**
+	 * A CacheKey is the key for captured dependencies in a DependencyCache.
+	 */
+	private static final class CacheKey
+	{
+		/**
+		 * The Modifier from which the dependencies were captured.
+		 */
+		private final Modifier<?> modifier;
+
+		/**
+		 * The ImplementedScope in which the Modifier is evaluated.
+		 */
+		private final ImplementedScope scope;
+
+		/**
+		 * The asserted format of the Modifier.
+		 */
+		private final Optional<FormatManager<?>> asserted;
+
+		private CacheKey(Modifier<?> modifier, ImplementedScope scope,
+			Optional<FormatManager<?>> asserted)
+		{
+			this.modifier = Objects.requireNonNull(modifier);
+			this.scope = scope;
+			this.asserted = asserted;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return modifier.hashCode() * 31 + Objects.hashCode(scope);
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (obj instanceof CacheKey)
+			{
+				CacheKey other = (CacheKey) obj;
+				return modifier.equals(other.modifier)
+					&& Objects.equals(scope, other.scope)
+					&& Objects.equals(asserted, other.asserted);
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * CapturedDependencies is an immutable record of the dependencies captured from a
+	 * Modifier, independent of the ScopeInstance in which they were captured.
+	 */
+	private static final class CapturedDependencies
+	{
+		/**
+		 * The names of the variables upon which the Modifier depends, in the order they
+		 * were visited.
+		 */
+		private final List<String> variableNames;
+
+		/**
+		 * The indirect dependencies of the Modifier (null if the DependencyManager did
+		 * not capture indirect dependencies).
+		 */
+		private final Collection<Indirect<?>> indirects;
+
+		private CapturedDependencies(List<String> variableNames,
+			Collection<Indirect<?>> indirects)
+		{
+			this.variableNames = variableNames;
+			this.indirects = indirects;
+		}
+
+		/**
+		 * Analyzes the given Modifier, capturing its dependencies into the given
+		 * DependencyManager.
+		 * 
+		 * @param modifier
+		 *            The Modifier for which the dependencies should be captured
+		 * @param depManager
+		 *            The DependencyManager into which the dependencies should be
+		 *            captured
+		 * @param strategy
+		 *            The StaticStrategy of the given DependencyManager
+		 * @return The CapturedDependencies for the given Modifier, or null if the
+		 *         dependencies cannot be reused in another ScopeInstance
+		 */
+		private static CapturedDependencies capture(Modifier<?> modifier,
+			DependencyManager depManager, StaticStrategy strategy)
+		{
+			List<String> names = new ArrayList<>();
+			VariableList variableList = new VariableList();
+			DependencyManager captureManager = depManager
+				.getWith(DependencyManager.VARSTRATEGY,
+					Optional.of((DependencyManager dm, String varName) -> {
+						names.add(varName);
+						strategy.addVariable(dm, varName);
+					}))
+				.getWith(DependencyManager.VARIABLES, Optional.of(variableList));
+			DynamicManager dynamicManager = null;
+			if (depManager.get(DependencyManager.DYNAMIC) != null)
+			{
+				dynamicManager = new DynamicManager();
+				captureManager =
+						captureManager.getWith(DependencyManager.DYNAMIC, dynamicManager);
+			}
+			Optional<IndirectDependency> indirects = Optional.empty();
+			if (depManager.get(DependencyManager.INDIRECTS).isPresent())
+			{
+				indirects = Optional.of(new IndirectDependency());
+				captureManager =
+						captureManager.getWith(DependencyManager.INDIRECTS, indirects);
+			}
+			modifier.captureDependencies(captureManager);
+
+			//Pass on what was captured, as if it was captured directly
+			List<VariableID<?>> variables = variableList.getVariables();
+			VariableList target = depManager.get(DependencyManager.VARIABLES).get();
+			variables.forEach(target::add);
+			if (dynamicManager != null)
+			{
+				DynamicManager targetDynamic = depManager.get(DependencyManager.DYNAMIC);
+				dynamicManager.getDependencies().forEach(targetDynamic::addDependency);
+			}
+			indirects.ifPresent(captured -> depManager
+				.get(DependencyManager.INDIRECTS).get().addAll(captured.getIndirects()));
+
+			boolean reusable = ((dynamicManager == null)
+				|| dynamicManager.getDependencies().isEmpty())
+				&& variables.equals(resolve(names, depManager, strategy));
+			if (!reusable)
+			{
+				return null;
+			}
+			return new CapturedDependencies(Collections.unmodifiableList(names),
+				indirects.map(captured -> (Collection<Indirect<?>>) new ArrayList<>(
+					captured.getIndirects())).orElse(null));
+		}
+
+		/**
+		 * Returns the VariableIDs the given StaticStrategy resolves for the given
+		 * variable names.
+		 */
+		private static List<VariableID<?>> resolve(List<String> names,
+			DependencyManager depManager, StaticStrategy strategy)
+		{
+			VariableList variableList = new VariableList();
+			DependencyManager resolveManager = depManager
+				.getWith(DependencyManager.VARIABLES, Optional.of(variableList));
+			names.forEach(name -> strategy.addVariable(resolveManager, name));
+			return variableList.getVariables();
+		}
+
+		/**
+		 * Adds the captured dependencies to the given DependencyManager, resolving the
+		 * variables in the ScopeInstance of the DependencyManager.
+		 * 
+		 * @param depManager
+		 *            The DependencyManager to which the captured dependencies should be
+		 *            added
+		 * @param strategy
+		 *            The StaticStrategy of the given DependencyManager
+		 */
+		private void addTo(DependencyManager depManager, StaticStrategy strategy)
+		{
+			variableNames.forEach(name -> strategy.addVariable(depManager, name));
+			if (indirects != null)
+			{
+				depManager.get(DependencyManager.INDIRECTS)
+					.ifPresent(target -> target.addAll(indirects));
+			}
+		}
+	}
+}
@@ -52,6 +52,12 @@ public class DynamicSolverDependencyManager implements SolverDependencyManager
 	 */
 	private final VariableStore resultStore;
 
+	/**
+	 * The DependencyCache used to avoid repeated capture of the dependencies of a
+	 * Modifier.
+	 */
+	private final DependencyCache dependencyCache;
+
 	/**
 	 * A mathematical graph used to store dependencies between VariableIDs. Since there is
 	 * a 1:1 relationship with the Solver used for a VariableID, this implicitly stores
@@ -88,9 +94,16 @@ public class DynamicSolverDependencyManager implements SolverDependencyManager
 	 */
 	public DynamicSolverDependencyManager(ManagerFactory managerFactory,
 		VariableStore resultStore)
+	{
+		this(managerFactory, resultStore, new DependencyCache());
+	}
+
+	private DynamicSolverDependencyManager(ManagerFactory managerFactory,
+		VariableStore resultStore, DependencyCache dependencyCache)
 	{
 		this.managerFactory = Objects.requireNonNull(managerFactory);
 		this.resultStore = Objects.requireNonNull(resultStore);
+		this.dependencyCache = dependencyCache;
 	}
 
 	@Override
@@ -100,7 +113,7 @@ public class DynamicSolverDependencyManager implements SolverDependencyManager
 		DependencyManager dependencyManager = getDepManager(varID);
 		dependencyManager =
 				dependencyManager.getWith(DependencyManager.INSTANCE, source);
-		modifier.captureDependencies(dependencyManager);
+		DependencyCache.captureDependencies(modifier, dependencyManager);
 		Optional<VariableList> potentialVariables =
 				dependencyManager.get(DependencyManager.VARIABLES);
 		insert(varID, potentialVariables.get().getVariables());
@@ -205,11 +218,19 @@ public class DynamicSolverDependencyManager implements SolverDependencyManager
 			.generateDependencyManager();
 		dependencyManager = dependencyManager.getWith(
 			DependencyManager.ASSERTED, Optional.of(varID.getFormatManager()));
+		dependencyManager = dependencyManager.getWith(DependencyCache.KEY,
+			Optional.of(dependencyCache));
 		dependencyManager = dependencyManager.getWith(DependencyManager.DYNAMIC,
 			new DynamicManager());
 		return managerFactory.withVariables(dependencyManager);
 	}
 
+	@Override
+	public List<List<VariableID<?>>> getPartitions()
+	{
+		return SolverUtilities.partition(dependencies);
+	}
+
 	@Override
 	public void processForChildren(VariableID<?> varID,
 		Consumer<VariableID<?>> consumer)
@@ -235,7 +256,7 @@ public class DynamicSolverDependencyManager implements SolverDependencyManager
 	{
 		DynamicSolverDependencyManager replacement =
 				new DynamicSolverDependencyManager(
-					managerFactory, newVarStore);
+					managerFactory, newVarStore, dependencyCache);
 		for (VariableID<?> varID : dependencies.getNodeList())
 		{
 			replacement.dependencies.addNode(varID);
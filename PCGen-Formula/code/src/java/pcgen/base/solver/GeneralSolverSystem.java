@@ -17,6 +17,7 @@ package pcgen.base.solver;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 
 import pcgen.base.formula.base.ScopeInstance;
 import pcgen.base.formula.base.VariableID;
@@ -116,4 +117,11 @@ public class GeneralSolverSystem implements SolverSystem
 	{
 		return solverFactory.solve(formula);
 	}
+
+	@Override
+	public void solveAll(ForkJoinPool pool)
+	{
+		solverFactory.solvePartitions(depManager.getPartitions(), pool,
+			strategy::processModsUpdated);
+	}
 }
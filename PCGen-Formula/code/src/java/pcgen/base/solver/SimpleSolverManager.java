@@ -15,13 +15,19 @@
  */
 package pcgen.base.solver;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
 import pcgen.base.formula.base.DependencyManager;
 import pcgen.base.formula.base.EvaluationManager;
@@ -31,6 +37,7 @@ import pcgen.base.formula.base.ScopeInstance;
 import pcgen.base.formula.base.VariableID;
 import pcgen.base.formula.base.WriteableVariableStore;
 import pcgen.base.formula.inst.NEPFormula;
+import pcgen.base.formula.inst.OverlayVariableStore;
 import pcgen.base.util.FormatManager;
 import pcgen.base.util.ValueStore;
 
@@ -73,6 +80,12 @@ public class SimpleSolverManager implements SolverManager
 	 */
 	private final WriteableVariableStore resultStore;
 
+	/**
+	 * The values calculated by solvePartitions that are waiting to be published to the
+	 * resultStore. Empty unless solvePartitions is publishing results.
+	 */
+	private Map<VariableID<?>, Object> solvedValues = Collections.emptyMap();
+
 	/**
 	 * Constructs a new SimpleSolverManager using the given IndirectValueStore as the
 	 * underlying ValueStore.
@@ -152,13 +165,91 @@ public class SimpleSolverManager implements SolverManager
 	@Override
 	public <T> boolean processSolver(VariableID<T> varID)
 	{
-		T newValue = getBuiltSolver(varID)
+		@SuppressWarnings("unchecked")
+		T solved = (T) solvedValues.get(varID);
+		T newValue = (solved != null) ? solved : getBuiltSolver(varID)
 			.map(s -> s.process(managerFactory.generateEvaluationManager()))
 			.orElse(getDefault(varID.getFormatManager()));
 		Object oldValue = resultStore.put(varID, newValue);
 		return !newValue.equals(oldValue);
 	}
 
+	@Override
+	public void solvePartitions(List<List<VariableID<?>>> partitions,
+		ForkJoinPool pool, Consumer<VariableID<?>> publisher)
+	{
+		List<List<VariableID<?>>> work = new ArrayList<>(partitions);
+		Set<VariableID<?>> partitioned = new HashSet<>();
+		partitions.forEach(partitioned::addAll);
+		List<VariableID<?>> independent = new ArrayList<>();
+		for (VariableID<?> varID : scopedChannels.keySet())
+		{
+			if (!partitioned.contains(varID))
+			{
+				independent.add(varID);
+			}
+		}
+		if (!independent.isEmpty())
+		{
+			work.add(independent);
+		}
+		List<ForkJoinTask<OverlayVariableStore>> tasks = new ArrayList<>(work.size());
+		for (List<VariableID<?>> partition : work)
+		{
+			tasks.add(pool.submit(() -> solvePartition(partition)));
+		}
+		Map<VariableID<?>, Object> solved = new HashMap<>();
+		for (ForkJoinTask<OverlayVariableStore> task : tasks)
+		{
+			OverlayVariableStore slice = task.join();
+			for (VariableID<?> varID : slice.getLocalVariables())
+			{
+				solved.put(varID, slice.get(varID));
+			}
+		}
+		solvedValues = solved;
+		try
+		{
+			work.forEach(partition -> partition.forEach(publisher));
+		}
+		finally
+		{
+			solvedValues = Collections.emptyMap();
+		}
+	}
+
+	/**
+	 * Solves the given partition into a new slice of the resultStore. This does not
+	 * modify any state of this SimpleSolverManager, and can therefore be run in parallel
+	 * with other partitions.
+	 * 
+	 * @param partition
+	 *            The VariableIDs to be solved, in topological order
+	 * @return The slice of the resultStore containing the values of the VariableIDs in
+	 *         the given partition
+	 */
+	private OverlayVariableStore solvePartition(List<VariableID<?>> partition)
+	{
+		OverlayVariableStore slice = new OverlayVariableStore(resultStore);
+		EvaluationManager evalManager = managerFactory.generateEvaluationManager()
+			.getWith(EvaluationManager.RESULTS, slice);
+		for (VariableID<?> varID : partition)
+		{
+			solveInto(varID, evalManager, slice);
+		}
+		return slice;
+	}
+
+	private <T> void solveInto(VariableID<T> varID, EvaluationManager evalManager,
+		WriteableVariableStore slice)
+	{
+		@SuppressWarnings("unchecked")
+		Solver<T> solver = (Solver<T>) scopedChannels.get(varID);
+		T newValue = (solver == null) ? getDefault(varID.getFormatManager())
+			: solver.process(evalManager);
+		slice.put(varID, newValue);
+	}
+
 	@Override
 	public <T> List<ProcessStep<T>> diagnose(VariableID<T> varID)
 	{
@@ -414,7 +414,7 @@ public class Solver<T>
 				Modifier<T> mod = modInfo.modifier;
 				DependencyManager dm = dependencyManager
 					.getWith(DependencyManager.INSTANCE, modInfo.inst);
-				mod.captureDependencies(dm);
+				DependencyCache.captureDependencies(mod, dm);
 			}
 		}
 	}
@@ -17,6 +17,7 @@
  */
 package pcgen.base.solver;
 
+import java.util.List;
 import java.util.function.Consumer;
 
 import pcgen.base.formula.base.DependencyManager;
@@ -65,6 +66,19 @@ public interface SolverDependencyManager
 	public void processForChildren(VariableID<?> varID,
 		Consumer<VariableID<?>> consumer);
 
+	/**
+	 * Returns the independent partitions (weakly connected components) of the
+	 * dependencies in this SolverDependencyManager. The VariableIDs in each partition are
+	 * in topological order, such that each VariableID appears after all of the
+	 * VariableIDs upon which it depends.
+	 * 
+	 * @return A List of the independent partitions of the dependencies in this
+	 *         SolverDependencyManager, each in topological order
+	 * @throws IllegalStateException
+	 *             if the dependencies contain a loop
+	 */
+	public List<List<VariableID<?>>> getPartitions();
+
 	/**
 	 * Creates a replacement SolverDependencyManager with a new VariableStore and
 	 * notification target.
@@ -16,6 +16,8 @@
 package pcgen.base.solver;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 import pcgen.base.formula.base.DependencyManager;
 import pcgen.base.formula.base.ScopeInstance;
@@ -97,6 +99,29 @@ public interface SolverManager
 	 */
 	public <T> boolean processSolver(VariableID<T> varID);
 
+	/**
+	 * Solves the given independent partitions of VariableIDs in parallel on the given
+	 * ForkJoinPool. Any VariableID with a Solver that is not in one of the given
+	 * partitions is considered independent of all other VariableIDs.
+	 * 
+	 * Each partition is solved (in the order the VariableIDs are provided) into a
+	 * thread-confined slice, so the underlying results are not modified while the
+	 * partitions are being solved. Once all partitions are solved, each VariableID is
+	 * provided to the given publisher (on the calling thread). While the publisher is
+	 * active, processSolver will use the value calculated for the VariableID in the
+	 * parallel phase rather than processing the Solver again.
+	 * 
+	 * @param partitions
+	 *            The independent partitions of VariableIDs, each in topological order
+	 * @param pool
+	 *            The ForkJoinPool on which the partitions should be solved
+	 * @param publisher
+	 *            The Consumer which will publish the new value of each VariableID (and
+	 *            is expected to call processSolver)
+	 */
+	public void solvePartitions(List<List<VariableID<?>>> partitions,
+		ForkJoinPool pool, Consumer<VariableID<?>> publisher);
+
 	/**
 	 * Provides a List of ProcessStep objects identifying how the current value of the
 	 * variable identified by the given VariableID has been calculated.
@@ -16,6 +16,7 @@
 package pcgen.base.solver;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import pcgen.base.formula.base.ScopeInstance;
 import pcgen.base.formula.base.VariableID;
@@ -126,4 +127,19 @@ public interface SolverSystem
 	 */
 	public <T> T solve(NEPFormula<T> formula);
 
+	/**
+	 * Solves every variable in this SolverSystem, using the given ForkJoinPool to solve
+	 * independent partitions of the variables in parallel.
+	 * 
+	 * This is intended for a full recalculation (e.g. after a large number of Modifiers
+	 * have been loaded). Only the calculation of values is done in parallel; the
+	 * resulting values are published (and any listeners notified) on the calling thread.
+	 * Dynamic dependencies are partitioned based on the values of their control variables
+	 * at the time this method is called.
+	 * 
+	 * @param pool
+	 *            The ForkJoinPool on which the independent partitions should be solved
+	 */
+	public void solveAll(ForkJoinPool pool);
+
 }
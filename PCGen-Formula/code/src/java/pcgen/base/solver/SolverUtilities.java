@@ -15,9 +15,21 @@
  */
 package pcgen.base.solver;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import pcgen.base.formula.base.ManagerFactory;
+import pcgen.base.formula.base.VariableID;
 import pcgen.base.formula.base.VariableLibrary;
 import pcgen.base.formula.inst.MonitorableVariableStore;
+import pcgen.base.graph.base.DirectionalGraph;
+import pcgen.base.graph.inst.DefaultDirectionalGraphEdge;
 import pcgen.base.util.ValueStore;
 
 /**
@@ -88,4 +100,126 @@ public final class SolverUtilities
 		resultStore.addGeneralListener(event -> strategy.processValueUpdated(event.getVarID()));
 		return new GeneralSolverSystem(newSolver, dm, strategy);
 	}
+
+	/**
+	 * Builds a new GeneralSolverSystem with a Topological SolverStrategy and a Dynamic
+	 * SolverDependencyManager.
+	 *
+	 * @param varLib
+	 *            The VariableLibrary used to set up the SolverSystem
+	 * @param managerFactory
+	 *            The ManagerFactory used to set up the SolverSystem
+	 * @param valueStore
+	 *            The ValueStore used to set up the SolverSystem
+	 * @param resultStore
+	 *            The MonitorableVariableStore used to set up the SolverSystem
+	 * @return The new GeneralSolverSystem
+	 */
+	public static GeneralSolverSystem buildTopologicalSolverSystem(
+		VariableLibrary varLib, ManagerFactory managerFactory,
+		ValueStore valueStore, MonitorableVariableStore resultStore)
+	{
+		SimpleSolverManager newSolver =
+				new SimpleSolverManager(varLib::isLegalVariableID,
+					managerFactory, valueStore, resultStore);
+		SolverDependencyManager dm = new DynamicSolverDependencyManager(
+			managerFactory, resultStore);
+		SolverStrategy strategy =
+				new TopologicalStrategy(dm::processForChildren, newSolver::processSolver);
+		resultStore.addGeneralListener(event -> strategy.processValueUpdated(event.getVarID()));
+		return new GeneralSolverSystem(newSolver, dm, strategy);
+	}
+
+	/**
+	 * Partitions the given dependency graph into the weakly connected components of the
+	 * graph. The VariableIDs in each component are placed in topological order, such
+	 * that each VariableID appears after all of the VariableIDs upon which it depends.
+	 * 
+	 * Since no VariableID in a component depends on a VariableID in another component,
+	 * the components can be solved independently of each other.
+	 * 
+	 * @param graph
+	 *            The dependency graph to be partitioned. Edges are expected to point
+	 *            from a VariableID to the VariableIDs that depend upon it
+	 * @return A List of the weakly connected components of the given graph, each in
+	 *         topological order
+	 * @throws IllegalStateException
+	 *             if the given graph contains a loop
+	 */
+	public static List<List<VariableID<?>>> partition(
+		DirectionalGraph<VariableID<?>, DefaultDirectionalGraphEdge<VariableID<?>>> graph)
+	{
+		List<List<VariableID<?>>> partitions = new ArrayList<>();
+		Set<VariableID<?>> visited = new HashSet<>();
+		for (VariableID<?> node : graph.getNodeList())
+		{
+			if (visited.add(node))
+			{
+				partitions.add(topologicalOrder(graph, gatherComponent(graph, node, visited)));
+			}
+		}
+		return partitions;
+	}
+
+	private static List<VariableID<?>> gatherComponent(
+		DirectionalGraph<VariableID<?>, DefaultDirectionalGraphEdge<VariableID<?>>> graph,
+		VariableID<?> start, Set<VariableID<?>> visited)
+	{
+		List<VariableID<?>> component = new ArrayList<>();
+		Deque<VariableID<?>> toVisit = new ArrayDeque<>();
+		toVisit.add(start);
+		while (!toVisit.isEmpty())
+		{
+			VariableID<?> node = toVisit.remove();
+			component.add(node);
+			for (DefaultDirectionalGraphEdge<VariableID<?>> edge : graph.getAdjacentEdges(node))
+			{
+				VariableID<?> other = edge.getOppositeNode(node);
+				if ((other != null) && visited.add(other))
+				{
+					toVisit.add(other);
+				}
+			}
+		}
+		return component;
+	}
+
+	private static List<VariableID<?>> topologicalOrder(
+		DirectionalGraph<VariableID<?>, DefaultDirectionalGraphEdge<VariableID<?>>> graph,
+		List<VariableID<?>> component)
+	{
+		Map<VariableID<?>, Integer> inDegree = new HashMap<>();
+		Deque<VariableID<?>> ready = new ArrayDeque<>();
+		for (VariableID<?> node : component)
+		{
+			int degree = graph.getInwardEdgeList(node).size();
+			inDegree.put(node, degree);
+			if (degree == 0)
+			{
+				ready.add(node);
+			}
+		}
+		List<VariableID<?>> order = new ArrayList<>(component.size());
+		while (!ready.isEmpty())
+		{
+			VariableID<?> node = ready.remove();
+			order.add(node);
+			for (DefaultDirectionalGraphEdge<VariableID<?>> edge : graph.getOutwardEdgeList(node))
+			{
+				VariableID<?> child = edge.getNodeAt(1);
+				if (inDegree.merge(child, -1, Integer::sum) == 0)
+				{
+					ready.add(child);
+				}
+			}
+		}
+		if (order.size() != component.size())
+		{
+			List<VariableID<?>> loop = new ArrayList<>(component);
+			loop.removeAll(order);
+			throw new IllegalStateException(
+				"Infinite Loop in Variable Processing: " + loop);
+		}
+		return order;
+	}
 }
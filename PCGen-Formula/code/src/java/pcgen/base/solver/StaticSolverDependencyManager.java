@@ -43,6 +43,12 @@ public final class StaticSolverDependencyManager
 	 */
 	private final ManagerFactory managerFactory;
 
+	/**
+	 * The DependencyCache used to avoid repeated capture of the dependencies of a
+	 * Modifier.
+	 */
+	private final DependencyCache dependencyCache;
+
 	/**
 	 * A mathematical graph used to store dependencies between VariableIDs. Since there is
 	 * a 1:1 relationship with the Solver used for a VariableID, this implicitly stores
@@ -58,8 +64,15 @@ public final class StaticSolverDependencyManager
 	 *            The ManagerFactory used to construct DependencyManager objects
 	 */
 	public StaticSolverDependencyManager(ManagerFactory managerFactory)
+	{
+		this(managerFactory, new DependencyCache());
+	}
+
+	private StaticSolverDependencyManager(ManagerFactory managerFactory,
+		DependencyCache dependencyCache)
 	{
 		this.managerFactory = Objects.requireNonNull(managerFactory);
+		this.dependencyCache = dependencyCache;
 	}
 
 	@Override
@@ -69,7 +82,7 @@ public final class StaticSolverDependencyManager
 		DependencyManager dependencyManager = getDepManager(varID);
 		dependencyManager =
 				dependencyManager.getWith(DependencyManager.INSTANCE, source);
-		modifier.captureDependencies(dependencyManager);
+		DependencyCache.captureDependencies(modifier, dependencyManager);
 		VariableList variableList =
 				dependencyManager.get(DependencyManager.VARIABLES).get();
 		insert(varID, variableList.getVariables());
@@ -122,9 +135,17 @@ public final class StaticSolverDependencyManager
 			.generateDependencyManager();
 		dependencyManager = dependencyManager.getWith(
 			DependencyManager.ASSERTED, Optional.of(varID.getFormatManager()));
+		dependencyManager = dependencyManager.getWith(DependencyCache.KEY,
+			Optional.of(dependencyCache));
 		return managerFactory.withVariables(dependencyManager);
 	}
 
+	@Override
+	public List<List<VariableID<?>>> getPartitions()
+	{
+		return SolverUtilities.partition(dependencies);
+	}
+
 	@Override
 	public void processForChildren(VariableID<?> varID,
 		Consumer<VariableID<?>> consumer)
@@ -148,7 +169,7 @@ public final class StaticSolverDependencyManager
 		WriteableVariableStore newVarStore)
 	{
 		StaticSolverDependencyManager replacement =
-				new StaticSolverDependencyManager(managerFactory);
+				new StaticSolverDependencyManager(managerFactory, dependencyCache);
 		for (VariableID<?> varID : dependencies.getNodeList())
 		{
 			replacement.dependencies.addNode(varID);
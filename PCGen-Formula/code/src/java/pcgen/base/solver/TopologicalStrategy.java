@@ -0,0 +1,244 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import pcgen.base.formula.base.DependencyConsumer;
+import pcgen.base.formula.base.VariableID;
+import pcgen.base.formula.base.VariableSolver;
+
+/**
+ * A TopologicalStrategy is a SolverStrategy that batches the work caused by a change in
+ * the value of a VariableID. Rather than immediately (and recursively) solving each
+ * dependent VariableID as AggressiveStrategy does, the dependents of the changed
+ * VariableID are placed into topological order and each one is solved at most once.
+ *
+ * A dependent VariableID is only solved if one of the VariableIDs upon which it depends
+ * actually changed value during the batch. This means a "diamond" of dependencies (two
+ * VariableIDs that both depend on a third and are both used by a fourth) results in the
+ * fourth VariableID being solved only once.
+ *
+ * Dependencies that are altered while a batch is being processed (e.g. a dynamic
+ * dependency that is redirected when the value of the control variable changes) are
+ * honored: any dependent that was not part of the original ordering is solved in a
+ * subsequent batch.
+ */
+public class TopologicalStrategy implements SolverStrategy
+{
+	/**
+	 * The VariableSolver used to solve a given VariableID. Must return true if the value
+	 * changed.
+	 */
+	private final VariableSolver solveProcessor;
+
+	/**
+	 * The DependencyConsumer used to process an item on all dependents of a VariableID.
+	 */
+	private final DependencyConsumer depConsumer;
+
+	/**
+	 * The position of each VariableID in the topological order of the batch currently
+	 * being processed.
+	 */
+	private final Map<VariableID<?>, Integer> rank = new HashMap<>();
+
+	/**
+	 * The VariableIDs in the batch currently being processed which must be solved
+	 * because at least one of their inputs has changed value.
+	 */
+	private final Set<VariableID<?>> dirty = new HashSet<>();
+
+	/**
+	 * The VariableIDs which must be solved, but which could not be placed into the
+	 * batch currently being processed.
+	 */
+	private final Set<VariableID<?>> deferred = new LinkedHashSet<>();
+
+	/**
+	 * The position (in the topological order) of the VariableID currently being solved.
+	 */
+	private int current = -1;
+
+	/**
+	 * Indicates if a batch is currently being processed.
+	 */
+	private boolean processing = false;
+
+	/**
+	 * Constructs a new TopologicalStrategy with the given arguments.
+	 *
+	 * @param depConsumer
+	 *            The DependencyConsumer used to process an item on all dependents of a
+	 *            VariableID
+	 * @param solveProcessor
+	 *            The VariableSolver used to solve a given VariableID
+	 */
+	public TopologicalStrategy(DependencyConsumer depConsumer,
+		VariableSolver solveProcessor)
+	{
+		this.depConsumer = Objects.requireNonNull(depConsumer);
+		this.solveProcessor = Objects.requireNonNull(solveProcessor);
+	}
+
+	@Override
+	public void processModsUpdated(VariableID<?> varID)
+	{
+		solveProcessor.solve(varID);
+	}
+
+	/**
+	 * Solves children of (any VariableID dependent upon) the given VariableID, each
+	 * exactly once and in topological order.
+	 *
+	 * @param varID
+	 *            The VariableID for which the children should be solved
+	 */
+	@Override
+	public void processValueUpdated(VariableID<?> varID)
+	{
+		if (processing)
+		{
+			markChildrenDirty(varID);
+			return;
+		}
+		depConsumer.processForDependents(varID, deferred::add);
+		processing = true;
+		try
+		{
+			while (!deferred.isEmpty())
+			{
+				List<VariableID<?>> seeds = new ArrayList<>(deferred);
+				deferred.clear();
+				processBatch(seeds);
+			}
+		}
+		finally
+		{
+			processing = false;
+			deferred.clear();
+			dirty.clear();
+			rank.clear();
+			current = -1;
+		}
+	}
+
+	/**
+	 * Marks the children of the given VariableID (which has changed value during the
+	 * current batch) as needing to be solved. Children that are not later in the current
+	 * topological order are deferred to a subsequent batch.
+	 *
+	 * @param varID
+	 *            The VariableID which changed value
+	 */
+	private void markChildrenDirty(VariableID<?> varID)
+	{
+		depConsumer.processForDependents(varID, child -> {
+			Integer childRank = rank.get(child);
+			if ((childRank != null) && (childRank > current))
+			{
+				dirty.add(child);
+			}
+			else
+			{
+				deferred.add(child);
+			}
+		});
+	}
+
+	/**
+	 * Solves the given seed VariableIDs and (as necessary) their dependents in
+	 * topological order.
+	 *
+	 * @param seeds
+	 *            The VariableIDs which must be solved in this batch
+	 */
+	private void processBatch(List<VariableID<?>> seeds)
+	{
+		List<VariableID<?>> order = topologicalOrder(seeds);
+		rank.clear();
+		for (int i = 0; i < order.size(); i++)
+		{
+			rank.put(order.get(i), i);
+		}
+		dirty.clear();
+		dirty.addAll(seeds);
+		for (current = 0; current < order.size(); current++)
+		{
+			VariableID<?> varID = order.get(current);
+			if (dirty.remove(varID))
+			{
+				solveProcessor.solve(varID);
+			}
+		}
+	}
+
+	/**
+	 * Returns the given seed VariableIDs and all of their (transitive) dependents in
+	 * topological order, such that each VariableID appears after all of the VariableIDs
+	 * upon which it depends.
+	 *
+	 * @param seeds
+	 *            The VariableIDs from which the dependency graph should be explored
+	 * @return The topological order of the given VariableIDs and their dependents
+	 */
+	private List<VariableID<?>> topologicalOrder(List<VariableID<?>> seeds)
+	{
+		List<VariableID<?>> postOrder = new ArrayList<>();
+		Set<VariableID<?>> visited = new HashSet<>();
+		Set<VariableID<?>> path = new LinkedHashSet<>();
+		for (VariableID<?> seed : seeds)
+		{
+			visit(seed, visited, path, postOrder);
+		}
+		Collections.reverse(postOrder);
+		return postOrder;
+	}
+
+	private void visit(VariableID<?> varID, Set<VariableID<?>> visited,
+		Set<VariableID<?>> path, List<VariableID<?>> postOrder)
+	{
+		if (path.contains(varID))
+		{
+			throw new IllegalStateException(
+				"Infinite Loop in Variable Processing: " + path);
+		}
+		if (!visited.add(varID))
+		{
+			return;
+		}
+		path.add(varID);
+		depConsumer.processForDependents(varID,
+			child -> visit(child, visited, path, postOrder));
+		path.remove(varID);
+		postOrder.add(varID);
+	}
+
+	@Override
+	public TopologicalStrategy generateReplacement(
+		DependencyConsumer newDepConsumer,
+		VariableSolver newSolver)
+	{
+		return new TopologicalStrategy(newDepConsumer, newSolver);
+	}
+
+}
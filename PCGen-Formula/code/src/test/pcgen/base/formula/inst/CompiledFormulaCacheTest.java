@@ -0,0 +1,129 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.formula.inst;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import pcgen.base.formatmanager.FormatUtilities;
+import pcgen.base.formula.base.CompiledExpression;
+import pcgen.base.formula.base.EvaluationManager;
+import pcgen.base.formula.base.ScopeInstance;
+import pcgen.base.formula.base.VariableID;
+import pcgen.base.testsupport.AbstractFormulaTestCase;
+import pcgen.base.testsupport.SimpleVarScoped;
+
+public class CompiledFormulaCacheTest extends AbstractFormulaTestCase
+{
+
+	@Test
+	public void testConstructor()
+	{
+		assertThrows(NullPointerException.class,
+			() -> new CompiledFormulaCache(null, getOperatorLibrary(), getVariableLibrary()));
+		assertThrows(NullPointerException.class,
+			() -> new CompiledFormulaCache(getFunctionLibrary(), null, getVariableLibrary()));
+		assertThrows(NullPointerException.class,
+			() -> new CompiledFormulaCache(getFunctionLibrary(), getOperatorLibrary(), null));
+	}
+
+	@Test
+	public void testCache()
+	{
+		CompiledFormulaCache cache = new CompiledFormulaCache(getFunctionLibrary(),
+			getOperatorLibrary(), getVariableLibrary());
+		EvaluationManager manager = generateManager();
+		assertLegalVariable("a", "Global", FormatUtilities.NUMBER_MANAGER);
+		setVariable(getVariable("a"), 4);
+		ComplexNEPFormula<Number> formula =
+				new ComplexNEPFormula<>("a*2+1", FormatUtilities.NUMBER_MANAGER);
+		CompiledExpression compiled = cache.getCompiled(formula, manager).get();
+		assertEquals(9, compiled.evaluate(manager));
+		assertEquals(1, cache.size());
+		//Same text shares the CompiledExpression
+		ComplexNEPFormula<Number> other =
+				new ComplexNEPFormula<>("a*2+1", FormatUtilities.NUMBER_MANAGER);
+		assertSame(compiled, cache.getCompiled(other, manager).get());
+		assertEquals(1, cache.size());
+		//Variable values are read at evaluation
+		setVariable(getVariable("a"), 5);
+		assertEquals(11, compiled.evaluate(manager));
+		//Operator resolution is redone if the classes change
+		setVariable(getVariable("a"), 1.5);
+		assertEquals(4.0, compiled.evaluate(manager));
+	}
+
+	@Test
+	public void testDifferentLibrary()
+	{
+		CompiledFormulaCache cache = new CompiledFormulaCache(new SimpleFunctionLibrary(),
+			getOperatorLibrary(), getVariableLibrary());
+		ComplexNEPFormula<Number> formula =
+				new ComplexNEPFormula<>("3+5", FormatUtilities.NUMBER_MANAGER);
+		assertFalse(cache.getCompiled(formula, generateManager()).isPresent());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testResolve()
+	{
+		CompiledFormulaCache cache = new CompiledFormulaCache(getFunctionLibrary(),
+			getOperatorLibrary(), getVariableLibrary());
+		EvaluationManager manager = generateManager()
+			.getWith(CompiledFormulaCache.KEY, Optional.of(cache));
+		assertEquals(-9, new ComplexNEPFormula<>("if(3>=4,5,-9)",
+			FormatUtilities.NUMBER_MANAGER).resolve(manager));
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testScopeInstances()
+	{
+		CompiledFormulaCache cache = new CompiledFormulaCache(getFunctionLibrary(),
+			getOperatorLibrary(), getVariableLibrary());
+		assertLegalVariable("a", "Global", FormatUtilities.NUMBER_MANAGER);
+		assertLegalVariable("b", "Global.Local", FormatUtilities.NUMBER_MANAGER);
+		setVariable(getVariable("a"), 10);
+		ScopeInstance first = getScopeInstance("Global.Local",
+			new SimpleVarScoped("First", getGlobalVarScoped(), "Global.Local"));
+		ScopeInstance second = getScopeInstance("Global.Local",
+			new SimpleVarScoped("Second", getGlobalVarScoped(), "Global.Local"));
+		setVariable(new VariableID<>(first, FormatUtilities.NUMBER_MANAGER, "b"), 1);
+		setVariable(new VariableID<>(second, FormatUtilities.NUMBER_MANAGER, "b"), 2);
+		EvaluationManager firstManager =
+				generateManager().getWith(EvaluationManager.INSTANCE, first);
+		EvaluationManager secondManager =
+				generateManager().getWith(EvaluationManager.INSTANCE, second);
+		ComplexNEPFormula<Number> formula =
+				new ComplexNEPFormula<>("a+b", FormatUtilities.NUMBER_MANAGER);
+		CompiledExpression compiled = cache.getCompiled(formula, firstManager).get();
+		//Alternating instances of the scope each see their own local variable
+		for (int i = 0; i < 3; i++)
+		{
+			assertEquals(11, compiled.evaluate(firstManager));
+			assertEquals(12, compiled.evaluate(secondManager));
+		}
+		setVariable(new VariableID<>(second, FormatUtilities.NUMBER_MANAGER, "b"), 5);
+		assertEquals(11, compiled.evaluate(firstManager));
+		assertEquals(15, compiled.evaluate(secondManager));
+	}
+}
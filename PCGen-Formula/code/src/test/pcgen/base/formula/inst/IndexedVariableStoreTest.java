@@ -0,0 +1,160 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.formula.inst;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import pcgen.base.formatmanager.FormatUtilities;
+import pcgen.base.formula.base.ScopeInstance;
+import pcgen.base.formula.base.ScopeInstanceFactory;
+import pcgen.base.formula.base.VariableID;
+import pcgen.base.testsupport.GlobalVarScoped;
+import pcgen.base.testsupport.NaiveScopeManager;
+
+public class IndexedVariableStoreTest
+{
+	private NaiveScopeManager scopeManager;
+	private ScopeInstance globalInst;
+	private VariableIndex index;
+
+	@BeforeEach
+	void setUp()
+	{
+		scopeManager = new NaiveScopeManager();
+		ScopeInstanceFactory instanceFactory =
+				new SimpleScopeInstanceFactory(scopeManager);
+		globalInst = instanceFactory.get("Global", new GlobalVarScoped("Global"));
+		index = new VariableIndex();
+	}
+
+	@Test
+	public void testNulls()
+	{
+		assertThrows(NullPointerException.class, () -> new IndexedVariableStore(null));
+		IndexedVariableStore varStore = new IndexedVariableStore(index);
+		VariableID<Number> vid = new VariableID<>(globalInst, FormatUtilities.NUMBER_MANAGER, "test");
+		assertThrows(NullPointerException.class, () -> varStore.put(null, Integer.valueOf(4)));
+		assertThrows(NullPointerException.class, () -> varStore.put(vid, null));
+	}
+
+	@Test
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public void testGenericsViolation()
+	{
+		IndexedVariableStore varStore = new IndexedVariableStore(index);
+		VariableID vid = new VariableID<>(globalInst, FormatUtilities.NUMBER_MANAGER, "test");
+		//Intentionally break generics
+		assertThrows(IllegalArgumentException.class, () -> varStore.put(vid, "NotANumber!"));
+	}
+
+	@Test
+	public void testNumbers()
+	{
+		IndexedVariableStore varStore = new IndexedVariableStore(index);
+		VariableID<Number> vid = new VariableID<>(globalInst, FormatUtilities.NUMBER_MANAGER, "test");
+		assertFalse(varStore.containsVariable(vid));
+		assertNull(varStore.get(vid));
+		assertNull(varStore.put(vid, Integer.valueOf(9)));
+		assertTrue(varStore.containsVariable(vid));
+		assertEquals(Integer.valueOf(9), varStore.get(vid));
+		assertEquals(Integer.valueOf(9), varStore.put(vid, Double.valueOf(-4.5)));
+		assertEquals(Double.valueOf(-4.5), varStore.get(vid));
+		assertEquals(Double.valueOf(-4.5), varStore.put(vid, Integer.valueOf(Integer.MIN_VALUE)));
+		assertEquals(Integer.valueOf(Integer.MIN_VALUE), varStore.get(vid));
+	}
+
+	@Test
+	public void testObjects()
+	{
+		IndexedVariableStore varStore = new IndexedVariableStore(index);
+		VariableID<String> name = new VariableID<>(globalInst, FormatUtilities.STRING_MANAGER, "name");
+		VariableID<Number> vid = new VariableID<>(globalInst, FormatUtilities.NUMBER_MANAGER, "test");
+		assertNull(varStore.put(vid, Integer.valueOf(3)));
+		assertNull(varStore.put(name, "Bob"));
+		assertEquals("Bob", varStore.get(name));
+		assertEquals(Integer.valueOf(3), varStore.get(vid));
+		assertEquals("Bob", varStore.put(name, "Fred"));
+		assertEquals("Fred", varStore.get(name));
+		assertEquals(List.of(vid, name), List.copyOf(varStore.getVariables()));
+	}
+
+	@Test
+	public void testSharedIndex()
+	{
+		IndexedVariableStore varStore = new IndexedVariableStore(index);
+		IndexedVariableStore otherStore = new IndexedVariableStore(index);
+		VariableID<Number> vid1 = new VariableID<>(globalInst, FormatUtilities.NUMBER_MANAGER, "test");
+		VariableID<Number> vid2 = new VariableID<>(globalInst, FormatUtilities.NUMBER_MANAGER, "test");
+		VariableID<Number> vid3 = new VariableID<>(globalInst, FormatUtilities.NUMBER_MANAGER, "test2");
+		assertEquals(0, index.intern(vid3));
+		assertEquals(-1, index.getSlot(vid1));
+		assertNull(varStore.put(vid1, Integer.valueOf(9)));
+		assertEquals(1, index.getSlot(vid2));
+		assertEquals(2, index.size(globalInst.getImplementedScope()));
+		assertTrue(varStore.containsVariable(vid2));
+		assertFalse(varStore.containsVariable(vid3));
+		assertFalse(otherStore.containsVariable(vid1));
+		assertNull(otherStore.put(vid2, Integer.valueOf(4)));
+		assertEquals(Integer.valueOf(9), varStore.get(vid2));
+		assertEquals(Integer.valueOf(4), otherStore.get(vid1));
+		assertEquals(1, varStore.getVariables().size());
+
+		SimpleVariableStore copy = new SimpleVariableStore();
+		copy.importFrom(varStore);
+		assertEquals(Integer.valueOf(9), copy.get(vid1));
+		otherStore.importFrom(copy);
+		assertEquals(Integer.valueOf(9), otherStore.get(vid1));
+	}
+
+	@Test
+	public void testScopeInstances()
+	{
+		//As for the global scope of a second character
+		ScopeInstance otherInst = new SimpleScopeInstanceFactory(scopeManager)
+			.get("Global", new GlobalVarScoped("Global"));
+		IndexedVariableStore varStore = new IndexedVariableStore(index);
+		IndexedVariableStore otherStore = new IndexedVariableStore(index);
+		VariableID<Number> vid = new VariableID<>(globalInst, FormatUtilities.NUMBER_MANAGER, "test");
+		VariableID<Number> otherVid = new VariableID<>(otherInst, FormatUtilities.NUMBER_MANAGER, "TEST");
+		VariableID<String> name = new VariableID<>(otherInst, FormatUtilities.STRING_MANAGER, "test");
+
+		//The same variable in another ScopeInstance shares the slot, but not the value
+		assertNull(varStore.put(vid, Integer.valueOf(2)));
+		assertNull(varStore.put(otherVid, Double.valueOf(1.5)));
+		assertEquals(index.getSlot(vid), index.getSlot(otherVid));
+		assertEquals(1, index.size(globalInst.getImplementedScope()));
+		assertEquals(Integer.valueOf(2), varStore.get(vid));
+		assertEquals(Double.valueOf(1.5), varStore.get(otherVid));
+		assertEquals(List.of(vid, otherVid), List.copyOf(varStore.getVariables()));
+
+		//A different format is a different variable
+		assertFalse(otherStore.containsVariable(name));
+		assertNull(otherStore.put(name, "Bob"));
+		assertEquals(2, index.size(globalInst.getImplementedScope()));
+		assertFalse(varStore.containsVariable(name));
+		assertEquals(List.of(name), List.copyOf(otherStore.getVariables()));
+		assertEquals(otherInst, otherStore.getVariables().iterator().next().getScope());
+	}
+}
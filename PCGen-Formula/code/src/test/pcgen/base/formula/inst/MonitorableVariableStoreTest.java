@@ -90,6 +90,32 @@ public class MonitorableVariableStoreTest
 		assertSame(capture, lastEvent);
 	}
 
+	@Test
+	public void testAlternateStorage()
+	{
+		IndexedVariableStore storage = new IndexedVariableStore(new VariableIndex());
+		MonitorableVariableStore varStore = new MonitorableVariableStore(storage);
+		ScopeInstance globalInst = instanceFactory.get("Global", new GlobalVarScoped("Global"));
+		VariableID<Number> varID = new VariableID<>(globalInst,
+			FormatUtilities.NUMBER_MANAGER, "test");
+		VariableListener<Number> listener = new EventCapture();
+		varStore.addVariableListener(varID, listener);
+		varStore.put(varID, 5);
+		assertNull(lastEvent.getOldValue());
+		assertEquals(lastEvent.getNewValue(), 5);
+		assertEquals(5, storage.get(varID));
+		varStore.put(varID, 7);
+		assertEquals(lastEvent.getOldValue(), 5);
+		assertEquals(lastEvent.getNewValue(), 7);
+		VariableChangeEvent<?> capture = lastEvent;
+		//No new event
+		varStore.put(varID, 7);
+		assertSame(capture, lastEvent);
+		assertEquals(7, varStore.get(varID));
+		assertTrue(varStore.containsVariable(varID));
+		assertEquals(1, varStore.getVariables().size());
+	}
+
 	@Test
 	public void testPriority()
 	{
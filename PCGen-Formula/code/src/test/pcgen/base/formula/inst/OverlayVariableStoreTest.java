@@ -0,0 +1,93 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.formula.inst;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import pcgen.base.formatmanager.FormatUtilities;
+import pcgen.base.formula.base.ScopeInstance;
+import pcgen.base.formula.base.ScopeInstanceFactory;
+import pcgen.base.formula.base.VariableID;
+import pcgen.base.testsupport.GlobalVarScoped;
+import pcgen.base.testsupport.NaiveScopeManager;
+
+public class OverlayVariableStoreTest
+{
+
+	private NaiveScopeManager scopeManager;
+	private ScopeInstanceFactory instanceFactory;
+
+	@BeforeEach
+	void setUp()
+	{
+		scopeManager = new NaiveScopeManager();
+		instanceFactory = new SimpleScopeInstanceFactory(scopeManager);
+	}
+
+	@AfterEach
+	void tearDown()
+	{
+		scopeManager = null;
+		instanceFactory = null;
+	}
+
+	@Test
+	public void testConstructor()
+	{
+		assertThrows(NullPointerException.class, () -> new OverlayVariableStore(null));
+	}
+
+	@Test
+	public void testOverlay()
+	{
+		SimpleVariableStore backingStore = new SimpleVariableStore();
+		OverlayVariableStore varStore = new OverlayVariableStore(backingStore);
+
+		ScopeInstance globalInst = instanceFactory.get("Global", new GlobalVarScoped("Global"));
+		VariableID<Number> varID = new VariableID<>(globalInst,
+				FormatUtilities.NUMBER_MANAGER, "test");
+		VariableID<Number> backID = new VariableID<>(globalInst,
+				FormatUtilities.NUMBER_MANAGER, "backtest");
+
+		assertFalse(varStore.containsVariable(backID));
+		backingStore.put(backID, 4);
+		assertTrue(varStore.containsVariable(backID));
+		assertEquals(4, varStore.get(backID));
+		assertTrue(varStore.getLocalVariables().isEmpty());
+
+		assertNull(varStore.put(varID, 9));
+		assertEquals(9, varStore.get(varID));
+		assertFalse(backingStore.containsVariable(varID));
+
+		//Local value hides the background value, but never writes through
+		assertNull(varStore.put(backID, 6));
+		assertEquals(6, varStore.get(backID));
+		assertEquals(4, backingStore.get(backID));
+		assertEquals(2, varStore.getLocalVariables().size());
+
+		backingStore.importFrom(varStore);
+		assertEquals(9, backingStore.get(varID));
+		assertEquals(6, backingStore.get(backID));
+	}
+}
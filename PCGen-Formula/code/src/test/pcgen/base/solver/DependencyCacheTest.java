@@ -0,0 +1,239 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collections;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import pcgen.base.formatmanager.FormatUtilities;
+import pcgen.base.formula.base.DependencyManager;
+import pcgen.base.formula.base.EvaluationManager;
+import pcgen.base.formula.base.ScopeInstance;
+import pcgen.base.formula.base.VariableID;
+import pcgen.base.solver.testsupport.AbstractModifier;
+import pcgen.base.testsupport.AbstractFormulaTestCase;
+import pcgen.base.testsupport.SimpleVarScoped;
+
+public class DependencyCacheTest extends AbstractFormulaTestCase
+{
+
+	@Test
+	public void testCapture()
+	{
+		assertLegalVariable("a", "Global", FormatUtilities.NUMBER_MANAGER);
+		VariableID<Number> varA = getVariable("a");
+		CountingModifier modifier = new CountingModifier("a");
+		DependencyCache cache = new DependencyCache();
+		DependencyManager first = generateDepManager(cache, getGlobalScopeInst());
+		DependencyCache.captureDependencies(modifier, first);
+		assertEquals(1, modifier.count);
+		assertEquals(Collections.singletonList(varA),
+			first.get(DependencyManager.VARIABLES).get().getVariables());
+		DependencyManager second = generateDepManager(cache, getGlobalScopeInst());
+		DependencyCache.captureDependencies(modifier, second);
+		assertEquals(1, modifier.count);
+		assertEquals(Collections.singletonList(varA),
+			second.get(DependencyManager.VARIABLES).get().getVariables());
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.getCaptureCount());
+	}
+
+	@Test
+	public void testReuseAcrossInstances()
+	{
+		getScopeManager().registerScope("Global", "Local");
+		assertLegalVariable("loc", "Global.Local", FormatUtilities.NUMBER_MANAGER);
+		ScopeInstance firstInst = getScopeInstance("Global.Local",
+			new SimpleVarScoped("First", getGlobalVarScoped(), "Global.Local"));
+		ScopeInstance secondInst = getScopeInstance("Global.Local",
+			new SimpleVarScoped("Second", getGlobalVarScoped(), "Global.Local"));
+		VariableID<?> firstVar =
+				getVariableLibrary().getVariableID(firstInst, "loc");
+		VariableID<?> secondVar =
+				getVariableLibrary().getVariableID(secondInst, "loc");
+		assertFalse(firstVar.equals(secondVar));
+
+		CountingModifier modifier = new CountingModifier("loc");
+		DependencyCache cache = new DependencyCache();
+		DependencyManager first = generateDepManager(cache, firstInst);
+		DependencyCache.captureDependencies(modifier, first);
+		DependencyManager second = generateDepManager(cache, secondInst);
+		DependencyCache.captureDependencies(modifier, second);
+		assertEquals(1, modifier.count);
+		assertEquals(1, cache.size());
+		assertEquals(Collections.singletonList(firstVar),
+			first.get(DependencyManager.VARIABLES).get().getVariables());
+		//Reused, but bound to the second instance
+		assertEquals(Collections.singletonList(secondVar),
+			second.get(DependencyManager.VARIABLES).get().getVariables());
+
+		//A different scope is analyzed again
+		getScopeManager().registerScope("Global", "Other");
+		assertLegalVariable("loc", "Global.Other", FormatUtilities.NUMBER_MANAGER);
+		ScopeInstance otherInst = getScopeInstance("Global.Other",
+			new SimpleVarScoped("Third", getGlobalVarScoped(), "Global.Other"));
+		DependencyCache.captureDependencies(modifier,
+			generateDepManager(cache, otherInst));
+		assertEquals(2, modifier.count);
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testNotReusable()
+	{
+		assertLegalVariable("a", "Global", FormatUtilities.NUMBER_MANAGER);
+		VariableID<Number> varA = getVariable("a");
+		DirectModifier modifier = new DirectModifier(varA);
+		DependencyCache cache = new DependencyCache();
+		DependencyManager first = generateDepManager(cache, getGlobalScopeInst());
+		DependencyCache.captureDependencies(modifier, first);
+		DependencyManager second = generateDepManager(cache, getGlobalScopeInst());
+		DependencyCache.captureDependencies(modifier, second);
+		//Added outside the DependencyStrategy, so must be analyzed each time
+		assertEquals(2, modifier.count);
+		assertEquals(2, cache.getCaptureCount());
+		assertEquals(Collections.singletonList(varA),
+			first.get(DependencyManager.VARIABLES).get().getVariables());
+		assertEquals(Collections.singletonList(varA),
+			second.get(DependencyManager.VARIABLES).get().getVariables());
+	}
+
+	@Test
+	public void testEviction()
+	{
+		assertLegalVariable("a", "Global", FormatUtilities.NUMBER_MANAGER);
+		CountingModifier modA = new CountingModifier("a");
+		CountingModifier modB = new CountingModifier("a");
+		CountingModifier modC = new CountingModifier("a");
+		DependencyCache cache = new DependencyCache(2);
+		capture(cache, modA);
+		capture(cache, modB);
+		//Touch modA so that modB is the eldest
+		capture(cache, modA);
+		capture(cache, modC);
+		assertEquals(2, cache.size());
+		capture(cache, modA);
+		capture(cache, modC);
+		assertEquals(1, modA.count);
+		assertEquals(1, modC.count);
+		capture(cache, modB);
+		assertEquals(2, modB.count);
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testNoCache()
+	{
+		assertLegalVariable("a", "Global", FormatUtilities.NUMBER_MANAGER);
+		CountingModifier modifier = new CountingModifier("a");
+		DependencyManager depManager = getManagerFactory().withVariables(
+			getManagerFactory().generateDependencyManager(getGlobalScopeInst()));
+		DependencyCache.captureDependencies(modifier, depManager);
+		DependencyCache.captureDependencies(modifier, depManager);
+		assertEquals(2, modifier.count);
+	}
+
+	private void capture(DependencyCache cache, Modifier<?> modifier)
+	{
+		DependencyCache.captureDependencies(modifier,
+			generateDepManager(cache, getGlobalScopeInst()));
+	}
+
+	private DependencyManager generateDepManager(DependencyCache cache,
+		ScopeInstance scopeInst)
+	{
+		DependencyManager depManager =
+				getManagerFactory().generateDependencyManager(scopeInst);
+		return getManagerFactory().withVariables(depManager)
+			.getWith(DependencyCache.KEY, Optional.of(cache));
+	}
+
+	/**
+	 * Depends on a variable by name, as a parsed formula does.
+	 */
+	private static final class CountingModifier extends AbstractModifier<Number>
+	{
+		private final String dependency;
+
+		private int count = 0;
+
+		private CountingModifier(String dependency)
+		{
+			super(0, FormatUtilities.NUMBER_MANAGER);
+			this.dependency = dependency;
+		}
+
+		@Override
+		public void captureDependencies(DependencyManager depManager)
+		{
+			count++;
+			depManager.get(DependencyManager.VARSTRATEGY).get()
+				.addVariable(depManager, dependency);
+		}
+
+		@Override
+		public Number process(EvaluationManager manager)
+		{
+			return 1;
+		}
+
+		@Override
+		public String getInstructions()
+		{
+			return "1";
+		}
+	}
+
+	/**
+	 * Depends on a specific VariableID, bypassing the DependencyStrategy.
+	 */
+	private static final class DirectModifier extends AbstractModifier<Number>
+	{
+		private final VariableID<Number> dependency;
+
+		private int count = 0;
+
+		private DirectModifier(VariableID<Number> dependency)
+		{
+			super(0, FormatUtilities.NUMBER_MANAGER);
+			this.dependency = dependency;
+		}
+
+		@Override
+		public void captureDependencies(DependencyManager depManager)
+		{
+			count++;
+			depManager.get(DependencyManager.VARIABLES).get().add(dependency);
+		}
+
+		@Override
+		public Number process(EvaluationManager manager)
+		{
+			return 1;
+		}
+
+		@Override
+		public String getInstructions()
+		{
+			return "1";
+		}
+	}
+}
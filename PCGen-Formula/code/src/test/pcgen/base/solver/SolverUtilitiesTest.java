@@ -0,0 +1,83 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import pcgen.base.formula.base.VariableID;
+import pcgen.base.graph.inst.DefaultDirectionalGraphEdge;
+import pcgen.base.graph.inst.DirectionalSetMapGraph;
+import pcgen.base.testsupport.AbstractFormulaTestCase;
+
+public class SolverUtilitiesTest extends AbstractFormulaTestCase
+{
+	private final DirectionalSetMapGraph<VariableID<?>, DefaultDirectionalGraphEdge<VariableID<?>>> graph =
+			new DirectionalSetMapGraph<>();
+
+	@Test
+	public void testPartitionEmpty()
+	{
+		assertTrue(SolverUtilities.partition(graph).isEmpty());
+	}
+
+	@Test
+	public void testPartition()
+	{
+		VariableID<Number> str = getVariable("Str");
+		VariableID<Number> mod = getVariable("Mod");
+		VariableID<Number> bonus = getVariable("Bonus");
+		VariableID<Number> total = getVariable("Total");
+		VariableID<Number> dex = getVariable("Dex");
+		VariableID<Number> ac = getVariable("AC");
+		addEdge(mod, total);
+		addEdge(str, mod);
+		addEdge(bonus, total);
+		addEdge(str, bonus);
+		addEdge(dex, ac);
+
+		List<List<VariableID<?>>> partitions = SolverUtilities.partition(graph);
+		assertEquals(2, partitions.size());
+		List<VariableID<?>> strPartition =
+				partitions.get(0).contains(str) ? partitions.get(0) : partitions.get(1);
+		List<VariableID<?>> dexPartition =
+				partitions.get(0).contains(str) ? partitions.get(1) : partitions.get(0);
+		assertEquals(List.of(dex, ac), dexPartition);
+		assertEquals(4, strPartition.size());
+		assertEquals(str, strPartition.get(0));
+		assertEquals(total, strPartition.get(3));
+	}
+
+	@Test
+	public void testPartitionLoop()
+	{
+		VariableID<Number> str = getVariable("Str");
+		VariableID<Number> mod = getVariable("Mod");
+		VariableID<Number> bonus = getVariable("Bonus");
+		addEdge(str, mod);
+		addEdge(mod, bonus);
+		addEdge(bonus, mod);
+		assertThrows(IllegalStateException.class, () -> SolverUtilities.partition(graph));
+	}
+
+	private void addEdge(VariableID<?> source, VariableID<?> sink)
+	{
+		graph.addEdge(new DefaultDirectionalGraphEdge<>(source, sink));
+	}
+}
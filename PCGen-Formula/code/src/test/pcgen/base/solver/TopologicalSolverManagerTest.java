@@ -0,0 +1,83 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import pcgen.base.formatmanager.FormatUtilities;
+import pcgen.base.formula.base.ScopeInstance;
+import pcgen.base.formula.base.VariableID;
+import pcgen.base.formula.base.WriteableVariableStore;
+import pcgen.base.formula.inst.ComplexNEPFormula;
+import pcgen.base.solver.testsupport.AbstractModifier;
+import pcgen.base.solver.testsupport.AbstractSolverManagerTest;
+
+public class TopologicalSolverManagerTest extends AbstractSolverManagerTest
+{
+	private SolverSystem manager;
+
+	@BeforeEach
+	@Override
+	protected void setUp()
+	{
+		super.setUp();
+		manager = SolverUtilities.buildTopologicalSolverSystem(getVariableLibrary(),
+			getManagerFactory(), getValueStore(), getVariableStore());
+	}
+
+	@AfterEach
+	@Override
+	protected void tearDown()
+	{
+		super.tearDown();
+		manager = null;
+	}
+
+	@Override
+	protected SolverSystem getManager()
+	{
+		return manager;
+	}
+
+	@Test
+	public void testDiamond()
+	{
+		WriteableVariableStore store = getVariableStore();
+		ScopeInstance source = getGlobalScopeInst();
+		VariableID<Number> str = getVariable("Str");
+		VariableID<Number> mod = getVariable("Mod");
+		VariableID<Number> bonus = getVariable("Bonus");
+		VariableID<Number> total = getVariable("Total");
+
+		getManager().addModifier(mod, AbstractModifier.add(
+			new ComplexNEPFormula<>("str/2", FormatUtilities.NUMBER_MANAGER), 100),
+			source);
+		getManager().addModifier(bonus, AbstractModifier.add(
+			new ComplexNEPFormula<>("str+1", FormatUtilities.NUMBER_MANAGER), 100),
+			source);
+		getManager().addModifier(total, AbstractModifier.add(
+			new ComplexNEPFormula<>("mod+bonus", FormatUtilities.NUMBER_MANAGER), 100),
+			source);
+		assertEquals(1, store.get(total));
+
+		getManager().addModifier(str, AbstractModifier.setNumber(10, 5), source);
+		assertEquals(5, store.get(mod));
+		assertEquals(11, store.get(bonus));
+		assertEquals(16, store.get(total));
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import pcgen.base.formula.base.VariableID;
+import pcgen.base.testsupport.AbstractFormulaTestCase;
+import pcgen.base.testsupport.TestUtilities.Container;
+
+public class TopologicalStrategyTest extends AbstractFormulaTestCase
+{
+	@Test
+	public void testIllegalConstruction()
+	{
+		assertThrows(NullPointerException.class, () -> new TopologicalStrategy(null, var -> true));
+		assertThrows(NullPointerException.class, () -> new TopologicalStrategy((varID, consumer) -> {}, null));
+	}
+
+	@Test
+	public void testAddModifierExternal()
+	{
+		VariableID<Number> parent = getVariable("STR");
+		VariableID<Number> child = getVariable("LIFT");
+
+		Container<VariableID<?>> target = new Container<>();
+		Graph graph = new Graph();
+		graph.addEdge(parent, child);
+
+		SolverStrategy strategy = new TopologicalStrategy(graph::processForChildren, target::set);
+
+		assertTrue(target.objects.isEmpty());
+		strategy.processModsUpdated(parent);
+		assertEquals(parent, target.objects.get(0));
+		strategy.processValueUpdated(parent);
+		assertEquals(child, target.objects.get(1));
+		assertEquals(2, target.objects.size());
+	}
+
+	@Test
+	public void testDiamond()
+	{
+		VariableID<Number> str = getVariable("STR");
+		VariableID<Number> left = getVariable("LEFT");
+		VariableID<Number> right = getVariable("RIGHT");
+		VariableID<Number> total = getVariable("TOTAL");
+		VariableID<Number> after = getVariable("AFTER");
+
+		Graph graph = new Graph();
+		graph.addEdge(str, left);
+		graph.addEdge(str, right);
+		graph.addEdge(left, total);
+		graph.addEdge(right, total);
+		graph.addEdge(total, after);
+		graph.addEdge(left, after);
+
+		List<VariableID<?>> solved = new ArrayList<>();
+		TopologicalStrategy[] holder = new TopologicalStrategy[1];
+		holder[0] = new TopologicalStrategy(graph::processForChildren, varID -> {
+			solved.add(varID);
+			holder[0].processValueUpdated(varID);
+			return true;
+		});
+
+		holder[0].processModsUpdated(str);
+		assertEquals(5, solved.size());
+		assertEquals(str, solved.get(0));
+		assertEquals(after, solved.get(4));
+		assertTrue(solved.indexOf(total) > solved.indexOf(left));
+		assertTrue(solved.indexOf(total) > solved.indexOf(right));
+		assertTrue(solved.indexOf(after) > solved.indexOf(total));
+	}
+
+	@Test
+	public void testUnchangedNotPropagated()
+	{
+		VariableID<Number> str = getVariable("STR");
+		VariableID<Number> mod = getVariable("MOD");
+		VariableID<Number> lift = getVariable("LIFT");
+
+		Graph graph = new Graph();
+		graph.addEdge(str, mod);
+		graph.addEdge(mod, lift);
+
+		List<VariableID<?>> solved = new ArrayList<>();
+		TopologicalStrategy[] holder = new TopologicalStrategy[1];
+		holder[0] = new TopologicalStrategy(graph::processForChildren, varID -> {
+			solved.add(varID);
+			boolean changed = !varID.equals(mod);
+			if (changed)
+			{
+				holder[0].processValueUpdated(varID);
+			}
+			return changed;
+		});
+
+		holder[0].processModsUpdated(str);
+		assertEquals(2, solved.size());
+		assertEquals(str, solved.get(0));
+		assertEquals(mod, solved.get(1));
+	}
+
+	@Test
+	public void testLoop()
+	{
+		VariableID<Number> str = getVariable("STR");
+		VariableID<Number> mod = getVariable("MOD");
+		VariableID<Number> lift = getVariable("LIFT");
+
+		Graph graph = new Graph();
+		graph.addEdge(str, mod);
+		graph.addEdge(mod, lift);
+		graph.addEdge(lift, mod);
+
+		SolverStrategy strategy = new TopologicalStrategy(graph::processForChildren, varID -> true);
+		assertThrows(IllegalStateException.class, () -> strategy.processValueUpdated(str));
+	}
+
+	private class Graph
+	{
+		private final Map<VariableID<?>, List<VariableID<?>>> children = new HashMap<>();
+
+		public void addEdge(VariableID<?> parent, VariableID<?> child)
+		{
+			children.computeIfAbsent(parent, k -> new ArrayList<>()).add(child);
+		}
+
+		public void processForChildren(VariableID<?> varID,
+			Consumer<VariableID<?>> consumer)
+		{
+			children.getOrDefault(varID, List.of()).forEach(consumer);
+		}
+	}
+
+}
@@ -19,6 +19,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.concurrent.ForkJoinPool;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -432,6 +434,43 @@ public abstract class AbstractSolverManagerTest extends AbstractFormulaTestCase
 		assertEquals(2, store.get(extra));
 	}
 
+	@Test
+	public void testSolveAll()
+	{
+		ScopeInstance source = globalScopeInst;
+		ComplexNEPFormula<Number> formula =
+				new ComplexNEPFormula<>("arms+legs", FormatUtilities.NUMBER_MANAGER);
+		Modifier<Number> limbsMod = AbstractModifier.add(formula, 100);
+
+		VariableID<Number> limbs = getVariable("Limbs");
+		VariableID<Number> arms = getVariable("Arms");
+		VariableID<Number> legs = getVariable("Legs");
+		VariableID<Number> hp = getVariable("HP");
+		getManager().addModifier(limbs, limbsMod, source);
+		getManager().addModifier(arms, AbstractModifier.setNumber(2, 5), source);
+		getManager().addModifier(legs, AbstractModifier.setNumber(3, 5), source);
+		getManager().addModifier(hp, AbstractModifier.setNumber(6, 5), source);
+		assertEquals(5, store.get(limbs));
+		assertEquals(6, store.get(hp));
+
+		//Nothing depends on these, so they will stay incorrect until solved
+		store.put(limbs, 99);
+		store.put(hp, 1);
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try
+		{
+			getManager().solveAll(pool);
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+		assertEquals(2, store.get(arms));
+		assertEquals(3, store.get(legs));
+		assertEquals(5, store.get(limbs));
+		assertEquals(6, store.get(hp));
+	}
+
 	@Test
 	public void testAssertion()
 	{
@@ -32,6 +32,7 @@ import pcgen.base.formatmanager.FormatManagerLibrary;
 import pcgen.base.formatmanager.FormatUtilities;
 import pcgen.base.formatmanager.OptionalFormatFactory;
 import pcgen.base.formatmanager.SimpleFormatManagerLibrary;
+import pcgen.base.formula.base.CompiledExpression;
 import pcgen.base.formula.base.DependencyManager;
 import pcgen.base.formula.base.EvaluationManager;
 import pcgen.base.formula.base.FormulaSemantics;
@@ -54,6 +55,7 @@ import pcgen.base.formula.inst.SimpleOperatorLibrary;
 import pcgen.base.formula.inst.SimpleScopeInstanceFactory;
 import pcgen.base.formula.inst.VariableManager;
 import pcgen.base.formula.parse.SimpleNode;
+import pcgen.base.formula.visitor.CompileVisitor;
 import pcgen.base.formula.visitor.DependencyVisitor;
 import pcgen.base.formula.visitor.EvaluateVisitor;
 import pcgen.base.formula.visitor.SemanticsVisitor;
@@ -147,6 +149,14 @@ public abstract class AbstractFormulaTestCase
 		EvaluationManager evalManager =
 				manager.getWith(EvaluationManager.ASSERTED, Optional.of(formatManager));
 		Object result = new EvaluateVisitor().visit(node, evalManager);
+		CompiledExpression compiled =
+				(CompiledExpression) new CompileVisitor().visit(node, evalManager);
+		Object compiledResult = compiled.evaluate(evalManager);
+		if (!Objects.deepEquals(result, compiledResult))
+		{
+			TestCase.fail("Compiled Formula: " + formula + " produced "
+				+ compiledResult + " but Evaluation produced " + result);
+		}
 		if (result.equals(valueOf))
 		{
 			return;
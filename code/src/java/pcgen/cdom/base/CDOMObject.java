@@ -20,6 +20,7 @@ package pcgen.cdom.base;
 import java.net.URI;
 import java.text.Collator;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -52,10 +53,12 @@ import pcgen.cdom.enumeration.ListKey;
 import pcgen.cdom.enumeration.MapKey;
 import pcgen.cdom.enumeration.ObjectKey;
 import pcgen.cdom.enumeration.StringKey;
+import pcgen.cdom.enumeration.Type;
 import pcgen.cdom.enumeration.VariableKey;
 import pcgen.cdom.formula.PCGenScoped;
 import pcgen.cdom.helper.InfoBoolean;
 import pcgen.cdom.helper.VarHolderSupport;
+import pcgen.cdom.util.CompactKeyMap;
 import pcgen.cdom.util.FactSetKeyMapToList;
 import pcgen.cdom.util.ListKeyMapToList;
 import pcgen.cdom.util.MapKeyMap;
@@ -148,6 +151,14 @@ public abstract class CDOMObject extends ConcretePrereqObject
 	// TODO make this final once clone() is no longer required...
 	private ListKeyMapToList listChar = null;
 
+	/**
+	 * The ordinals of the Types in the ListKey.TYPE list of this object, built
+	 * on demand. null if the TYPE list has changed since this was last built.
+	 * Volatile so that a BitSet built on one thread is only seen fully populated
+	 * by the others.
+	 */
+	private volatile BitSet typeMembership = null;
+
 	/** A map of Maps for the object */
 	// TODO make this final once clone() is no longer required...
 	private MapKeyMap mapChar = null;
@@ -181,7 +192,7 @@ public abstract class CDOMObject extends ConcretePrereqObject
 	{
 		if (integerChar == null)
 		{
-			integerChar = new HashMap<>();
+			integerChar = new CompactKeyMap<>();
 		}
 		return integerChar.put(key, intValue);
 	}
@@ -263,7 +274,7 @@ public abstract class CDOMObject extends ConcretePrereqObject
 	{
 		if (formulaChar == null)
 		{
-			formulaChar = new HashMap<>();
+			formulaChar = new CompactKeyMap<>();
 		}
 		return formulaChar.put(key, value);
 	}
@@ -302,7 +313,7 @@ public abstract class CDOMObject extends ConcretePrereqObject
 	{
 		if (variableChar == null)
 		{
-			variableChar = new HashMap<>();
+			variableChar = new CompactKeyMap<>();
 		}
 		return variableChar.put(key, value);
 	}
@@ -342,7 +353,7 @@ public abstract class CDOMObject extends ConcretePrereqObject
 	{
 		if (objectChar == null)
 		{
-			objectChar = new HashMap<>();
+			objectChar = new CompactKeyMap<>();
 		}
 		return key.cast(objectChar.put(key, value));
 	}
@@ -397,7 +408,7 @@ public abstract class CDOMObject extends ConcretePrereqObject
 	{
 		if (factChar == null)
 		{
-			factChar = new HashMap<>();
+			factChar = new CompactKeyMap<>();
 		}
 		return key.cast(factChar.put(key, value));
 	}
@@ -514,6 +525,7 @@ public abstract class CDOMObject extends ConcretePrereqObject
 			listChar = new ListKeyMapToList();
 		}
 		listChar.addToListFor(key, element);
+		typeListChanged(key);
 	}
 
 	public final <T> void addAllToListFor(ListKey<T> key, Collection<T> elementCollection)
@@ -523,6 +535,7 @@ public abstract class CDOMObject extends ConcretePrereqObject
 			listChar = new ListKeyMapToList();
 		}
 		listChar.addAllToListFor(key, elementCollection);
+		typeListChanged(key);
 	}
 
 	/**
@@ -630,6 +643,48 @@ public abstract class CDOMObject extends ConcretePrereqObject
 		return listChar != null && listChar.containsAnyInList(key, elementCollection);
 	}
 
+	/**
+	 * Returns true if the given Type is in the ListKey.TYPE list of this
+	 * CDOMObject. This is equivalent to containsInList(ListKey.TYPE, type), but
+	 * is answered from a BitSet of Type ordinals rather than a search of the
+	 * list.
+	 * 
+	 * @param type
+	 *            The Type to be tested
+	 * @return true if this CDOMObject is of the given Type; false otherwise
+	 */
+	public final boolean containsType(Type type)
+	{
+		return type != null && getTypeMembership().get(type.getOrdinal());
+	}
+
+	private BitSet getTypeMembership()
+	{
+		BitSet membership = typeMembership;
+		if (membership == null)
+		{
+			membership = new BitSet();
+			List<Type> types = listChar == null ? null : listChar.getListFor(ListKey.TYPE);
+			if (types != null)
+			{
+				for (Type type : types)
+				{
+					membership.set(type.getOrdinal());
+				}
+			}
+			typeMembership = membership;
+		}
+		return membership;
+	}
+
+	private void typeListChanged(ListKey<?> key)
+	{
+		if (key == ListKey.TYPE)
+		{
+			typeMembership = null;
+		}
+	}
+
 	public final <T> T getElementInList(ListKey<T> key, int index)
 	{
 		return listChar == null ? null : listChar.getElementInList(key, index);
@@ -638,6 +693,7 @@ public abstract class CDOMObject extends ConcretePrereqObject
 	public final <T> List<T> removeListFor(ListKey<T> key)
 	{
 		List<T> out = listChar == null ? null : listChar.removeListFor(key);
+		typeListChanged(key);
 		if (out != null && listChar.isEmpty())
 		{
 			listChar = null;
@@ -648,6 +704,7 @@ public abstract class CDOMObject extends ConcretePrereqObject
 	public final <T> boolean removeFromListFor(ListKey<T> key, T element)
 	{
 		boolean removed = listChar != null && listChar.removeFromListFor(key, element);
+		typeListChanged(key);
 		if (removed && listChar.isEmpty())
 		{
 			listChar = null;
@@ -937,7 +994,7 @@ public abstract class CDOMObject extends ConcretePrereqObject
 		{
 			if (integerChar == null)
 			{
-				integerChar = new HashMap<>();
+				integerChar = new CompactKeyMap<>();
 			}
 			integerChar.putAll(cdo.integerChar);
 		}
@@ -953,7 +1010,7 @@ public abstract class CDOMObject extends ConcretePrereqObject
 		{
 			if (formulaChar == null)
 			{
-				formulaChar = new HashMap<>();
+				formulaChar = new CompactKeyMap<>();
 			}
 			formulaChar.putAll(cdo.formulaChar);
 		}
@@ -961,7 +1018,7 @@ public abstract class CDOMObject extends ConcretePrereqObject
 		{
 			if (objectChar == null)
 			{
-				objectChar = new HashMap<>();
+				objectChar = new CompactKeyMap<>();
 			}
 			objectChar.putAll(cdo.objectChar);
 		}
@@ -969,7 +1026,7 @@ public abstract class CDOMObject extends ConcretePrereqObject
 		{
 			if (factChar == null)
 			{
-				factChar = new HashMap<>();
+				factChar = new CompactKeyMap<>();
 			}
 			factChar.putAll(cdo.factChar);
 		}
@@ -977,7 +1034,7 @@ public abstract class CDOMObject extends ConcretePrereqObject
 		{
 			if (variableChar == null)
 			{
-				variableChar = new HashMap<>();
+				variableChar = new CompactKeyMap<>();
 			}
 			variableChar.putAll(cdo.variableChar);
 		}
@@ -988,6 +1045,7 @@ public abstract class CDOMObject extends ConcretePrereqObject
 				listChar = new ListKeyMapToList();
 			}
 			listChar.addAllLists(cdo.listChar);
+			typeMembership = null;
 		}
 		if (cdo.factSetChar != null)
 		{
@@ -1019,17 +1077,18 @@ public abstract class CDOMObject extends ConcretePrereqObject
 	public CDOMObject clone() throws CloneNotSupportedException
 	{
 		CDOMObject clone = (CDOMObject) super.clone();
-		clone.integerChar = integerChar == null ? null : new HashMap<>(integerChar);
+		clone.integerChar = integerChar == null ? null : new CompactKeyMap<>(integerChar);
 		clone.stringChar = stringChar == null ? null : new EnumMap<>(stringChar);
-		clone.formulaChar = formulaChar == null ? null : new HashMap<>(formulaChar);
-		clone.variableChar = variableChar == null ? null : new HashMap<>(variableChar);
-		clone.objectChar = objectChar == null ? null : new HashMap<>(objectChar);
-		clone.factChar = factChar == null ? null : new HashMap<>(factChar);
+		clone.formulaChar = formulaChar == null ? null : new CompactKeyMap<>(formulaChar);
+		clone.variableChar = variableChar == null ? null : new CompactKeyMap<>(variableChar);
+		clone.objectChar = objectChar == null ? null : new CompactKeyMap<>(objectChar);
+		clone.factChar = factChar == null ? null : new CompactKeyMap<>(factChar);
 		if (listChar != null)
 		{
 			clone.listChar = new ListKeyMapToList();
 			clone.listChar.addAllLists(listChar);
 		}
+		clone.typeMembership = null;
 		if (factSetChar != null)
 		{
 			clone.factSetChar = new FactSetKeyMapToList();
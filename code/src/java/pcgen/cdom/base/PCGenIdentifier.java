@@ -18,6 +18,7 @@
 package pcgen.cdom.base;
 
 import pcgen.cdom.enumeration.DataSetID;
+import pcgen.cdom.facet.base.FacetStorage;
 
 /**
  * This interface represents an identifier (like a CharID) so that certain classes can use
@@ -30,4 +31,10 @@ public interface PCGenIdentifier
 	 * @return the owned DataSetID under which variable was created.
 	 */
 	public DataSetID getDataSetID();
+
+	/**
+	 * @return the FacetStorage holding the information stored by facets for the resource
+	 *         identified by this PCGenIdentifier.
+	 */
+	public FacetStorage getFacetStorage();
 }
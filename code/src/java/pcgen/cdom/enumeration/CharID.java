@@ -17,12 +17,12 @@
  */
 package pcgen.cdom.enumeration;
 
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import pcgen.base.enumeration.TypeSafeConstant;
 import pcgen.cdom.base.PCGenIdentifier;
-import pcgen.cdom.facet.base.AbstractStorageFacet;
+import pcgen.cdom.facet.base.FacetStorage;
 
 /**
  * 
@@ -35,7 +35,7 @@ public final class CharID implements TypeSafeConstant, PCGenIdentifier
 	/**
 	 * This is used to provide a unique ordinal to each constant in this class
 	 */
-	private static int ordinalCount = 0;
+	private static final AtomicInteger ORDINAL_COUNT = new AtomicInteger();
 
 	/**
 	 * The ordinal of this Constant
@@ -48,18 +48,16 @@ public final class CharID implements TypeSafeConstant, PCGenIdentifier
 	private final DataSetID datasetID;
 
 	/**
-	 * A view of the cache for this CharID. Generally useful for debuggers,
-	 * since this is a consolidated point for the cache for a single
-	 * CharID/PlayerCharacter (and useful to be here in CharID since there is
-	 * now code that no longer has any PlayerCharacter reference).
+	 * The cache (the information stored by facets) for this CharID. Owned here so
+	 * that it is released with the CharID, and so that facets can reach it without
+	 * consulting any shared structure.
 	 */
-	@SuppressWarnings("unused")
-	private Map<Class<?>, Object> myFacetCache;
+	private final FacetStorage facetStorage = new FacetStorage();
 
 	private CharID(DataSetID dsid)
 	{
 		Objects.requireNonNull(dsid, "DataSetID cannot be null");
-		ordinal = ordinalCount++;
+		ordinal = ORDINAL_COUNT.getAndIncrement();
 		datasetID = dsid;
 	}
 
@@ -80,7 +78,6 @@ public final class CharID implements TypeSafeConstant, PCGenIdentifier
 	public static CharID getID(DataSetID dsid)
 	{
 		CharID id = new CharID(dsid);
-		id.myFacetCache = AbstractStorageFacet.peekAtCache(id);
 		return id;
 	}
 
@@ -89,4 +86,10 @@ public final class CharID implements TypeSafeConstant, PCGenIdentifier
 	{
 		return this.datasetID;
 	}
+
+	@Override
+	public FacetStorage getFacetStorage()
+	{
+		return facetStorage;
+	}
 }
@@ -0,0 +1,66 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.cdom.enumeration;
+
+/**
+ * CharacterDomain identifies the area of a PlayerCharacter that was altered by a
+ * change. It is passed to PlayerCharacter.setDirty(CharacterDomain) so that caches
+ * can be selectively invalidated rather than discarded on every change.
+ * 
+ * A domain that does not affect calculations (such as the notes of a character) can
+ * be changed without invalidating the cached results of formulas, bonuses and other
+ * calculations.
+ */
+public enum CharacterDomain
+{
+	/**
+	 * A change that can alter the result of a calculation, or that is not (or cannot
+	 * be) attributed to a more specific domain. Changes in this domain are treated as
+	 * a change to every domain.
+	 */
+	GENERAL(true),
+
+	/**
+	 * Descriptive information (such as name, height, eye color or notes) that is not
+	 * used in any calculation.
+	 */
+	DESCRIPTION(false),
+
+	/**
+	 * Presentation settings for the character (such as output order or the preview
+	 * sheet).
+	 */
+	SETTINGS(false);
+
+	private final boolean affectsCalculations;
+
+	CharacterDomain(boolean affectsCalculations)
+	{
+		this.affectsCalculations = affectsCalculations;
+	}
+
+	/**
+	 * Returns true if a change in this domain can alter the result of a calculation
+	 * (formula, bonus, prerequisite, etc.) on the character.
+	 * 
+	 * @return true if a change in this domain can alter the result of a calculation;
+	 *         false otherwise
+	 */
+	public boolean affectsCalculations()
+	{
+		return affectsCalculations;
+	}
+}
@@ -17,11 +17,9 @@
  */
 package pcgen.cdom.enumeration;
 
-import java.util.Map;
-
 import pcgen.base.enumeration.TypeSafeConstant;
 import pcgen.cdom.base.PCGenIdentifier;
-import pcgen.cdom.facet.base.AbstractStorageFacet;
+import pcgen.cdom.facet.base.FacetStorage;
 
 /**
  * This Class is a Type Safe Constant. It is designed to hold a unique Data Set
@@ -42,13 +40,11 @@ public final class DataSetID implements TypeSafeConstant, PCGenIdentifier
 	private final int ordinal;
 
 	/**
-	 * A view of the cache for this DataSetID. Generally useful for debuggers,
-	 * since this is a consolidated point for the cache for a single
-	 * DataSetID/Loaded Campaigns (and useful to be here in DataSetID since
-	 * there is code that has no Loaded Campaign reference).
+	 * The cache (the information stored by facets) for this DataSetID. Owned here so
+	 * that it is released with the DataSetID, and so that facets can reach it without
+	 * consulting any shared structure.
 	 */
-	@SuppressWarnings("unused")
-	private Map<Class<?>, Object> myFacetCache;
+	private final FacetStorage facetStorage = new FacetStorage();
 
 	private DataSetID()
 	{
@@ -67,7 +63,6 @@ public final class DataSetID implements TypeSafeConstant, PCGenIdentifier
 	public static DataSetID getID()
 	{
 		DataSetID id = new DataSetID();
-		id.myFacetCache = AbstractStorageFacet.peekAtCache(id);
 		return id;
 	}
 
@@ -76,4 +71,10 @@ public final class DataSetID implements TypeSafeConstant, PCGenIdentifier
 	{
 		return this;
 	}
+
+	@Override
+	public FacetStorage getFacetStorage()
+	{
+		return facetStorage;
+	}
 }
@@ -20,11 +20,14 @@ package pcgen.cdom.enumeration;
 import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import pcgen.base.enumeration.TypeSafeConstant;
+import pcgen.base.lang.CaseInsensitiveString;
 import pcgen.base.lang.UnreachableError;
-import pcgen.base.util.CaseInsensitiveMap;
 import pcgen.cdom.base.Constants;
 
 /**
@@ -36,9 +39,17 @@ import pcgen.cdom.base.Constants;
 public final class Type implements TypeSafeConstant, Comparable<Type>
 {
 	/**
-	 * This Map contains the mappings from Strings to the Type Safe Constant
+	 * This Map contains the mappings from Strings to the Type Safe Constant.
+	 * Concurrent, as Types may be created and looked up by several threads at once.
 	 */
-	private static final CaseInsensitiveMap<Type> TYPE_MAP = new CaseInsensitiveMap<>();
+	private static final Map<CaseInsensitiveString, Type> TYPE_MAP = new ConcurrentHashMap<>();
+
+	/**
+	 * This is used to provide a unique ordinal to each constant in this class.
+	 * Declared before the constants below, so it is not reset to zero once they
+	 * have been created.
+	 */
+	private static final AtomicInteger ORDINAL_COUNT = new AtomicInteger();
 
 	public static final Type NATURAL = getConstant("Natural");
 
@@ -107,11 +118,6 @@ public final class Type implements TypeSafeConstant, Comparable<Type>
 		buildMap();
 	}
 
-	/**
-	 * This is used to provide a unique ordinal to each constant in this class
-	 */
-	private static int ordinalCount = 0;
-
 	/**
 	 * The name of this Constant
 	 */
@@ -125,7 +131,7 @@ public final class Type implements TypeSafeConstant, Comparable<Type>
 	private Type(String name)
 	{
 		Objects.requireNonNull(name, "Name for Type cannot be null");
-		ordinal = ordinalCount++;
+		ordinal = ORDINAL_COUNT.getAndIncrement();
 		fieldName = name;
 	}
 
@@ -172,13 +178,8 @@ public final class Type implements TypeSafeConstant, Comparable<Type>
 	 */
 	public static Type getConstant(String name)
 	{
-		Type type = TYPE_MAP.get(name);
-		if (type == null)
-		{
-			type = new Type(name);
-			TYPE_MAP.put(name, type);
-		}
-		return type;
+		Objects.requireNonNull(name, "Name for Type cannot be null");
+		return TYPE_MAP.computeIfAbsent(new CaseInsensitiveString(name), key -> new Type(name));
 	}
 
 	/**
@@ -194,7 +195,7 @@ public final class Type implements TypeSafeConstant, Comparable<Type>
 	 */
 	public static Type valueOf(String name)
 	{
-		Type type = TYPE_MAP.get(name);
+		Type type = getExistingConstant(name);
 		if (type == null)
 		{
 			throw new IllegalArgumentException(name + " is not a previously defined Type");
@@ -202,12 +203,28 @@ public final class Type implements TypeSafeConstant, Comparable<Type>
 		return type;
 	}
 
+	/**
+	 * Returns the constant for the given String (the search for the constant is
+	 * case insensitive). Unlike getConstant, this does not create a new Constant
+	 * if one does not already exist, so it is suitable for queries.
+	 * 
+	 * @param name
+	 *            The name of the constant to be returned
+	 * @return The Constant for the given name; null if the given String is not
+	 *         a previously defined Type
+	 */
+	public static Type getExistingConstant(String name)
+	{
+		return (name == null) ? null : TYPE_MAP.get(new CaseInsensitiveString(name));
+	}
+
 	/**
 	 * Returns a Collection of all of the Constants in this Class.
 	 * 
 	 * This collection maintains a reference to the Constants in this Class, so
 	 * if a new Constant is created, the Collection returned by this method will
-	 * be modified. (Beware of ConcurrentModificationExceptions)
+	 * be modified. Iteration does not fail if a Constant is created meanwhile;
+	 * it may or may not include the new Constant.
 	 * 
 	 * @return a Collection of all of the Constants in this Class.
 	 */
@@ -245,7 +262,7 @@ public final class Type implements TypeSafeConstant, Comparable<Type>
                     Object obj = field.get(null);
                     if (obj instanceof Type)
                     {
-                        TYPE_MAP.put(field.getName(), (Type) obj);
+                        TYPE_MAP.put(new CaseInsensitiveString(field.getName()), (Type) obj);
                     }
                 } catch (IllegalArgumentException | IllegalAccessException e)
                 {
@@ -289,6 +289,7 @@ public class BonusSkillRankChangeFacet extends AbstractStorageFacet<CharID>
 		 */
 		public void fireSkillRankChange(CharID id, Skill skill, Number oldValue, Number newValue)
 		{
+			id.getFacetStorage().recordChange();
 			SkillRankChangeEvent bce = new SkillRankChangeEvent(id, skill, oldValue, newValue);
 
 			for (SkillRankChangeListener target : listeners)
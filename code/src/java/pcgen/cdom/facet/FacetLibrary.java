@@ -18,8 +18,10 @@
 package pcgen.cdom.facet;
 
 import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import pcgen.cdom.helper.SpringHelper;
 import pcgen.util.Logging;
@@ -36,7 +38,18 @@ public final class FacetLibrary
 		//Do not instantiate
 	}
 
-	private static final Map<Class<?>, Object> facets = new HashMap<>();
+	private static final Map<Class<?>, Object> facets = new ConcurrentHashMap<>();
+
+	/**
+	 * The ordinal assigned to each facet class, used to index the FacetStorage of each
+	 * resource.
+	 */
+	private static final Map<Class<?>, Integer> ORDINALS = new ConcurrentHashMap<>();
+
+	/**
+	 * The facet classes, indexed by ordinal.
+	 */
+	private static final List<Class<?>> FACET_CLASSES = new CopyOnWriteArrayList<>();
 
 	public static <T> T getFacet(Class<T> cl)
 	{
@@ -59,9 +72,55 @@ public final class FacetLibrary
 					Logging.errorPrint("unable to construct old style Facet", e);
 				}
 			}
-			facets.put(cl, facet);
+			if (facet != null)
+			{
+				T existing = cl.cast(facets.putIfAbsent(cl, facet));
+				if (existing != null)
+				{
+					facet = existing;
+				}
+			}
 		}
 		return facet;
 	}
 
+	/**
+	 * Returns the ordinal of the given facet class. Ordinals are dense (they start at
+	 * zero and are assigned in sequence as facet classes are first seen), and do not
+	 * change for the life of the JVM.
+	 * 
+	 * @param cl
+	 *            The facet class for which the ordinal should be returned
+	 * @return The ordinal of the given facet class
+	 */
+	public static int getOrdinal(Class<?> cl)
+	{
+		Integer ordinal = ORDINALS.get(cl);
+		return (ordinal == null) ? assignOrdinal(cl) : ordinal;
+	}
+
+	private static synchronized int assignOrdinal(Class<?> cl)
+	{
+		Integer ordinal = ORDINALS.get(cl);
+		if (ordinal == null)
+		{
+			ordinal = FACET_CLASSES.size();
+			FACET_CLASSES.add(cl);
+			ORDINALS.put(cl, ordinal);
+		}
+		return ordinal;
+	}
+
+	/**
+	 * Returns the facet class with the given ordinal.
+	 * 
+	 * @param ordinal
+	 *            The ordinal of the facet class to be returned
+	 * @return The facet class with the given ordinal
+	 */
+	public static Class<?> getFacetClass(int ordinal)
+	{
+		return FACET_CLASSES.get(ordinal);
+	}
+
 }
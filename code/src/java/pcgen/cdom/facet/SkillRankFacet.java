@@ -343,6 +343,7 @@ public class SkillRankFacet extends AbstractStorageFacet<CharID>
 				// Nothing to do
 				return;
 			}
+			id.getFacetStorage().recordChange();
 			SkillRankChangeListener[] listeners = listenerList.getListeners(SkillRankChangeListener.class);
 			/*
 			 * This list is decremented from the end of the list to the
@@ -238,6 +238,7 @@ public class TotalSkillRankFacet extends AbstractStorageFacet<CharID>
 		 */
 		public void fireAssociationChange(CharID id, Skill skill, Number oldValue, Number newValue)
 		{
+			id.getFacetStorage().recordChange();
 			AssociationChangeEvent bce = new AssociationChangeEvent(id, skill, oldValue, newValue, source);
 
 			for (AssociationChangeListener target : listeners)
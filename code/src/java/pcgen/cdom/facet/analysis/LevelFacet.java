@@ -379,6 +379,7 @@ public class LevelFacet extends AbstractStorageFacet<CharID> implements ClassLev
 		 */
 		protected void fireLevelChangeEvent(CharID id)
 		{
+			id.getFacetStorage().recordChange();
 			LevelChangeListener[] listeners = listenerList.getListeners(LevelChangeListener.class);
 			/*
 			 * This list is decremented from the end of the list to the
@@ -214,6 +214,7 @@ public abstract class AbstractDataFacet<IDT extends PCGenIdentifier, T> extends
 	@SuppressWarnings("rawtypes")
 	protected void fireDataFacetChangeEvent(IDT id, T node, int type, Category category, Nature nature)
 	{
+		id.getFacetStorage().recordChange();
 		for (DataFacetChangeListener<IDT, ? super T>[] dfclArray : listeners.values())
 		{
 			/*
@@ -393,6 +393,7 @@ public class AbstractScopeFacet<IDT extends PCGenIdentifier, S, T> extends Abstr
 	@SuppressWarnings("rawtypes")
 	protected void fireScopeFacetChangeEvent(IDT id, S scope, T node, int type)
 	{
+		id.getFacetStorage().recordChange();
 		for (ScopeFacetChangeListener<? super IDT, ? super S, ? super T>[] dfclArray : listeners.values())
 		{
 			/*
@@ -23,11 +23,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.WeakHashMap;
 
 import pcgen.base.test.InequalityTester;
-import pcgen.base.util.DoubleKeyMap;
 import pcgen.cdom.base.PCGenIdentifier;
+import pcgen.cdom.facet.FacetLibrary;
 import pcgen.util.Logging;
 
 /**
@@ -35,13 +34,22 @@ import pcgen.util.Logging;
  * cache. All classes (facets) that want to store information in the cache must
  * extend this class.
  * 
+ * The cache for each resource is the FacetStorage owned by the PCGenIdentifier of
+ * that resource, in which each facet class has a slot (the ordinal assigned to the
+ * class by FacetLibrary). Different resources may therefore be processed on
+ * different threads at the same time.
+ * 
  * @param <T>
  *            The Type of identifier used in this AbstractStorageFacet
  */
 public abstract class AbstractStorageFacet<T extends PCGenIdentifier>
 {
 
-	private final Class<?> thisClass = getClass();
+	/**
+	 * The ordinal of this facet's class, which is the index of its slot in each
+	 * FacetStorage.
+	 */
+	private final int ordinal = FacetLibrary.getOrdinal(getClass());
 
 	/**
 	 * Copies the contents of the AbstractStorageFacet from one resource to
@@ -69,23 +77,6 @@ public abstract class AbstractStorageFacet<T extends PCGenIdentifier>
 	 */
 	public abstract void copyContents(T source, T copy);
 
-	/**
-	 * The actual cache that stores the CDOM information, as stored by the
-	 * identifying PCGenIdentifier of a resource and the class of the facet
-	 * storing the information
-	 */
-	private static final DoubleKeyMap<PCGenIdentifier, Class<?>, Object> CACHE =
-			new DoubleKeyMap<>(WeakHashMap.class, HashMap.class);
-
-	/*
-	 * Note: the use of CACHE.getReadOnlyMapFor(K1) in peekAtCache makes calling
-	 * CACHE.removeAll(k1) or CACHE.clear() [not used in this class at the
-	 * moment] a rather dangerous activity that is prone to later frustration in
-	 * debugging. It is advised that if such a call is every considered that
-	 * detailed consideration is made of the consequences so that debugging
-	 * information is not destroyed in the process. - thpr Dec 15, 2012.
-	 */
-
 	/**
 	 * Removes the information from the cache for a given resource and facet (as
 	 * identified by the Class)
@@ -100,7 +91,7 @@ public abstract class AbstractStorageFacet<T extends PCGenIdentifier>
 	public Object removeCache(T id)
 	{
 		Objects.requireNonNull(id, "PCGenIdentifier cannot be null in removeCache");
-		return CACHE.remove(id, thisClass);
+		return id.getFacetStorage().remove(ordinal);
 	}
 
 	/**
@@ -119,7 +110,7 @@ public abstract class AbstractStorageFacet<T extends PCGenIdentifier>
 	public Object setCache(T id, Object o)
 	{
 		Objects.requireNonNull(id, "PCGenIdentifier cannot be null in setCache");
-		return CACHE.put(id, thisClass, o);
+		return id.getFacetStorage().put(ordinal, o);
 	}
 
 	/**
@@ -136,7 +127,7 @@ public abstract class AbstractStorageFacet<T extends PCGenIdentifier>
 	public Object getCache(T id)
 	{
 		Objects.requireNonNull(id, "PCGenIdentifier cannot be null in getCache");
-		return CACHE.get(id, thisClass);
+		return id.getFacetStorage().get(ordinal);
 	}
 
 	/**
@@ -161,8 +152,10 @@ public abstract class AbstractStorageFacet<T extends PCGenIdentifier>
 	{
 		Objects.requireNonNull(id1, "PCGenIdentifier #1 cannot be null in areEqualCache");
 		Objects.requireNonNull(id2, "PCGenIdentifier #2 cannot be null in areEqualCache");
-		Set<Class<?>> set1 = CACHE.getSecondaryKeySet(id1);
-		Set<Class<?>> set2 = CACHE.getSecondaryKeySet(id2);
+		Map<Class<?>, Object> cache1 = new HashMap<>(peekAtCache(id1));
+		Map<Class<?>, Object> cache2 = new HashMap<>(peekAtCache(id2));
+		Set<Class<?>> set1 = cache1.keySet();
+		Set<Class<?>> set2 = cache2.keySet();
 		if (!set1.equals(set2))
 		{
 			List<Class<?>> l1 = new ArrayList<>(set1);
@@ -174,8 +167,8 @@ public abstract class AbstractStorageFacet<T extends PCGenIdentifier>
 		}
 		for (Class<?> cl : set1)
 		{
-			Object obj1 = CACHE.get(id1, cl);
-			Object obj2 = CACHE.get(id2, cl);
+			Object obj1 = cache1.get(cl);
+			Object obj2 = cache2.get(cl);
 			String equal = t.testEquality(obj1, obj2, cl + "/");
 			if (equal != null)
 			{
@@ -195,11 +188,11 @@ public abstract class AbstractStorageFacet<T extends PCGenIdentifier>
 	 * will change as the contents of the cache are changed). Ownership of the
 	 * returned Map is transferred to the caller, although since it is
 	 * read-only, that is perhaps only relevant for determining the garbage
-	 * collection time of the decorator that makes the returned Map an
-	 * unmodifiable view into this DoubleKeyMap.
+	 * collection time of the view of the FacetStorage.
 	 * 
 	 * Note that while this is a read-only map, there is no guarantee that this
-	 * returned map is thread-safe. Use in threaded situations with caution.
+	 * returned map is a consistent snapshot if the cache is being changed by
+	 * another thread. Use in threaded situations with caution.
 	 * 
 	 * @param id
 	 *            The PCGenIdentifier for which a read-only view of the cache
@@ -209,6 +202,6 @@ public abstract class AbstractStorageFacet<T extends PCGenIdentifier>
 	public static Map<Class<?>, Object> peekAtCache(PCGenIdentifier id)
 	{
 		Objects.requireNonNull(id, "PCGenIdentifier cannot be null in peekAtCache");
-		return CACHE.getReadOnlyMapFor(id);
+		return id.getFacetStorage().asMap();
 	}
 }
@@ -367,6 +367,7 @@ public class AbstractSubScopeFacet<S1, S2, T> extends AbstractStorageFacet<CharI
 	@SuppressWarnings("rawtypes")
 	protected void fireSubScopeFacetChangeEvent(CharID id, S1 scope1, S2 scope2, T node, int type)
 	{
+		id.getFacetStorage().recordChange();
 		for (SubScopeFacetChangeListener<? super S1, ? super S2, ? super T>[] dfclArray : listeners.values())
 		{
 			/*
@@ -0,0 +1,224 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.cdom.facet.base;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import pcgen.cdom.facet.FacetLibrary;
+
+/**
+ * FacetStorage holds the information stored by each AbstractStorageFacet for a single
+ * resource (e.g. a character, as identified by a CharID). The information is held in a
+ * dense array, indexed by the ordinal assigned to the class of each facet by
+ * FacetLibrary.
+ * 
+ * Each PCGenIdentifier owns its FacetStorage, so the information is released when the
+ * PCGenIdentifier is, and no shared structure is touched when the information is
+ * accessed. Reads do not lock. Writes lock only the FacetStorage being changed, so the
+ * facets of different resources can be processed on different threads at the same
+ * time.
+ * 
+ * A FacetStorage also counts the changes reported by facets for its resource, so that a
+ * cached result can cheaply detect whether anything about the resource has changed
+ * since the result was calculated.
+ */
+public final class FacetStorage
+{
+	/**
+	 * The initial number of slots in a FacetStorage.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * The slots, indexed by facet ordinal. Replaced (under the lock) when it must grow.
+	 */
+	private volatile AtomicReferenceArray<Object> slots =
+			new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+	/**
+	 * The number of changes reported for the resource which owns this FacetStorage.
+	 */
+	private final AtomicInteger changeCount = new AtomicInteger();
+
+	/**
+	 * Returns the information stored for the facet with the given ordinal.
+	 * 
+	 * @param ordinal
+	 *            The ordinal of the facet class, as assigned by FacetLibrary
+	 * @return The information stored for the facet with the given ordinal, or null
+	 */
+	Object get(int ordinal)
+	{
+		AtomicReferenceArray<Object> current = slots;
+		return (ordinal < current.length()) ? current.get(ordinal) : null;
+	}
+
+	/**
+	 * Stores the information for the facet with the given ordinal.
+	 * 
+	 * @param ordinal
+	 *            The ordinal of the facet class, as assigned by FacetLibrary
+	 * @param value
+	 *            The information to be stored
+	 * @return The information previously stored for the facet with the given ordinal,
+	 *         or null
+	 */
+	synchronized Object put(int ordinal, Object value)
+	{
+		AtomicReferenceArray<Object> current = slots;
+		if (ordinal >= current.length())
+		{
+			int capacity = Math.max(ordinal + 1, current.length() * 2);
+			AtomicReferenceArray<Object> grown = new AtomicReferenceArray<>(capacity);
+			for (int i = 0; i < current.length(); i++)
+			{
+				grown.set(i, current.get(i));
+			}
+			slots = grown;
+			current = grown;
+		}
+		return current.getAndSet(ordinal, value);
+	}
+
+	/**
+	 * Removes the information stored for the facet with the given ordinal.
+	 * 
+	 * @param ordinal
+	 *            The ordinal of the facet class, as assigned by FacetLibrary
+	 * @return The information previously stored for the facet with the given ordinal,
+	 *         or null
+	 */
+	synchronized Object remove(int ordinal)
+	{
+		AtomicReferenceArray<Object> current = slots;
+		return (ordinal < current.length()) ? current.getAndSet(ordinal, null) : null;
+	}
+
+	/**
+	 * Records that a facet has changed the information for the resource which owns
+	 * this FacetStorage.
+	 */
+	public void recordChange()
+	{
+		changeCount.incrementAndGet();
+	}
+
+	/**
+	 * Returns the number of changes recorded for the resource which owns this
+	 * FacetStorage. The value has no meaning of its own; it is only useful to compare
+	 * against a value previously returned by this method.
+	 * 
+	 * @return The number of changes recorded for the resource which owns this
+	 *         FacetStorage
+	 */
+	public int getChangeCount()
+	{
+		return changeCount.get();
+	}
+
+	/**
+	 * Returns a read-only view of this FacetStorage, keyed by the class of each facet.
+	 * The view is reference-semantic: it reflects later changes to this FacetStorage.
+	 * 
+	 * @return A read-only view of this FacetStorage
+	 */
+	public Map<Class<?>, Object> asMap()
+	{
+		return new AbstractMap<>()
+		{
+			@Override
+			public Set<Map.Entry<Class<?>, Object>> entrySet()
+			{
+				return new AbstractSet<>()
+				{
+					@Override
+					public Iterator<Map.Entry<Class<?>, Object>> iterator()
+					{
+						return new SlotIterator(slots);
+					}
+
+					@Override
+					public int size()
+					{
+						AtomicReferenceArray<Object> current = slots;
+						int size = 0;
+						for (int i = 0; i < current.length(); i++)
+						{
+							if (current.get(i) != null)
+							{
+								size++;
+							}
+						}
+						return size;
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Iterates over the occupied slots of a FacetStorage.
+	 */
+	private static final class SlotIterator implements Iterator<Map.Entry<Class<?>, Object>>
+	{
+		private final AtomicReferenceArray<Object> array;
+
+		private int next = -1;
+
+		private Object nextValue;
+
+		private SlotIterator(AtomicReferenceArray<Object> array)
+		{
+			this.array = array;
+			advance();
+		}
+
+		private void advance()
+		{
+			nextValue = null;
+			while ((nextValue == null) && (++next < array.length()))
+			{
+				nextValue = array.get(next);
+			}
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return next < array.length();
+		}
+
+		@Override
+		public Map.Entry<Class<?>, Object> next()
+		{
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+			Map.Entry<Class<?>, Object> entry =
+					Map.entry(FacetLibrary.getFacetClass(next), nextValue);
+			advance();
+			return entry;
+		}
+	}
+}
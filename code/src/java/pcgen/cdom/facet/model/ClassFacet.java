@@ -770,6 +770,7 @@ public class ClassFacet extends AbstractDataFacet<CharID, PCClass> implements Se
 				// Nothing to do
 				return;
 			}
+			id.getFacetStorage().recordChange();
 			ClassLevelChangeListener[] listeners = listenerList.getListeners(ClassLevelChangeListener.class);
 			/*
 			 * This list is decremented from the end of the list to the
@@ -797,6 +798,7 @@ public class ClassFacet extends AbstractDataFacet<CharID, PCClass> implements Se
 				// Nothing to do
 				return;
 			}
+			id.getFacetStorage().recordChange();
 			ClassLevelChangeListener[] listeners = listenerList.getListeners(ClassLevelChangeListener.class);
 			/*
 			 * This list is decremented from the end of the list to the
@@ -39,6 +39,11 @@ public class MonitorableVariableStore extends SimpleVariableStore
 	private final DoubleKeyMapToList<Integer, VariableID<?>, VariableListener<?>> listenerList =
 			new DoubleKeyMapToList<>(TreeMap.class, HashMap.class);
 
+	/**
+	 * The number of times a value in this MonitorableVariableStore has changed.
+	 */
+	private int changeCount;
+
 	/**
 	 * Adds a VariableListener for the given VariableID.
 	 * 
@@ -115,11 +120,25 @@ public class MonitorableVariableStore extends SimpleVariableStore
 		T old = super.put(varID, value);
 		if (!value.equals(old))
 		{
+			changeCount++;
 			fireVariableChanged(varID, old, value);
 		}
 		return old;
 	}
 
+	/**
+	 * Returns the number of times a value in this MonitorableVariableStore has
+	 * changed. Results calculated from the values in this MonitorableVariableStore
+	 * remain valid while this number is unchanged.
+	 * 
+	 * @return The number of times a value in this MonitorableVariableStore has
+	 *         changed
+	 */
+	public int getChangeCount()
+	{
+		return changeCount;
+	}
+
 	/**
 	 * Fires a VariableChangeEvent to the VariableListeners subscribed to the
 	 * given VariableID.
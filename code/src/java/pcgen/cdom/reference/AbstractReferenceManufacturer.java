@@ -20,7 +20,9 @@ package pcgen.cdom.reference;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -319,31 +321,37 @@ public abstract class AbstractReferenceManufacturer<T extends Loadable> implemen
 
 	private boolean resolveGroupReferences()
 	{
-		for (T obj : getAllObjects())
+		List<T> objects = new ArrayList<>(getAllObjects());
+		if (allRef != null)
 		{
-			if (allRef != null)
-			{
-				allRef.addResolution(obj);
-			}
-			for (Map.Entry<FixedStringList, WeakReference<CDOMGroupRef<T>>> me : typeReferences.entrySet())
+			objects.forEach(allRef::addResolution);
+		}
+		/*
+		 * The members of each type used by a TYPE reference are identified once
+		 * (many references share types, e.g. TYPE=Weapon.Melee and
+		 * TYPE=Weapon.Ranged), and each reference is then resolved as the
+		 * intersection of the members of its types.
+		 */
+		Map<String, BitSet> typeIndex = new HashMap<>();
+		for (Map.Entry<FixedStringList, WeakReference<CDOMGroupRef<T>>> me : typeReferences.entrySet())
+		{
+			CDOMGroupRef<T> trt = me.getValue().get();
+			if (trt != null)
 			{
-				CDOMGroupRef<T> trt = me.getValue().get();
-				if (trt != null)
+				BitSet matches = new BitSet(objects.size());
+				matches.set(0, objects.size());
+				for (String type : me.getKey())
 				{
-					boolean typeOkay = true;
-					for (String type : me.getKey())
-					{
-						if (!obj.isType(type))
-						{
-							typeOkay = false;
-							break;
-						}
-					}
-					if (typeOkay)
+					matches.and(typeIndex.computeIfAbsent(type, t -> getTypeMembers(objects, t)));
+					if (matches.isEmpty())
 					{
-						trt.addResolution(obj);
+						break;
 					}
 				}
+				for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1))
+				{
+					trt.addResolution(objects.get(i));
+				}
 			}
 		}
 		if (allRef != null && allRef.getObjectCount() == 0)
@@ -356,6 +364,19 @@ public abstract class AbstractReferenceManufacturer<T extends Loadable> implemen
 		return true;
 	}
 
+	private static <T extends Loadable> BitSet getTypeMembers(List<T> objects, String type)
+	{
+		BitSet members = new BitSet(objects.size());
+		for (int i = 0; i < objects.size(); i++)
+		{
+			if (objects.get(i).isType(type))
+			{
+				members.set(i);
+			}
+		}
+		return members;
+	}
+
 	/**
 	 * Adds an object to the contents of this AbstractReferenceManufacturer.
 	 * This is used in conditions where this AbstractReferenceManufacturer was
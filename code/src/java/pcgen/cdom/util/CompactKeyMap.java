@@ -0,0 +1,266 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.cdom.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A CompactKeyMap is a Map designed to hold the small number of entries that a single
+ * CDOMObject has for a given type of key (IntegerKey, ObjectKey, ListKey and the like).
+ * 
+ * The keys and values are held in two parallel arrays, which are searched linearly.
+ * This avoids the table and per-entry Node objects of a HashMap: a HashMap holding four
+ * entries retains roughly 256 bytes, while a CompactKeyMap holding four entries retains
+ * roughly 88 bytes. Lookup is by identity first (the key types are singletons), then by
+ * equals, so the results are the same as for a HashMap.
+ * 
+ * Iteration is in insertion order. Null keys are not permitted. Like HashMap, a
+ * CompactKeyMap is not thread-safe.
+ * 
+ * @param <K>
+ *            The format of the keys of the CompactKeyMap
+ * @param <V>
+ *            The format of the values of the CompactKeyMap
+ */
+public final class CompactKeyMap<K, V> extends AbstractMap<K, V>
+{
+	/**
+	 * The initial capacity of a CompactKeyMap.
+	 */
+	private static final int INITIAL_CAPACITY = 4;
+
+	private Object[] keys;
+
+	private Object[] values;
+
+	private int size = 0;
+
+	/**
+	 * Incremented on every structural modification, to detect concurrent modification
+	 * during iteration.
+	 */
+	private int modCount = 0;
+
+	/**
+	 * Constructs a new, empty CompactKeyMap.
+	 */
+	public CompactKeyMap()
+	{
+		//Public zero argument constructor required for use by GenericMapToList
+		keys = new Object[INITIAL_CAPACITY];
+		values = new Object[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Constructs a new CompactKeyMap containing the entries of the given Map.
+	 * 
+	 * @param map
+	 *            The Map whose entries are to be placed in the new CompactKeyMap
+	 */
+	public CompactKeyMap(Map<? extends K, ? extends V> map)
+	{
+		int capacity = Math.max(INITIAL_CAPACITY, map.size());
+		keys = new Object[capacity];
+		values = new Object[capacity];
+		map.forEach(this::put);
+	}
+
+	private int indexOf(Object key)
+	{
+		if (key == null)
+		{
+			//Keys are never null
+			return -1;
+		}
+		for (int i = 0; i < size; i++)
+		{
+			Object k = keys[i];
+			if ((k == key) || key.equals(k))
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(Object key)
+	{
+		return indexOf(key) >= 0;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(Object key)
+	{
+		int index = indexOf(key);
+		return (index < 0) ? null : (V) values[index];
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V put(K key, V value)
+	{
+		Objects.requireNonNull(key);
+		int index = indexOf(key);
+		if (index >= 0)
+		{
+			V old = (V) values[index];
+			values[index] = value;
+			return old;
+		}
+		if (size == keys.length)
+		{
+			int newCapacity = size + Math.max(INITIAL_CAPACITY, size >> 1);
+			keys = Arrays.copyOf(keys, newCapacity);
+			values = Arrays.copyOf(values, newCapacity);
+		}
+		keys[size] = key;
+		values[size] = value;
+		size++;
+		modCount++;
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public V remove(Object key)
+	{
+		int index = indexOf(key);
+		if (index < 0)
+		{
+			return null;
+		}
+		V old = (V) values[index];
+		removeAt(index);
+		return old;
+	}
+
+	private void removeAt(int index)
+	{
+		int moved = size - index - 1;
+		System.arraycopy(keys, index + 1, keys, index, moved);
+		System.arraycopy(values, index + 1, values, index, moved);
+		size--;
+		keys[size] = null;
+		values[size] = null;
+		modCount++;
+	}
+
+	@Override
+	public void clear()
+	{
+		Arrays.fill(keys, 0, size, null);
+		Arrays.fill(values, 0, size, null);
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet()
+	{
+		return new AbstractSet<>()
+		{
+			@Override
+			public Iterator<Map.Entry<K, V>> iterator()
+			{
+				return new EntryIterator();
+			}
+
+			@Override
+			public int size()
+			{
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Iterates over the entries of the CompactKeyMap, in insertion order.
+	 */
+	private final class EntryIterator implements Iterator<Map.Entry<K, V>>
+	{
+		private int next = 0;
+
+		private int last = -1;
+
+		private int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext()
+		{
+			return next < size;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public Map.Entry<K, V> next()
+		{
+			if (expectedModCount != modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			if (next >= size)
+			{
+				throw new NoSuchElementException();
+			}
+			last = next++;
+			int index = last;
+			return new SimpleEntry<>((K) keys[index], (V) values[index])
+			{
+				@Override
+				public V setValue(V value)
+				{
+					super.setValue(value);
+					V old = (V) values[index];
+					values[index] = value;
+					return old;
+				}
+			};
+		}
+
+		@Override
+		public void remove()
+		{
+			if (last < 0)
+			{
+				throw new IllegalStateException();
+			}
+			if (expectedModCount != modCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+			removeAt(last);
+			next = last;
+			last = -1;
+			expectedModCount = modCount;
+		}
+	}
+}
@@ -19,7 +19,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
-import pcgen.base.util.HashMapToList;
+import pcgen.base.util.GenericMapToList;
 import pcgen.base.util.Indirect;
 import pcgen.base.util.ObjectContainer;
 import pcgen.cdom.enumeration.FactSetKey;
@@ -61,7 +61,7 @@ public class FactSetKeyMapToList
 	 * The internal storage of this FactSetKeyMapToList
 	 */
 	@SuppressWarnings("rawtypes")
-	private final HashMapToList map = new HashMapToList();
+	private final GenericMapToList map = GenericMapToList.getMapToList(CompactKeyMap.class);
 
 	/**
 	 * Adds all of the Lists in the given FactSetKeyMapToList to this
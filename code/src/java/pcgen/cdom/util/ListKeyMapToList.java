@@ -23,7 +23,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
-import pcgen.base.util.HashMapToList;
+import pcgen.base.util.GenericMapToList;
 import pcgen.cdom.enumeration.ListKey;
 
 /**
@@ -64,7 +64,7 @@ public class ListKeyMapToList
 	 * The internal storage of this ListKeyMapToList
 	 */
 	@SuppressWarnings("rawtypes")
-	private final HashMapToList map = new HashMapToList();
+	private final GenericMapToList map = GenericMapToList.getMapToList(CompactKeyMap.class);
 
 	/**
 	 * Adds all of the Lists in the given ListKeyMapToList to this
@@ -19,6 +19,7 @@
  */
 package pcgen.cdom.util;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -52,8 +53,8 @@ public class MapKeyMap
 	 * comment in that class for the full explanation.
 	 */
 	/** The internal storage of this MapKeyMap. */
-	@SuppressWarnings("rawtypes")
-	private final DoubleKeyMap map = new DoubleKeyMap();
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private final DoubleKeyMap map = new DoubleKeyMap(CompactKeyMap.class, HashMap.class);
 
 	/**
 	 * Copies the key/value combinations from the given MapKeyMap into this
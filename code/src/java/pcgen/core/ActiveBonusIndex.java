@@ -0,0 +1,176 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.core;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * An ActiveBonusIndex is an index over the entries of the active bonus map of a
+ * BonusManager, which allows the total bonus for a bonus name (e.g. COMBAT.AC)
+ * or a typed bonus name (e.g. COMBAT.AC:ARMOR) to be calculated without
+ * examining every active bonus.
+ * 
+ * Each key of the active bonus map is split into its base (the key without any
+ * .STACK or .REPLACE suffix) and the lane indicated by the suffix. The values of
+ * the three lanes for a base are held together, and the base is indexed under
+ * itself and under each prefix of the base that ends just before a ':'. Thus
+ * COMBAT.AC:ARMOR.REPLACE is stored in the replace lane of COMBAT.AC:ARMOR, which
+ * answers queries for both COMBAT.AC:ARMOR and COMBAT.AC (but not COMBAT.ACCHECK).
+ * 
+ * Entries are never removed from an ActiveBonusIndex; a new ActiveBonusIndex is
+ * built each time the active bonus map is rebuilt.
+ */
+final class ActiveBonusIndex
+{
+	private static final String STACK_SUFFIX = ".STACK";
+
+	private static final String REPLACE_SUFFIX = ".REPLACE";
+
+	/**
+	 * The lanes for each base key, keyed by the base key.
+	 */
+	private final Map<String, BonusLanes> lanesByBase = new ConcurrentHashMap<>();
+
+	/**
+	 * The lanes which contribute to the total of each query key.
+	 */
+	private final Map<String, List<BonusLanes>> lanesByQuery = new ConcurrentHashMap<>();
+
+	/**
+	 * Records the value of the given key of the active bonus map. If the key was
+	 * previously recorded, the new value replaces the old value.
+	 * 
+	 * @param fullyQualifiedBonusType
+	 *            The (upper case) key of the active bonus map, e.g.
+	 *            COMBAT.AC:ARMOR.REPLACE
+	 * @param value
+	 *            The value of the key in the active bonus map
+	 */
+	void put(String fullyQualifiedBonusType, String value)
+	{
+		double bonus = Double.parseDouble(value);
+		if (fullyQualifiedBonusType.endsWith(STACK_SUFFIX))
+		{
+			getLanes(fullyQualifiedBonusType.substring(0,
+				fullyQualifiedBonusType.length() - STACK_SUFFIX.length())).stackBonus = bonus;
+		}
+		else if (fullyQualifiedBonusType.endsWith(REPLACE_SUFFIX))
+		{
+			getLanes(fullyQualifiedBonusType.substring(0,
+				fullyQualifiedBonusType.length() - REPLACE_SUFFIX.length())).replaceBonus = bonus;
+		}
+		else
+		{
+			getLanes(fullyQualifiedBonusType).bonus = bonus;
+		}
+	}
+
+	private BonusLanes getLanes(String base)
+	{
+		BonusLanes lanes = lanesByBase.get(base);
+		if (lanes == null)
+		{
+			lanes = new BonusLanes();
+			lanesByBase.put(base, lanes);
+			addToQuery(base, lanes);
+			for (int i = base.indexOf(':'); i >= 0; i = base.indexOf(':', i + 1))
+			{
+				addToQuery(base.substring(0, i), lanes);
+			}
+		}
+		return lanes;
+	}
+
+	private void addToQuery(String query, BonusLanes lanes)
+	{
+		lanesByQuery.computeIfAbsent(query, k -> new CopyOnWriteArrayList<>()).add(lanes);
+	}
+
+	/**
+	 * Returns true if any key of the active bonus map contributes to the total for
+	 * the given query.
+	 * 
+	 * @param query
+	 *            The (upper case) bonus name or typed bonus name, e.g. COMBAT.AC
+	 * @return true if any key of the active bonus map contributes to the total for
+	 *         the given query; false otherwise
+	 */
+	boolean contains(String query)
+	{
+		return lanesByQuery.containsKey(query);
+	}
+
+	/**
+	 * Returns the total bonus for the given query. For each base key answering the
+	 * query, the larger of the plain and .REPLACE values (where present) is added
+	 * to the total, and the .STACK value is always added.
+	 * 
+	 * @param query
+	 *            The (upper case) bonus name or typed bonus name, e.g. COMBAT.AC
+	 * @return The total bonus for the given query; 0 if no key of the active bonus
+	 *         map contributes to the given query
+	 */
+	double sum(String query)
+	{
+		List<BonusLanes> matches = lanesByQuery.get(query);
+		if (matches == null)
+		{
+			return 0;
+		}
+		double total = 0;
+		for (BonusLanes lanes : matches)
+		{
+			//
+			// Using NaNs in order to be able to get the max
+			// between an undefined bonus and a negative
+			//
+			double aBonus = lanes.bonus;
+			double replaceBonus = lanes.replaceBonus;
+			if (Double.isNaN(aBonus))
+			{
+				if (!Double.isNaN(replaceBonus))
+				{
+					total += replaceBonus;
+				}
+			}
+			else if (Double.isNaN(replaceBonus))
+			{
+				total += aBonus;
+			}
+			else
+			{
+				total += Math.max(aBonus, replaceBonus);
+			}
+			total += lanes.stackBonus;
+		}
+		return total;
+	}
+
+	/**
+	 * The plain, .REPLACE and .STACK values for a single base key.
+	 */
+	private static final class BonusLanes
+	{
+		private volatile double bonus = Double.NaN;
+
+		private volatile double replaceBonus = Double.NaN;
+
+		private volatile double stackBonus = 0;
+	}
+}
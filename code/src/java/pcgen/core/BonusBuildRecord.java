@@ -0,0 +1,122 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import pcgen.core.bonus.BonusObj;
+
+/**
+ * A BonusBuildRecord records the bonus-to-bonus dependencies found while
+ * building the active bonus map of a BonusManager, i.e. which of the other
+ * active BonusObjs must be processed before each active BonusObj.
+ * 
+ * These dependencies depend only upon the definitions of the BonusObjs, so the
+ * dependencies of a BonusObj which was active in the previous build only need
+ * to be evaluated against the BonusObjs which have become active since.
+ * 
+ * Only the dependency evaluation is incremental. The value of every BonusObj is
+ * resolved again on each build, because a bonus formula may read any part of the
+ * PlayerCharacter (stats, levels, variables, equipment and other bonuses) and
+ * those reads are not recorded. Re-evaluating only the BonusObjs affected by a
+ * change would need every such read to be tracked, or it could keep a stale value.
+ */
+final class BonusBuildRecord
+{
+
+	/**
+	 * The BonusObjs which were active when this BonusBuildRecord was built.
+	 */
+	private final Set<BonusObj> activeBonuses;
+
+	/**
+	 * The BonusObjs upon which each BonusObj depends, in the order of the active
+	 * bonus list.
+	 */
+	private final Map<BonusObj, List<BonusObj>> dependencies = new IdentityHashMap<>();
+
+	/**
+	 * Constructs a new BonusBuildRecord for a build of the active bonus map from
+	 * the given BonusObjs.
+	 * 
+	 * @param activeBonuses
+	 *            The BonusObjs which are active for this build
+	 */
+	BonusBuildRecord(Collection<BonusObj> activeBonuses)
+	{
+		this.activeBonuses = Collections.newSetFromMap(new IdentityHashMap<>());
+		this.activeBonuses.addAll(activeBonuses);
+	}
+
+	/**
+	 * Returns the active BonusObjs upon which the given BonusObj depends, in the
+	 * order of the given active bonus list. The dependencies are evaluated once
+	 * per build, and only the BonusObjs which were not active in the given
+	 * previous build are tested against the given BonusObj.
+	 * 
+	 * Ownership of the returned List is retained by this BonusBuildRecord; it
+	 * must not be modified.
+	 * 
+	 * @param bonus
+	 *            The BonusObj for which the dependencies should be returned
+	 * @param activeBonusList
+	 *            The active bonus list of this build
+	 * @param previous
+	 *            The BonusBuildRecord of the previous build
+	 * @return The active BonusObjs upon which the given BonusObj depends
+	 */
+	List<BonusObj> getDependencies(BonusObj bonus, Collection<BonusObj> activeBonusList,
+		BonusBuildRecord previous)
+	{
+		List<BonusObj> list = dependencies.get(bonus);
+		if (list == null)
+		{
+			List<BonusObj> previousList = previous.dependencies.get(bonus);
+			Set<BonusObj> previousSet = null;
+			if (previousList != null)
+			{
+				previousSet = Collections.newSetFromMap(new IdentityHashMap<>());
+				previousSet.addAll(previousList);
+			}
+			list = new ArrayList<>();
+			for (BonusObj other : activeBonusList)
+			{
+				boolean dependsOn;
+				if ((previousSet != null) && previous.activeBonuses.contains(other))
+				{
+					dependsOn = previousSet.contains(other);
+				}
+				else
+				{
+					dependsOn = bonus.getDependsOn(other.getUnparsedBonusInfoList())
+						|| bonus.getDependsOnBonusName(other.getBonusName());
+				}
+				if (dependsOn)
+				{
+					list.add(other);
+				}
+			}
+			dependencies.put(bonus, list);
+		}
+		return list;
+	}
+}
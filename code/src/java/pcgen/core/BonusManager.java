@@ -69,6 +69,19 @@ public class BonusManager
 
 	private Map<String, Double> cachedActiveBonusSumsMap = new ConcurrentHashMap<>();
 
+	private ActiveBonusIndex activeBonusIndex = new ActiveBonusIndex();
+
+	/**
+	 * What was learned while building the active bonus map most recently.
+	 */
+	private BonusBuildRecord buildRecord = new BonusBuildRecord(Collections.emptySet());
+
+	/**
+	 * Incremented each time the active bonus map or the list of active bonuses
+	 * changes.
+	 */
+	private int version;
+
 	private Map<BonusObj, Object> activeBonusBySource = new IdentityHashMap<>();
 
 	private final Map<BonusObj, TempBonusInfo> tempBonusBySource = new IdentityHashMap<>();
@@ -97,107 +110,16 @@ public class BonusManager
 		}
 
 		fullyQualifiedBonusType = fullyQualifiedBonusType.toUpperCase();
-		if (cachedActiveBonusSumsMap.containsKey(fullyQualifiedBonusType))
-		{
-			return cachedActiveBonusSumsMap.get(fullyQualifiedBonusType);
-		}
-
-		final List<String> aList = new ArrayList<>();
-		boolean found = false;
-
-		for (String fullyQualifedCurrentBonus : activeBonusMap.keySet())
+		Double cachedBonus = cachedActiveBonusSumsMap.get(fullyQualifiedBonusType);
+		if (cachedBonus != null)
 		{
-			// aKey is either of the form:
-			// COMBAT.AC
-			// or
-			// COMBAT.AC:Luck
-			// or
-			// COMBAT.AC:Armor.REPLACE
-			if (aList.contains(fullyQualifedCurrentBonus))
-			{
-				continue;
-			}
-
-			if (fullyQualifedCurrentBonus == null)
-			{
-				Logging.errorPrint(
-					"null BONUS: loaded into activeBonusMap. " + fullyQualifiedBonusType + " was requested");
-				continue;
-			}
-
-			String currentTypedBonusNameInfo = fullyQualifedCurrentBonus;
-
-			// rString could be something like:
-			// COMBAT.AC:Armor.REPLACE
-			// So need to remove the .STACK or .REPLACE
-			// to get a match for prefix like: COMBAT.AC:Armor
-			if (currentTypedBonusNameInfo.endsWith(".STACK"))
-			{
-				currentTypedBonusNameInfo =
-						currentTypedBonusNameInfo.substring(0, currentTypedBonusNameInfo.length() - 6);
-			}
-			else if (currentTypedBonusNameInfo.endsWith(".REPLACE"))
-			{
-				currentTypedBonusNameInfo =
-						currentTypedBonusNameInfo.substring(0, currentTypedBonusNameInfo.length() - 8);
-			}
-
-            // if prefix is of the form:
-			// COMBAT.AC
-			// then is must match rstring:
-			// COMBAT.AC
-			// COMBAT.AC:Luck
-			// COMBAT.AC:Armor.REPLACE
-			// However, it must not match
-			// COMBAT.ACCHECK
-			if ((currentTypedBonusNameInfo.length() > fullyQualifiedBonusType.length())
-				&& !currentTypedBonusNameInfo.startsWith(fullyQualifiedBonusType + ":"))
-			{
-				continue;
-			}
-
-			if (currentTypedBonusNameInfo.startsWith(fullyQualifiedBonusType))
-			{
-				found = true;
-				aList.add(currentTypedBonusNameInfo);
-				aList.add(currentTypedBonusNameInfo + ".STACK");
-				aList.add(currentTypedBonusNameInfo + ".REPLACE");
-
-				final double aBonus = getActiveBonusForMapKey(currentTypedBonusNameInfo, Double.NaN);
-				final double replaceBonus = getActiveBonusForMapKey(currentTypedBonusNameInfo + ".REPLACE", Double.NaN);
-				final double stackBonus = getActiveBonusForMapKey(currentTypedBonusNameInfo + ".STACK", 0);
-				//
-				// Using NaNs in order to be able to get the max
-				// between an undefined bonus and a negative
-				//
-				if (Double.isNaN(aBonus)) // no bonusKey
-				{
-					if (!Double.isNaN(replaceBonus))
-					{
-						// no bonusKey, but there
-						// is a replaceKey
-						bonus += replaceBonus;
-					}
-				}
-				else if (Double.isNaN(replaceBonus))
-				{
-					// is a bonusKey and no replaceKey
-					bonus += aBonus;
-				}
-				else
-				{
-					// is a bonusKey and a replaceKey
-					bonus += Math.max(aBonus, replaceBonus);
-				}
-
-				// always add stackBonus
-				bonus += stackBonus;
-			}
+			return cachedBonus;
 		}
 
 		// cache value only if it has been positively found
-		if (found)
+		if (activeBonusIndex.contains(fullyQualifiedBonusType))
 		{
+			bonus = activeBonusIndex.sum(fullyQualifiedBonusType);
 			cachedActiveBonusSumsMap.put(fullyQualifiedBonusType, bonus);
 		}
 		return bonus;
@@ -293,10 +215,18 @@ public class BonusManager
 
 	/**
 	 * Build the bonus HashMap from all active BonusObj's
+	 * 
+	 * The bonus-to-bonus dependencies evaluated by the previous build are reused for
+	 * the BonusObjs that are still active. The values of all active BonusObjs are
+	 * resolved again (see BonusBuildRecord).
 	 */
 	void buildActiveBonusMap()
 	{
+		final BonusBuildRecord previousRecord = buildRecord;
+		buildRecord = new BonusBuildRecord(getActiveBonusList());
 		activeBonusMap = new ConcurrentHashMap<>();
+		activeBonusIndex = new ActiveBonusIndex();
+		version++;
 		cachedActiveBonusSumsMap = new ConcurrentHashMap<>();
 		Map<String, String> nonStackMap = new ConcurrentHashMap<>();
 		Map<String, String> stackMap = new ConcurrentHashMap<>();
@@ -332,7 +262,7 @@ public class BonusManager
 			{
 				final double iBonus = bp.resolve(pc).doubleValue();
 				setActiveBonusStack(iBonus, bp.fullyQualifiedBonusType, nonStackMap, stackMap);
-				totalBonusesForType(nonStackMap, stackMap, bp.fullyQualifiedBonusType, activeBonusMap);
+				totalActiveBonusesForType(nonStackMap, stackMap, bp.fullyQualifiedBonusType);
 
 				if (Logging.isDebugMode())
 				{
@@ -369,7 +299,7 @@ public class BonusManager
 			try
 			{
 				processBonus(bonus, Collections.newSetFromMap(new IdentityHashMap<>()), processedBonuses, nonStackMap,
-					stackMap);
+					stackMap, previousRecord);
 			}
 			catch (Exception e)
 			{
@@ -407,6 +337,31 @@ public class BonusManager
 		putActiveBonusMap(fullyQualifiedBonusType, String.valueOf(FullValue), targetMap);
 	}
 
+	/**
+	 * Combines the non-stacking bonus maximum and stacking bonus totals to a total
+	 * bonus for the bonus type, and places that total into the active bonus map
+	 * (and the index over it).
+	 * 
+	 * @param nonStackMap
+	 *            The map of non-stacking (i.e. highest wins) bonuses being built up.
+	 * @param stackMap
+	 *            The map of stacking (i.e. total all) bonuses being built up.
+	 * @param fullyQualifiedBonusType
+	 *            The type of the bonus e.g. STAT.DEX:LUCK
+	 */
+	private void totalActiveBonusesForType(Map<String, String> nonStackMap, Map<String, String> stackMap,
+		String fullyQualifiedBonusType)
+	{
+		totalBonusesForType(nonStackMap, stackMap, fullyQualifiedBonusType, activeBonusMap);
+		version++;
+		String key = fullyQualifiedBonusType.toUpperCase();
+		String value = activeBonusMap.get(key);
+		if (value != null)
+		{
+			activeBonusIndex.put(key, value);
+		}
+	}
+
 	public Collection<BonusObj> getActiveBonusList()
 	{
 		return activeBonusBySource.keySet();
@@ -415,6 +370,19 @@ public class BonusManager
 	public void setActiveBonusList()
 	{
 		activeBonusBySource = getAllActiveBonuses();
+		version++;
+	}
+
+	/**
+	 * Returns a number which changes each time the active bonus map or the list of
+	 * active bonuses changes. Results calculated from the active bonuses remain valid
+	 * while this number is unchanged.
+	 * 
+	 * @return The current version of the active bonuses
+	 */
+	int getVersion()
+	{
+		return version;
 	}
 
 	public String listBonusesFor(String bonusName, String bonusInfo)
@@ -527,9 +495,11 @@ public class BonusManager
 	 *            The map of non-stacking (i.e. highest wins) bonuses being built up.
 	 * @param stackMap
 	 *            The map of stacking (i.e. total all) bonuses being built up.
+	 * @param previousRecord
+	 *            The BonusBuildRecord of the previous build of the active bonus map.
 	 */
 	private void processBonus(final BonusObj aBonus, final Set<BonusObj> prevProcessed, Set<BonusObj> processedBonuses,
-		Map<String, String> nonStackMap, Map<String, String> stackMap)
+		Map<String, String> nonStackMap, Map<String, String> stackMap, BonusBuildRecord previousRecord)
 	{
 		// Make sure we don't get into an infinite loop - can occur due to LST
 		// coding or best guess dependancy mapping
@@ -548,17 +518,11 @@ public class BonusManager
 
 		final List<BonusObj> aList = new ArrayList<>();
 
-		// Go through all bonuses and check to see if they add to
-		// aBonus's dependencies and have not already been processed
-		for (BonusObj newBonus : getActiveBonusList())
+		// Go through all bonuses that add to aBonus's dependencies
+		// and check to see if they have not already been processed
+		for (BonusObj newBonus : buildRecord.getDependencies(aBonus, getActiveBonusList(), previousRecord))
 		{
-			if (processedBonuses.contains(newBonus))
-			{
-				continue;
-			}
-
-			if (aBonus.getDependsOn(newBonus.getUnparsedBonusInfoList())
-				|| aBonus.getDependsOnBonusName(newBonus.getBonusName()))
+			if (!processedBonuses.contains(newBonus))
 			{
 				aList.add(newBonus);
 			}
@@ -569,7 +533,7 @@ public class BonusManager
 		for (BonusObj newBonus : aList)
 		{
 			// Recursively call itself
-			processBonus(newBonus, prevProcessed, processedBonuses, nonStackMap, stackMap);
+			processBonus(newBonus, prevProcessed, processedBonuses, nonStackMap, stackMap, previousRecord);
 		}
 
 		// Double check that it hasn't been processed yet
@@ -595,7 +559,7 @@ public class BonusManager
 		{
 			final double iBonus = bp.resolve(pc).doubleValue();
 			setActiveBonusStack(iBonus, bp.fullyQualifiedBonusType, nonStackMap, stackMap);
-			totalBonusesForType(nonStackMap, stackMap, bp.fullyQualifiedBonusType, activeBonusMap);
+			totalActiveBonusesForType(nonStackMap, stackMap, bp.fullyQualifiedBonusType);
 			//			Logging.debugPrint("vBONUS: " + anObj.getDisplayName() + " : "
 			//					+ iBonus + " : " + bp.fullyQualifiedBonusType);
 		}
@@ -843,6 +807,7 @@ public class BonusManager
 		clone.activeBonusBySource.putAll(activeBonusBySource);
 		clone.tempBonusBySource.putAll(tempBonusBySource);
 		clone.activeBonusMap.putAll(activeBonusMap);
+		activeBonusMap.forEach(clone.activeBonusIndex::put);
 		clone.tempBonusFilters.addAll(tempBonusFilters);
 		return clone;
 	}
@@ -23,6 +23,7 @@ import java.io.Serializable;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -164,6 +165,17 @@ public final class Equipment extends PObject
 
 	private List<String> typeListCacheSecondary;
 
+	/**
+	 * The ordinals of the Types in typeListCachePrimary, used to answer isType
+	 * queries without a case insensitive search of the list.
+	 */
+	private BitSet typeBitsPrimary;
+
+	/**
+	 * The ordinals of the Types in typeListCacheSecondary.
+	 */
+	private BitSet typeBitsSecondary;
+
 	private boolean usePrimaryCache;
 
 	private boolean useSecondaryCache;
@@ -451,14 +463,29 @@ public final class Equipment extends PObject
 		StringTokenizer tok = new StringTokenizer(myType, ".");
 		if (tok.hasMoreTokens())
 		{
+			final BitSet typeBits;
+			if (bPrimary ? usePrimaryCache : useSecondaryCache)
+			{
+				typeBits = bPrimary ? typeBitsPrimary : typeBitsSecondary;
+			}
+			else
+			{
+				typeBits = buildTypeBits(tList);
+			}
 			while (tok.hasMoreTokens())
 			{
-				final String type = tok.nextToken();
-				//CONSIDER Faster method? Case sensitivity is a problem for containsInList
-				boolean found = false;
-				if (tList != null)
+				final String typeName = tok.nextToken();
+				final boolean found;
+				if (typeBits == null)
+				{
+					// Not all of the types are defined Types (e.g. an ADDTYPE choice)
+					found = tList.stream().anyMatch(typeName::equalsIgnoreCase);
+				}
+				else
 				{
-					found = tList.stream().anyMatch(type::equalsIgnoreCase);
+					// Type lookup is case insensitive, as was the old search of tList
+					final Type type = Type.getExistingConstant(typeName);
+					found = (type != null) && typeBits.get(type.getOrdinal());
 				}
 				if (!found)
 				{
@@ -4577,16 +4604,43 @@ public final class Equipment extends PObject
 		if (bPrimary)
 		{
 			typeListCachePrimary = resultingTypeList;
+			typeBitsPrimary = buildTypeBits(resultingTypeList);
 			usePrimaryCache = true;
 		}
 		else
 		{
 			typeListCacheSecondary = resultingTypeList;
+			typeBitsSecondary = buildTypeBits(resultingTypeList);
 			useSecondaryCache = true;
 		}
 		return resultingTypeList;
 	}
 
+	/**
+	 * Returns a BitSet of the ordinals of the Types named in the given list.
+	 * Names are not registered as new Types here, as that would modify the
+	 * global Type registry on every type query.
+	 * 
+	 * @param types
+	 *            The list of type names
+	 * @return A BitSet of the ordinals of the given Types; null if any of the
+	 *         names (e.g. an ADDTYPE choice) is not a defined Type
+	 */
+	private static BitSet buildTypeBits(List<String> types)
+	{
+		BitSet typeBits = new BitSet();
+		for (String typeName : types)
+		{
+			Type type = Type.getExistingConstant(typeName);
+			if (type == null)
+			{
+				return null;
+			}
+			typeBits.set(type.getOrdinal());
+		}
+		return typeBits;
+	}
+
 	/**
 	 * Creates the containerCapacityString from children of this object
 	 */
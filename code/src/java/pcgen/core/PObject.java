@@ -195,7 +195,7 @@ public class PObject extends CDOMObject
 		StringTokenizer tok = new StringTokenizer(myType, ".");
 		while (tok.hasMoreTokens())
 		{
-			if (!containsInList(ListKey.TYPE, Type.getConstant(tok.nextToken())))
+			if (!containsType(Type.getExistingConstant(tok.nextToken())))
 			{
 				return false;
 			}
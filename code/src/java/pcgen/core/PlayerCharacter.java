@@ -21,6 +21,8 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -60,6 +62,7 @@ import pcgen.cdom.content.RollMethod;
 import pcgen.cdom.enumeration.AssociationKey;
 import pcgen.cdom.enumeration.AssociationListKey;
 import pcgen.cdom.enumeration.CharID;
+import pcgen.cdom.enumeration.CharacterDomain;
 import pcgen.cdom.enumeration.EquipmentLocation;
 import pcgen.cdom.enumeration.FactKey;
 import pcgen.cdom.enumeration.FormulaKey;
@@ -249,6 +252,7 @@ import pcgen.core.chooser.ChooserUtilities;
 import pcgen.core.display.CharacterDisplay;
 import pcgen.core.display.SkillDisplay;
 import pcgen.core.pclevelinfo.PCLevelInfo;
+import pcgen.core.prereq.PrerequisiteCache;
 import pcgen.core.spell.Spell;
 import pcgen.core.utils.CoreUtility;
 import pcgen.core.utils.MessageType;
@@ -271,10 +275,14 @@ import org.jetbrains.annotations.TestOnly;
 public class PlayerCharacter implements Cloneable, VariableContainer
 {
 
-	// Constants for use in getBonus
-	private static String lastVariable;
 	// This marker is static so that the spells allocated to it can also be found in the cloned character.
 	private static final CDOMObject GRANTED_SPELL_CACHE = new ObjectCache();
+	// Strings which are never read by a prerequisite or formula, so changing them does not invalidate calculations
+	private static final Set<PCStringKey> DESCRIPTIVE_STRINGS = EnumSet.of(PCStringKey.BIO, PCStringKey.BIRTHDAY,
+		PCStringKey.CATCHPHRASE, PCStringKey.DESCRIPTION, PCStringKey.EYECOLOR, PCStringKey.GMNOTES,
+		PCStringKey.INTERESTS, PCStringKey.LOCATION, PCStringKey.NAME, PCStringKey.PERSONALITY1,
+		PCStringKey.PERSONALITY2, PCStringKey.PHOBIAS, PCStringKey.PLAYERSNAME, PCStringKey.RESIDENCE,
+		PCStringKey.SPEECHTENDENCY, PCStringKey.TABNAME, PCStringKey.FILE_NAME, PCStringKey.PORTRAIT_PATH);
 
 	private final CharID id;
 	private final SAtoStringProcessor SA_TO_STRING_PROC;
@@ -396,6 +404,7 @@ public class PlayerCharacter implements Cloneable, VariableContainer
 	private final SpellProhibitorFacet spellProhibitorFacet = FacetLibrary.getFacet(SpellProhibitorFacet.class);
 
 	private ObjectCache cache = new ObjectCache();
+	private final PrerequisiteCache prereqCache = new PrerequisiteCache();
 	private AssociationSupport assocSupt = new AssociationSupport();
 	private BonusManager bonusManager = new BonusManager(this);
 	private final BonusChangeFacet bonusChangeFacet = FacetLibrary.getFacet(BonusChangeFacet.class);
@@ -466,7 +475,13 @@ public class PlayerCharacter implements Cloneable, VariableContainer
 	private boolean[] ageSetKitSelections = new boolean[Constants.NUMBER_OF_AGESET_KIT_SELECTIONS];
 	private boolean dirtyFlag = false;
 	private int serial = 0;
+	// The serial of the last change that could alter a calculation
+	private int calculationSerial = 0;
+	// The serial of the last change to each domain
+	private Map<CharacterDomain, Integer> domainSerials = new EnumMap<>(CharacterDomain.class);
 	private boolean importing = false;
+	// The variable being looked up by getVariable, to avoid an infinite loop
+	private String lastVariable;
 
 	// Should temp mods/bonuses be used/saved?
 	private boolean useTempMods = true;
@@ -981,7 +996,39 @@ public class PlayerCharacter implements Cloneable, VariableContainer
 	{
 		if (dirtyState)
 		{
-			serial++;
+			setDirty(CharacterDomain.GENERAL);
+		}
+		else
+		{
+			dirtyFlag = false;
+		}
+	}
+
+	/**
+	 * Marks the character as changed since last save, identifying the domain of the
+	 * character that was changed. Changes to a domain that does not affect
+	 * calculations (e.g. notes) do not invalidate the cached results of calculations.
+	 * The same cautions as for setDirty(boolean) apply.
+	 *
+	 * @param domain the CharacterDomain which was changed
+	 */
+	public void setDirty(CharacterDomain domain)
+	{
+		serial++;
+		if (domain == CharacterDomain.GENERAL)
+		{
+			for (CharacterDomain d : CharacterDomain.values())
+			{
+				domainSerials.put(d, serial);
+			}
+		}
+		else
+		{
+			domainSerials.put(domain, serial);
+		}
+		if (domain.affectsCalculations())
+		{
+			calculationSerial = serial;
 			cache = new ObjectCache();
 			variableProcessor.setSerial(serial);
 			cabFacet.update(id);
@@ -991,7 +1038,7 @@ public class PlayerCharacter implements Cloneable, VariableContainer
 			bonusSkillRankChangeFacet.reset(id);
 		}
 
-		dirtyFlag = dirtyState;
+		dirtyFlag = true;
 	}
 
 	/**
@@ -1015,6 +1062,46 @@ public class PlayerCharacter implements Cloneable, VariableContainer
 		return serial;
 	}
 
+	/**
+	 * Returns the serial of the last change to the given domain of the
+	 * PlayerCharacter. Use to detect change in a specific part of the
+	 * PlayerCharacter.
+	 *
+	 * @param domain the CharacterDomain for which the serial should be returned
+	 * @return the serial of the last change to the given domain
+	 */
+	public int getSerial(CharacterDomain domain)
+	{
+		return domainSerials.getOrDefault(domain, 0);
+	}
+
+	/**
+	 * Returns the serial of the last change that could alter the result of a
+	 * calculation on the PlayerCharacter. Changes that only affect presentation
+	 * (such as notes or description) do not alter this serial.
+	 *
+	 * @return the serial of the last change that could alter a calculation
+	 */
+	public int getCalculationSerial()
+	{
+		return calculationSerial;
+	}
+
+	/**
+	 * Returns the cache of the results of prerequisites tested against this
+	 * PlayerCharacter. Any results calculated for an earlier state of the
+	 * PlayerCharacter are discarded before the cache is returned.
+	 *
+	 * @return the PrerequisiteCache for this PlayerCharacter
+	 */
+	public PrerequisiteCache getPrerequisiteCache()
+	{
+		MonitorableVariableStore varStore = variableStoreFacet.get(id);
+		prereqCache.validate(calculationSerial, id.getFacetStorage().getChangeCount(), bonusManager.getVersion(),
+			(varStore == null) ? 0 : varStore.getChangeCount());
+		return prereqCache;
+	}
+
 	/**
 	 * Get the list of equipment sets.
 	 *
@@ -2235,7 +2322,7 @@ public class PlayerCharacter implements Cloneable, VariableContainer
 	{
 		if (previewSheetFacet.set(id, previewSheet))
 		{
-			setDirty(true);
+			setDirty(CharacterDomain.SETTINGS);
 		}
 	}
 
@@ -2341,7 +2428,7 @@ public class PlayerCharacter implements Cloneable, VariableContainer
 	{
 		if (noteItemFacet.add(id, item))
 		{
-			setDirty(true);
+			setDirty(CharacterDomain.DESCRIPTION);
 		}
 	}
 
@@ -3175,7 +3262,7 @@ public class PlayerCharacter implements Cloneable, VariableContainer
 		if (autoLoadCompanion != aBool)
 		{
 			autoLoadCompanion = aBool;
-			setDirty(true);
+			setDirty(CharacterDomain.SETTINGS);
 		}
 	}
 
@@ -3382,7 +3469,7 @@ public class PlayerCharacter implements Cloneable, VariableContainer
 	{
 		if (skillFilterFacet.set(id, filter))
 		{
-			setDirty(true);
+			setDirty(CharacterDomain.SETTINGS);
 		}
 	}
 
@@ -3416,7 +3503,7 @@ public class PlayerCharacter implements Cloneable, VariableContainer
 		if (skillsOutputOrder != i)
 		{
 			skillsOutputOrder = i;
-			setDirty(true);
+			setDirty(CharacterDomain.SETTINGS);
 		}
 	}
 
@@ -7063,6 +7150,8 @@ public class PlayerCharacter implements Cloneable, VariableContainer
 		aClone.equippedFacet.reset(aClone.id);
 
 		aClone.serial = serial;
+		aClone.calculationSerial = calculationSerial;
+		aClone.domainSerials = new EnumMap<>(domainSerials);
 
 		return aClone;
 	}
@@ -7080,7 +7169,7 @@ public class PlayerCharacter implements Cloneable, VariableContainer
 		if (PlayerCharacter.shouldDirtyForChange(s, currValue))
 		{
 			factFacet.set(id, key, s);
-			setDirty(true);
+			setDirty(DESCRIPTIVE_STRINGS.contains(key) ? CharacterDomain.DESCRIPTION : CharacterDomain.GENERAL);
 		}
 	}
 
@@ -9545,7 +9634,7 @@ public class PlayerCharacter implements Cloneable, VariableContainer
 	public void removeNote(NoteItem note)
 	{
 		noteItemFacet.remove(id, note);
-		setDirty(true);
+		setDirty(CharacterDomain.DESCRIPTION);
 	}
 
 	public void removeSkillRankValue(Skill sk, PCClass cl)
@@ -10005,7 +10094,7 @@ public class PlayerCharacter implements Cloneable, VariableContainer
 
 	public void addPreviewSheetVar(String key, String value)
 	{
-		setDirty(true);
+		setDirty(CharacterDomain.SETTINGS);
 		previewSheetVars.put(key, value);
 	}
 
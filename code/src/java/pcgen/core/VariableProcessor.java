@@ -34,6 +34,8 @@ import pcgen.util.Logging;
 import pcgen.util.PJEP;
 import pcgen.util.PjepPool;
 
+import org.nfunk.jep.ParseException;
+
 /**
  * {@code VariableProcessor} is the base class for PCGen variable
  * processors. These are classes that convert a formula or variable
@@ -445,8 +447,9 @@ public abstract class VariableProcessor
 		try
 		{
 			parser = PjepPool.getInstance().aquire(this, src);
-			parser.parseExpression(formula);
-			if (parser.hasError())
+			// Parsed once per parser; only the variable values change between evaluations
+			PJEP.ParsedExpression expression = parser.getParsedExpression(formula);
+			if (expression == null)
 			{
 				if (Logging.isLoggable(Logging.DEBUG) && formula.startsWith(DEBUG_FORMULA_PREFIX))
 				{
@@ -455,7 +458,7 @@ public abstract class VariableProcessor
 				return null;
 			}
 
-			for (final String element : (Iterable<String>) parser.getSymbolTable().keySet())
+			for (final String element : expression.getVariableNames())
 			{
 				if ("e".equals(element) || "FALSE".equals(element) || "pi".equals(element) || "TRUE".equals(element))
 				{
@@ -465,7 +468,7 @@ public abstract class VariableProcessor
 				Float d = lookupVariable(element, src, spell);
 				if (d != null)
 				{
-					parser.addVariable(element, d.doubleValue());
+					expression.setVariable(element, d.doubleValue());
 				} else
 				{
 					// we could not get a value for all of the variables, so it must not have been a JEP function
@@ -474,7 +477,16 @@ public abstract class VariableProcessor
 				}
 			}
 
-			final Object result = parser.getValueAsObject();
+			final Object result;
+			try
+			{
+				result = parser.evaluate(expression);
+			}
+			catch (ParseException e)
+			{
+				Logging.errorPrint("Failed to process formula " + formula + " due to error: " + e.getMessage());
+				return null;
+			}
 			if (result != null)
 			{
 				if (Logging.isLoggable(Logging.DEBUG) && formula.startsWith(DEBUG_FORMULA_PREFIX))
@@ -483,7 +495,7 @@ public abstract class VariableProcessor
 				}
 				try
 				{
-					return new CachableResult(Float.valueOf(result.toString()), parser.isResultCachable());
+					return new CachableResult(Float.valueOf(result.toString()), expression.isCachable());
 				}
 				catch (NumberFormatException nfe)
 				{
@@ -494,10 +506,6 @@ public abstract class VariableProcessor
 					return null;
 				}
 			}
-			if (parser.hasError())
-			{
-				Logging.errorPrint("Failed to process formula " + formula + " due to error: " + parser.getErrorInfo());
-			}
 			if (Logging.isLoggable(Logging.DEBUG) && formula.startsWith(DEBUG_FORMULA_PREFIX))
 			{
 				Logging.debugPrint(jepIndent + "Result '" + formula + "' was null...");
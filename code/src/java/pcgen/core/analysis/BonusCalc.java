@@ -67,23 +67,28 @@ public final class BonusCalc
 
 		final String aTypePlusName = aType + '.' + aName + '.';
 
-		if (!BonusCalc.dontRecurse && (po instanceof Ability) && (AbilityUtilities.isFeat(obj))
+		if (!DONT_RECURSE.get() && (po instanceof Ability) && (AbilityUtilities.isFeat(obj))
 			&& !Globals.checkRule(RuleConstants.FEATPRE))
 		{
 			// SUCK!  This is horrid, but bonusTo is actually recursive with respect to
 			// passesPreReqToGain and there is no other way to do this without decomposing the
 			// dependencies.  I am loathe to break working code.
 			// This addresses bug #709677 -- Feats give bonuses even if you no longer qualify
-			BonusCalc.dontRecurse = true;
+			DONT_RECURSE.set(Boolean.TRUE);
 
 			boolean returnZero = false;
 
-			if (!po.qualifies(aPC, po))
+			try
 			{
-				returnZero = true;
+				if (!po.qualifies(aPC, po))
+				{
+					returnZero = true;
+				}
+			}
+			finally
+			{
+				DONT_RECURSE.set(Boolean.FALSE);
 			}
-
-			BonusCalc.dontRecurse = false;
 
 			if (returnZero)
 			{
@@ -136,8 +141,12 @@ public final class BonusCalc
 		return retVal;
 	}
 
-	/** a boolean for whether something should recurse, default is false. */
-	private static boolean dontRecurse = false;
+	/**
+	 * Whether the prerequisites of a feat are being tested on this thread, in which
+	 * case they are not tested again. Held per thread, as characters may be processed
+	 * on several threads at once.
+	 */
+	private static final ThreadLocal<Boolean> DONT_RECURSE = ThreadLocal.withInitial(() -> Boolean.FALSE);
 
 	/**
 	 * Apply the bonus to a PC, pass through object's default bonuslist
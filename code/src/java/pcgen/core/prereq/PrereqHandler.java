@@ -204,6 +204,18 @@ public final class PrereqHandler
 		{
 			return true;
 		}
+		final PrerequisiteCache prereqCache =
+				(aPC != null && PrerequisiteCache.isCacheable(prereq)) ? aPC.getPrerequisiteCache() : null;
+		int generation = 0;
+		if (prereqCache != null)
+		{
+			final Boolean cached = prereqCache.get(prereq, caller);
+			if (cached != null)
+			{
+				return cached;
+			}
+			generation = prereqCache.getGeneration();
+		}
 		try
 		{
 			CDOMObject cdomCaller = (caller instanceof CDOMObject) ? (CDOMObject) caller : null;
@@ -212,6 +224,7 @@ public final class PrereqHandler
 		catch (PrerequisiteException pe)
 		{
 			Logging.errorPrintLocalised("PrereqHandler.Exception_in_test", pe); //$NON-NLS-1$
+			return false;
 		}
 		catch (Exception e)
 		{
@@ -219,6 +232,13 @@ public final class PrereqHandler
 
 			Logging.errorPrint("Problem encountered when testing PREREQ " + String.valueOf(prereq) + callerString
 				+ ". See following trace for details.", e);
+			return false;
+		}
+		// The test may have changed the PlayerCharacter (e.g. by calculating
+		// bonuses), in which case the result is not kept
+		if (prereqCache != null && aPC.getPrerequisiteCache().getGeneration() == generation)
+		{
+			prereqCache.put(prereq, caller, total > 0);
 		}
 		return total > 0;
 	}
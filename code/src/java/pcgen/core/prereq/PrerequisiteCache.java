@@ -0,0 +1,244 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.core.prereq;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A PrerequisiteCache holds the results of testing Prerequisites against a single
+ * PlayerCharacter, so that repeated tests of the same Prerequisite for the same caller
+ * (e.g. while building the lists of available abilities or classes) do not have to run
+ * the PrerequisiteTest again.
+ * 
+ * The results are only valid for the state of the PlayerCharacter in which they were
+ * calculated. The state is identified by the calculation serial of the
+ * PlayerCharacter, the number of facet changes, the version of the active bonuses and
+ * the number of changes to the variable values. When any of these changes, all of the
+ * results are discarded (see validate).
+ * 
+ * **NOTE** This class is NOT thread safe.
+ */
+public final class PrerequisiteCache
+{
+
+	/**
+	 * The maximum number of results retained. Prerequisites created on the fly would
+	 * otherwise cause the cache to grow without bound while the PlayerCharacter is
+	 * unchanged.
+	 */
+	private static final int MAX_RESULTS = 16384;
+
+	/**
+	 * The kinds of Prerequisite which depend on something other than the
+	 * PlayerCharacter (such as global rules or settings), and thus cannot be cached.
+	 */
+	private static final List<String> UNCACHEABLE_KINDS = List.of("CAMPAIGN", "POINTBUYMETHOD", "RULE");
+
+	/**
+	 * The results of the Prerequisites, identified by the Prerequisite and then the
+	 * caller (which may be null).
+	 */
+	private final Map<Prerequisite, Map<Object, Boolean>> results = new IdentityHashMap<>();
+
+	private int resultCount;
+
+	private int calculationSerial = -1;
+
+	private int changeCount;
+
+	private int bonusVersion;
+
+	private int variableChangeCount;
+
+	private int generation;
+
+	private long hitCount;
+
+	private long missCount;
+
+	private long invalidationCount;
+
+	/**
+	 * Ensures the results in this PrerequisiteCache are valid for the given state of
+	 * the PlayerCharacter, discarding the results if the state has changed since they
+	 * were calculated.
+	 * 
+	 * @param newCalculationSerial
+	 *            The calculation serial of the PlayerCharacter
+	 * @param newChangeCount
+	 *            The number of facet changes of the PlayerCharacter
+	 * @param newBonusVersion
+	 *            The version of the active bonuses of the PlayerCharacter
+	 * @param newVariableChangeCount
+	 *            The number of changes to the variable values of the PlayerCharacter
+	 */
+	public void validate(int newCalculationSerial, int newChangeCount, int newBonusVersion,
+		int newVariableChangeCount)
+	{
+		if ((calculationSerial != newCalculationSerial) || (changeCount != newChangeCount)
+			|| (bonusVersion != newBonusVersion) || (variableChangeCount != newVariableChangeCount))
+		{
+			if (resultCount != 0)
+			{
+				results.clear();
+				resultCount = 0;
+				invalidationCount++;
+			}
+			generation++;
+			calculationSerial = newCalculationSerial;
+			changeCount = newChangeCount;
+			bonusVersion = newBonusVersion;
+			variableChangeCount = newVariableChangeCount;
+		}
+	}
+
+	/**
+	 * Returns a number which changes each time validate identifies a change in the
+	 * state of the PlayerCharacter. A result may only be stored if the generation is
+	 * the same after the Prerequisite was tested as it was before.
+	 * 
+	 * @return The current generation of this PrerequisiteCache
+	 */
+	public int getGeneration()
+	{
+		return generation;
+	}
+
+	/**
+	 * Returns the cached result of the given Prerequisite for the given caller.
+	 * 
+	 * @param prereq
+	 *            The Prerequisite for which the result should be returned
+	 * @param caller
+	 *            The object for which the Prerequisite was tested (may be null)
+	 * @return The cached result of the given Prerequisite for the given caller; null
+	 *         if there is no cached result
+	 */
+	public Boolean get(Prerequisite prereq, Object caller)
+	{
+		Map<Object, Boolean> callerResults = results.get(prereq);
+		Boolean result = (callerResults == null) ? null : callerResults.get(caller);
+		if (result == null)
+		{
+			missCount++;
+		}
+		else
+		{
+			hitCount++;
+		}
+		return result;
+	}
+
+	/**
+	 * Stores the result of the given Prerequisite for the given caller.
+	 * 
+	 * @param prereq
+	 *            The Prerequisite which was tested
+	 * @param caller
+	 *            The object for which the Prerequisite was tested (may be null)
+	 * @param result
+	 *            The result of testing the Prerequisite
+	 */
+	public void put(Prerequisite prereq, Object caller, boolean result)
+	{
+		if (resultCount >= MAX_RESULTS)
+		{
+			results.clear();
+			resultCount = 0;
+			invalidationCount++;
+		}
+		if (results.computeIfAbsent(prereq, p -> new IdentityHashMap<>()).put(caller, result) == null)
+		{
+			resultCount++;
+		}
+	}
+
+	/**
+	 * Returns true if the result of the given Prerequisite depends only on the
+	 * PlayerCharacter (and the caller), and thus can be cached.
+	 * 
+	 * @param prereq
+	 *            The Prerequisite to be checked
+	 * @return true if the result of the given Prerequisite can be cached; false
+	 *         otherwise
+	 */
+	public static boolean isCacheable(Prerequisite prereq)
+	{
+		String kind = prereq.getKind();
+		if (kind != null)
+		{
+			for (String uncacheable : UNCACHEABLE_KINDS)
+			{
+				if (uncacheable.equalsIgnoreCase(kind))
+				{
+					return false;
+				}
+			}
+		}
+		if (prereq.getPrerequisiteCount() != 0)
+		{
+			for (Prerequisite child : prereq.getPrerequisites())
+			{
+				if (!isCacheable(child))
+				{
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of times a result was found in this PrerequisiteCache.
+	 * 
+	 * @return The number of times a result was found in this PrerequisiteCache
+	 */
+	public long getHitCount()
+	{
+		return hitCount;
+	}
+
+	/**
+	 * Returns the number of times a result was not found in this PrerequisiteCache.
+	 * 
+	 * @return The number of times a result was not found in this PrerequisiteCache
+	 */
+	public long getMissCount()
+	{
+		return missCount;
+	}
+
+	/**
+	 * Returns the number of times the results in this PrerequisiteCache were
+	 * discarded.
+	 * 
+	 * @return The number of times the results in this PrerequisiteCache were
+	 *         discarded
+	 */
+	public long getInvalidationCount()
+	{
+		return invalidationCount;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "PrerequisiteCache[results=" + resultCount + ", hits=" + hitCount + ", misses=" + missCount
+			+ ", invalidations=" + invalidationCount + ']';
+	}
+}
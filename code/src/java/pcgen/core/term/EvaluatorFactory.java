@@ -25,7 +25,9 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,11 +38,23 @@ import pcgen.util.Logging;
 public final class EvaluatorFactory
 {
 
+	/**
+	 * Used in place of a null source, which cannot be a key of a ConcurrentHashMap.
+	 */
+	private static final String NO_SOURCE = "\u0000";
+
 	Pattern internalVarPattern;
 	Map<String, TermEvaluatorBuilder> BuilderStore;
 
-	private final Map<String, TermEvaluator> SrcNeutralEvaluatorStore = new HashMap<>();
-	private final Map<String, Map<String, TermEvaluator>> SrcDependantEvaluatorStore = new HashMap<>();
+	private final Map<String, TermEvaluator> SrcNeutralEvaluatorStore = new ConcurrentHashMap<>();
+	private final Map<String, Map<String, TermEvaluator>> SrcDependantEvaluatorStore = new ConcurrentHashMap<>();
+
+	/**
+	 * The terms which are known not to be handled by this EvaluatorFactory. These are
+	 * usually variables defined by the data, which are looked up far more often than
+	 * the built in terms, so they are only matched against internalVarPattern once.
+	 */
+	private final Set<String> UnmatchedTerms = ConcurrentHashMap.newKeySet();
 
 	public static final EvaluatorFactory PC = new EvaluatorFactory(true, TermEvaluatorBuilderPCVar.values());
 
@@ -50,7 +64,7 @@ public final class EvaluatorFactory
 	{
 		TermEvaluatorBuilder[] evals = (addStats) ? addStatBuilder(termEvaluatorBuilders) : termEvaluatorBuilders;
 
-		BuilderStore = new TreeMap<>();
+		BuilderStore = new HashMap<>();
 		StringBuilder sb = new StringBuilder("^(");
 
 		boolean add = false;
@@ -131,6 +145,7 @@ public final class EvaluatorFactory
 			{
 				if (f.isEntireTerm() && (term.length() != matchedPortion.length()))
 				{
+					addUnmatchedTerm(term);
 					return null;
 				}
 				else
@@ -146,12 +161,41 @@ public final class EvaluatorFactory
 				}
 			}
 		}
+		else
+		{
+			addUnmatchedTerm(term);
+		}
 
 		return null;
 	}
 
+	private void addUnmatchedTerm(String term)
+	{
+		// Numbers are not remembered, as formulas built at run time could contain any number
+		if (!term.isEmpty() && !Character.isDigit(term.charAt(0)))
+		{
+			UnmatchedTerms.add(term);
+		}
+	}
+
+	/**
+	 * Returns the TermEvaluator for the given term in the given source. Each term
+	 * (and source, for source dependent terms) is resolved only once, after which
+	 * the TermEvaluator (or the absence of one) is returned without matching the term
+	 * again.
+	 * 
+	 * This method is thread safe.
+	 * 
+	 * @param term
+	 *            The term to be evaluated
+	 * @param source
+	 *            The source within which the term is evaluated (may be null)
+	 * @return The TermEvaluator for the given term in the given source; null if the
+	 *         term is not handled by this EvaluatorFactory
+	 */
 	public TermEvaluator getTermEvaluator(String term, String source)
 	{
+		String sourceKey = Objects.requireNonNullElse(source, NO_SOURCE);
 
 		Map<String, TermEvaluator> inner = SrcDependantEvaluatorStore.get(term);
 
@@ -162,10 +206,14 @@ public final class EvaluatorFactory
 			{
 				return evaluator;
 			}
+			if (UnmatchedTerms.contains(term))
+			{
+				return null;
+			}
 		}
 		else
 		{
-			TermEvaluator evaluator = inner.get(source);
+			TermEvaluator evaluator = inner.get(sourceKey);
 			if (evaluator != null)
 			{
 				return evaluator;
@@ -181,10 +229,8 @@ public final class EvaluatorFactory
 
 		if (evaluator.isSourceDependant())
 		{
-			Map<String, TermEvaluator> i = SrcDependantEvaluatorStore.get(term);
-			Map<String, TermEvaluator> j = (i == null) ? new HashMap<>() : i;
-			j.put(source, evaluator);
-			SrcDependantEvaluatorStore.put(term, j);
+			SrcDependantEvaluatorStore.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(sourceKey,
+				evaluator);
 		}
 		else
 		{
@@ -0,0 +1,145 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.gui2.tabs.models;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HtmlSheet is a rendered html sheet split into sections, so that a sheet being shown can
+ * be updated by replacing only the sections that changed.
+ * <p>
+ * A section is an element with a data-section attribute giving its name, for example
+ * {@code <table data-section="encounter">}. An element marked inside a section is part of
+ * that section. Everything outside the sections is the frame of the sheet. A sheet without
+ * sections, or whose sections cannot be matched up, is all frame.
+ */
+final class HtmlSheet
+{
+	private static final Pattern SECTION_START =
+			Pattern.compile("<([a-zA-Z][a-zA-Z0-9]*)\\s[^>]*?\\bdata-section=\"([\\w-]+)\"[^>]*>");
+
+	private final String html;
+	private final String frame;
+	private final Map<String, String> sections;
+
+	/**
+	 * Splits a rendered sheet into its frame and sections.
+	 *
+	 * @param html the complete html of the sheet
+	 */
+	HtmlSheet(String html)
+	{
+		this.html = html;
+		StringBuilder frameBuilder = new StringBuilder(html.length());
+		Map<String, String> found = new LinkedHashMap<>();
+		Matcher start = SECTION_START.matcher(html);
+		int pos = 0;
+		while (start.find(pos))
+		{
+			String name = start.group(2);
+			int end = start.group().endsWith("/>") ? start.end() : findEnd(start.group(1), start.end());
+			if ((end < 0) || found.containsKey(name))
+			{
+				found.clear();
+				frameBuilder.setLength(0);
+				pos = 0;
+				break;
+			}
+			frameBuilder.append(html, pos, start.start()).append("<!--section ").append(name).append("-->");
+			found.put(name, html.substring(start.start(), end));
+			pos = end;
+		}
+		frameBuilder.append(html, pos, html.length());
+		frame = frameBuilder.toString();
+		sections = Collections.unmodifiableMap(found);
+	}
+
+	/**
+	 * Returns the position just after the tag closing an element, allowing for elements
+	 * of the same name nested inside it.
+	 *
+	 * @param tag the name of the element
+	 * @param from the position just after the tag opening the element
+	 * @return the end of the element, or -1 if it is not closed
+	 */
+	private int findEnd(String tag, int from)
+	{
+		Matcher tags = Pattern.compile("<(/?)" + tag + "\\b[^>]*?(/?)>", Pattern.CASE_INSENSITIVE).matcher(html);
+		tags.region(from, html.length());
+		int depth = 1;
+		while (tags.find())
+		{
+			if (!tags.group(1).isEmpty())
+			{
+				depth--;
+				if (depth == 0)
+				{
+					return tags.end();
+				}
+			}
+			else if (tags.group(2).isEmpty())
+			{
+				depth++;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the complete html of the sheet
+	 */
+	String getHtml()
+	{
+		return html;
+	}
+
+	/**
+	 * @return the html of each section of the sheet, keyed by section name in the order
+	 *         the sections appear
+	 */
+	Map<String, String> getSections()
+	{
+		return sections;
+	}
+
+	/**
+	 * Returns the sections of this sheet that differ from those of a sheet being shown.
+	 *
+	 * @param shown the sheet being shown, may be null
+	 * @return the html of each changed section keyed by section name, empty if the sheets
+	 *         are the same, or null if the sheets differ outside their sections so this
+	 *         sheet has to be shown in full
+	 */
+	Map<String, String> getChangedSections(HtmlSheet shown)
+	{
+		if ((shown == null) || !frame.equals(shown.frame))
+		{
+			return null;
+		}
+		Map<String, String> changed = new LinkedHashMap<>();
+		sections.forEach((name, section) -> {
+			if (!section.equals(shown.sections.get(name)))
+			{
+				changed.put(name, section);
+			}
+		});
+		return changed;
+	}
+}
@@ -23,12 +23,14 @@ import java.io.File;
 import java.io.StringWriter;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.swing.SwingUtilities;
 
@@ -41,6 +43,17 @@ import pcgen.util.Logging;
 
 import org.apache.commons.lang3.StringUtils;
 
+/**
+ * HtmlSheetSupport renders an html sheet for a character in the background and shows it
+ * in an html pane.
+ * <p>
+ * A refresh requested while an earlier one is still waiting to run is merged into it, and
+ * a refresh requested while a sheet is being rendered causes exactly one more render once
+ * it is done. A render that has been superseded in this way is not shown, and a sheet that
+ * is identical to the one already shown is not loaded into the pane again. When only some
+ * sections of the sheet have changed (see {@link HtmlSheet}), just those sections are
+ * replaced in the pane.
+ */
 public class HtmlSheetSupport
 {
 
@@ -55,8 +68,9 @@ public class HtmlSheetSupport
 	private WeakReference<CharacterFacade> characterRef;
 	private final File templateFile;
 	private final JFXPanelFromResource<SimpleHtmlPanelController> htmlPane;
-	private FutureTask<String> refresher = null;
-	private boolean installed = false;
+	private final AtomicBoolean refreshPending = new AtomicBoolean();
+	private volatile HtmlSheet shownSheet = null;
+	private volatile boolean installed = false;
 	private String missingSheetMsg;
 
 	public HtmlSheetSupport(JFXPanelFromResource<SimpleHtmlPanelController> htmlPane, String infoSheetFile)
@@ -81,11 +95,14 @@ public class HtmlSheetSupport
 	public void setCharacter(CharacterFacade character)
 	{
 		this.characterRef = new WeakReference<>(character);
+		shownSheet = null;
 	}
 
 	public void install()
 	{
 		installed = true;
+		// The pane may have been showing another sheet while we were uninstalled
+		shownSheet = null;
 		refresh();
 	}
 
@@ -105,12 +122,10 @@ public class HtmlSheetSupport
 		{
 			return;
 		}
-		if (refresher != null && !refresher.isDone())
+		if (refreshPending.compareAndSet(false, true))
 		{
-			refresher.cancel(true);
+			executor.execute(new Refresher());
 		}
-		refresher = new Refresher();
-		executor.execute(refresher);
 	}
 
 	public void setMissingSheetMsg(String missingSheetMsg)
@@ -118,7 +133,7 @@ public class HtmlSheetSupport
 		this.missingSheetMsg = missingSheetMsg;
 	}
 
-	private final class Refresher extends FutureTask<String>
+	private final class Refresher extends FutureTask<HtmlSheet>
 	{
 
 		private Refresher()
@@ -129,14 +144,30 @@ public class HtmlSheetSupport
 		@Override
 		protected void done()
 		{
-			if (!installed || isCancelled())
+			if (!installed || isCancelled() || refreshPending.get())
 			{
+				// A newer render has been requested and will show the sheet
 				return;
 			}
 			try
 			{
-				final String doc = get();
-				SwingUtilities.invokeAndWait(() -> htmlPane.getController().setHtml(doc));
+				final HtmlSheet sheet = get();
+				final Map<String, String> changedSections = sheet.getChangedSections(shownSheet);
+				if ((changedSections != null) && changedSections.isEmpty())
+				{
+					return;
+				}
+				shownSheet = sheet;
+				SwingUtilities.invokeAndWait(() -> {
+					if (changedSections == null)
+					{
+						htmlPane.getController().setHtml(sheet.getHtml());
+					}
+					else
+					{
+						htmlPane.getController().setSections(sheet.getHtml(), changedSections);
+					}
+				});
 			}
 			catch (InvocationTargetException ex)
 			{
@@ -151,16 +182,18 @@ public class HtmlSheetSupport
 
 	}
 
-	private class DocumentBuilder implements Callable<String>
+	private class DocumentBuilder implements Callable<HtmlSheet>
 	{
 
 		@Override
-		public String call() throws Exception
+		public HtmlSheet call() throws Exception
 		{
+			// Changes made from here on need another render
+			refreshPending.set(false);
 			try (StringWriter writer = new StringWriter())
 			{
 				characterRef.get().export(ExportHandler.createExportHandler(templateFile), new BufferedWriter(writer));
-				return writer.toString();
+				return new HtmlSheet(writer.toString());
 			}
 		}
 
@@ -18,8 +18,12 @@
 
 package pcgen.gui3;
 
+import java.util.Map;
+
 import javafx.application.Platform;
+import javafx.concurrent.Worker;
 import javafx.fxml.FXML;
+import javafx.scene.web.WebEngine;
 import javafx.scene.web.WebView;
 
 /**
@@ -39,4 +43,56 @@ public final class SimpleHtmlPanelController
 		GuiAssertions.assertIsNotJavaFXThread();
 		Platform.runLater(() -> browser.getEngine().loadContent(html));
 	}
+
+	/**
+	 * Replaces sections of the HTML content being shown, leaving the rest of the page as
+	 * it is. Each section is the element with a matching data-section attribute. If the
+	 * page is still loading or a section cannot be found, the whole content is loaded
+	 * instead.
+	 *
+	 * @param html the complete HTML content
+	 * @param sections the HTML of each section to replace, keyed by section name
+	 */
+	public void setSections(String html, Map<String, String> sections)
+	{
+		GuiAssertions.assertIsNotJavaFXThread();
+		Platform.runLater(() -> {
+			WebEngine engine = browser.getEngine();
+			if (engine.getLoadWorker().getState() != Worker.State.SUCCEEDED)
+			{
+				engine.loadContent(html);
+				return;
+			}
+			for (Map.Entry<String, String> section : sections.entrySet())
+			{
+				Object replaced = engine.executeScript("(function(){var e=document.querySelector('[data-section=\""
+					+ section.getKey() + "\"]');if(!e){return false;}e.outerHTML='"
+					+ escapeScriptString(section.getValue()) + "';return true;})()");
+				if (!Boolean.TRUE.equals(replaced))
+				{
+					engine.loadContent(html);
+					return;
+				}
+			}
+		});
+	}
+
+	private static String escapeScriptString(String text)
+	{
+		StringBuilder escaped = new StringBuilder(text.length() + 16);
+		for (char c : text.toCharArray())
+		{
+			switch (c)
+			{
+				case '\\' -> escaped.append("\\\\");
+				case '\'' -> escaped.append("\\'");
+				case '\n' -> escaped.append("\\n");
+				case '\r' -> escaped.append("\\r");
+				case '\u2028' -> escaped.append("\\u2028");
+				case '\u2029' -> escaped.append("\\u2029");
+				default -> escaped.append(c);
+			}
+		}
+		return escaped.toString();
+	}
 }
@@ -33,6 +33,7 @@ import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import pcgen.cdom.base.CDOMObject;
@@ -73,6 +74,7 @@ import pcgen.system.PluginLoader;
 import pcgen.util.Delta;
 import pcgen.util.Logging;
 import pcgen.util.enumeration.View;
+import pcgen.util.fop.StylesheetCache;
 
 /**
  * This class deals with exporting a PC to various types of output sheets 
@@ -102,13 +104,19 @@ public abstract class ExportHandler
 	private static final Float JEP_TRUE = 1.0f;
 
 	/** A map of output tokens to export */
-	private static final Map<String, Token> TOKEN_MAP = new HashMap<>();
+	private static final Map<String, Token> TOKEN_MAP = new ConcurrentHashMap<>();
+
+	/**
+	 * The private output token instances of the current thread, or null if the
+	 * thread uses the shared instances in TOKEN_MAP.
+	 */
+	private static final ThreadLocal<Map<String, Token>> PRIVATE_TOKENS = new ThreadLocal<>();
 
 	/** 
 	 * A variable to hold the state of whether or not the output token map to
 	 * be exported is populated or not. 
 	 */
-	private static boolean tokenMapPopulated;
+	private static volatile boolean tokenMapPopulated;
 
 	// Processing state variables
 
@@ -339,6 +347,67 @@ public abstract class ExportHandler
 		}
 	}
 
+	/**
+	 * Returns the output token for the given token name. If the current thread
+	 * is using private tokens, the token is an instance private to the thread.
+	 *
+	 * @param tokenName The name of the output token
+	 * @return The output token, or null if there is no token with that name
+	 */
+	private static Token getToken(String tokenName)
+	{
+		Token token = TOKEN_MAP.get(tokenName);
+		Map<String, Token> privateTokens = PRIVATE_TOKENS.get();
+		if ((token == null) || (privateTokens == null))
+		{
+			return token;
+		}
+		return privateTokens.computeIfAbsent(tokenName, name -> newTokenInstance(token));
+	}
+
+	/**
+	 * Creates a new instance of the given output token for a thread using private
+	 * tokens. The shared instance is never handed out instead, as it may cache a
+	 * result for a character being exported on another thread.
+	 *
+	 * @param token The shared instance of the output token
+	 * @return A new instance of the output token
+	 * @throws IllegalStateException if the output token cannot be instantiated
+	 */
+	private static Token newTokenInstance(Token token)
+	{
+		try
+		{
+			return token.getClass().getDeclaredConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new IllegalStateException("Unable to create a private instance of output token "
+				+ token.getTokenName() + " for a concurrent export", e);
+		}
+	}
+
+	/**
+	 * Makes the current thread use its own instances of the output tokens
+	 * until releasePrivateTokens is called. Many output tokens cache the
+	 * result of their last call, so a thread exporting concurrently with
+	 * other threads must not share them.
+	 */
+	public static void usePrivateTokens()
+	{
+		PRIVATE_TOKENS.set(new HashMap<>());
+	}
+
+	/**
+	 * Returns the current thread to using the shared output token instances, and
+	 * discards any output the thread cached for the character it exported.
+	 */
+	public static void releasePrivateTokens()
+	{
+		PRIVATE_TOKENS.remove();
+		EqToken.clearCachedList();
+	}
+
 	public static PluginLoader getPluginLoader()
 	{
 		return new PluginLoader()
@@ -392,8 +461,11 @@ public abstract class ExportHandler
 			if (anObject != null)
 			{
 				final String fString = anObject.toString();
-				final String rString = variables.get(fString).toString();
-				expr = expr.replaceAll(Pattern.quote(fString), rString);
+				if (expr.contains(fString))
+				{
+					final String rString = variables.get(fString).toString();
+					expr = expr.replace(fString, rString);
+				}
 			}
 		}
 		return expr;
@@ -836,10 +908,11 @@ public abstract class ExportHandler
 	private boolean processLoop(FORNode node, BufferedWriter output, PlayerCharacter aPC, int index)
 	{
 		loopVariables.put(node.var(), index);
-		int numberOfChildrenNodes = node.children().size();
+		final List<?> children = node.children();
+		int numberOfChildrenNodes = children.size();
 		for (int y = 0; y < numberOfChildrenNodes; ++y)
 		{
-			if (node.children().get(y) instanceof FORNode nextFor)
+			if (children.get(y) instanceof FORNode nextFor)
 			{
 				loopVariables.put(nextFor.var(), 0);
 				existsOnly = nextFor.exists();
@@ -871,13 +944,13 @@ public abstract class ExportHandler
 				existsOnly = node.exists();
 				loopVariables.remove(nextFor.var());
 			}
-			else if (node.children().get(y) instanceof IIFNode)
+			else if (children.get(y) instanceof IIFNode)
 			{
-				evaluateIIF((IIFNode) node.children().get(y), output, aPC);
+				evaluateIIF((IIFNode) children.get(y), output, aPC);
 			}
 			else
 			{
-				String lineString = (String) node.children().get(y);
+				String lineString = (String) children.get(y);
 				lineString = replaceVariables(lineString, loopParameters);
 				lineString = replaceVariables(lineString, loopVariables);
 
@@ -1412,7 +1485,7 @@ public abstract class ExportHandler
 	 * Populate the token map (if not already done so), e.g. Add all 
 	 * of the types of Output Tokens to the map
 	 */
-	private static void populateTokenMap()
+	private static synchronized void populateTokenMap()
 	{
 		if (!tokenMapPopulated)
 		{
@@ -1628,9 +1701,9 @@ public abstract class ExportHandler
 				}
 			}
 			// Else if the token is in the list of valid output tokens
-			else if (TOKEN_MAP.get(firstToken) != null)
+			else if (getToken(firstToken) != null)
 			{
-				Token token = TOKEN_MAP.get(firstToken);
+				Token token = getToken(firstToken);
 				if (tokenString.indexOf(".INFO.")>-1) {
 					FileAccess.encodeWrite(output, aPC.getInfoToken(tokenString, aPC.getDisplay().getRace()));
 				}
@@ -3262,7 +3335,7 @@ public abstract class ExportHandler
 		// Make sure the token list has been populated
 		populateTokenMap();
 
-		final Token token = TOKEN_MAP.get(firstToken);
+		final Token token = getToken(firstToken);
 		if (token != null)
 		{
 			return token.getToken(aString, aPC, null);
@@ -3431,5 +3504,8 @@ public abstract class ExportHandler
 	public static void clear()
 	{
 		TOKEN_MAP.clear();
+		PCGenExportHandler.clearTemplateCache();
+		FreeMarkerExportHandler.clearConfigurations();
+		StylesheetCache.clear();
 	}
 }
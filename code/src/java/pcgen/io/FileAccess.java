@@ -32,11 +32,14 @@ import pcgen.io.filters.PatternFilter;
 /**
  * {@code FileAccess}.
  *
+ * The output filter and maximum length are held per thread, as they are set
+ * and used by the single thread running an export. This allows characters to
+ * be exported concurrently on different threads.
  */
 public final class FileAccess
 {
-	private static OutputFilter outputFilter = null;
-	private static int maxLength = -1;
+	private static final ThreadLocal<OutputFilter> OUTPUT_FILTER = new ThreadLocal<>();
+	private static final ThreadLocal<Integer> MAX_LENGTH = ThreadLocal.withInitial(() -> -1);
 
 	private FileAccess()
 	{
@@ -52,6 +55,7 @@ public final class FileAccess
 	public static String filterString(String aString)
 	{
 		String outputString = aString;
+		OutputFilter outputFilter = OUTPUT_FILTER.get();
 		if (outputFilter != null)
 		{
 			outputString = outputFilter.filterString(aString);
@@ -69,11 +73,11 @@ public final class FileAccess
 	{
 		try
 		{
-			outputFilter = new PatternFilter(templateFilename);
+			OUTPUT_FILTER.set(new PatternFilter(templateFilename));
 		}
 		catch (IOException e)
 		{
-			outputFilter = new CharacterFilter(templateFilename);
+			OUTPUT_FILTER.set(new CharacterFilter(templateFilename));
 		}
 	}
 
@@ -83,7 +87,7 @@ public final class FileAccess
 	 */
 	public static void setCurrentOutputFilter(OutputFilter filter)
 	{
-		outputFilter = filter;
+		OUTPUT_FILTER.set(filter);
 	}
 
 	/**
@@ -102,7 +106,7 @@ public final class FileAccess
 	 */
 	public static void maxLength(int anInt)
 	{
-		maxLength = anInt;
+		MAX_LENGTH.set(anInt);
 	}
 
 	/**
@@ -139,6 +143,7 @@ public final class FileAccess
 		}
 
 		// Trim the string to the length of maxLength
+		int maxLength = MAX_LENGTH.get();
 		if ((maxLength > 0) && (aString.length() > maxLength))
 		{
 			outputString = aString.substring(0, maxLength);
@@ -10,6 +10,7 @@ import java.io.IOException;
 import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import pcgen.core.GameMode;
 import pcgen.core.PlayerCharacter;
 import pcgen.core.SettingsHandler;
@@ -24,6 +25,14 @@ import pcgen.util.Logging;
 
 public class FreeMarkerExportHandler extends ExportHandler
 {
+	/**
+	 * The FreeMarker configurations, one per template directory. Each holds the cache of
+	 * the templates parsed from its directory, so a template is only parsed once for all
+	 * of the characters exported with it. A Configuration is safe to share between
+	 * threads once it has been set up, so nothing character specific is stored in it.
+	 */
+	private static final Map<File, Configuration> CONFIGURATIONS = new ConcurrentHashMap<>();
+
 	/**
 	 * Constructor.  Populates the token map (a list of possible output tokens) and
 	 * sets the character sheet template we are using.
@@ -50,6 +59,43 @@ public class FreeMarkerExportHandler extends ExportHandler
 	}
 
 
+	/**
+	 * Returns the FreeMarker configuration for loading templates from the given
+	 * directory, creating it if this is the first use of the directory.
+	 *
+	 * @param templateDir The directory holding the templates.
+	 * @return The configuration for the directory.
+	 * @throws IOException If the directory cannot be used to load templates.
+	 */
+	static Configuration getConfiguration(File templateDir) throws IOException
+	{
+		Configuration cfg = CONFIGURATIONS.get(templateDir);
+		if (cfg == null)
+		{
+			cfg = new Configuration(VERSION_2_3_20);
+			cfg.setDirectoryForTemplateLoading(templateDir);
+			// Check for changes on each use, so an edited template is picked up at once
+			cfg.setTemplateUpdateDelayMilliseconds(0);
+			// Configure our custom directives which are not specific to a character.
+			cfg.setSharedVariable("loop", new LoopDirective());
+			Configuration existing = CONFIGURATIONS.putIfAbsent(templateDir, cfg);
+			if (existing != null)
+			{
+				cfg = existing;
+			}
+		}
+		return cfg;
+	}
+
+	/**
+	 * Discards all FreeMarker configurations, along with the templates they
+	 * have parsed.
+	 */
+	static void clearConfigurations()
+	{
+		CONFIGURATIONS.clear();
+	}
+
 	/**
 	 * Produce an output file for a character using a FreeMarker template.
 	 *
@@ -61,21 +107,10 @@ public class FreeMarkerExportHandler extends ExportHandler
 	{
 		try
 		{
-			// Set Directory for templates
-			Configuration cfg = new Configuration(VERSION_2_3_20);
-			cfg.setDirectoryForTemplateLoading(getTemplateFile().getParentFile());
-
 			// load template
+			Configuration cfg = getConfiguration(getTemplateFile().getAbsoluteFile().getParentFile());
 			Template template = cfg.getTemplate(getTemplateFile().getName());
 
-			// Configure our custom directives and functions.
-			cfg.setSharedVariable("pcstring", new PCStringDirective(aPC, this));
-			cfg.setSharedVariable("pcvar", new PCVarFunction(aPC));
-			cfg.setSharedVariable("pcboolean", new PCBooleanFunction(aPC, this));
-			cfg.setSharedVariable("pchasvar", new PCHasVarFunction(aPC, this));
-			cfg.setSharedVariable("loop", new LoopDirective());
-			cfg.setSharedVariable("equipsetloop", new EquipSetLoopDirective(aPC));
-
 			GameMode gamemode = SettingsHandler.getGameAsProperty().get();
 			// data-model
 			Map<String, Object> pc = OutputDB.buildDataModel(aPC.getCharID());
@@ -86,6 +121,13 @@ public class FreeMarkerExportHandler extends ExportHandler
 			input.put("gamemode", mode);
 			input.put("gamemodename", gamemode.getName());
 
+			// Our custom directives and functions for this character.
+			input.put("pcstring", new PCStringDirective(aPC, this));
+			input.put("pcvar", new PCVarFunction(aPC));
+			input.put("pcboolean", new PCBooleanFunction(aPC, this));
+			input.put("pchasvar", new PCHasVarFunction(aPC, this));
+			input.put("equipsetloop", new EquipSetLoopDirective(aPC));
+
 			// Process the template
 			template.process(input, outputWriter);
 		}
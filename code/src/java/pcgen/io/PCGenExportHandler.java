@@ -7,7 +7,9 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import pcgen.cdom.base.Constants;
@@ -16,6 +18,13 @@ import pcgen.util.Logging;
 
 public class PCGenExportHandler extends ExportHandler
 {
+	/**
+	 * The parsed FOR/IIF trees of the templates that have been used, keyed by
+	 * the absolute template file. The trees are not modified once parsed, so
+	 * they are shared by all handlers (and threads) using the same template.
+	 */
+	private static final Map<File, ParsedTemplate> TEMPLATE_CACHE = new ConcurrentHashMap<>();
+
 	/**
 	 * Constructor.  Populates the token map (a list of possible output tokens) and
 	 * sets the character sheet template we are using.
@@ -33,19 +42,10 @@ public class PCGenExportHandler extends ExportHandler
 		// Set an output filter based on the type of template in use.
 		FileAccess.setCurrentOutputFilter(getTemplateFile().getName());
 
-		try (FileInputStream fis = new FileInputStream(getTemplateFile());
-			 InputStreamReader isr = new InputStreamReader(fis, StandardCharsets.UTF_8);
-			 BufferedReader br = new BufferedReader(isr))
+		try
 		{
-			// A Buffer to hold the result of the preparation
-			CharSequence template = prepareTemplate(br);
-
-			// Create a tokenizer based on EOL characters
-			// 03-Nov-2008 Karianna, changed to use line separator instead of /r/n
-			final StringTokenizer tokenizer = new StringTokenizer(template.toString(), Constants.LINE_SEPARATOR, false);
-
 			// Get FOR loops and IIF statements
-			final FORNode root = parseFORsAndIIFs(tokenizer);
+			final FORNode root = getParsedTemplate();
 
 			// TODO Not sure what these lines are for
 			loopVariables.put(null, "0");
@@ -64,6 +64,55 @@ public class PCGenExportHandler extends ExportHandler
 		}
 	}
 
+	/**
+	 * Returns the FOR/IIF tree for the template file of this handler. The tree
+	 * is only read and parsed if the template has not been parsed before, or
+	 * if the file has changed since it was parsed.
+	 *
+	 * @return The root FORNode of the template
+	 * @throws IOException If the template cannot be read
+	 */
+	private FORNode getParsedTemplate() throws IOException
+	{
+		File file = getTemplateFile().getAbsoluteFile();
+		long lastModified = file.lastModified();
+		long length = file.length();
+		ParsedTemplate cached = TEMPLATE_CACHE.get(file);
+		if ((cached != null) && (cached.lastModified == lastModified) && (cached.length == length))
+		{
+			return cached.root;
+		}
+
+		try (FileInputStream fis = new FileInputStream(file);
+			 InputStreamReader isr = new InputStreamReader(fis, StandardCharsets.UTF_8);
+			 BufferedReader br = new BufferedReader(isr))
+		{
+			// A Buffer to hold the result of the preparation
+			CharSequence template = prepareTemplate(br);
+
+			// Create a tokenizer based on EOL characters
+			// 03-Nov-2008 Karianna, changed to use line separator instead of /r/n
+			final StringTokenizer tokenizer = new StringTokenizer(template.toString(), Constants.LINE_SEPARATOR, false);
+
+			final FORNode root = parseFORsAndIIFs(tokenizer);
+			TEMPLATE_CACHE.put(file, new ParsedTemplate(lastModified, length, root));
+			return root;
+		}
+		catch (IOException e)
+		{
+			TEMPLATE_CACHE.remove(file);
+			throw e;
+		}
+	}
+
+	/**
+	 * Discards all parsed templates, so that each template is read again the
+	 * next time it is used.
+	 */
+	static void clearTemplateCache()
+	{
+		TEMPLATE_CACHE.clear();
+	}
 
 	/**
 	 * A helper method to prepare the template for exporting
@@ -165,4 +214,21 @@ public class PCGenExportHandler extends ExportHandler
 		return root;
 	}
 
+	/**
+	 * A parsed template, along with the timestamp and size of the file it was
+	 * parsed from.
+	 */
+	private static final class ParsedTemplate
+	{
+		private final long lastModified;
+		private final long length;
+		private final FORNode root;
+
+		private ParsedTemplate(long lastModified, long length, FORNode root)
+		{
+			this.lastModified = lastModified;
+			this.length = length;
+			this.root = root;
+		}
+	}
 }
@@ -104,13 +104,13 @@ public class AbilityListToken extends Token
 		// If we haven't cached some of the processign data, then do so, this is so that 
 		// if the Output Sheet loops over this token we don't process one-off stuff more than 
 		// once
-		if ((lastPC != pc) || !aCategory.equals(lastCategory) || (lastPCSerial != pc.getSerial())
+		if ((lastPC != pc) || !aCategory.equals(lastCategory) || (lastPCSerial != pc.getCalculationSerial())
 			|| !tokenString.equals(lastType))
 		{
 			abilityMap = getAbilityList(pc, aCategory);
 			lastPC = pc;
 			lastCategory = aCategory;
-			lastPCSerial = pc.getSerial();
+			lastPCSerial = pc.getCalculationSerial();
 			lastType = tokenString;
 		}
 
@@ -142,7 +142,7 @@ public class AbilityToken extends Token
 		final StringTokenizer aTok, final String tokenString, final AbilityCategory aCategory)
 	{
 		boolean cacheAbilityProcessingData = (cachedPC != pc || !aCategory.equals(lastCategory)
-			|| cachedPcSerial != pc.getSerial() || !tokenString.equals(lastToken));
+			|| cachedPcSerial != pc.getCalculationSerial() || !tokenString.equals(lastToken));
 
 		// As this method can effectively be called by an OS FOR token, there 
 		// is a performance saving in caching some of the one-off processing data 
@@ -152,7 +152,7 @@ public class AbilityToken extends Token
 			abilityList = getAbilityList(pc, aCategory);
 			cachedPC = pc;
 			lastCategory = aCategory;
-			cachedPcSerial = pc.getSerial();
+			cachedPcSerial = pc.getCalculationSerial();
 			lastToken = tokenString;
 		}
 
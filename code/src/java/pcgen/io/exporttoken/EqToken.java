@@ -53,10 +53,21 @@ public class EqToken extends Token
 {
 	/** Token Name */
 	public static final String TOKENNAME = "EQ";
-	private static String cachedString = null;
-	private static List<Equipment> cachedList = null;
-	private static int cachedSerial = 0;
-	private static PlayerCharacter cachedPC = null;
+
+	/**
+	 * The last equipment list built on each thread, so that characters can be
+	 * exported concurrently.
+	 */
+	private static final ThreadLocal<CachedList> CACHED_LIST = new ThreadLocal<>();
+
+	/**
+	 * Discards the equipment list cached on the current thread, so that an export
+	 * thread does not keep the character it exported.
+	 */
+	public static void clearCachedList()
+	{
+		CACHED_LIST.remove();
+	}
 
 	@Override
 	public String getTokenName()
@@ -127,14 +138,16 @@ public class EqToken extends Token
 		List<Equipment> eqList;
 		StringTokenizer aTok;
 		int temp = -1;
-		if (comparatorString.equals(cachedString) && pc == cachedPC && pc.getSerial() == cachedSerial)
+		CachedList cached = CACHED_LIST.get();
+		if ((cached != null) && comparatorString.equals(cached.comparatorString) && (pc == cached.pc)
+			&& (pc.getCalculationSerial() == cached.serial))
 		{
 			//			cacheHit++;
 			//			if (cacheHit%100==0) {
 			//				System.out.println("cacheHit"+cacheHit + ", cacheMiss="+cacheMiss);
 			//			}
 
-			eqList = cachedList;
+			eqList = cached.eqList;
 			tokenSource = tokenSource.substring(comparatorString.length());
 			aTok = new StringTokenizer(tokenSource, ".", false);
 			String token = aTok.nextToken();
@@ -212,10 +225,7 @@ public class EqToken extends Token
 
 			}
 
-			cachedList = eqList;
-			cachedString = comparatorString;
-			cachedPC = pc;
-			cachedSerial = pc.getSerial();
+			CACHED_LIST.set(new CachedList(comparatorString, pc, pc.getCalculationSerial(), eqList));
 		}
 
 		// Now that we have the list, get the token for the appropriate element
@@ -1355,4 +1365,23 @@ public class EqToken extends Token
 
 	}
 
+	/**
+	 * The equipment list built for an EQ token, along with the token prefix
+	 * and character (at a given serial) it was built for.
+	 */
+	private static final class CachedList
+	{
+		private final String comparatorString;
+		private final PlayerCharacter pc;
+		private final int serial;
+		private final List<Equipment> eqList;
+
+		private CachedList(String comparatorString, PlayerCharacter pc, int serial, List<Equipment> eqList)
+		{
+			this.comparatorString = comparatorString;
+			this.pc = pc;
+			this.serial = serial;
+			this.eqList = eqList;
+		}
+	}
 }
@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.StringTokenizer;
 
+import pcgen.cdom.enumeration.CharacterDomain;
 import pcgen.cdom.enumeration.ObjectKey;
 import pcgen.cdom.enumeration.SkillCost;
 import pcgen.cdom.enumeration.SkillFilter;
@@ -156,7 +157,9 @@ public class SkillToken extends Token
 
 	private synchronized List<Skill> getSkillList(PlayerCharacter pc)
 	{
-		if (pc == lastPC && pc.getSerial() == lastPCSerial)
+		// The skill list only depends on calculations and the output order setting
+		int serial = Math.max(pc.getCalculationSerial(), pc.getSerial(CharacterDomain.SETTINGS));
+		if (pc == lastPC && serial == lastPCSerial)
 		{
 			return cachedSkillList;
 		}
@@ -165,7 +168,7 @@ public class SkillToken extends Token
 				SkillDisplay.getSkillListInOutputOrder(pc, pc.getDisplay().getPartialSkillList(View.VISIBLE_EXPORT));
 		cachedSkillList = pcSkills;
 		lastPC = pc;
-		lastPCSerial = pc.getSerial();
+		lastPCSerial = serial;
 		return pcSkills;
 	}
 
@@ -259,10 +259,10 @@ public class GameModeFileLoader extends PCGenTask
 
 	private void loadGameModeInfoFile(GameMode gameMode, URI uri, String aType)
 	{
-		String data;
+		String[] fileLines;
 		try
 		{
-			data = LstFileLoader.readFromURI(uri);
+			fileLines = LstFileLoader.readLinesFromURI(null, uri, false);
 		}
 		catch (final PersistenceLayerException ple)
 		{
@@ -272,8 +272,10 @@ public class GameModeFileLoader extends PCGenTask
 				uri, ple.getMessage()));
 			return;
 		}
-
-		String[] fileLines = data.split(LstFileLoader.LINE_SEPARATOR_REGEXP);
+		if (fileLines == null)
+		{
+			return;
+		}
 		String xpTable = "";
 		for (int i = 0; i < fileLines.length; i++)
 		{
@@ -308,10 +310,10 @@ public class GameModeFileLoader extends PCGenTask
 
 	private static GameMode loadGameModeMiscInfo(String aName, URI uri)
 	{
-		String data;
+		String[] fileLines;
 		try
 		{
-			data = LstFileLoader.readFromURI(uri);
+			fileLines = LstFileLoader.readLinesFromURI(null, uri, false);
 		}
 		catch (final PersistenceLayerException ple)
 		{
@@ -321,8 +323,10 @@ public class GameModeFileLoader extends PCGenTask
 				uri, ple.getMessage()));
 			return null;
 		}
-
-		String[] fileLines = data.split(LstFileLoader.LINE_SEPARATOR_REGEXP);
+		if (fileLines == null)
+		{
+			return null;
+		}
 
 		GameMode gameMode = new GameMode(aName);
 		SystemCollections.addToGameModeList(gameMode);
@@ -22,10 +22,13 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Observable;
 import java.util.Observer;
 import java.util.Set;
@@ -100,7 +103,9 @@ import pcgen.persistence.lst.GenericLoader;
 import pcgen.persistence.lst.GenericLocalVariableLoader;
 import pcgen.persistence.lst.GlobalModifierLoader;
 import pcgen.persistence.lst.KitLoader;
+import pcgen.persistence.lst.LstFileCache;
 import pcgen.persistence.lst.LstFileLoader;
+import pcgen.persistence.lst.LstFilePrefetcher;
 import pcgen.persistence.lst.LstLineFileLoader;
 import pcgen.persistence.lst.LstObjectFileLoader;
 import pcgen.persistence.lst.PCClassLoader;
@@ -163,6 +168,14 @@ public class SourceFileLoader extends PCGenTask implements Observer
     private final LstLineFileLoader globalModifierLoader = new GlobalModifierLoader();
     private final LstLineFileLoader dynamicLoader = new DynamicLoader();
 
+    /**
+     * The object loaders, by the file list they load, in the order in which loadCampaigns
+     * loads them. The files of these lists (and the variable files) are the files that can
+     * be provided by the LstFilePrefetcher.
+     */
+    private final Map<ListKey<CampaignSourceEntry>, LstObjectFileLoader<?>> objectLoaders =
+            new LinkedHashMap<>();
+
     /*
      * Other properties
      */
@@ -190,6 +203,35 @@ public class SourceFileLoader extends PCGenTask implements Observer
         //TODO see if this has any sideeffects
         new CampaignSourceEntry(new Campaign(), URI.create("file:/System%20Configuration%20Document"));
 
+        objectLoaders.put(ListKey.FILE_SIZE, sizeLoader);
+        //Now load PCC stat, check, alignment
+        objectLoaders.put(ListKey.FILE_STAT, statLoader);
+        objectLoaders.put(ListKey.FILE_SAVE, savesLoader);
+        objectLoaders.put(ListKey.FILE_ALIGNMENT, alignmentLoader);
+        // load weapon profs first
+        objectLoaders.put(ListKey.FILE_WEAPON_PROF, wProfLoader);
+        objectLoaders.put(ListKey.FILE_ARMOR_PROF, aProfLoader);
+        objectLoaders.put(ListKey.FILE_SHIELD_PROF, sProfLoader);
+        // load skills before classes to handle class skills
+        objectLoaders.put(ListKey.FILE_SKILL, skillLoader);
+        // load before races to handle auto known languages
+        objectLoaders.put(ListKey.FILE_LANGUAGE, languageLoader);
+        // load before race or class to handle feats
+        objectLoaders.put(ListKey.FILE_FEAT, featLoader);
+        // load before race or class to handle abilities
+        objectLoaders.put(ListKey.FILE_ABILITY, abilityLoader);
+        objectLoaders.put(ListKey.FILE_RACE, raceLoader);
+        //Domain must load before CLASS - thpr 10/29/06
+        objectLoaders.put(ListKey.FILE_DOMAIN, domainLoader);
+        objectLoaders.put(ListKey.FILE_SPELL, spellLoader);
+        objectLoaders.put(ListKey.FILE_DEITY, deityLoader);
+        objectLoaders.put(ListKey.FILE_CLASS, classLoader);
+        objectLoaders.put(ListKey.FILE_TEMPLATE, templateLoader);
+        // loaded before equipment (required)
+        objectLoaders.put(ListKey.FILE_EQUIP_MOD, eqModLoader);
+        objectLoaders.put(ListKey.FILE_EQUIP, equipmentLoader);
+        objectLoaders.put(ListKey.FILE_KIT, kitLoader);
+
         abilityCategoryLoader.addObserver(this);
         bioLoader.addObserver(this);
         companionModLoader.addObserver(this);
@@ -290,6 +332,43 @@ public class SourceFileLoader extends PCGenTask implements Observer
                 .sum();
     }
 
+    /**
+     * Returns the URIs of the files that can be prefetched, in the order in which
+     * they are loaded by loadCampaigns.
+     */
+    private List<URI> getPrefetchFilesInLoadOrder()
+    {
+        List<URI> uris = new ArrayList<>();
+        List<ListKey<CampaignSourceEntry>> listKeys = new ArrayList<>();
+        listKeys.add(ListKey.FILE_VARIABLE);
+        listKeys.addAll(objectLoaders.keySet());
+        for (ListKey<CampaignSourceEntry> listKey : listKeys)
+        {
+            for (CampaignSourceEntry cse : fileLists.getListFor(listKey))
+            {
+                uris.add(cse.getURI());
+            }
+        }
+        return uris;
+    }
+
+    /**
+     * Opens the LstFileCache for the given game mode, loaded campaigns and treatment of
+     * continuation lines.
+     */
+    private static LstFileCache openFileCache(GameMode gamemode, Collection<Campaign> loaded,
+            boolean allowMultiLine)
+    {
+        List<String> selection = new ArrayList<>();
+        selection.add(gamemode.getName());
+        selection.add("multiline=" + allowMultiLine);
+        for (Campaign campaign : loaded)
+        {
+            selection.add(String.valueOf(campaign.getSourceURI()));
+        }
+        return LstFileCache.open(Path.of(ConfigurationSettings.getSettingsDir(), "cache"), selection);
+    }
+
     private void addCustomFilesToStartOfList()
     {
         CampaignSourceEntry tempSource;
@@ -421,6 +500,20 @@ public class SourceFileLoader extends PCGenTask implements Observer
         }
     }
 
+    private static void addUnarmedStrike(LoadContext context)
+    {
+        WeaponProf wp =
+                context.getReferenceContext().silentlyGetConstructedCDOMObject(WeaponProf.class, "Unarmed Strike");
+        if (wp == null)
+        {
+            wp = new WeaponProf();
+            wp.setName(LanguageBundle.getString("Equipment.UnarmedStrike"));
+            wp.put(StringKey.KEY_NAME, "Unarmed Strike");
+            wp.addToListFor(ListKey.TYPE, Type.SIMPLE);
+            context.getReferenceContext().importObject(wp);
+        }
+    }
+
     private void addDefaultEquipmentMods(LoadContext context) throws PersistenceLayerException
     {
         URI uri = URI.create("file:/" + eqModLoader.getClass().getName() + ".java");
@@ -519,104 +612,90 @@ public class SourceFileLoader extends PCGenTask implements Observer
         // progress meters that they want to.
         setMaximum(countTotalFilesToLoad());
 
-        // Load using the new LstFileLoaders
-        List<CampaignSourceEntry> dataDefFileList = fileLists.getListFor(ListKey.FILE_DATACTRL);
-        dataDefFileList = addDefaultDataControlIfNeeded(dataDefFileList);
-        dataControlLoader.loadLstFiles(context, dataDefFileList);
-        processFactDefinitions(context);
-        tableLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_DATATABLE));
-
-        //Load Variables (foundation for other items)
-        variableLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_VARIABLE));
-        defineBuiltinVariables(context);
-        dynamicLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_DYNAMIC));
-        List<CampaignSourceEntry> globalModFileList = fileLists.getListFor(ListKey.FILE_GLOBALMOD);
-        if (globalModFileList.isEmpty())
-        {
-            File defaultGameModeDir = new File(gameModeDir, "default");
-            File df = new File(defaultGameModeDir, "compatibilityGlobalModifier.lst");
-            Campaign c = new Campaign();
-            c.setName("Default Global Modifier File");
-            CampaignSourceEntry cse = new CampaignSourceEntry(c, df.toURI());
-            globalModFileList.add(cse);
-        }
-        globalModifierLoader.loadLstFiles(context, globalModFileList);
-
-        // load ability categories first as they used to only be at the game mode
-        abilityCategoryLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_ABILITY_CATEGORY));
-
-        //Force all AbilityCategory objects to be imported as manufacturers
-        for (AbilityCategory ac : context.getReferenceContext().getConstructedCDOMObjects(AbilityCategory.class))
-        {
-            context.getReferenceContext().getManufacturerId(ac);
-        }
-
-        for (Campaign c : loaded)
-        {
-            c.applyTo(context.getReferenceContext());
-        }
-
-        sizeLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_SIZE));
-        //Now load PCC stat, check, alignment
-        statLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_STAT));
-        savesLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_SAVE));
-        alignmentLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_ALIGNMENT));
-
-        // load weapon profs first
-        wProfLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_WEAPON_PROF));
-        WeaponProf wp =
-                context.getReferenceContext().silentlyGetConstructedCDOMObject(WeaponProf.class, "Unarmed Strike");
-        if (wp == null)
+        // Read (and split into lines) the next few data files on background threads,
+        // while the loaders below apply earlier files to the context in the required order.
+        // Files unchanged since the last load of this selection come from the cache.
+        boolean allowMultiLine =
+                PCGenSettings.OPTIONS_CONTEXT.initBoolean(PCGenSettings.OPTION_SOURCES_ALLOW_MULTI_LINE, false);
+        LstFileCache cache = openFileCache(gamemode, loaded, allowMultiLine);
+        LstFilePrefetcher prefetcher = new LstFilePrefetcher(getPrefetchFilesInLoadOrder(), allowMultiLine,
+                LstFilePrefetcher.DEFAULT_WINDOW, cache);
+        context.setFilePrefetcher(prefetcher);
+        try
         {
-            wp = new WeaponProf();
-            wp.setName(LanguageBundle.getString("Equipment.UnarmedStrike"));
-            wp.put(StringKey.KEY_NAME, "Unarmed Strike");
-            wp.addToListFor(ListKey.TYPE, Type.SIMPLE);
-            context.getReferenceContext().importObject(wp);
-        }
-
-        aProfLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_ARMOR_PROF));
-        sProfLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_SHIELD_PROF));
-
-        // load skills before classes to handle class skills
-        skillLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_SKILL));
-
-        // load before races to handle auto known languages
-        languageLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_LANGUAGE));
-
-        // load before race or class to handle feats
-        featLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_FEAT));
-
-        // load before race or class to handle abilities
-        abilityLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_ABILITY));
-
-        raceLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_RACE));
-
-        //Domain must load before CLASS - thpr 10/29/06
-        domainLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_DOMAIN));
+            // Load using the new LstFileLoaders
+            List<CampaignSourceEntry> dataDefFileList = fileLists.getListFor(ListKey.FILE_DATACTRL);
+            dataDefFileList = addDefaultDataControlIfNeeded(dataDefFileList);
+            dataControlLoader.loadLstFiles(context, dataDefFileList);
+            processFactDefinitions(context);
+            tableLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_DATATABLE));
+
+            //Load Variables (foundation for other items)
+            variableLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_VARIABLE));
+            defineBuiltinVariables(context);
+            dynamicLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_DYNAMIC));
+            List<CampaignSourceEntry> globalModFileList = fileLists.getListFor(ListKey.FILE_GLOBALMOD);
+            if (globalModFileList.isEmpty())
+            {
+                File defaultGameModeDir = new File(gameModeDir, "default");
+                File df = new File(defaultGameModeDir, "compatibilityGlobalModifier.lst");
+                Campaign c = new Campaign();
+                c.setName("Default Global Modifier File");
+                CampaignSourceEntry cse = new CampaignSourceEntry(c, df.toURI());
+                globalModFileList.add(cse);
+            }
+            globalModifierLoader.loadLstFiles(context, globalModFileList);
 
-        spellLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_SPELL));
-        deityLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_DEITY));
+            // load ability categories first as they used to only be at the game mode
+            abilityCategoryLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_ABILITY_CATEGORY));
 
-        classLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_CLASS));
+            //Force all AbilityCategory objects to be imported as manufacturers
+            for (AbilityCategory ac : context.getReferenceContext().getConstructedCDOMObjects(AbilityCategory.class))
+            {
+                context.getReferenceContext().getManufacturerId(ac);
+            }
 
-        templateLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_TEMPLATE));
+            for (Campaign c : loaded)
+            {
+                c.applyTo(context.getReferenceContext());
+            }
 
-        // loaded before equipment (required)
-        eqModLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_EQUIP_MOD));
+            // Load the objects in the order of objectLoaders (the order the files are prefetched)
+            for (Map.Entry<ListKey<CampaignSourceEntry>, LstObjectFileLoader<?>> entry : objectLoaders.entrySet())
+            {
+                ListKey<CampaignSourceEntry> listKey = entry.getKey();
+                entry.getValue().loadLstFiles(context, fileLists.getListFor(listKey));
+                if (listKey == ListKey.FILE_WEAPON_PROF)
+                {
+                    addUnarmedStrike(context);
+                }
+                else if (listKey == ListKey.FILE_EQUIP)
+                {
+                    companionModLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_COMPANION_MOD));
+                }
+            }
 
-        equipmentLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_EQUIP));
-        companionModLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_COMPANION_MOD));
-        kitLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_KIT));
+            // Load the bio settings files
+            bioLoader.setGameMode(gamemode.getName());
+            bioLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_BIO_SET));
 
-        // Load the bio settings files
-        bioLoader.setGameMode(gamemode.getName());
-        bioLoader.loadLstFiles(context, fileLists.getListFor(ListKey.FILE_BIO_SET));
+            // Add default EQ mods
+            addDefaultEquipmentMods(context);
 
-        // Add default EQ mods
-        addDefaultEquipmentMods(context);
+            classLoader.loadSubLines(context);
+            prefetcher.close();
+            cache.save();
+        }
+        finally
+        {
+            context.setFilePrefetcher(null);
+            prefetcher.close();
+            cache.close();
+        }
 
-        classLoader.loadSubLines(context);
+        Logging.log(Logging.INFO, context.getObjectContext().getStringPool().getReport());
+        // The loaded objects hold the canonical values, so the pool is no longer needed
+        context.getObjectContext().getStringPool().clear();
 
         /*
          * This is technically bad behavior, but we at least want to provide the
@@ -0,0 +1,537 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.persistence.lst;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import pcgen.util.Logging;
+
+/**
+ * LstFileCache is a persistent, versioned binary cache of the lines of the LST files
+ * loaded for a given selection of campaigns.
+ *
+ * All of the files of a selection are held in a single cache file, so a warm load reads
+ * one file instead of opening every data file. Each entry holds the lines of a file as
+ * split by LstLineReader, keyed by the URI of the file, and is only used if the size and
+ * last modified time of the file still match those recorded in the cache. The content
+ * of each entry is protected by a CRC32, so that a damaged cache file is ignored rather
+ * than loaded.
+ *
+ * Entries are read from the cache file when they are used; the cache file is not memory
+ * mapped, and is released by close(). A RandomAccessFile is used rather than a
+ * FileChannel, since interrupting a prefetch thread would close a FileChannel for every
+ * thread. Files read from disk during a load are appended to a temporary file rather
+ * than held in memory, and save() only writes a new cache file if anything changed.
+ *
+ * At most MAX_CACHE_FILES cache files are kept in the cache directory; the least
+ * recently used are deleted when a cache file is saved.
+ */
+public final class LstFileCache implements AutoCloseable
+{
+	/** Identifies an LST file cache ("PCLC"). */
+	private static final int MAGIC = 0x50434C43;
+
+	/** The version of the cache file format. */
+	private static final int VERSION = 2;
+
+	/** The length of the header (magic, version and index length) of a cache file. */
+	private static final int HEADER_LENGTH = 12;
+
+	/** The maximum number of cache files (campaign selections) kept. */
+	static final int MAX_CACHE_FILES = 4;
+
+	/** The prefix of the name of a cache file. */
+	private static final String PREFIX = "lst-";
+
+	/** The suffix of the name of a cache file. */
+	private static final String SUFFIX = ".cache";
+
+	/**
+	 * The location of the cache file.
+	 */
+	private final Path cacheFile;
+
+	/**
+	 * The open cache file, or null if there was no valid cache file.
+	 */
+	private final RandomAccessFile file;
+
+	/**
+	 * The entries in the cache file as it was when this LstFileCache was opened.
+	 */
+	private final Map<URI, CacheEntry> previous;
+
+	/**
+	 * The entries used (or read from disk) during this load.
+	 */
+	private final Map<URI, CacheEntry> current = new ConcurrentHashMap<>();
+
+	/**
+	 * The temporary file holding the files read from disk during this load, or null if
+	 * no file has been read from disk.
+	 */
+	private Path pendingFile;
+
+	/**
+	 * The open temporary file holding the files read from disk during this load.
+	 */
+	private RandomAccessFile pending;
+
+	private LstFileCache(Path cacheFile, RandomAccessFile file, Map<URI, CacheEntry> previous)
+	{
+		this.cacheFile = cacheFile;
+		this.file = file;
+		this.previous = previous;
+	}
+
+	/**
+	 * Opens the LstFileCache for the given campaign selection in the given directory. If
+	 * there is no valid cache file for the selection, an empty LstFileCache is returned.
+	 *
+	 * @param directory
+	 *            The directory in which cache files are stored
+	 * @param selection
+	 *            Identifies the campaign selection (e.g. the game mode name, the source
+	 *            URIs of the selected campaigns and how lines are split); the order is
+	 *            not significant
+	 * @return The LstFileCache for the given campaign selection
+	 */
+	public static LstFileCache open(Path directory, Collection<String> selection)
+	{
+		Path cacheFile = directory.resolve(PREFIX + digest(selection) + SUFFIX);
+		if (!Files.isRegularFile(cacheFile))
+		{
+			return new LstFileCache(cacheFile, null, new HashMap<>());
+		}
+		RandomAccessFile file = null;
+		try
+		{
+			file = new RandomAccessFile(cacheFile.toFile(), "r");
+			Map<URI, CacheEntry> entries = readIndex(file);
+			if (entries != null)
+			{
+				return new LstFileCache(cacheFile, file, entries);
+			}
+			Logging.debugPrint("Ignoring LST cache of another version: " + cacheFile);
+		}
+		catch (IOException | BufferUnderflowException | IllegalArgumentException
+			| NegativeArraySizeException e)
+		{
+			Logging.debugPrint("Ignoring unreadable LST cache: " + cacheFile, e);
+		}
+		closeQuietly(file);
+		return new LstFileCache(cacheFile, null, new HashMap<>());
+	}
+
+	private static String digest(Collection<String> selection)
+	{
+		try
+		{
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			for (String item : new TreeSet<>(selection))
+			{
+				md.update(item.getBytes(StandardCharsets.UTF_8));
+				md.update((byte) 0);
+			}
+			return HexFormat.of().formatHex(md.digest(), 0, 16);
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException("SHA-256 is required to be supported", e);
+		}
+	}
+
+	/**
+	 * Reads the index of the given cache file. Returns null if the file is not a cache
+	 * file of the current version.
+	 */
+	private static Map<URI, CacheEntry> readIndex(RandomAccessFile file) throws IOException
+	{
+		ByteBuffer header = read(file, 0, HEADER_LENGTH);
+		if ((header.getInt() != MAGIC) || (header.getInt() != VERSION))
+		{
+			return null;
+		}
+		int indexLength = header.getInt();
+		ByteBuffer index = read(file, HEADER_LENGTH, indexLength);
+		long offset = HEADER_LENGTH + (long) indexLength;
+		int count = index.getInt();
+		Map<URI, CacheEntry> entries = new HashMap<>();
+		for (int i = 0; i < count; i++)
+		{
+			byte[] uri = new byte[index.getInt()];
+			index.get(uri);
+			long size = index.getLong();
+			long lastModified = index.getLong();
+			long crc = index.getInt() & 0xFFFFFFFFL;
+			int length = index.getInt();
+			entries.put(URI.create(new String(uri, StandardCharsets.UTF_8)),
+				new CacheEntry(size, lastModified, crc, file, offset, length));
+			offset += length;
+		}
+		if (offset != file.length())
+		{
+			throw new IllegalArgumentException("LST cache length does not match its index");
+		}
+		return entries;
+	}
+
+	private static ByteBuffer read(RandomAccessFile source, long position, int length)
+		throws IOException
+	{
+		byte[] bytes = new byte[length];
+		synchronized (source)
+		{
+			source.seek(position);
+			source.readFully(bytes);
+		}
+		return ByteBuffer.wrap(bytes);
+	}
+
+	/**
+	 * Returns the cached lines of the file at the given URI, if the cache holds the
+	 * lines of a file of the given size and last modified time. Returns null if the file
+	 * is not in the cache, has changed or the cached lines are damaged.
+	 *
+	 * @param uri
+	 *            The URI of the file
+	 * @param size
+	 *            The current size of the file
+	 * @param lastModified
+	 *            The current last modified time of the file, in milliseconds
+	 * @return The cached lines of the file, or null
+	 */
+	public String[] get(URI uri, long size, long lastModified)
+	{
+		CacheEntry entry = previous.get(uri);
+		if ((entry == null) || (entry.size != size) || (entry.lastModified != lastModified))
+		{
+			return null;
+		}
+		try
+		{
+			ByteBuffer content = read(entry.source, entry.offset, entry.length);
+			if (crc(content) != entry.crc)
+			{
+				Logging.debugPrint("Ignoring damaged LST cache entry for " + uri);
+				return null;
+			}
+			String[] lines = decode(content);
+			current.put(uri, entry);
+			return lines;
+		}
+		catch (IOException | BufferUnderflowException | IllegalArgumentException
+			| NegativeArraySizeException e)
+		{
+			Logging.debugPrint("Ignoring unreadable LST cache entry for " + uri, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Records the lines of the file at the given URI, which was read from disk.
+	 *
+	 * Failure to record the lines is not an error; it is logged and the file is simply
+	 * read from disk again by the next load.
+	 *
+	 * @param uri
+	 *            The URI of the file
+	 * @param size
+	 *            The size of the file, as it was before it was read
+	 * @param lastModified
+	 *            The last modified time of the file (in milliseconds), as it was
+	 *            before it was read
+	 * @param lines
+	 *            The lines of the file
+	 */
+	public void put(URI uri, long size, long lastModified, String[] lines)
+	{
+		Objects.requireNonNull(uri);
+		ByteBuffer content = encode(lines);
+		long crc = crc(content);
+		try
+		{
+			current.put(uri, new CacheEntry(size, lastModified, crc, append(content)));
+		}
+		catch (IOException e)
+		{
+			Logging.debugPrint("Unable to record " + uri + " in the LST cache", e);
+		}
+	}
+
+	/**
+	 * Appends the given content to the temporary file, returning the entry of the
+	 * content in that file (with no size, last modified time or CRC).
+	 */
+	private synchronized CacheEntry append(ByteBuffer content) throws IOException
+	{
+		if (pending == null)
+		{
+			Files.createDirectories(cacheFile.getParent());
+			pendingFile = Files.createTempFile(cacheFile.getParent(), PREFIX, ".tmp");
+			pending = new RandomAccessFile(pendingFile.toFile(), "rw");
+		}
+		int length = content.remaining();
+		long offset;
+		synchronized (pending)
+		{
+			offset = pending.length();
+			pending.seek(offset);
+			pending.write(content.array(), 0, length);
+		}
+		return new CacheEntry(0, 0, 0, pending, offset, length);
+	}
+
+	private static ByteBuffer encode(String[] lines)
+	{
+		List<byte[]> encoded = new ArrayList<>(lines.length);
+		int length = 4;
+		for (String line : lines)
+		{
+			byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+			encoded.add(bytes);
+			length += 4 + bytes.length;
+		}
+		ByteBuffer content = ByteBuffer.allocate(length);
+		content.putInt(lines.length);
+		for (byte[] bytes : encoded)
+		{
+			content.putInt(bytes.length);
+			content.put(bytes);
+		}
+		return content.flip();
+	}
+
+	private static String[] decode(ByteBuffer content)
+	{
+		String[] lines = new String[content.getInt()];
+		byte[] array = content.array();
+		for (int i = 0; i < lines.length; i++)
+		{
+			int length = content.getInt();
+			lines[i] = new String(array, content.position(), length, StandardCharsets.UTF_8);
+			content.position(content.position() + length);
+		}
+		return lines;
+	}
+
+	private static long crc(ByteBuffer content)
+	{
+		CRC32 crc = new CRC32();
+		crc.update(content.duplicate());
+		return crc.getValue();
+	}
+
+	/**
+	 * Writes the files used during this load to the cache file, if any of them were
+	 * read from disk or if the cache file holds files that were not used, and deletes
+	 * the least recently used cache files beyond MAX_CACHE_FILES.
+	 *
+	 * Failure to write the cache file is not an error; it is logged and the next load
+	 * simply reads the files from disk.
+	 */
+	public synchronized void save()
+	{
+		try
+		{
+			if ((pending == null) && current.keySet().equals(previous.keySet()))
+			{
+				if (file != null)
+				{
+					//Unchanged, so only mark it as recently used
+					Files.setLastModifiedTime(cacheFile, FileTime.fromMillis(System.currentTimeMillis()));
+				}
+			}
+			else
+			{
+				write();
+			}
+			prune(cacheFile.getParent());
+		}
+		catch (IOException | RuntimeException e)
+		{
+			Logging.log(Logging.WARNING, "Unable to write LST cache " + cacheFile, e);
+		}
+	}
+
+	private void write() throws IOException
+	{
+		Map<URI, CacheEntry> toWrite = new HashMap<>(current);
+		List<byte[]> uris = new ArrayList<>(toWrite.size());
+		int indexLength = 4;
+		for (URI uri : toWrite.keySet())
+		{
+			byte[] bytes = uri.toString().getBytes(StandardCharsets.UTF_8);
+			uris.add(bytes);
+			indexLength += bytes.length + 28;
+		}
+		ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH + indexLength);
+		header.putInt(MAGIC).putInt(VERSION).putInt(indexLength).putInt(toWrite.size());
+		int i = 0;
+		for (CacheEntry entry : toWrite.values())
+		{
+			byte[] uri = uris.get(i++);
+			header.putInt(uri.length).put(uri);
+			header.putLong(entry.size).putLong(entry.lastModified);
+			header.putInt((int) entry.crc).putInt(entry.length);
+		}
+		header.flip();
+
+		Files.createDirectories(cacheFile.getParent());
+		Path temp = Files.createTempFile(cacheFile.getParent(), PREFIX, ".tmp");
+		try
+		{
+			try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp)))
+			{
+				out.write(header.array(), 0, header.limit());
+				for (CacheEntry entry : toWrite.values())
+				{
+					out.write(read(entry.source, entry.offset, entry.length).array());
+				}
+			}
+			//The previous cache file must be released before it can be replaced on Windows
+			closeQuietly(file);
+			Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally
+		{
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Deletes the least recently used cache files in the given directory, so that at
+	 * most MAX_CACHE_FILES remain.
+	 */
+	static void prune(Path directory) throws IOException
+	{
+		List<Path> cacheFiles = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX))
+		{
+			files.forEach(cacheFiles::add);
+		}
+		if (cacheFiles.size() <= MAX_CACHE_FILES)
+		{
+			return;
+		}
+		Map<Path, FileTime> lastUsed = new HashMap<>();
+		for (Path file : cacheFiles)
+		{
+			lastUsed.put(file, Files.getLastModifiedTime(file));
+		}
+		cacheFiles.sort(Comparator.comparing(lastUsed::get, Comparator.reverseOrder()));
+		for (Path file : cacheFiles.subList(MAX_CACHE_FILES, cacheFiles.size()))
+		{
+			Files.deleteIfExists(file);
+		}
+	}
+
+	/**
+	 * Releases the cache file and deletes the temporary file holding the files read
+	 * from disk. Entries can no longer be read or saved once this LstFileCache is
+	 * closed.
+	 */
+	@Override
+	public synchronized void close()
+	{
+		closeQuietly(file);
+		closeQuietly(pending);
+		pending = null;
+		if (pendingFile != null)
+		{
+			try
+			{
+				Files.deleteIfExists(pendingFile);
+			}
+			catch (IOException e)
+			{
+				Logging.debugPrint("Unable to delete " + pendingFile, e);
+			}
+			pendingFile = null;
+		}
+	}
+
+	private static void closeQuietly(RandomAccessFile toClose)
+	{
+		if (toClose != null)
+		{
+			try
+			{
+				toClose.close();
+			}
+			catch (IOException e)
+			{
+				Logging.debugPrint("Unable to close LST cache", e);
+			}
+		}
+	}
+
+	/**
+	 * An entry in the cache: the size and last modified time of the file when its lines
+	 * were read, the CRC of the encoded lines, and where the encoded lines are stored.
+	 */
+	private static final class CacheEntry
+	{
+		private final long size;
+		private final long lastModified;
+		private final long crc;
+		private final RandomAccessFile source;
+		private final long offset;
+		private final int length;
+
+		private CacheEntry(long size, long lastModified, long crc, RandomAccessFile source,
+			long offset, int length)
+		{
+			this.size = size;
+			this.lastModified = lastModified;
+			this.crc = crc;
+			this.source = source;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		private CacheEntry(long size, long lastModified, long crc, CacheEntry stored)
+		{
+			this(size, lastModified, crc, stored.source, stored.offset, stored.length);
+		}
+	}
+}
@@ -19,6 +19,7 @@
  */
 package pcgen.persistence.lst;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -34,6 +35,7 @@ import pcgen.core.utils.CoreUtility;
 import pcgen.core.utils.MessageType;
 import pcgen.core.utils.ShowMessageDelegate;
 import pcgen.persistence.PersistenceLayerException;
+import pcgen.rules.context.LoadContext;
 import pcgen.util.Logging;
 
 /**
@@ -50,7 +52,8 @@ import pcgen.util.Logging;
  * <p>
  * Instances of LstFileLoader or its subclasses are not thread-safe,
  * so any thread should only acccess a single loader (or group of loaders)
- * at a time.
+ * at a time. The reading of files may be performed in advance (on other
+ * threads) by the LstFilePrefetcher of the LoadContext; see readLinesFromURI.
  */
 public final class LstFileLoader
 {
@@ -68,6 +71,73 @@ public final class LstFileLoader
 	/** BOM prefix, used to warn the user that BOM-strings are not supported */
 	private static final String BOM = "\uFEFF";
 
+	/**
+	 * This method reads the given URI and returns its content split into lines (as if
+	 * split using LINE_SEPARATOR_REGEXP). If the file was prefetched by the
+	 * LstFilePrefetcher of the given LoadContext, the prefetched lines are returned.
+	 * Otherwise, a local file is read line by line with an LstLineReader, so that the
+	 * content of the file is never held as a single String, while remote content is read
+	 * with readFromURI. Errors are handled as in readFromURI.
+	 *
+	 * @param context	the LoadContext of the load in progress, or null
+	 * @param uri	URI of the content
+	 * @param joinContinuationLines	true if lines that start with a tab belong to the previous line
+	 * @return String[]	file content, split into lines, or null if the content could not be read
+	 * @throws PersistenceLayerException	is thrown when a null URI is provided
+	 */
+	@Nullable
+	public static String[] readLinesFromURI(@Nullable LoadContext context, URI uri,
+		boolean joinContinuationLines) throws PersistenceLayerException
+	{
+		LstFilePrefetcher prefetcher = (context == null) ? null : context.getFilePrefetcher();
+		if ((prefetcher != null) && (uri != null))
+		{
+			String[] lines = prefetcher.take(uri, joinContinuationLines);
+			if (lines != null)
+			{
+				return lines;
+			}
+		}
+		if ((uri != null) && !CoreUtility.isNetURI(uri))
+		{
+			return readLocalLines(uri, joinContinuationLines);
+		}
+		String result = readFromURI(uri);
+		return (result == null) ? null : LstLineReader.split(result, joinContinuationLines);
+	}
+
+	@Nullable
+	private static String[] readLocalLines(URI uri, boolean joinContinuationLines)
+	{
+		try (BufferedReader reader = Files.newBufferedReader(Path.of(uri)))
+		{
+			reader.mark(1);
+			if (reader.read() == BOM.charAt(0))
+			{
+				Logging.log(Logging.WARNING,
+						"The file %s uses UTF-8-BOM encoding. LST files must be UTF-8".formatted(uri));
+			}
+			else
+			{
+				reader.reset();
+			}
+			return LstLineReader.read(reader, joinContinuationLines);
+		}
+		catch (MalformedInputException ie)
+		{
+			Logging.errorPrint("ERROR: " + uri + "\nThe file doesn't use UTF-8 encoding. LST files must be UTF-8", ie);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			// Don't throw an exception here because a simple
+			// file not found will prevent ANY other files from
+			// being loaded/processed -- NOT what we want
+			Logging.errorPrint("ERROR: " + uri + '\n' + "Exception type: " + e.getClass().getName() + "\n" + "Message: "
+				+ e.getMessage(), e);
+		}
+		return null;
+	}
+
 	/**
 	 * This method reads the given URI and returns its content as a string. If an error occurs, we don't throw an
 	 * exception, but log the error in the logger. It is possible to read file content from the remote link, but
@@ -0,0 +1,316 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.persistence.lst;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import pcgen.core.utils.CoreUtility;
+import pcgen.util.Logging;
+
+/**
+ * LstFilePrefetcher reads LST files (and splits them into lines) on background threads,
+ * so that the file I/O and line splitting of the next few files in a load can proceed
+ * while the loaders apply the contents of earlier files to the LoadContext.
+ * 
+ * Files are read in the order in which they will be loaded, and only a limited number
+ * of files (the window) are read ahead of the file being loaded. When a file is taken,
+ * any files before it in the load order are discarded (as they were loaded without the
+ * LstFilePrefetcher, or not at all), and further files are read to refill the window.
+ * 
+ * Only local files are prefetched. If a file cannot be prefetched cleanly (for example,
+ * it does not exist, is not UTF-8 or has a byte order mark), it is not provided by the
+ * LstFilePrefetcher, so that the normal (serial) read can report the problem at the
+ * point the file is loaded.
+ * 
+ * An LstFilePrefetcher is created for a single load, and is made available to the
+ * loaders through the LoadContext of that load.
+ * 
+ * If an LstFileCache is provided, files that have not changed since they were cached
+ * are taken from the cache rather than read and split again, and files read from disk
+ * are recorded in the cache.
+ */
+public final class LstFilePrefetcher implements AutoCloseable
+{
+	/**
+	 * The default number of files read ahead of the file being loaded.
+	 */
+	public static final int DEFAULT_WINDOW = 8;
+
+	private static final ThreadFactory THREAD_FACTORY = r -> {
+		Thread thread = new Thread(r, "lst-prefetch-thread");
+		thread.setDaemon(true);
+		return thread;
+	};
+
+	/** The String that starts a file with a byte order mark. */
+	private static final String BOM = "\uFEFF";
+
+	private final ExecutorService executor;
+
+	/**
+	 * true if lines that start with a tab are joined to the previous line when the
+	 * files are split.
+	 */
+	private final boolean joinContinuationLines;
+
+	/**
+	 * The maximum number of files being read or waiting to be taken.
+	 */
+	private final int window;
+
+	/**
+	 * The files that have not yet been read, in load order.
+	 */
+	private final Set<URI> queued = new LinkedHashSet<>();
+
+	/**
+	 * The files being read or waiting to be taken, in load order.
+	 */
+	private final Map<URI, Future<String[]>> pending = new LinkedHashMap<>();
+
+	/**
+	 * The LstFileCache from which files are taken if they are unchanged, and in which
+	 * files read from disk are recorded. May be null.
+	 */
+	private final LstFileCache cache;
+
+	/**
+	 * Constructs a new LstFilePrefetcher and starts reading the first of the given
+	 * files.
+	 * 
+	 * @param uris
+	 *            The URIs of the files to be prefetched, in the order in which they
+	 *            will be loaded
+	 * @param joinContinuationLines
+	 *            true if lines that start with a tab should be joined to the previous
+	 *            line; false otherwise
+	 * @param window
+	 *            The maximum number of files to be read ahead of the file being loaded
+	 */
+	public LstFilePrefetcher(Collection<URI> uris, boolean joinContinuationLines, int window)
+	{
+		this(uris, joinContinuationLines, window, null);
+	}
+
+	/**
+	 * Constructs a new LstFilePrefetcher, using the given LstFileCache for files that
+	 * have not changed since they were cached, and starts reading the first of the given
+	 * files.
+	 * 
+	 * The LstFileCache must hold lines split with the same treatment of continuation
+	 * lines.
+	 * 
+	 * @param uris
+	 *            The URIs of the files to be prefetched, in the order in which they
+	 *            will be loaded
+	 * @param joinContinuationLines
+	 *            true if lines that start with a tab should be joined to the previous
+	 *            line; false otherwise
+	 * @param window
+	 *            The maximum number of files to be read ahead of the file being loaded
+	 * @param cache
+	 *            The LstFileCache to be used, or null if files should always be read
+	 *            from disk
+	 */
+	public LstFilePrefetcher(Collection<URI> uris, boolean joinContinuationLines, int window,
+		LstFileCache cache)
+	{
+		if (window < 1)
+		{
+			throw new IllegalArgumentException("Prefetch window must be positive: " + window);
+		}
+		this.joinContinuationLines = joinContinuationLines;
+		this.window = window;
+		this.cache = cache;
+		for (URI uri : uris)
+		{
+			if ((uri != null) && !CoreUtility.isNetURI(uri))
+			{
+				queued.add(uri);
+			}
+		}
+		int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), window));
+		executor = Executors.newFixedThreadPool(threads, THREAD_FACTORY);
+		fill();
+	}
+
+	/**
+	 * Starts reading queued files until the window is full.
+	 */
+	private synchronized void fill()
+	{
+		while ((pending.size() < window) && !queued.isEmpty())
+		{
+			Iterator<URI> it = queued.iterator();
+			URI uri = it.next();
+			it.remove();
+			pending.put(uri, executor.submit(() -> read(uri)));
+		}
+	}
+
+	private String[] read(URI uri)
+	{
+		try
+		{
+			Path path = Path.of(uri);
+			BasicFileAttributes attributes = null;
+			if (cache != null)
+			{
+				//Taken before the read, so a file changed during the read is stale next time
+				attributes = Files.readAttributes(path, BasicFileAttributes.class);
+				String[] lines = cache.get(uri, attributes.size(),
+					attributes.lastModifiedTime().toMillis());
+				if (lines != null)
+				{
+					return lines;
+				}
+			}
+			String[] lines;
+			try (BufferedReader reader = Files.newBufferedReader(path))
+			{
+				reader.mark(1);
+				if (reader.read() == BOM.charAt(0))
+				{
+					//Let the serial read issue the warning
+					return null;
+				}
+				reader.reset();
+				lines = LstLineReader.read(reader, joinContinuationLines);
+			}
+			if (cache != null)
+			{
+				cache.put(uri, attributes.size(), attributes.lastModifiedTime().toMillis(), lines);
+			}
+			return lines;
+		}
+		catch (IOException | RuntimeException e)
+		{
+			//Let the serial read report the problem
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the lines of the file at the given URI, waiting for the read to complete
+	 * if necessary. Returns null if the file was not prefetched (or could not be read
+	 * cleanly), if the lines were already taken, or if the file was split with a
+	 * different treatment of continuation lines.
+	 * 
+	 * Any files before the given file in the load order are discarded.
+	 * 
+	 * @param uri
+	 *            The URI of the file for which the lines should be returned
+	 * @param joinLines
+	 *            true if lines that start with a tab should be joined to the previous
+	 *            line; false otherwise
+	 * @return The prefetched lines of the file at the given URI, or null
+	 */
+	public String[] take(URI uri, boolean joinLines)
+	{
+		Future<String[]> future = remove(uri);
+		if (future == null)
+		{
+			return null;
+		}
+		if (joinLines != joinContinuationLines)
+		{
+			future.cancel(true);
+			return null;
+		}
+		try
+		{
+			return future.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		catch (ExecutionException e)
+		{
+			Logging.debugPrint("Prefetch of " + uri + " failed", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Removes the given file (and any before it in the load order) from this
+	 * LstFilePrefetcher, returning the read of the given file, if it was started.
+	 */
+	private synchronized Future<String[]> remove(URI uri)
+	{
+		Future<String[]> future = null;
+		if (pending.containsKey(uri))
+		{
+			Iterator<Map.Entry<URI, Future<String[]>>> it = pending.entrySet().iterator();
+			while (future == null)
+			{
+				Map.Entry<URI, Future<String[]>> entry = it.next();
+				it.remove();
+				if (entry.getKey().equals(uri))
+				{
+					future = entry.getValue();
+				}
+				else
+				{
+					entry.getValue().cancel(true);
+				}
+			}
+		}
+		else if (queued.contains(uri))
+		{
+			//Not yet read, so it is read by the loader
+			pending.values().forEach(earlier -> earlier.cancel(true));
+			pending.clear();
+			Iterator<URI> it = queued.iterator();
+			while (!uri.equals(it.next()))
+			{
+				//Discard the files before the given file
+				it.remove();
+			}
+			it.remove();
+		}
+		fill();
+		return future;
+	}
+
+	/**
+	 * Stops any outstanding reads and releases any lines that were not taken.
+	 */
+	@Override
+	public synchronized void close()
+	{
+		executor.shutdownNow();
+		pending.clear();
+		queued.clear();
+	}
+}
@@ -59,12 +59,27 @@ public abstract class LstLineFileLoader extends Observable
 	 */
 	public void loadLstFile(LoadContext context, URI uri) throws PersistenceLayerException
 	{
-		String dataBuffer = LstFileLoader.readFromURI(uri);
+		String[] fileLines = LstFileLoader.readLinesFromURI(context, uri, false);
 		if (context != null)
 		{
 			context.setSourceURI(uri);
 		}
-		loadLstString(context, uri, dataBuffer);
+		if (fileLines == null)
+		{
+			return;
+		}
+		for (String fileLine : fileLines)
+		{
+			String line = fileLine.trim();
+
+			// check for comments and blank lines
+			if ((line.isEmpty()) || (line.charAt(0) == LstFileLoader.LINE_COMMENT_CHAR))
+			{
+				continue;
+			}
+
+			parseLine(context, line, uri);
+		}
 	}
 
 	/**
@@ -0,0 +1,228 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.persistence.lst;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LstLineReader splits LST content into lines without the use of regular expressions.
+ * 
+ * The content is read from a Reader in fixed size blocks, so a file is never held in
+ * memory as a whole: each line is copied once, from the block into the String for the
+ * line (lines that span blocks are assembled in a reused StringBuilder). The fields of
+ * each line are then taken by the loaders with a StringTokenizer on the tab, which does
+ * not build an intermediate array.
+ * 
+ * The lines produced are identical to those produced by splitting the content with
+ * LstFileLoader.LINE_SEPARATOR_REGEXP, so the results are a drop-in source for the
+ * parseLine methods of the loaders. If continuation lines are joined, a line break
+ * ("\n" or "\r\n") that is followed by a tab is removed (so the following line becomes
+ * part of the previous line), as is done for files loaded with multi-line support.
+ */
+public final class LstLineReader
+{
+	/**
+	 * The number of characters read from the Reader at a time.
+	 */
+	private static final int BLOCK_SIZE = 8192;
+
+	private final Reader reader;
+
+	private final boolean joinContinuationLines;
+
+	private final char[] block = new char[BLOCK_SIZE];
+
+	/**
+	 * The position of the next character to be processed in the block.
+	 */
+	private int position = 0;
+
+	/**
+	 * The number of valid characters in the block.
+	 */
+	private int limit = 0;
+
+	/**
+	 * The start of the current line, if the line is (so far) entirely in the block, or
+	 * -1 if the start of the current line is held in the line builder.
+	 */
+	private int lineStart = 0;
+
+	/**
+	 * The start of the current line, if it did not fit in a single block.
+	 */
+	private final StringBuilder line = new StringBuilder();
+
+	private LstLineReader(Reader reader, boolean joinContinuationLines)
+	{
+		this.reader = reader;
+		this.joinContinuationLines = joinContinuationLines;
+	}
+
+	/**
+	 * Splits the given content into lines.
+	 * 
+	 * @param content
+	 *            The content to be split into lines
+	 * @param joinContinuationLines
+	 *            true if lines that start with a tab should be joined to the previous
+	 *            line; false otherwise
+	 * @return The lines of the given content
+	 */
+	public static String[] split(CharSequence content, boolean joinContinuationLines)
+	{
+		try
+		{
+			return read(new StringReader(content.toString()), joinContinuationLines);
+		}
+		catch (IOException e)
+		{
+			//Not possible for a StringReader
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads the lines from the given Reader, until the end of the Reader is reached.
+	 * The Reader is not closed.
+	 * 
+	 * @param reader
+	 *            The Reader from which the lines should be read
+	 * @param joinContinuationLines
+	 *            true if lines that start with a tab should be joined to the previous
+	 *            line; false otherwise
+	 * @return The lines read from the given Reader
+	 * @throws IOException
+	 *             if the Reader cannot be read
+	 */
+	public static String[] read(Reader reader, boolean joinContinuationLines)
+		throws IOException
+	{
+		return new LstLineReader(reader, joinContinuationLines).readLines();
+	}
+
+	private String[] readLines() throws IOException
+	{
+		List<String> lines = new ArrayList<>();
+		boolean lineBreak = false;
+		while (fill())
+		{
+			char c = block[position];
+			if ((c != '\n') && (c != '\r'))
+			{
+				position++;
+				continue;
+			}
+			lineBreak = true;
+			String segment = takeLine();
+			skipBreakCharacter();
+			boolean newline = (c == '\n');
+			if ((c == '\r') && fill() && (block[position] == '\n'))
+			{
+				skipBreakCharacter();
+				newline = true;
+			}
+			if (joinContinuationLines && newline && fill() && (block[position] == '\t'))
+			{
+				//The break is removed, so the following line continues this one
+				line.append(segment);
+			}
+			else
+			{
+				lines.add(segment);
+			}
+		}
+		String last = takeLine();
+		if (!lineBreak)
+		{
+			//No line break at all, String.split returns the original content
+			return new String[]{last};
+		}
+		lines.add(last);
+		//Remove trailing empty lines, as String.split does
+		int size = lines.size();
+		while ((size > 0) && lines.get(size - 1).isEmpty())
+		{
+			size--;
+		}
+		return lines.subList(0, size).toArray(new String[0]);
+	}
+
+	/**
+	 * Ensures there is a character to be processed in the block, reading the next block
+	 * if necessary. Returns false if the end of the Reader has been reached.
+	 */
+	private boolean fill() throws IOException
+	{
+		if (position < limit)
+		{
+			return true;
+		}
+		if (lineStart >= 0)
+		{
+			//Keep the part of the current line in this block
+			line.append(block, lineStart, limit - lineStart);
+			lineStart = -1;
+		}
+		limit = reader.read(block);
+		position = 0;
+		if (limit <= 0)
+		{
+			limit = 0;
+			return false;
+		}
+		lineStart = 0;
+		return true;
+	}
+
+	/**
+	 * Skips the line break character at the current position, so that it is not part of
+	 * any line.
+	 */
+	private void skipBreakCharacter()
+	{
+		position++;
+		lineStart = position;
+	}
+
+	/**
+	 * Returns the current line (up to the current position), and clears it.
+	 */
+	private String takeLine()
+	{
+		String result;
+		if (line.length() == 0)
+		{
+			result = (lineStart >= 0) ? new String(block, lineStart, position - lineStart) : "";
+		}
+		else
+		{
+			if (lineStart >= 0)
+			{
+				line.append(block, lineStart, position - lineStart);
+			}
+			result = line.toString();
+			line.setLength(0);
+		}
+		lineStart = position;
+		return result;
+	}
+}
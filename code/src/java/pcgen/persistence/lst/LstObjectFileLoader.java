@@ -278,10 +278,13 @@ public abstract class LstObjectFileLoader<T extends CDOMObject> extends Observab
 		setChanged();
 		URI uri = sourceEntry.getURI();
 		notifyObservers(uri);
-		String dataBuffer;
+		boolean allowMultiLine =
+				PCGenSettings.OPTIONS_CONTEXT.initBoolean(PCGenSettings.OPTION_SOURCES_ALLOW_MULTI_LINE, false);
+		String[] fileLines;
 		try
 		{
-			dataBuffer = LstFileLoader.readFromURI(uri);
+			// With multi-line support, all lines that start with a tab belong to the previous line.
+			fileLines = Objects.requireNonNull(LstFileLoader.readLinesFromURI(context, uri, allowMultiLine));
 		}
 		catch (PersistenceLayerException ple)
 		{
@@ -291,21 +294,12 @@ public abstract class LstObjectFileLoader<T extends CDOMObject> extends Observab
 			setChanged();
 			return;
 		}
-		String aString = Objects.requireNonNull(dataBuffer);
 		if (context != null)
 		{
 			context.setSourceURI(uri);
 		}
 		T target = null;
 		ArrayList<ModEntry> classModLines = null;
-		boolean allowMultiLine =
-				PCGenSettings.OPTIONS_CONTEXT.initBoolean(PCGenSettings.OPTION_SOURCES_ALLOW_MULTI_LINE, false);
-		if (allowMultiLine)
-		{
-			// Support the new file type. All lines that start with a tab belong to the previous line.
-			aString = aString.replaceAll("\r?\n\t", "\t");
-		}
-		String[] fileLines = aString.split(LstFileLoader.LINE_SEPARATOR_REGEXP);
 		for (int i = 0; i < fileLines.length; i++)
 		{
 			String line = fileLines[i];
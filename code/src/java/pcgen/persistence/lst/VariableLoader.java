@@ -100,11 +100,11 @@ public class VariableLoader extends Observable
 		URI uri = sourceEntry.getURI();
 		notifyObservers(uri);
 
-		String dataBuffer;
+		String[] fileLines;
 
 		try
 		{
-			dataBuffer = LstFileLoader.readFromURI(uri);
+			fileLines = LstFileLoader.readLinesFromURI(context, uri, false);
 		}
 		catch (PersistenceLayerException ple)
 		{
@@ -115,13 +115,11 @@ public class VariableLoader extends Observable
 			return;
 		}
 
-		String aString = dataBuffer;
 		if (context != null)
 		{
 			context.setSourceURI(uri);
 		}
 
-		String[] fileLines = aString.split(LstFileLoader.LINE_SEPARATOR_REGEXP);
 
 		for (int i = 0; i < fileLines.length; i++)
 		{
@@ -48,6 +48,23 @@ public abstract class AbstractObjectContext implements ObjectCommitStrategy
 {
 	private final TrackingObjectCommitStrategy edits = new TrackingObjectCommitStrategy();
 
+	/**
+	 * Canonicalizes the String (and String FACT) values committed to CDOMObjects, so
+	 * that duplicate values in the data are retained only once.
+	 */
+	private final LoadStringPool stringPool = new LoadStringPool();
+
+	/**
+	 * Returns the LoadStringPool used to canonicalize the String (and String FACT)
+	 * values committed by this AbstractObjectContext.
+	 * 
+	 * @return The LoadStringPool for this AbstractObjectContext
+	 */
+	public LoadStringPool getStringPool()
+	{
+		return stringPool;
+	}
+
 	@Override
 	public void setSourceURI(URI sourceURI)
 	{
@@ -253,7 +270,7 @@ public abstract class AbstractObjectContext implements ObjectCommitStrategy
 				{
 					for (StringKey key : pos.getStringKeys())
 					{
-						commit.put(cdo, key, pos.get(key));
+						commit.put(cdo, key, stringPool.intern(pos.get(key)));
 					}
 					for (IntegerKey key : pos.getIntegerKeys())
 					{
@@ -336,7 +353,7 @@ public abstract class AbstractObjectContext implements ObjectCommitStrategy
 		ObjectCommitStrategy commit = getCommitStrategy();
 		for (T obj : neg.getListFor(key))
 		{
-			commit.addToList(cdo, key, obj);
+			commit.addToList(cdo, key, stringPool.internValue(obj));
 		}
 	}
 
@@ -345,18 +362,18 @@ public abstract class AbstractObjectContext implements ObjectCommitStrategy
 		ObjectCommitStrategy commit = getCommitStrategy();
 		for (Indirect<T> obj : neg.getSetFor(key))
 		{
-			commit.addToSet(cdo, key, obj);
+			commit.addToSet(cdo, key, stringPool.intern(obj));
 		}
 	}
 
 	private <T> void putObjectKey(CDOMObject cdo, ObjectKey<T> key, CDOMObject neg)
 	{
-		getCommitStrategy().put(cdo, key, neg.get(key));
+		getCommitStrategy().put(cdo, key, stringPool.internValue(neg.get(key)));
 	}
 
 	private <T> void putFactKey(CDOMObject cdo, FactKey<T> key, CDOMObject neg)
 	{
-		getCommitStrategy().put(cdo, key, neg.get(key));
+		getCommitStrategy().put(cdo, key, stringPool.intern(neg.get(key)));
 	}
 
 	private <K, V> void removeMapKey(CDOMObject cdo, MapKey<K, V> key1, CDOMObject neg)
@@ -375,7 +392,7 @@ public abstract class AbstractObjectContext implements ObjectCommitStrategy
 		Set<K> secKeys = pos.getKeysFor(key1);
 		for (K key2 : secKeys)
 		{
-			commit.put(cdo, key1, key2, pos.get(key1, key2));
+			commit.put(cdo, key1, stringPool.internValue(key2), stringPool.internValue(pos.get(key1, key2)));
 		}
 	}
 
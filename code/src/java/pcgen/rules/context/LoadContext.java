@@ -38,6 +38,7 @@ import pcgen.core.Campaign;
 import pcgen.core.prereq.Prerequisite;
 import pcgen.persistence.PersistenceLayerException;
 import pcgen.persistence.lst.CampaignSourceEntry;
+import pcgen.persistence.lst.LstFilePrefetcher;
 import pcgen.rules.persistence.token.ParseResult;
 
 public interface LoadContext
@@ -52,6 +53,24 @@ public interface LoadContext
 
 	public URI getSourceURI();
 
+	/**
+	 * Sets the LstFilePrefetcher providing the contents of files for the load
+	 * performed with this LoadContext.
+	 * 
+	 * @param prefetcher
+	 *            The LstFilePrefetcher for the load, or null if files should be read
+	 *            directly
+	 */
+	public void setFilePrefetcher(LstFilePrefetcher prefetcher);
+
+	/**
+	 * Returns the LstFilePrefetcher providing the contents of files for the load
+	 * performed with this LoadContext, or null if files should be read directly.
+	 * 
+	 * @return The LstFilePrefetcher for the load performed with this LoadContext
+	 */
+	public LstFilePrefetcher getFilePrefetcher();
+
 	/*
 	 * Context info
 	 */
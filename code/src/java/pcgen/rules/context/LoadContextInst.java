@@ -51,6 +51,7 @@ import pcgen.core.Campaign;
 import pcgen.core.prereq.Prerequisite;
 import pcgen.persistence.PersistenceLayerException;
 import pcgen.persistence.lst.CampaignSourceEntry;
+import pcgen.persistence.lst.LstFilePrefetcher;
 import pcgen.persistence.lst.output.prereq.PrerequisiteWriter;
 import pcgen.rules.persistence.ChoiceSetLoadUtilities;
 import pcgen.rules.persistence.TokenLibrary;
@@ -92,6 +93,11 @@ abstract class LoadContextInst implements LoadContext
 	//Per file
 	private URI sourceURI;
 
+	/**
+	 * The LstFilePrefetcher for the load in progress, if any.
+	 */
+	private LstFilePrefetcher filePrefetcher;
+
 	//Per file
 	private CDOMObject stateful;
 
@@ -169,6 +175,18 @@ abstract class LoadContextInst implements LoadContext
 		return sourceURI;
 	}
 
+	@Override
+	public void setFilePrefetcher(LstFilePrefetcher prefetcher)
+	{
+		filePrefetcher = prefetcher;
+	}
+
+	@Override
+	public LstFilePrefetcher getFilePrefetcher()
+	{
+		return filePrefetcher;
+	}
+
 	/*
 	 * Get the type of context we're running in (either Editor or Runtime)
 	 */
@@ -621,6 +639,18 @@ abstract class LoadContextInst implements LoadContext
 			return parent.getSourceURI();
 		}
 
+		@Override
+		public void setFilePrefetcher(LstFilePrefetcher prefetcher)
+		{
+			parent.setFilePrefetcher(prefetcher);
+		}
+
+		@Override
+		public LstFilePrefetcher getFilePrefetcher()
+		{
+			return parent.getFilePrefetcher();
+		}
+
 		@Override
 		public DataSetID getDataSetID()
 		{
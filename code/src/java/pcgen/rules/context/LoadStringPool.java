@@ -0,0 +1,201 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.rules.context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import pcgen.base.util.BasicIndirect;
+import pcgen.base.util.Indirect;
+
+/**
+ * A LoadStringPool canonicalizes the String values (and String FACT values) that are
+ * committed to CDOMObjects during a data load, so that the many identical values found
+ * in data (TYPE values, source pages, keys, BONUS types, formula text and the like) are
+ * retained only once.
+ * 
+ * Only immutable values are canonicalized, since a canonical instance is shared by every
+ * CDOMObject that holds an equal value. Values are never modified by the pool.
+ * 
+ * Unlike String.intern(), the pool is owned by the LoadContext, and is cleared at the end
+ * of a data load. The LoadStringPool also records how many duplicates it has removed, so
+ * the savings can be reported (see getReport()).
+ * 
+ * LoadStringPool is thread-safe.
+ */
+public final class LoadStringPool
+{
+	/**
+	 * The approximate retained size of a String object (header, fields and array
+	 * header) beyond the content of the String, in bytes.
+	 */
+	private static final int STRING_OVERHEAD = 40;
+
+	/**
+	 * The approximate retained size of a BasicIndirect object (header and fields)
+	 * beyond the object it contains, in bytes.
+	 */
+	private static final int INDIRECT_OVERHEAD = 24;
+
+	/**
+	 * The canonical instances, each mapped to itself.
+	 */
+	private final Map<Object, Object> pool = new ConcurrentHashMap<>();
+
+	private final LongAdder lookups = new LongAdder();
+
+	private final LongAdder duplicates = new LongAdder();
+
+	private final LongAdder savedBytes = new LongAdder();
+
+	/**
+	 * Returns the canonical instance of the given String.
+	 * 
+	 * @param s
+	 *            The String to be canonicalized (may be null)
+	 * @return The canonical instance of the given String, or null if the given String
+	 *         is null
+	 */
+	public String intern(String s)
+	{
+		if (s == null)
+		{
+			return null;
+		}
+		lookups.increment();
+		Object existing = pool.putIfAbsent(s, s);
+		if (existing == null)
+		{
+			return s;
+		}
+		if (existing != s)
+		{
+			duplicates.increment();
+			savedBytes.add(STRING_OVERHEAD + s.length());
+		}
+		return (String) existing;
+	}
+
+	/**
+	 * Returns the canonical instance of the given Indirect, if it is a BasicIndirect
+	 * containing a String (as is the case for values of a String FACT or FACTSET). Any
+	 * other Indirect is returned unchanged, as the object it contains may not be
+	 * immutable.
+	 * 
+	 * @param indirect
+	 *            The Indirect to be canonicalized (may be null)
+	 * @return The canonical instance of the given Indirect, or the given Indirect if it
+	 *         cannot be canonicalized
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Indirect<T> intern(Indirect<T> indirect)
+	{
+		if (!(indirect instanceof BasicIndirect) || !(indirect.get() instanceof String s))
+		{
+			return indirect;
+		}
+		lookups.increment();
+		Object existing = pool.putIfAbsent(indirect, indirect);
+		if (existing == null)
+		{
+			return indirect;
+		}
+		if (existing != indirect)
+		{
+			duplicates.increment();
+			savedBytes.add(INDIRECT_OVERHEAD + STRING_OVERHEAD + s.length());
+		}
+		return (Indirect<T>) existing;
+	}
+
+	/**
+	 * Returns the canonical instance of the given value, if it is a String. Any other
+	 * value is returned unchanged.
+	 * 
+	 * @param value
+	 *            The value to be canonicalized (may be null)
+	 * @return The canonical instance of the given value, or the given value if it is not
+	 *         a String
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T internValue(T value)
+	{
+		if (value instanceof String s)
+		{
+			return (T) intern(s);
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the number of distinct values in this LoadStringPool.
+	 * 
+	 * @return The number of distinct values in this LoadStringPool
+	 */
+	public int size()
+	{
+		return pool.size();
+	}
+
+	/**
+	 * Returns the number of values that were replaced by an existing canonical
+	 * instance.
+	 * 
+	 * @return The number of values that were replaced by an existing canonical instance
+	 */
+	public long getDuplicateCount()
+	{
+		return duplicates.sum();
+	}
+
+	/**
+	 * Returns an estimate of the heap (in bytes) that is no longer retained because
+	 * duplicate values were replaced by canonical instances.
+	 * 
+	 * @return An estimate of the heap (in bytes) saved by this LoadStringPool
+	 */
+	public long getSavedBytes()
+	{
+		return savedBytes.sum();
+	}
+
+	/**
+	 * Returns a human readable report of the savings made by this LoadStringPool.
+	 * 
+	 * @return A report of the savings made by this LoadStringPool
+	 */
+	public String getReport()
+	{
+		long lookupCount = lookups.sum();
+		long duplicateCount = getDuplicateCount();
+		return "Load string pool: %d values committed, %d distinct, %d duplicates removed (%.1f%%), ~%d KiB saved"
+			.formatted(lookupCount, size(), duplicateCount,
+				(lookupCount == 0) ? 0.0 : (100.0 * duplicateCount / lookupCount), getSavedBytes() / 1024);
+	}
+
+	/**
+	 * Releases all of the canonical instances (and resets the statistics) of this
+	 * LoadStringPool.
+	 */
+	public void clear()
+	{
+		pool.clear();
+		lookups.reset();
+		duplicates.reset();
+		savedBytes.reset();
+	}
+}
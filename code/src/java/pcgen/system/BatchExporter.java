@@ -21,16 +21,24 @@ package pcgen.system;
 
 import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 import pcgen.cdom.base.Constants;
 import pcgen.core.SettingsHandler;
@@ -63,27 +71,39 @@ import org.apache.commons.lang3.StringUtils;
  * used in batch mode an instance should be created for the template and 
  * one of the export methods called. When used as a library the static methods
  * should be used and supplied with preloaded characters.  
+ * <p>
+ * Where a sheet is produced for each of several characters, the sheets may be
+ * rendered concurrently on a number of export threads. The output is the same
+ * as that of a serial export.
  *
  * 
  */
 public class BatchExporter
 {
 
+	/**
+	 * The size of the pipe buffer between a sheet being exported and FOP rendering it.
+	 */
+	private static final int PIPE_SIZE = 64 * 1024;
+
 	private final String exportTemplateFilename;
 	private final UIDelegate uiDelegate;
 	private final boolean isPdf;
+	private final int exportThreads;
 
 	/**
 	 * Create a new instance of BatchExporter for use with a particular export
-	 * template.
+	 * template, rendering the sheets of a party on the given number of threads.
 	 *   
 	 * @param exportTemplateFilename The path to the export template.
 	 * @param uiDelegate The object through which to report any issues to the user.
+	 * @param exportThreads The number of threads on which to render character sheets.
 	 */
-	BatchExporter(String exportTemplateFilename, UIDelegate uiDelegate)
+	BatchExporter(String exportTemplateFilename, UIDelegate uiDelegate, int exportThreads)
 	{
 		this.exportTemplateFilename = exportTemplateFilename;
 		this.uiDelegate = uiDelegate;
+		this.exportThreads = exportThreads;
 
 		isPdf = ExportUtilities.isPdfTemplate(exportTemplateFilename);
 	}
@@ -186,7 +206,7 @@ public class BatchExporter
 		File outFile = new File(outFilename);
 		if (isPdf)
 		{
-			return exportPartyToPDF(party, outFile, templateFile);
+			return exportPartyToPDF(party, outFile, templateFile, exportThreads);
 		}
 		else
 		{
@@ -212,35 +232,25 @@ public class BatchExporter
 		boolean isTransformTemplate =
 				"xslt".equalsIgnoreCase(templateExtension) || "xsl".equalsIgnoreCase(templateExtension);
 
-		boolean useTempFile =
-				PCGenSettings.OPTIONS_CONTEXT.initBoolean(PCGenSettings.OPTION_GENERATE_TEMP_FILE_WITH_PDF, false);
-		String outFileName = FilenameUtils.removeExtension(outFile.getAbsolutePath());
-		File tempFile = new File(outFileName + (isTransformTemplate ? ".xml" : ".fo"));
-		try (OutputStream fileStream = new BufferedOutputStream(new FileOutputStream(outFile));
-		     ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
-		     OutputStream exportOutput = useTempFile
-					//Output to both the byte stream and to the temp file.
-					? new TeeOutputStream(byteOutputStream, new FileOutputStream(tempFile)) : byteOutputStream)
-		{
-			FopTask task;
+		File tempFile = getPDFTempFile(outFile, isTransformTemplate);
+		try (OutputStream fileStream = new BufferedOutputStream(new FileOutputStream(outFile)))
+		{
+			String errors;
 			if (isTransformTemplate)
 			{
-				exportCharacter(character, exportOutput);
-				InputStream inputStream = new ByteArrayInputStream(byteOutputStream.toByteArray());
-				task = FopTask.newFopTask(inputStream, templateFile, fileStream);
+				errors = exportToPDF(templateFile, fileStream, tempFile,
+					exportOutput -> exportCharacter(character, exportOutput));
 			}
 			else
 			{
-				exportCharacter(character, templateFile, exportOutput);
-				InputStream inputStream = new ByteArrayInputStream(byteOutputStream.toByteArray());
-				task = FopTask.newFopTask(inputStream, null, fileStream);
+				errors = exportToPDF(null, fileStream, tempFile,
+					exportOutput -> exportCharacter(character, templateFile, exportOutput));
 			}
 			character.setDefaultOutputSheet(true, templateFile);
-			task.run();
-			if (StringUtils.isNotBlank(task.getErrorMessages()))
+			if (StringUtils.isNotBlank(errors))
 			{
 				Logging.errorPrint("BatchExporter.exportCharacterToPDF failed: " //$NON-NLS-1$
-					+ task.getErrorMessages());
+					+ errors);
 				return false;
 			}
 		}
@@ -252,6 +262,83 @@ public class BatchExporter
 		return true;
 	}
 
+	/**
+	 * Get the file to which the intermediate xml or fo document of a PDF export is also
+	 * written, if the user has asked for it to be kept.
+	 *
+	 * @param outFile The file to which the PDF is to be written.
+	 * @param isTransformTemplate true if the intermediate document is xml to be transformed.
+	 * @return The intermediate file, or null if it is not to be written.
+	 */
+	private static File getPDFTempFile(File outFile, boolean isTransformTemplate)
+	{
+		if (!PCGenSettings.OPTIONS_CONTEXT.initBoolean(PCGenSettings.OPTION_GENERATE_TEMP_FILE_WITH_PDF, false))
+		{
+			return null;
+		}
+		String outFileName = FilenameUtils.removeExtension(outFile.getAbsolutePath());
+		return new File(outFileName + (isTransformTemplate ? ".xml" : ".fo"));
+	}
+
+	/**
+	 * Render a PDF from a sheet as it is exported. FOP reads the sheet through a pipe on
+	 * its own thread while the sheet is being written, so the sheet is never held in full
+	 * in memory.
+	 *
+	 * @param xsltFile the transform template file, if null the sheet is already fo
+	 * @param pdfStream the stream to which the PDF is to be written
+	 * @param tempFile a file to which the sheet is also written, may be null
+	 * @param sheetWriter writes the sheet to the stream it is given, closing it when done
+	 * @return Any error messages from FOP, empty if there were none
+	 * @throws IOException
+	 * @throws ExportException
+	 */
+	private static String exportToPDF(File xsltFile, OutputStream pdfStream, File tempFile, SheetWriter sheetWriter)
+		throws IOException, ExportException
+	{
+		PipedOutputStream pipe = new PipedOutputStream();
+		FopTask task = FopTask.newFopTask(new PipedInputStream(pipe, PIPE_SIZE), xsltFile, pdfStream);
+		Thread thread = new Thread(task, "fop-export");
+		thread.setDaemon(true);
+		thread.start();
+		IOException failure = null;
+		try (OutputStream exportOutput =
+				(tempFile == null) ? pipe : new TeeOutputStream(pipe, new FileOutputStream(tempFile)))
+		{
+			sheetWriter.write(exportOutput);
+		}
+		catch (IOException e)
+		{
+			failure = e;
+		}
+		finally
+		{
+			pipe.close();
+			joinQuietly(thread);
+		}
+		// If FOP gave up part way the pipe is broken, and FOP's error is the one to report
+		String errors = task.getErrorMessages();
+		if ((failure != null) && StringUtils.isBlank(errors))
+		{
+			throw failure;
+		}
+		return errors;
+	}
+
+	private static void joinQuietly(Thread thread)
+	{
+		try
+		{
+			thread.join();
+		}
+		catch (InterruptedException ex)
+		{
+			//pass on the interrupt and hope it stops
+			thread.interrupt();
+			Thread.currentThread().interrupt();
+		}
+	}
+
 	/**
 	 * Write a non PDF (e.g. html, text) character sheet for the character to 
 	 * the output file. The character sheet will be built according to the 
@@ -321,38 +408,44 @@ public class BatchExporter
 	 * @return true if the export was successful, false if it failed in some way.
 	 */
 	public static boolean exportPartyToPDF(PartyFacade party, File outFile, File templateFile)
+	{
+		return exportPartyToPDF(party, outFile, templateFile, 1);
+	}
+
+	/**
+	 * Write a PDF party sheet for the characters in the party to the output 
+	 * file. The party sheet will be built according to the template file, with
+	 * the sheets of the characters rendered on the given number of threads. If  
+	 * the output file exists it will be overwritten.
+	 *    
+	 * @param party The already loaded party of characters to be output.
+	 * @param outFile The file to which the party sheet is to be written. 
+	 * @param templateFile The file that has the export template definition.  
+	 * @param exportThreads The number of threads on which to render character sheets.
+	 * @return true if the export was successful, false if it failed in some way.
+	 */
+	public static boolean exportPartyToPDF(PartyFacade party, File outFile, File templateFile, int exportThreads)
 	{
 		// We want the non pdf extension here for the intermediate file.
 		String templateExtension = ExportUtilities.getOutputExtension(templateFile.getName(), false);
 		boolean isTransformTemplate =
 				"xslt".equalsIgnoreCase(templateExtension) || "xsl".equalsIgnoreCase(templateExtension);
 
-		boolean useTempFile =
-				PCGenSettings.OPTIONS_CONTEXT.initBoolean(PCGenSettings.OPTION_GENERATE_TEMP_FILE_WITH_PDF, false);
-		String outFileName = FilenameUtils.removeExtension(outFile.getAbsolutePath());
-		File tempFile = new File(outFileName + (isTransformTemplate ? ".xml" : ".fo"));
-		try (BufferedOutputStream fileStream = new BufferedOutputStream(new FileOutputStream(outFile));
-				ByteArrayOutputStream byteOutputStream = new ByteArrayOutputStream();
-				OutputStream exportOutput = useTempFile
-					//Output to both the byte stream and to the temp file.
-					? new TeeOutputStream(byteOutputStream, new FileOutputStream(tempFile)) : byteOutputStream)
-		{
-			FopTask task;
+		File tempFile = getPDFTempFile(outFile, isTransformTemplate);
+		try (BufferedOutputStream fileStream = new BufferedOutputStream(new FileOutputStream(outFile)))
+		{
 			if (isTransformTemplate)
 			{
-				exportParty(party, exportOutput);
-				ByteArrayInputStream inputStream = new ByteArrayInputStream(byteOutputStream.toByteArray());
-				task = FopTask.newFopTask(inputStream, templateFile, fileStream);
+				exportToPDF(templateFile, fileStream, tempFile,
+					exportOutput -> exportParty(party, exportOutput, exportThreads));
 			}
 			else
 			{
 				SettingsHandler.setSelectedPartyPDFOutputSheet(templateFile.getAbsolutePath());
 
-				exportParty(party, templateFile, exportOutput);
-				ByteArrayInputStream inputStream = new ByteArrayInputStream(byteOutputStream.toByteArray());
-				task = FopTask.newFopTask(inputStream, null, fileStream);
+				exportToPDF(null, fileStream, tempFile,
+					exportOutput -> exportParty(party, templateFile, exportOutput, exportThreads));
 			}
-			task.run();
 		}
 		catch (final IOException | ExportException e)
 		{
@@ -392,18 +485,16 @@ public class BatchExporter
 	 *
 	 * @param party the party to be output
 	 * @param outputStream the stream to output the party sheet to.
+	 * @param exportThreads The number of threads on which to render character sheets.
 	 * @throws IOException
 	 * @throws ExportException
 	 */
-	private static void exportParty(PartyFacade party, OutputStream outputStream) throws IOException, ExportException
+	private static void exportParty(PartyFacade party, OutputStream outputStream, int exportThreads)
+		throws IOException, ExportException
 	{
 		try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(outputStream, "UTF-8")))
 		{
-			for (final CharacterFacade character : party)
-			{
-				File templateFile = getXMLTemplate(character);
-				character.export(ExportHandler.createExportHandler(templateFile), bw);
-			}
+			exportCharacters(party, BatchExporter::getXMLTemplate, bw, exportThreads);
 		}
 	}
 
@@ -414,18 +505,115 @@ public class BatchExporter
 	 * @param party the party to be output
 	 * @param templateFile The file that has the export template definition.
 	 * @param outputStream the stream to output the party sheet to.
+	 * @param exportThreads The number of threads on which to render character sheets.
 	 * @throws IOException
 	 * @throws ExportException
 	 */
-	private static void exportParty(PartyFacade party, File templateFile, OutputStream outputStream)
-		throws IOException, ExportException
+	static void exportParty(PartyFacade party, File templateFile, OutputStream outputStream,
+		int exportThreads) throws IOException, ExportException
 	{
 		try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(outputStream, "UTF-8")))
 		{
-			for (final CharacterFacade character : party)
+			exportCharacters(party, character -> templateFile, bw, exportThreads);
+		}
+	}
+
+	/**
+	 * Write the sheet of each of the characters, in order, to the writer. If more than one
+	 * export thread is allowed, the sheets are rendered concurrently and then written in
+	 * the order of the characters, so the output is the same as a serial export.
+	 *
+	 * @param characters the characters to be output
+	 * @param templates provides the export template file for each character
+	 * @param bw the writer to which the sheets are to be written
+	 * @param exportThreads The number of threads on which to render character sheets.
+	 * @throws IOException
+	 * @throws ExportException
+	 */
+	private static void exportCharacters(Iterable<CharacterFacade> characters,
+		Function<CharacterFacade, File> templates, BufferedWriter bw, int exportThreads)
+		throws IOException, ExportException
+	{
+		List<CharacterFacade> characterList = new ArrayList<>();
+		characters.forEach(characterList::add);
+		int threads = Math.min(exportThreads, characterList.size());
+		if (threads <= 1)
+		{
+			for (final CharacterFacade character : characterList)
+			{
+				character.export(ExportHandler.createExportHandler(templates.apply(character)), bw);
+			}
+			return;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try
+		{
+			List<Future<String>> sheets = new ArrayList<>(characterList.size());
+			for (final CharacterFacade character : characterList)
+			{
+				File templateFile = templates.apply(character);
+				sheets.add(executor.submit(() -> renderCharacter(character, templateFile)));
+			}
+			for (Future<String> sheet : sheets)
+			{
+				bw.write(sheet.get());
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Export of party interrupted");
+		}
+		catch (ExecutionException e)
+		{
+			Throwable cause = e.getCause();
+			if (cause instanceof ExportException exportException)
+			{
+				throw exportException;
+			}
+			if (cause instanceof IOException ioException)
+			{
+				throw ioException;
+			}
+			if (cause instanceof RuntimeException runtimeException)
+			{
+				throw runtimeException;
+			}
+			throw new IOException("Export of party failed", cause);
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Render the sheet of a character on an export thread. The thread uses its own output
+	 * tokens for the duration of the export.
+	 *
+	 * @param character the character to be output
+	 * @param templateFile The file that has the export template definition.
+	 * @return The rendered sheet
+	 * @throws IOException
+	 * @throws ExportException
+	 */
+	private static String renderCharacter(CharacterFacade character, File templateFile)
+		throws IOException, ExportException
+	{
+		ExportHandler.usePrivateTokens();
+		try
+		{
+			StringWriter sheet = new StringWriter();
+			try (BufferedWriter bw = new BufferedWriter(sheet))
 			{
 				character.export(ExportHandler.createExportHandler(templateFile), bw);
 			}
+			return sheet.toString();
+		}
+		finally
+		{
+			ExportHandler.releasePrivateTokens();
 		}
 	}
 
@@ -498,6 +686,15 @@ public class BatchExporter
 		}
 	}
 
+	/**
+	 * Writes a sheet to an output stream.
+	 */
+	@FunctionalInterface
+	private interface SheetWriter
+	{
+		void write(OutputStream outputStream) throws IOException, ExportException;
+	}
+
 	private static File getXMLTemplate(CharacterFacade character)
 	{
 		Path path = Path.of(ConfigurationSettings.getSystemsDir(), "gameModes",
@@ -62,6 +62,10 @@ public class CommandLineArguments
         parser.addArgument("-p", "--party").nargs(1)
                 .type(Arguments.fileType().verifyCanRead().verifyExists().verifyIsFile());
 
+        parser.addArgument("--export-threads").nargs(1).type(Integer.class)
+                .choices(Arguments.range(1, Integer.MAX_VALUE))
+                .help("number of threads on which to render the character sheets of a party");
+
         return parser;
     }
 
@@ -115,6 +119,11 @@ public class CommandLineArguments
         return getSingle(namespace.get("outputfile"));
     }
 
+    public int getExportThreads()
+    {
+        return this.<Integer>getSingle(namespace.get("export_threads")).orElse(1);
+    }
+
     public boolean isStartNameGenerator()
     {
         return namespace.get("name_generator");
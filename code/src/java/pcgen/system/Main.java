@@ -337,7 +337,8 @@ public final class Main
 
 		UIDelegate uiDelegate = new ConsoleUIDelegate();
 
-		BatchExporter exporter = new BatchExporter(commandLineArguments.getExportSheet().map(File::getPath).orElse(null), uiDelegate);
+		BatchExporter exporter = new BatchExporter(commandLineArguments.getExportSheet().map(File::getPath).orElse(null),
+			uiDelegate, commandLineArguments.getExportThreads());
 
 		boolean result = true;
 		if (commandLineArguments.getPartyFile().isPresent())
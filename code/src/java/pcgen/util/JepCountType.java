@@ -379,7 +379,7 @@ public abstract class JepCountType
 			Ability a = o.getAbility();
 			while (tok.hasMoreTokens())
 			{
-				if (a.containsInList(ListKey.TYPE, Type.getConstant(tok.nextToken())))
+				if (a.containsType(Type.getExistingConstant(tok.nextToken())))
 				{
 					return false;
 				}
@@ -19,7 +19,11 @@
 package pcgen.util;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 
 import pcgen.core.PlayerCharacter;
@@ -28,9 +32,11 @@ import pcgen.persistence.lst.LstUtils;
 import pcgen.system.PluginLoader;
 
 import org.nfunk.jep.ASTFunNode;
+import org.nfunk.jep.ASTVarNode;
 import org.nfunk.jep.JEP;
 import org.nfunk.jep.Node;
 import org.nfunk.jep.ParseException;
+import org.nfunk.jep.Variable;
 import org.nfunk.jep.function.PostfixMathCommand;
 
 /**
@@ -52,6 +58,32 @@ public final class PJEP extends JEP
 	private static List<Class<PCGenCommand>> commandList = new ArrayList<>();
 	private List<PCGenCommand> localCommandList = new ArrayList<>();
 
+	/**
+	 * The maximum number of parsed expressions retained by each PJEP.
+	 */
+	private static final int MAX_PARSED_EXPRESSIONS = 4096;
+
+	/**
+	 * Indicates a formula that is not a valid JEP expression.
+	 */
+	private static final ParsedExpression NOT_AN_EXPRESSION = new ParsedExpression(null, Map.of(), false);
+
+	/**
+	 * The expressions parsed by this PJEP, keyed by formula text. Kept in access order
+	 * so that the least recently used expression is discarded when the limit is reached.
+	 * The parsed expressions refer to the functions of this PJEP, so they are not shared
+	 * with other PJEP instances.
+	 */
+	private final Map<String, ParsedExpression> parsedExpressions =
+			new LinkedHashMap<>(64, 0.75f, true)
+			{
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, ParsedExpression> eldest)
+				{
+					return size() > MAX_PARSED_EXPRESSIONS;
+				}
+			};
+
 	public static void addCommand(Class<PCGenCommand> clazz)
 	{
 		commandList.add(clazz);
@@ -113,6 +145,75 @@ public final class PJEP extends JEP
 		return super.parseExpression(expression_in);
 	}
 
+	/**
+	 * Returns the parsed form of the given formula, parsing it only if it has not
+	 * already been parsed by this PJEP.
+	 * 
+	 * @param formula
+	 *            The formula to be parsed
+	 * @return The parsed form of the given formula, or null if the formula is not a
+	 *         valid JEP expression
+	 */
+	public ParsedExpression getParsedExpression(String formula)
+	{
+		ParsedExpression parsed = parsedExpressions.get(formula);
+		if (parsed == null)
+		{
+			Node node = parseExpression(formula);
+			if (hasError() || (node == null))
+			{
+				parsed = NOT_AN_EXPRESSION;
+			}
+			else
+			{
+				Map<String, Variable> variables = new LinkedHashMap<>();
+				collectVariables(node, variables);
+				parsed = new ParsedExpression(node, variables, isResultCachable(node));
+			}
+			parsedExpressions.put(formula, parsed);
+		}
+		return (parsed == NOT_AN_EXPRESSION) ? null : parsed;
+	}
+
+	private static void collectVariables(Node node, Map<String, Variable> variables)
+	{
+		if (node instanceof ASTVarNode varNode)
+		{
+			variables.putIfAbsent(varNode.getName(), varNode.getVar());
+		}
+		for (int i = 0; i < node.jjtGetNumChildren(); i++)
+		{
+			collectVariables(node.jjtGetChild(i), variables);
+		}
+	}
+
+	/**
+	 * Evaluates the given ParsedExpression, which must have been returned by
+	 * getParsedExpression of this PJEP. The variables of the expression must have been
+	 * set (see ParsedExpression.setVariable).
+	 * 
+	 * @param expression
+	 *            The ParsedExpression to be evaluated
+	 * @return The result of evaluating the given ParsedExpression
+	 * @throws ParseException
+	 *             if the expression could not be evaluated
+	 */
+	public Object evaluate(ParsedExpression expression) throws ParseException
+	{
+		try
+		{
+			return evaluate(expression.node);
+		}
+		catch (ParseException e)
+		{
+			throw e;
+		}
+		catch (Exception e)
+		{
+			throw new ParseException(e.getMessage());
+		}
+	}
+
 	/**
 	 * Identify if the results of the calculation will be cachable.
 	 *
@@ -318,4 +419,72 @@ public final class PJEP extends JEP
 	{
 		commandList.clear();
 	}
+
+	/**
+	 * A JEP expression that has been parsed by a PJEP, with the variables it uses
+	 * extracted so that it can be evaluated repeatedly without being parsed again.
+	 */
+	public static final class ParsedExpression
+	{
+		/**
+		 * The root of the parsed expression.
+		 */
+		private final Node node;
+
+		/**
+		 * The variables used by the expression, keyed by name.
+		 */
+		private final Map<String, Variable> variables;
+
+		/**
+		 * Indicates if the result of the expression can be cached.
+		 */
+		private final boolean cachable;
+
+		private ParsedExpression(Node node, Map<String, Variable> variables, boolean cachable)
+		{
+			this.node = node;
+			this.variables = variables;
+			this.cachable = cachable;
+		}
+
+		/**
+		 * Returns the names of the variables used by the expression.
+		 * 
+		 * @return The names of the variables used by the expression
+		 */
+		public Set<String> getVariableNames()
+		{
+			return Collections.unmodifiableSet(variables.keySet());
+		}
+
+		/**
+		 * Sets the value of the given variable for the next evaluation of the
+		 * expression.
+		 * 
+		 * @param name
+		 *            The name of the variable
+		 * @param value
+		 *            The value of the variable
+		 */
+		public void setVariable(String name, double value)
+		{
+			Variable variable = variables.get(name);
+			if (variable != null)
+			{
+				variable.setValue(value);
+			}
+		}
+
+		/**
+		 * Returns true if the result of the expression can be cached (it does not use a
+		 * command, such as a roll, that is not cachable).
+		 * 
+		 * @return true if the result of the expression can be cached; false otherwise
+		 */
+		public boolean isCachable()
+		{
+			return cachable;
+		}
+	}
 }
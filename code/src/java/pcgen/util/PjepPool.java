@@ -17,16 +17,28 @@
  */
 package pcgen.util;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Stack;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * PjepPool holds PJEP parsers for reuse, so that a parser (and the expressions it has
+ * already parsed) is not built for each evaluation.
+ * 
+ * Each thread has its own stack of free parsers, so acquiring and releasing a parser
+ * requires no locking. A nested evaluation (a JEP command which evaluates another
+ * formula) takes the next parser from the stack of the thread.
+ */
 public final class PjepPool
 {
-	private Stack<PJEP> freeStack = new Stack<>();
-	private List<PJEP> usedList = new ArrayList<>();
 	private static PjepPool instance = new PjepPool();
 
+	private final ThreadLocal<Deque<PJEP>> freeStack = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private final LongAdder acquired = new LongAdder();
+	private final LongAdder released = new LongAdder();
+	private final LongAdder created = new LongAdder();
+
 	private PjepPool()
 	{
 		// Do Nothing
@@ -37,56 +49,80 @@ public final class PjepPool
 		return instance;
 	}
 
-	public synchronized void initialise()
+	public void initialise()
 	{
-		freeStack.push(new PJEP());
+		created.increment();
+		freeStack.get().push(new PJEP());
 	}
 
-	public synchronized PJEP aquire()
+	public PJEP aquire()
 	{
 		return aquire(null, "");
 	}
 
-	public synchronized PJEP aquire(final Object parent, String variableSource)
+	public PJEP aquire(final Object parent, String variableSource)
 	{
-		//System.out.println("aquireJep()");
-		PJEP jep;
-		if (!freeStack.isEmpty())
-		{
-			jep = freeStack.pop();
-		}
-		else
+		PJEP jep = freeStack.get().poll();
+		if (jep == null)
 		{
+			created.increment();
 			jep = new PJEP();
-			//System.err.println("aquirePJep() - creating new parser");
 		}
 
-		usedList.add(jep);
+		acquired.increment();
 		jep.initSymTab();
 		jep.setVariableSource(variableSource);
 		jep.setParent(parent);
 		return jep;
 	}
 
-	public synchronized void release(PJEP interp)
+	public void release(PJEP interp)
 	{
-		//System.out.println("releaseJep( " + interp + " )");
-		if (usedList.contains(interp))
-		{
-			usedList.remove(interp);
-		}
-		else
+		if (interp == null)
 		{
-			System.err.println("Tried to release a PJEP instance that we did not aquire...");
+			return;
 		}
+		released.increment();
 		interp.setParent(null);
-		freeStack.push(interp);
+		freeStack.get().push(interp);
+	}
+
+	/**
+	 * Returns the number of times a parser has been acquired from this PjepPool.
+	 * 
+	 * @return The number of times a parser has been acquired
+	 */
+	public long getAcquiredCount()
+	{
+		return acquired.sum();
+	}
+
+	/**
+	 * Returns the number of parsers created by this PjepPool. Each thread creates as
+	 * many parsers as the deepest nesting of evaluations it has performed.
+	 * 
+	 * @return The number of parsers created
+	 */
+	public long getCreatedCount()
+	{
+		return created.sum();
+	}
+
+	/**
+	 * Returns the number of parsers currently acquired and not yet released.
+	 * 
+	 * @return The number of parsers in use
+	 */
+	public long getInUseCount()
+	{
+		return acquired.sum() - released.sum();
 	}
 
-	public synchronized void dumpStats()
+	public void dumpStats()
 	{
 		System.out.println("PJEP Pool: ");
-		System.out.println("    Currently Unused: " + freeStack.size());
-		System.out.println("    Currently Used  : " + usedList.size());
+		System.out.println("    Created         : " + getCreatedCount());
+		System.out.println("    Acquired        : " + getAcquiredCount());
+		System.out.println("    Currently Used  : " + getInUseCount());
 	}
 }
@@ -23,21 +23,29 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.xml.transform.ErrorListener;
+import javax.xml.transform.Source;
 import javax.xml.transform.SourceLocator;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.URIResolver;
 import javax.xml.transform.sax.SAXResult;
 import javax.xml.transform.stream.StreamSource;
 
 import pcgen.cdom.base.Constants;
 import pcgen.system.ConfigurationSettings;
 import pcgen.util.Logging;
+import pcgen.util.fop.StylesheetCache.FileStamp;
 
 import org.apache.fop.apps.FOPException;
 import org.apache.fop.apps.FOUserAgent;
@@ -57,12 +65,18 @@ import org.apache.fop.render.Renderer;
  * source of the task: files or inputstreams. The output of this task can either be an OutputStream
  * which you can point to a file, or a Renderer. The Renderer is used by print preview and for
  * direct printing.
+ * <p>
+ * Stylesheets are compiled once and the compiled form is reused by later tasks until the
+ * stylesheet file, or a file it includes or imports, is changed.
  */
 public final class FopTask implements Runnable
 {
 	private static final FopFactory FOP_FACTORY = createFopFactory();
-	private static FOUserAgent userAgent;
 
+	/**
+	 * The factory used to compile stylesheets. A TransformerFactory is not thread safe, so
+	 * all use of it is synchronized on the factory.
+	 */
 	private static final TransformerFactory TRANS_FACTORY = TransformerFactory.newInstance();
 
 	private static FopFactory createFopFactory()
@@ -98,21 +112,24 @@ public final class FopTask implements Runnable
 	}
 
 	private final StreamSource inputSource;
-	private final StreamSource xsltSource;
+	private final File xsltFile;
+	private final FOUserAgent userAgent;
 	private final Renderer renderer;
 	private final OutputStream outputStream;
 
 	private final StringBuilder errorBuilder = new StringBuilder(32);
 
-	private FopTask(StreamSource inputXml, StreamSource xsltSource, Renderer renderer, OutputStream outputStream)
+	private FopTask(StreamSource inputXml, File xsltFile, FOUserAgent userAgent, Renderer renderer,
+		OutputStream outputStream)
 	{
 		this.inputSource = inputXml;
-		this.xsltSource = xsltSource;
+		this.xsltFile = xsltFile;
+		this.userAgent = userAgent;
 		this.renderer = renderer;
 		this.outputStream = outputStream;
 	}
 
-	private static StreamSource createXsltStreamSource(File xsltFile) throws FileNotFoundException
+	private static File checkXsltFile(File xsltFile) throws FileNotFoundException
 	{
 		if (xsltFile == null)
 		{
@@ -122,7 +139,44 @@ public final class FopTask implements Runnable
 		{
 			throw new FileNotFoundException("xsl file " + xsltFile.getAbsolutePath() + " not found ");
 		}
-		return new StreamSource(xsltFile);
+		return xsltFile.getAbsoluteFile();
+	}
+
+	/**
+	 * Returns the compiled form of the stylesheet, compiling it if it has not been
+	 * compiled before or if the file, or any file it includes or imports, has changed
+	 * since it was compiled.
+	 *
+	 * @param xsltFile the absolute stylesheet file
+	 * @return the compiled stylesheet
+	 * @throws TransformerException if the stylesheet could not be compiled
+	 */
+	static Templates getTemplates(File xsltFile) throws TransformerException
+	{
+		Templates templates = StylesheetCache.get(xsltFile);
+		if (templates != null)
+		{
+			return templates;
+		}
+		// Each file is stamped before it is read, so an edit made while compiling is
+		// picked up by the next task
+		Map<File, FileStamp> stamps = new LinkedHashMap<>();
+		stamps.put(xsltFile, new FileStamp(xsltFile));
+		synchronized (TRANS_FACTORY)
+		{
+			TRANS_FACTORY.setErrorListener(new FOPErrorListener());
+			TRANS_FACTORY.setURIResolver(new IncludeRecorder(stamps));
+			try
+			{
+				templates = TRANS_FACTORY.newTemplates(new StreamSource(xsltFile));
+			}
+			finally
+			{
+				TRANS_FACTORY.setURIResolver(null);
+			}
+		}
+		StylesheetCache.put(xsltFile, stamps.values(), templates);
+		return templates;
 	}
 
 	public static FopFactory getFactory()
@@ -144,9 +198,8 @@ public final class FopTask implements Runnable
 	public static FopTask newFopTask(InputStream inputXmlStream, File xsltFile, OutputStream outputPdf)
 		throws FileNotFoundException
 	{
-		StreamSource xsltSource = createXsltStreamSource(xsltFile);
-		userAgent = FOP_FACTORY.newFOUserAgent();
-		return new FopTask(new StreamSource(inputXmlStream), xsltSource, null, outputPdf);
+		return new FopTask(new StreamSource(inputXmlStream), checkXsltFile(xsltFile), FOP_FACTORY.newFOUserAgent(),
+			null, outputPdf);
 	}
 
 	/**
@@ -163,9 +216,8 @@ public final class FopTask implements Runnable
 	public static FopTask newFopTask(InputStream inputXmlStream, File xsltFile, Renderer renderer)
 		throws FileNotFoundException
 	{
-		StreamSource xsltSource = createXsltStreamSource(xsltFile);
-		userAgent = renderer.getUserAgent();
-		return new FopTask(new StreamSource(inputXmlStream), xsltSource, renderer, null);
+		return new FopTask(new StreamSource(inputXmlStream), checkXsltFile(xsltFile), renderer.getUserAgent(),
+			renderer, null);
 	}
 
 	public String getErrorMessages()
@@ -174,13 +226,15 @@ public final class FopTask implements Runnable
 	}
 
 	/**
-	 * Run the FO to PDF/AWT conversion. This automatically closes any provided OutputStream for
-	 * this FopTask.
+	 * Run the FO to PDF/AWT conversion. This automatically closes the input stream and any
+	 * provided OutputStream for this FopTask. Closing the input even when the conversion fails
+	 * early ensures that a thread writing the input through a pipe is not left blocked on a
+	 * full pipe.
 	 */
 	@Override
 	public void run()
 	{
-		try (OutputStream out = outputStream)
+		try (InputStream in = inputSource.getInputStream(); OutputStream out = outputStream)
 		{
 			userAgent.setProducer("PC Gen Character Generator");
 			userAgent.setAuthor(System.getProperty("user.name"));
@@ -210,13 +264,16 @@ public final class FopTask implements Runnable
 			}
 
 			Transformer transformer;
-			if (xsltSource != null)
+			if (xsltFile != null)
 			{
-				transformer = TRANS_FACTORY.newTransformer(xsltSource);
+				transformer = getTemplates(xsltFile).newTransformer();
 			}
 			else
 			{
-				transformer = TRANS_FACTORY.newTransformer(); // identity transformer		
+				synchronized (TRANS_FACTORY)
+				{
+					transformer = TRANS_FACTORY.newTransformer(); // identity transformer
+				}
 			}
 			transformer.setErrorListener(new FOPErrorListener());
 			transformer.transform(inputSource, new SAXResult(fop.getDefaultHandler()));
@@ -233,6 +290,38 @@ public final class FopTask implements Runnable
 		}
 	}
 
+	/**
+	 * The Class {@code IncludeRecorder} stamps each local file included or imported by a
+	 * stylesheet being compiled, and leaves the loading of the file to the factory.
+	 */
+	private static final class IncludeRecorder implements URIResolver
+	{
+		private final Map<File, FileStamp> stamps;
+
+		private IncludeRecorder(Map<File, FileStamp> stamps)
+		{
+			this.stamps = stamps;
+		}
+
+		@Override
+		public Source resolve(String href, String base)
+		{
+			try
+			{
+				URI uri = (base == null) ? new URI(href) : new URI(base).resolve(href);
+				if ("file".equals(uri.getScheme()))
+				{
+					stamps.computeIfAbsent(new File(uri).getAbsoluteFile(), FileStamp::new);
+				}
+			}
+			catch (URISyntaxException | IllegalArgumentException e)
+			{
+				Logging.debugPrint("FopTask could not track stylesheet " + href + " from " + base, e);
+			}
+			return null;
+		}
+	}
+
 	/**
 	 * The Class {@code FOPErrorListener} listens for notifications of issues when generating
 	 * PDF files and responds accordingly.
@@ -0,0 +1,124 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.util.fop;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.transform.Templates;
+
+/**
+ * StylesheetCache holds the stylesheets compiled by FopTask, keyed by the absolute
+ * stylesheet file. A compiled stylesheet is only returned while the stylesheet file and
+ * every file it included or imported still have the modification time and length they
+ * had when it was compiled.
+ * <p>
+ * The cache is kept apart from FopTask so that it can be cleared without creating the
+ * FOP factory.
+ */
+public final class StylesheetCache
+{
+	private static final Map<File, CompiledStylesheet> CACHE = new ConcurrentHashMap<>();
+
+	private StylesheetCache()
+	{
+		//Do not instantiate utility class
+	}
+
+	/**
+	 * Returns the compiled form of the stylesheet if none of the files it was compiled
+	 * from have changed since.
+	 *
+	 * @param xsltFile the absolute stylesheet file
+	 * @return the compiled stylesheet, or null if it must be compiled again
+	 */
+	static Templates get(File xsltFile)
+	{
+		CompiledStylesheet cached = CACHE.get(xsltFile);
+		if ((cached == null) || !cached.isCurrent())
+		{
+			return null;
+		}
+		return cached.templates;
+	}
+
+	/**
+	 * Stores the compiled form of a stylesheet.
+	 *
+	 * @param xsltFile the absolute stylesheet file
+	 * @param stamps the stylesheet file and each file it included or imported, with the
+	 *            modification time and length read before it was compiled
+	 * @param templates the compiled stylesheet
+	 */
+	static void put(File xsltFile, Collection<FileStamp> stamps, Templates templates)
+	{
+		CACHE.put(xsltFile, new CompiledStylesheet(List.copyOf(stamps), templates));
+	}
+
+	/**
+	 * Discards all compiled stylesheets, so that each stylesheet is compiled again the
+	 * next time it is used.
+	 */
+	public static void clear()
+	{
+		CACHE.clear();
+	}
+
+	/**
+	 * A file with the modification time and length it had when it was read.
+	 */
+	static final class FileStamp
+	{
+		private final File file;
+		private final long lastModified;
+		private final long length;
+
+		FileStamp(File file)
+		{
+			this.file = file;
+			this.lastModified = file.lastModified();
+			this.length = file.length();
+		}
+
+		private boolean isCurrent()
+		{
+			return (file.lastModified() == lastModified) && (file.length() == length);
+		}
+	}
+
+	/**
+	 * A compiled stylesheet with the files it was compiled from.
+	 */
+	private static final class CompiledStylesheet
+	{
+		private final List<FileStamp> stamps;
+		private final Templates templates;
+
+		private CompiledStylesheet(List<FileStamp> stamps, Templates templates)
+		{
+			this.stamps = stamps;
+			this.templates = templates;
+		}
+
+		private boolean isCurrent()
+		{
+			return stamps.stream().allMatch(FileStamp::isCurrent);
+		}
+	}
+}
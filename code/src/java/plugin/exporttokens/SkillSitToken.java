@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
+import pcgen.cdom.enumeration.CharacterDomain;
 import pcgen.cdom.enumeration.ListKey;
 import pcgen.cdom.enumeration.ObjectKey;
 import pcgen.cdom.enumeration.SkillCost;
@@ -167,7 +168,9 @@ public class SkillSitToken extends Token
 
 	private synchronized List<Skill> getSkillList(PlayerCharacter pc)
 	{
-		if (pc == lastPC && pc.getSerial() == lastPCSerial)
+		// The skill list only depends on calculations and the output order setting
+		int serial = Math.max(pc.getCalculationSerial(), pc.getSerial(CharacterDomain.SETTINGS));
+		if (pc == lastPC && serial == lastPCSerial)
 		{
 			return cachedSkillList;
 		}
@@ -176,7 +179,7 @@ public class SkillSitToken extends Token
 				SkillDisplay.getSkillListInOutputOrder(pc, pc.getDisplay().getPartialSkillList(View.VISIBLE_EXPORT));
 		cachedSkillList = pcSkills;
 		lastPC = pc;
-		lastPCSerial = pc.getSerial();
+		lastPCSerial = serial;
 		return pcSkills;
 	}
 
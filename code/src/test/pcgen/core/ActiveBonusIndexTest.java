@@ -0,0 +1,81 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for ActiveBonusIndex.
+ */
+class ActiveBonusIndexTest
+{
+
+	@Test
+	void testEmpty()
+	{
+		ActiveBonusIndex index = new ActiveBonusIndex();
+		assertFalse(index.contains("COMBAT.AC"));
+		assertEquals(0.0, index.sum("COMBAT.AC"), 0.0001);
+	}
+
+	@Test
+	void testPrefixMatching()
+	{
+		ActiveBonusIndex index = new ActiveBonusIndex();
+		index.put("COMBAT.AC", "1.0");
+		index.put("COMBAT.AC:ARMOR", "4.0");
+		index.put("COMBAT.AC:LUCK", "2.0");
+		index.put("COMBAT.ACCHECK", "-3.0");
+		assertTrue(index.contains("COMBAT.AC"));
+		assertEquals(7.0, index.sum("COMBAT.AC"), 0.0001);
+		assertEquals(4.0, index.sum("COMBAT.AC:ARMOR"), 0.0001);
+		assertEquals(-3.0, index.sum("COMBAT.ACCHECK"), 0.0001);
+		assertFalse(index.contains("COMBAT"));
+		assertFalse(index.contains("COMBAT.AC:ARM"));
+	}
+
+	@Test
+	void testReplaceAndStack()
+	{
+		ActiveBonusIndex index = new ActiveBonusIndex();
+		index.put("COMBAT.AC:ARMOR.REPLACE", "6.0");
+		assertEquals(6.0, index.sum("COMBAT.AC"), 0.0001);
+		index.put("COMBAT.AC:ARMOR", "4.0");
+		assertEquals(6.0, index.sum("COMBAT.AC:ARMOR"), 0.0001);
+		index.put("COMBAT.AC:ARMOR", "8.0");
+		assertEquals(8.0, index.sum("COMBAT.AC:ARMOR"), 0.0001);
+		index.put("COMBAT.AC:ARMOR.STACK", "1.0");
+		assertEquals(9.0, index.sum("COMBAT.AC:ARMOR"), 0.0001);
+		assertEquals(9.0, index.sum("COMBAT.AC"), 0.0001);
+		index.put("COMBAT.AC:DODGE.STACK", "2.0");
+		assertEquals(11.0, index.sum("COMBAT.AC"), 0.0001);
+		assertEquals(2.0, index.sum("COMBAT.AC:DODGE"), 0.0001);
+	}
+
+	@Test
+	void testNegativeReplace()
+	{
+		ActiveBonusIndex index = new ActiveBonusIndex();
+		index.put("SKILL.HIDE:SIZE.REPLACE", "-4.0");
+		assertEquals(-4.0, index.sum("SKILL.HIDE"), 0.0001);
+		index.put("SKILL.HIDE:SIZE", "-8.0");
+		assertEquals(-4.0, index.sum("SKILL.HIDE"), 0.0001);
+	}
+}
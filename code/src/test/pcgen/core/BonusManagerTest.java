@@ -20,8 +20,15 @@ package pcgen.core;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
 import pcgen.AbstractCharacterTestCase;
+import pcgen.cdom.base.FormulaFactory;
 import pcgen.cdom.enumeration.ListKey;
+import pcgen.cdom.enumeration.VariableKey;
 import pcgen.core.bonus.Bonus;
 import pcgen.core.bonus.BonusObj;
 import pcgen.rules.context.LoadContext;
@@ -112,4 +119,105 @@ public class BonusManagerTest extends AbstractCharacterTestCase
 		}
 	}
 
+	/**
+	 * Validate that repeated builds of the active bonus map, which reuse the
+	 * bonus dependencies of the previous build, give the same totals as the first
+	 * build, and that a change to the character is reflected in the next build.
+	 */
+	@Test
+	public void testRepeatedBuildsWithFormula()
+	{
+		PCTemplate testObj = TestHelper.makeTemplate("Formula");
+		LoadContext context = Globals.getContext();
+		final BonusObj staticBonus = Bonus.newBonus(context, "COMBAT|AC|5|TYPE=Armor");
+		testObj.addToListFor(ListKey.BONUS, staticBonus);
+		final BonusObj formulaBonus = Bonus.newBonus(context, "COMBAT|AC|1+1");
+		testObj.addToListFor(ListKey.BONUS, formulaBonus);
+
+		PlayerCharacter pc = getCharacter();
+		pc.addTemplate(testObj);
+		for (int i = 0; i < 3; i++)
+		{
+			pc.calcActiveBonuses();
+			assertEquals("Incorrect bonus total", 7.0, pc.getTotalBonusTo("COMBAT", "AC"), 0.0001);
+		}
+
+		PCTemplate extraObj = TestHelper.makeTemplate("Extra");
+		final BonusObj extraBonus = Bonus.newBonus(context, "COMBAT|AC|2*2");
+		extraObj.addToListFor(ListKey.BONUS, extraBonus);
+		pc.addTemplate(extraObj);
+		pc.calcActiveBonuses();
+		assertEquals("Incorrect bonus total", 11.0, pc.getTotalBonusTo("COMBAT", "AC"), 0.0001);
+
+		pc.removeTemplate(extraObj);
+		pc.calcActiveBonuses();
+		assertEquals("Incorrect bonus total", 7.0, pc.getTotalBonusTo("COMBAT", "AC"), 0.0001);
+	}
+
+	/**
+	 * Validate that a bonus which depends on other bonuses is processed after them
+	 * when the bonuses it depends on are added after it, and that the dependencies
+	 * reused from the previous build are dropped when those bonuses are removed.
+	 */
+	@Test
+	public void testRepeatedBuildsWithDependentBonus()
+	{
+		PCTemplate testObj = TestHelper.makeTemplate("Dependent");
+		testObj.put(VariableKey.getConstant("MYVAR"), FormulaFactory.getFormulaFor(0));
+		testObj.put(VariableKey.getConstant("OTHERVAR"), FormulaFactory.getFormulaFor(0));
+		LoadContext context = Globals.getContext();
+		final BonusObj acBonus = Bonus.newBonus(context, "COMBAT|AC|OTHERVAR");
+		testObj.addToListFor(ListKey.BONUS, acBonus);
+
+		PCTemplate extraObj = TestHelper.makeTemplate("Depended");
+		// Listed before the bonus it depends on
+		final BonusObj otherBonus = Bonus.newBonus(context, "VAR|OTHERVAR|MYVAR*2");
+		extraObj.addToListFor(ListKey.BONUS, otherBonus);
+		final BonusObj myBonus = Bonus.newBonus(context, "VAR|MYVAR|3");
+		extraObj.addToListFor(ListKey.BONUS, myBonus);
+
+		PlayerCharacter pc = getCharacter();
+		pc.addTemplate(testObj);
+		pc.calcActiveBonuses();
+		assertEquals("Incorrect bonus total", 0.0, pc.getTotalBonusTo("COMBAT", "AC"), 0.0001);
+		BonusBuildRecord record = buildRecord(pc.getActiveBonusList(),
+			new BonusBuildRecord(Collections.emptySet()));
+		assertEquals(Collections.emptyList(), record.getDependencies(acBonus, pc.getActiveBonusList(), record));
+
+		pc.addTemplate(extraObj);
+		pc.calcActiveBonuses();
+		assertEquals("Incorrect bonus total", 6.0, pc.getTotalBonusTo("COMBAT", "AC"), 0.0001);
+		record = buildRecord(pc.getActiveBonusList(), record);
+		assertEquals(List.of(otherBonus), record.getDependencies(acBonus, pc.getActiveBonusList(), record));
+		assertEquals(List.of(myBonus), record.getDependencies(otherBonus, pc.getActiveBonusList(), record));
+		assertEquals(Collections.emptyList(), record.getDependencies(myBonus, pc.getActiveBonusList(), record));
+
+		pc.removeTemplate(extraObj);
+		pc.calcActiveBonuses();
+		assertEquals("Incorrect bonus total", 0.0, pc.getTotalBonusTo("COMBAT", "AC"), 0.0001);
+		record = buildRecord(pc.getActiveBonusList(), record);
+		assertEquals(Collections.emptyList(), record.getDependencies(acBonus, pc.getActiveBonusList(), record));
+
+		pc.addTemplate(extraObj);
+		pc.calcActiveBonuses();
+		assertEquals("Incorrect bonus total", 6.0, pc.getTotalBonusTo("COMBAT", "AC"), 0.0001);
+		record = buildRecord(pc.getActiveBonusList(), record);
+		assertEquals(List.of(otherBonus), record.getDependencies(acBonus, pc.getActiveBonusList(), record));
+	}
+
+	/**
+	 * Records the dependencies of each of the given active bonuses as a build of the
+	 * active bonus map following the given previous build would.
+	 */
+	private static BonusBuildRecord buildRecord(Collection<BonusObj> activeBonuses,
+		BonusBuildRecord previous)
+	{
+		List<BonusObj> activeBonusList = new ArrayList<>(activeBonuses);
+		BonusBuildRecord record = new BonusBuildRecord(activeBonusList);
+		for (BonusObj bonus : activeBonusList)
+		{
+			record.getDependencies(bonus, activeBonusList, previous);
+		}
+		return record;
+	}
 }
@@ -25,6 +25,7 @@ import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -636,6 +637,74 @@ assertNotNull(eqMod, "Eqmod should be present");
 		
 	}
 
+	/**
+	 * Verify that the types added by the ITYPE of an eqmod are found by isType on the
+	 * head the eqmod was added to, and are no longer found once it is removed.
+	 */
+	@Test
+	public void testIsTypeEqModItemType()
+	{
+		EquipmentModifier eqMod = Globals.getContext().getReferenceContext().silentlyGetConstructedCDOMObject(
+			EquipmentModifier.class, "PLUS1W");
+		assertNotNull(eqMod);
+
+		Equipment aEquip = eq.clone();
+		assertTrue(aEquip.isType("Weapon"));
+		assertFalse(aEquip.isType("Magic"), "Does not have eqmod yet");
+		aEquip.addEqModifier(eqMod, true, getCharacter());
+		assertTrue(aEquip.isType("Magic"), "Should have the eqmod types now");
+		assertTrue(aEquip.isType("TYPE=weapon.plus1"), "Types should be found in any case");
+		assertTrue(aEquip.isType("Magic.Enhancement.Weapon"));
+		assertFalse(aEquip.isType("Magic.Armor"));
+		aEquip.removeEqModifier(eqMod, true, getCharacter());
+		assertFalse(aEquip.isType("Magic"), "Types of a removed eqmod should be gone");
+		assertTrue(aEquip.isType("Weapon"));
+
+		Equipment aDouble = eqDouble.clone();
+		aDouble.addEqModifier(eqMod, false, getCharacter());
+		assertTrue(aDouble.isType("Magic", false), "Secondary head should have the eqmod types");
+		assertFalse(aDouble.isType("Magic", true), "Primary head should not have the eqmod types");
+		assertTrue(aDouble.isType("Double", false));
+		aDouble.removeEqModifier(eqMod, false, getCharacter());
+		assertFalse(aDouble.isType("Magic", false));
+	}
+
+	/**
+	 * Verify that a type added by the ADDTYPE eqmod is found by isType even though it
+	 * is not a defined Type, both before and after it is later defined.
+	 */
+	@Test
+	public void testIsTypeAddType() throws PersistenceLayerException
+	{
+		GenericLoader<EquipmentModifier> loader =
+				new GenericLoader<>(EquipmentModifier.class);
+		loader.parseLine(Globals.getContext(), null,
+			"Add Type	KEY:ADDTYPE	TYPE:Ammunition.Weapon	VISIBLE:QUALIFY", source);
+		EquipmentModifier eqMod = Globals.getContext().getReferenceContext().silentlyGetConstructedCDOMObject(
+			EquipmentModifier.class, "ADDTYPE");
+		assertNotNull(eqMod);
+		assertNull(Type.getExistingConstant("EqTestShiny"), "Type should not be defined yet");
+
+		Equipment aEquip = eq.clone();
+		aEquip.addAssociation(eqMod, "EqTestShiny");
+		aEquip.addEqModifier(eqMod, true, getCharacter());
+		assertTrue(aEquip.isType("EqTestShiny"), "Type added by ADDTYPE should be found");
+		assertTrue(aEquip.isType("Weapon.eqtestshiny"));
+		assertFalse(aEquip.isType("Weapon.EqTestDull"));
+		assertFalse(aEquip.isType("Magic"));
+
+		// Defining the type does not change the answers given from the cached types
+		Type.getConstant("EqTestShiny");
+		assertTrue(aEquip.isType("EqTestShiny"));
+		assertFalse(aEquip.isType("Magic"));
+
+		// Nor does rebuilding the cache once the type is defined
+		aEquip.addType(Type.WEAPON);
+		assertTrue(aEquip.isType("EqTestShiny"));
+		assertTrue(aEquip.isType("Weapon.EqTestShiny"));
+		assertFalse(aEquip.isType("Magic"));
+	}
+
 	/**
 	 * EquipmentModifiers must have a parent in order to be rendered to an output sheet
 	 */
@@ -17,11 +17,13 @@
  */
 package pcgen.core;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 
@@ -38,6 +40,7 @@ import pcgen.cdom.enumeration.FactKey;
 import pcgen.cdom.enumeration.ListKey;
 import pcgen.cdom.enumeration.Nature;
 import pcgen.cdom.enumeration.ObjectKey;
+import pcgen.cdom.enumeration.Type;
 import pcgen.cdom.list.AbilityList;
 import pcgen.cdom.reference.CDOMSingleRef;
 import pcgen.cdom.util.CControl;
@@ -378,4 +381,34 @@ public class PObjectTest extends AbstractCharacterTestCase
 			Nature.AUTOMATIC, ab2));
 	}
 
+	/**
+	 * Test that isType follows changes to the TYPE list, including those made
+	 * after the type membership of the object has been queried.
+	 */
+	@Test
+	public void testIsType()
+	{
+		Ability ab = new Ability();
+		ab.setName("Typed");
+		assertFalse("No types yet", ab.isType("General"));
+
+		ab.addToListFor(ListKey.TYPE, Type.getConstant("General"));
+		assertTrue("Type should be found", ab.isType("General"));
+		assertTrue("Type lookup is case insensitive", ab.isType("TYPE=GENERAL"));
+		assertFalse("Unknown type should not be found", ab.isType("NoSuchTypeAnywhere"));
+
+		ab.addAllToListFor(ListKey.TYPE, Arrays.asList(Type.getConstant("Fighter"), Type.getConstant("Combat")));
+		assertTrue("All types should be found", ab.isType("General.Fighter.Combat"));
+		assertFalse("One missing type fails the match", ab.isType("General.Metamagic"));
+
+		Ability clone = ab.clone();
+		ab.removeFromListFor(ListKey.TYPE, Type.getConstant("Fighter"));
+		assertFalse("Removed type should not be found", ab.isType("Fighter"));
+		assertTrue("Clone should be independent", clone.isType("Fighter"));
+
+		ab.removeListFor(ListKey.TYPE);
+		assertFalse("Types should all be gone", ab.isType("General"));
+		assertTrue("Clone should be independent", clone.isType("General.Combat"));
+	}
+
 }
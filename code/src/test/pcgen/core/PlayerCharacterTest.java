@@ -37,10 +37,12 @@ import pcgen.cdom.base.CDOMReference;
 import pcgen.cdom.base.Constants;
 import pcgen.cdom.base.FormulaFactory;
 import pcgen.cdom.content.LevelCommandFactory;
+import pcgen.cdom.enumeration.CharacterDomain;
 import pcgen.cdom.enumeration.IntegerKey;
 import pcgen.cdom.enumeration.ListKey;
 import pcgen.cdom.enumeration.MovementType;
 import pcgen.cdom.enumeration.ObjectKey;
+import pcgen.cdom.enumeration.PCStringKey;
 import pcgen.cdom.enumeration.StringKey;
 import pcgen.cdom.enumeration.Type;
 import pcgen.cdom.enumeration.VariableKey;
@@ -1454,4 +1456,37 @@ public class PlayerCharacterTest extends AbstractCharacterTestCase
 		// assertEquals(20, (int) character.baseAttackBonus());
 		// assertEquals(4, (int) character.getNumAttacks());
 	}
+
+	/**
+	 * Validate that changes which do not affect calculations are tracked by their
+	 * domain without altering the calculation serial.
+	 */
+	@Test
+	public void testDomainSerials()
+	{
+		readyToRun();
+		PlayerCharacter character = getCharacter();
+		character.setRace(human);
+		int calcSerial = character.getCalculationSerial();
+
+		int serial = character.getSerial();
+		character.addNotesItem(new NoteItem(99, -1, "Test", "Some notes"));
+		assertTrue(character.getSerial() > serial, "Serial should change for notes");
+		assertEquals(character.getSerial(), character.getSerial(CharacterDomain.DESCRIPTION), "Notes serial");
+		assertEquals(calcSerial, character.getCalculationSerial(), "Notes should not alter calculations");
+		assertTrue(character.isDirty(), "Character should be dirty");
+
+		character.setStringFor(PCStringKey.EYECOLOR, "Blue");
+		assertEquals(character.getSerial(), character.getSerial(CharacterDomain.DESCRIPTION), "Description serial");
+		assertEquals(calcSerial, character.getCalculationSerial(), "Eye color should not alter calculations");
+
+		character.setStringFor(PCStringKey.CITY, "Greyhawk");
+		assertEquals(character.getSerial(), character.getCalculationSerial(), "City can alter calculations");
+		assertEquals(character.getSerial(), character.getSerial(CharacterDomain.SETTINGS), "General change hits all domains");
+
+		serial = character.getSerial();
+		character.incrementClassLevel(1, pcClass, true);
+		assertTrue(character.getCalculationSerial() > serial, "Class level serial");
+		assertEquals(character.getSerial(), character.getCalculationSerial(), "Levels alter calculations");
+	}
 }
@@ -0,0 +1,73 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.core.prereq;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import pcgen.AbstractCharacterTestCase;
+import pcgen.cdom.enumeration.PCStringKey;
+import pcgen.core.PlayerCharacter;
+import pcgen.persistence.PersistenceLayerException;
+import pcgen.persistence.lst.prereq.PreParserFactory;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@code PrerequisiteCacheTest} tests that the results of prerequisites are
+ * cached and discarded when the character changes.
+ */
+class PrerequisiteCacheTest extends AbstractCharacterTestCase
+{
+	/**
+	 * Test that a cached result is reused and discarded when the character changes.
+	 *
+	 * @throws PersistenceLayerException the persistence layer exception
+	 */
+	@Test
+	void testCachedResult() throws PersistenceLayerException
+	{
+		final PlayerCharacter character = getCharacter();
+		final Prerequisite prereq = PreParserFactory.getInstance().parse("PRECITY:Klamath");
+		final PrerequisiteCache prereqCache = character.getPrerequisiteCache();
+		final long misses = prereqCache.getMissCount();
+		final long hits = prereqCache.getHitCount();
+
+		assertFalse(PrereqHandler.passes(prereq, character, null), "Character has no city");
+		assertEquals(misses + 1, prereqCache.getMissCount(), "First test is a miss");
+		assertFalse(PrereqHandler.passes(prereq, character, null), "Character still has no city");
+		assertEquals(hits + 1, prereqCache.getHitCount(), "Second test is a hit");
+
+		character.setPCAttribute(PCStringKey.CITY, "Klamath");
+		assertTrue(PrereqHandler.passes(prereq, character, null), "Character is from Klamath");
+		assertEquals(misses + 2, prereqCache.getMissCount(), "Change in city discards the result");
+	}
+
+	/**
+	 * Test that prerequisites depending on global settings are not cached.
+	 *
+	 * @throws PersistenceLayerException the persistence layer exception
+	 */
+	@Test
+	void testCacheable() throws PersistenceLayerException
+	{
+		final PreParserFactory factory = PreParserFactory.getInstance();
+		assertTrue(PrerequisiteCache.isCacheable(factory.parse("PRECITY:Klamath")));
+		assertFalse(PrerequisiteCache.isCacheable(factory.parse("PRERULE:1,SYS_WTPSK")));
+		assertFalse(PrerequisiteCache.isCacheable(factory.parse("PREMULT:1,[PRECITY:Klamath],[PRERULE:1,SYS_WTPSK]")));
+	}
+}
@@ -11443,6 +11443,30 @@ class EvaluatorFactoryTest
 		assertNotEquals(t1, t4, "t1 and t4 are diffferent objects");
 	}
 
+	/**
+	 * Method: getTermEvaluator(String term, String source)
+	 */
+	@Test
+	public void testGetTermEvaluator217()
+	{
+		EvaluatorFactoryTest.loadAll();
+
+		String term1 = "NOTABUILTINTERM";
+
+		assertNull(EvaluatorFactory.PC.getTermEvaluator(term1, ""), "No evaluator for " + term1);
+		assertNull(EvaluatorFactory.PC.getTermEvaluator(term1, "CLASS:Druid"), "Still no evaluator for " + term1);
+
+		String term2 = "ACCHECK";
+
+		TermEvaluator t1 = EvaluatorFactory.PC.getTermEvaluator(term2, null);
+		TermEvaluator t2 = EvaluatorFactory.PC.getTermEvaluator(term2, "");
+
+		assertTrue(t1 instanceof PCACcheckTermEvaluator,
+				() -> "GetTermEvaluator217 t1 evaluator correct for " + term2
+		);
+		assertEquals(t1, t2, "t1 and t2 are the Same object");
+	}
+
 	/**
 	 * Initialise the data and game modes - does the parsing of the data, so 
 	 * the plugins must be loaded before this method is called.
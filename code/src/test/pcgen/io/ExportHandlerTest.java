@@ -427,6 +427,51 @@ public class ExportHandlerTest extends AbstractCharacterTestCase
 
 	}
 
+	/**
+	 * Test that a parsed template is reused, but is read again once the
+	 * template file changes.
+	 *
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public void testTemplateChanged() throws IOException
+	{
+		PlayerCharacter pc = getCharacter();
+		File temp = File.createTempFile("testTemplate", ".txt");
+		temp.deleteOnExit();
+		writeTemplate(temp, "First template");
+		long modified = temp.lastModified();
+
+		assertEquals("First template", exportTemplate(temp, pc), "First export");
+		assertEquals("First template", exportTemplate(temp, pc), "Export from parsed template");
+
+		writeTemplate(temp, "Second template");
+		temp.setLastModified(modified + 2000);
+		assertEquals("Second template", exportTemplate(temp, pc), "Export after template change");
+	}
+
+	private static void writeTemplate(File template, String content) throws IOException
+	{
+		try (BufferedWriter out = new BufferedWriter(new FileWriter(template)))
+		{
+			out.write(content);
+		}
+	}
+
+	private static String exportTemplate(File template, PlayerCharacter pc) throws IOException
+	{
+		StringWriter retWriter = new StringWriter();
+		try (BufferedWriter bufWriter = new BufferedWriter(retWriter))
+		{
+			ExportHandler.createExportHandler(template).write(pc, bufWriter);
+		}
+		catch (ExportException e)
+		{
+			throw new IOException(e);
+		}
+		return retWriter.toString().trim();
+	}
+
 	@Test
 	public void testPartyFor() throws IOException
 	{
@@ -0,0 +1,114 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import pcgen.AbstractJunit5CharacterTestCase;
+import pcgen.core.Globals;
+import pcgen.core.PCClass;
+import pcgen.core.PlayerCharacter;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * FreeMarkerExportHandlerTest checks that characters exported through the shared
+ * FreeMarker configuration reuse the parsed templates, while the character
+ * specific functions still resolve against the character being exported.
+ */
+@SuppressWarnings("nls")
+public class FreeMarkerExportHandlerTest extends AbstractJunit5CharacterTestCase
+{
+	@TempDir
+	Path templateDir;
+
+	private PCClass fighter;
+
+	@Override
+	protected void additionalSetUp() throws Exception
+	{
+		fighter = new PCClass();
+		fighter.setName("Fighter");
+		Globals.getContext().getReferenceContext().importObject(fighter);
+	}
+
+	@AfterEach
+	void clearConfigurations()
+	{
+		FreeMarkerExportHandler.clearConfigurations();
+	}
+
+	private static String export(File template, PlayerCharacter pc) throws Exception
+	{
+		StringWriter output = new StringWriter();
+		try (BufferedWriter bw = new BufferedWriter(output))
+		{
+			ExportHandler.createExportHandler(template).write(pc, bw);
+		}
+		return output.toString();
+	}
+
+	private PlayerCharacter createCharacter(String name, int levels)
+	{
+		PlayerCharacter pc = new PlayerCharacter();
+		pc.setName(name);
+		pc.incrementClassLevel(levels, fighter, true);
+		return pc;
+	}
+
+	/**
+	 * Export two characters with the same template and check that the template and
+	 * the library it imports are only parsed once, while pcstring and pcvar give the
+	 * values of the character being rendered, both in the template and the library.
+	 */
+	@Test
+	public void testSharedConfiguration() throws Exception
+	{
+		Files.writeString(templateDir.resolve("lib.ftl"),
+			"<#macro describe>${pcstring('NAME')}:${pcvar('TL')}</#macro>", StandardCharsets.UTF_8);
+		Path sheet = templateDir.resolve("sheet.ftl");
+		Files.writeString(sheet,
+			"<#import \"lib.ftl\" as lib><@pcstring tag=\"NAME\"/>|${pcvar(\"TL\")}|<@lib.describe/>",
+			StandardCharsets.UTF_8);
+		File template = sheet.toFile();
+
+		assertEquals("Alaric|1|Alaric:1", export(template, createCharacter("Alaric", 1)));
+		Configuration cfg = FreeMarkerExportHandler.getConfiguration(templateDir.toFile().getAbsoluteFile());
+		Template parsedSheet = cfg.getTemplate("sheet.ftl");
+		Template parsedLib = cfg.getTemplate("lib.ftl");
+
+		assertEquals("Brenna|3|Brenna:3", export(template, createCharacter("Brenna", 3)));
+		assertSame(cfg, FreeMarkerExportHandler.getConfiguration(templateDir.toFile().getAbsoluteFile()),
+			"Configuration should be shared between exports");
+		assertSame(parsedSheet, cfg.getTemplate("sheet.ftl"), "Template should only be parsed once");
+		assertSame(parsedLib, cfg.getTemplate("lib.ftl"), "Imported library should only be parsed once");
+
+		assertEquals("Alaric|1|Alaric:1", export(template, createCharacter("Alaric", 1)),
+			"Earlier character should not see the values of the last render");
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.persistence.lst;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * LstFileCacheTest checks the function of the LstFileCache class.
+ */
+public class LstFileCacheTest
+{
+	private static final URI FILE_URI = URI.create("file:/data/test/test_abilities.lst");
+
+	private static final URI OTHER_URI = URI.create("file:/data/test/test_skills.lst");
+
+	private static final String[] LINES = {"# Comment", "Ability One\tCATEGORY:FEAT", "Épée", ""};
+
+	@TempDir
+	Path cacheDir;
+
+	private void write(List<String> selection, URI uri, String[] lines)
+	{
+		try (LstFileCache cache = LstFileCache.open(cacheDir, selection))
+		{
+			cache.put(uri, 10, 20, lines);
+			cache.save();
+		}
+	}
+
+	private List<Path> getCacheFiles() throws IOException
+	{
+		try (Stream<Path> files = Files.list(cacheDir))
+		{
+			return files.collect(Collectors.toList());
+		}
+	}
+
+	@Test
+	public void testRoundTrip()
+	{
+		try (LstFileCache cache = LstFileCache.open(cacheDir, List.of("35e", "file:/a.pcc")))
+		{
+			assertNull(cache.get(FILE_URI, 10, 20));
+			cache.put(FILE_URI, 10, 20, LINES);
+			cache.put(OTHER_URI, 5, 6, new String[0]);
+			cache.save();
+		}
+
+		try (LstFileCache reopened = LstFileCache.open(cacheDir, List.of("file:/a.pcc", "35e")))
+		{
+			assertArrayEquals(LINES, reopened.get(FILE_URI, 10, 20));
+			assertArrayEquals(new String[0], reopened.get(OTHER_URI, 5, 6));
+		}
+	}
+
+	@Test
+	public void testChangedFileIgnored()
+	{
+		write(List.of("35e"), FILE_URI, LINES);
+
+		try (LstFileCache reopened = LstFileCache.open(cacheDir, List.of("35e")))
+		{
+			assertNull(reopened.get(FILE_URI, 11, 20));
+			assertNull(reopened.get(FILE_URI, 10, 21));
+		}
+	}
+
+	@Test
+	public void testOtherSelectionIgnored()
+	{
+		write(List.of("35e", "file:/a.pcc"), FILE_URI, LINES);
+
+		try (LstFileCache other = LstFileCache.open(cacheDir, List.of("35e", "file:/b.pcc")))
+		{
+			assertNull(other.get(FILE_URI, 10, 20));
+		}
+	}
+
+	/**
+	 * Only the files used in a load are kept, and the cache file is not rewritten if
+	 * nothing changed.
+	 */
+	@Test
+	public void testUnusedFilesDropped() throws IOException
+	{
+		try (LstFileCache cache = LstFileCache.open(cacheDir, List.of("35e")))
+		{
+			cache.put(FILE_URI, 10, 20, LINES);
+			cache.put(OTHER_URI, 10, 20, LINES);
+			cache.save();
+		}
+		Path cacheFile = getCacheFiles().get(0);
+		long fullSize = Files.size(cacheFile);
+
+		try (LstFileCache cache = LstFileCache.open(cacheDir, List.of("35e")))
+		{
+			assertArrayEquals(LINES, cache.get(FILE_URI, 10, 20));
+			cache.save();
+		}
+		assertTrue(Files.size(cacheFile) < fullSize);
+		long usedSize = Files.size(cacheFile);
+
+		try (LstFileCache cache = LstFileCache.open(cacheDir, List.of("35e")))
+		{
+			assertNull(cache.get(OTHER_URI, 10, 20));
+			assertArrayEquals(LINES, cache.get(FILE_URI, 10, 20));
+			cache.save();
+		}
+		assertEquals(usedSize, Files.size(cacheFile));
+		assertEquals(List.of(cacheFile), getCacheFiles(), "No temporary file should remain");
+	}
+
+	@Test
+	public void testDamagedCacheIgnored() throws IOException
+	{
+		write(List.of("35e"), FILE_URI, LINES);
+		Path cacheFile = getCacheFiles().get(0);
+		byte[] bytes = Files.readAllBytes(cacheFile);
+		bytes[bytes.length - 2] ^= 0x20;
+		Files.write(cacheFile, bytes);
+		try (LstFileCache cache = LstFileCache.open(cacheDir, List.of("35e")))
+		{
+			assertNull(cache.get(FILE_URI, 10, 20));
+		}
+
+		Files.write(cacheFile, new byte[]{1, 2, 3});
+		try (LstFileCache cache = LstFileCache.open(cacheDir, List.of("35e")))
+		{
+			assertNull(cache.get(FILE_URI, 10, 20));
+		}
+	}
+
+	/**
+	 * Only the most recently used cache files are kept.
+	 */
+	@Test
+	public void testBounded() throws IOException
+	{
+		for (int i = 0; i <= LstFileCache.MAX_CACHE_FILES; i++)
+		{
+			write(List.of("35e", "file:/" + i + ".pcc"), FILE_URI, LINES);
+			for (Path file : getCacheFiles())
+			{
+				//Make each earlier selection look less recently used
+				Files.setLastModifiedTime(file,
+					FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() - 60_000));
+			}
+		}
+		assertEquals(LstFileCache.MAX_CACHE_FILES, getCacheFiles().size());
+		try (LstFileCache first = LstFileCache.open(cacheDir, List.of("35e", "file:/0.pcc")))
+		{
+			assertNull(first.get(FILE_URI, 10, 20), "Least recently used selection should be removed");
+		}
+
+		//Using a selection marks it as recently used
+		try (LstFileCache used = LstFileCache.open(cacheDir, List.of("35e", "file:/1.pcc")))
+		{
+			assertArrayEquals(LINES, used.get(FILE_URI, 10, 20));
+			used.save();
+		}
+		write(List.of("35e", "file:/new.pcc"), FILE_URI, LINES);
+		assertEquals(LstFileCache.MAX_CACHE_FILES, getCacheFiles().size());
+		try (LstFileCache used = LstFileCache.open(cacheDir, List.of("35e", "file:/1.pcc")))
+		{
+			assertArrayEquals(LINES, used.get(FILE_URI, 10, 20));
+		}
+		try (LstFileCache oldest = LstFileCache.open(cacheDir, List.of("35e", "file:/2.pcc")))
+		{
+			assertNull(oldest.get(FILE_URI, 10, 20));
+		}
+		assertFalse(getCacheFiles().stream().anyMatch(f -> f.toString().endsWith(".tmp")));
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.persistence.lst;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * LstFilePrefetcherTest checks the function of the LstFilePrefetcher class.
+ */
+public class LstFilePrefetcherTest
+{
+	@TempDir
+	Path dataDir;
+
+	private List<URI> createFiles(String... names) throws IOException
+	{
+		List<URI> uris = new ArrayList<>();
+		for (String name : names)
+		{
+			Path file = dataDir.resolve(name + ".lst");
+			Files.writeString(file, name + "\n\tTYPE:" + name + "\n");
+			uris.add(file.toUri());
+		}
+		return uris;
+	}
+
+	@Test
+	public void testTakeInOrder() throws IOException
+	{
+		List<URI> uris = createFiles("a", "b", "c");
+		try (LstFilePrefetcher prefetcher = new LstFilePrefetcher(uris, false, 1))
+		{
+			assertArrayEquals(new String[]{"a", "\tTYPE:a"}, prefetcher.take(uris.get(0), false));
+			assertArrayEquals(new String[]{"b", "\tTYPE:b"}, prefetcher.take(uris.get(1), false));
+			assertArrayEquals(new String[]{"c", "\tTYPE:c"}, prefetcher.take(uris.get(2), false));
+			//Only provided once
+			assertNull(prefetcher.take(uris.get(2), false));
+		}
+	}
+
+	@Test
+	public void testEarlierFilesDiscarded() throws IOException
+	{
+		List<URI> uris = createFiles("a", "b", "c", "d", "e");
+		try (LstFilePrefetcher prefetcher = new LstFilePrefetcher(uris, true, 2))
+		{
+			assertArrayEquals(new String[]{"b\tTYPE:b"}, prefetcher.take(uris.get(1), true));
+			assertNull(prefetcher.take(uris.get(0), true));
+			//Not yet read (outside the window), so left to the loader
+			assertNull(prefetcher.take(uris.get(4), true));
+			assertNull(prefetcher.take(uris.get(2), true));
+			assertNull(prefetcher.take(uris.get(3), true));
+		}
+	}
+
+	@Test
+	public void testDifferentSplit() throws IOException
+	{
+		List<URI> uris = createFiles("a", "b");
+		try (LstFilePrefetcher prefetcher = new LstFilePrefetcher(uris, true, 2))
+		{
+			assertNull(prefetcher.take(uris.get(0), false));
+			assertArrayEquals(new String[]{"b\tTYPE:b"}, prefetcher.take(uris.get(1), true));
+		}
+	}
+
+	@Test
+	public void testMissingFile() throws IOException
+	{
+		List<URI> uris = createFiles("a");
+		uris.add(0, dataDir.resolve("missing.lst").toUri());
+		try (LstFilePrefetcher prefetcher = new LstFilePrefetcher(uris, false, 2))
+		{
+			assertNull(prefetcher.take(uris.get(0), false));
+			assertArrayEquals(new String[]{"a", "\tTYPE:a"}, prefetcher.take(uris.get(1), false));
+		}
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.persistence.lst;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * LstLineReaderTest checks that the LstLineReader class splits lines as they were split
+ * with LstFileLoader.LINE_SEPARATOR_REGEXP.
+ */
+public class LstLineReaderTest
+{
+	private static final String[] SAMPLES = {"", "a", "\n", "a\nb", "a\r\nb\rc\n", "a\n\n\nb\n\n",
+		"\r\n\r\n", "a\n\tb\r\n\tc\r\td", "Épée\tTYPE:Weapon\n\tCOST:10\n", "a\n\t\n\tb", "\ta\n\t"};
+
+	@Test
+	public void testSplitMatchesRegex()
+	{
+		for (String sample : SAMPLES)
+		{
+			assertArrayEquals(sample.split(LstFileLoader.LINE_SEPARATOR_REGEXP),
+				LstLineReader.split(sample, false), sample);
+			assertArrayEquals(sample.replaceAll("\r?\n\t", "\t").split(LstFileLoader.LINE_SEPARATOR_REGEXP),
+				LstLineReader.split(sample, true), sample);
+		}
+	}
+
+	/**
+	 * A line break, or a line break followed by a tab, may be split across two reads of
+	 * the underlying Reader.
+	 */
+	@Test
+	public void testShortReads() throws IOException
+	{
+		StringBuilder sb = new StringBuilder();
+		for (String sample : SAMPLES)
+		{
+			sb.append(sample).append("\r");
+		}
+		String content = sb.append("\n\tend").toString();
+		for (int chunk = 1; chunk <= 3; chunk++)
+		{
+			int size = chunk;
+			Reader reader = new StringReader(content)
+			{
+				@Override
+				public int read(char[] cbuf, int off, int len) throws IOException
+				{
+					return super.read(cbuf, off, Math.min(len, size));
+				}
+			};
+			assertArrayEquals(content.replaceAll("\r?\n\t", "\t").split(LstFileLoader.LINE_SEPARATOR_REGEXP),
+				LstLineReader.read(reader, true));
+		}
+		assertArrayEquals(content.split(LstFileLoader.LINE_SEPARATOR_REGEXP),
+			LstLineReader.read(new StringReader(content), false));
+	}
+}
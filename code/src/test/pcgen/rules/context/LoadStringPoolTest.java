@@ -0,0 +1,103 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.rules.context;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import pcgen.base.format.NumberManager;
+import pcgen.base.format.StringManager;
+import pcgen.base.util.BasicIndirect;
+import pcgen.base.util.FixedStringList;
+import pcgen.base.util.Indirect;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * LoadStringPoolTest checks the function of the LoadStringPool class.
+ */
+public class LoadStringPoolTest
+{
+	private final LoadStringPool pool = new LoadStringPool();
+
+	@Test
+	public void testInternString()
+	{
+		String first = new String("Weapon");
+		String second = new String("Weapon");
+		assertSame(first, pool.intern(first));
+		assertSame(first, pool.intern(second));
+		assertSame(first, pool.intern(first));
+		assertNull(pool.intern((String) null));
+		assertEquals(1, pool.size());
+		assertEquals(1, pool.getDuplicateCount());
+	}
+
+	@Test
+	public void testInternIndirect()
+	{
+		StringManager manager = new StringManager();
+		Indirect<String> first = manager.convertIndirect(new String("Elf"));
+		Indirect<String> second = manager.convertIndirect(new String("Elf"));
+		assertSame(first, pool.intern(first));
+		assertSame(first, pool.intern(second));
+		assertNull(pool.intern((Indirect<String>) null));
+		assertEquals(1, pool.getDuplicateCount());
+		//Only a BasicIndirect holding a String is shared
+		NumberManager numberManager = new NumberManager();
+		Indirect<Number> number = numberManager.convertIndirect("4");
+		Indirect<Number> otherNumber = new BasicIndirect<>(numberManager, 4);
+		assertSame(number, pool.intern(number));
+		assertSame(otherNumber, pool.intern(otherNumber));
+		assertEquals(1, pool.getDuplicateCount());
+	}
+
+	@Test
+	public void testMutableValueUnchanged()
+	{
+		pool.intern("Melee");
+		String melee = new String("Melee");
+		FixedStringList first = new FixedStringList(melee, "Ranged");
+		FixedStringList second = new FixedStringList("Melee", "Ranged");
+		pool.internValue(second);
+		assertSame(first, pool.internValue(first));
+		assertSame(melee, first.get(0));
+		assertEquals(0, pool.getDuplicateCount());
+	}
+
+	@Test
+	public void testInternValue()
+	{
+		String first = new String("PHB p.12");
+		pool.internValue(first);
+		assertSame(first, pool.internValue(new String("PHB p.12")));
+		Integer other = 1234;
+		assertSame(other, pool.internValue(other));
+		assertNull(pool.internValue(null));
+	}
+
+	@Test
+	public void testClear()
+	{
+		pool.intern("Weapon");
+		pool.intern(new String("Weapon"));
+		pool.clear();
+		assertEquals(0, pool.size());
+		assertEquals(0, pool.getDuplicateCount());
+		assertEquals(0, pool.getSavedBytes());
+	}
+}
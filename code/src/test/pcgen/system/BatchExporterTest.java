@@ -0,0 +1,243 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.system;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import pcgen.AbstractCharacterTestCase;
+import pcgen.cdom.base.Constants;
+import pcgen.cdom.base.FormulaFactory;
+import pcgen.cdom.enumeration.ListKey;
+import pcgen.cdom.enumeration.ObjectKey;
+import pcgen.cdom.enumeration.Type;
+import pcgen.cdom.enumeration.VariableKey;
+import pcgen.cdom.reference.CDOMDirectSingleRef;
+import pcgen.core.Ability;
+import pcgen.core.BodyStructure;
+import pcgen.core.Equipment;
+import pcgen.core.GameMode;
+import pcgen.core.Globals;
+import pcgen.core.LevelInfo;
+import pcgen.core.PCClass;
+import pcgen.core.PCStat;
+import pcgen.core.PlayerCharacter;
+import pcgen.core.Race;
+import pcgen.core.SettingsHandler;
+import pcgen.core.Skill;
+import pcgen.core.analysis.SkillRankControl;
+import pcgen.core.bonus.Bonus;
+import pcgen.core.bonus.BonusObj;
+import pcgen.core.character.EquipSet;
+import pcgen.gui2.facade.CharacterFacadeImpl;
+import pcgen.gui2.facade.MockDataSetFacade;
+import pcgen.gui2.facade.MockUIDelegate;
+import pcgen.gui2.facade.PartyFacadeImpl;
+import pcgen.rules.context.LoadContext;
+import plugin.lsttokens.testsupport.BuildUtilities;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * BatchExporterTest checks that the sheets of a party rendered on several export
+ * threads are identical to those rendered on a single thread.
+ */
+@SuppressWarnings("nls")
+public class BatchExporterTest extends AbstractCharacterTestCase
+{
+	private static final int PARTY_SIZE = 6;
+
+	private static final String TEMPLATE = "|NAME|\n"
+		+ "|FOR.0,COUNT[SKILLS],1,\\SKILL.%\\: \\SKILL.%.TOTAL.SIGN\\, ,; ,1|\n"
+		+ "|FOR.0,100,1,\\WEAPON.%.NAME\\,[,],1|\n"
+		+ "|FOR.0,COUNT[EQTYPE.Gem],1,\\EQTYPE.Gem.%.NAME\\: \\EQTYPE.Gem.%.QTY\\, ,<br/>,1|\n"
+		+ "|EQ.Gem.0.NAME|\n"
+		+ "|VAR.CL=MyClass.INTVAL|\n"
+		+ "Focus=|VAR.Focus.INTVAL|\n";
+
+	@TempDir
+	Path outputDir;
+
+	private PartyFacadeImpl party;
+
+	@BeforeEach
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+
+		final LevelInfo levelInfo = new LevelInfo();
+		levelInfo.setLevelString("LEVEL");
+		levelInfo.setMaxClassSkillString("LEVEL+3");
+		levelInfo.setMaxCrossClassSkillString("(LEVEL+3)/2");
+		GameMode gamemode = SettingsHandler.getGameAsProperty().get();
+		gamemode.addLevelInfo("Default", levelInfo);
+
+		LoadContext context = Globals.getContext();
+		Race testRace = new Race();
+		testRace.setName("TestRace");
+		context.getReferenceContext().importObject(testRace);
+
+		PCClass myClass = new PCClass();
+		myClass.setName("MyClass");
+		context.getReferenceContext().importObject(myClass);
+
+		CDOMDirectSingleRef<PCStat> dexRef = CDOMDirectSingleRef.getRef(dex);
+		CDOMDirectSingleRef<PCStat> intelRef = CDOMDirectSingleRef.getRef(intel);
+		Skill tumble = new Skill();
+		context.unconditionallyProcess(tumble, "CLASSES", "MyClass");
+		tumble.setName("Tumble");
+		tumble.addToListFor(ListKey.TYPE, Type.getConstant("DEX"));
+		tumble.put(ObjectKey.KEY_STAT, dexRef);
+		context.getReferenceContext().importObject(tumble);
+
+		Skill spellcraft = new Skill();
+		context.unconditionallyProcess(spellcraft, "CLASSES", "MyClass");
+		spellcraft.setName("Spellcraft");
+		spellcraft.addToListFor(ListKey.TYPE, Type.getConstant("INT"));
+		spellcraft.put(ObjectKey.KEY_STAT, intelRef);
+		context.getReferenceContext().importObject(spellcraft);
+
+		Equipment weapon = new Equipment();
+		weapon.setName("TestWpn");
+		weapon.addToListFor(ListKey.TYPE, Type.WEAPON);
+
+		Equipment gem = new Equipment();
+		gem.setName("TestGem");
+		gem.addToListFor(ListKey.TYPE, Type.getConstant("Gem"));
+
+		// Feats whose bonuses depend on prerequisites, which are tested while the
+		// bonuses of each character are calculated
+		Ability nimble = new Ability();
+		nimble.setName("Nimble");
+		nimble.setCDOMCategory(BuildUtilities.getFeatCat());
+		addBonus(context, nimble, "SKILL|Tumble|2|PRESTAT:1,DEX=13");
+		context.getReferenceContext().importObject(nimble);
+
+		Ability focused = new Ability();
+		focused.setName("Focused");
+		focused.setCDOMCategory(BuildUtilities.getFeatCat());
+		focused.put(VariableKey.getConstant("Focus"), FormulaFactory.getFormulaFor(0));
+		addBonus(context, focused, "VAR|Focus|2|PRESTAT:1,INT=13");
+		addBonus(context, focused, "SKILL|Spellcraft|Focus|PREVARGT:Focus,1");
+		context.getReferenceContext().importObject(focused);
+
+		finishLoad();
+
+		MockDataSetFacade dataset = new MockDataSetFacade(gamemode);
+		dataset.addAbilityCategory(BuildUtilities.getFeatCat());
+		dataset.addEquipmentLocation(new BodyStructure(Constants.EQUIP_LOCATION_EQUIPPED, true));
+		dataset.addEquipmentLocation(new BodyStructure(Constants.EQUIP_LOCATION_CARRIED, true));
+		MockUIDelegate uiDelegate = new MockUIDelegate();
+		party = new PartyFacadeImpl();
+		for (int i = 0; i < PARTY_SIZE; i++)
+		{
+			PlayerCharacter pc = new PlayerCharacter();
+			pc.setName("Hero" + i);
+			setPCStat(pc, dex, 10 + i);
+			setPCStat(pc, intel, 16 - i);
+			pc.setRace(testRace);
+			pc.incrementClassLevel(1 + i, myClass, true);
+			SkillRankControl.modRanks(1.0 + i, myClass, true, pc, tumble);
+			SkillRankControl.modRanks(PARTY_SIZE - i, myClass, true, pc, spellcraft);
+
+			Equipment pcWeapon = weapon.clone();
+			Equipment pcGem = gem.clone();
+			pcGem.setQty(i + 1);
+			pc.addEquipment(pcWeapon);
+			pc.addEquipment(pcGem);
+			pc.addEquipSet(new EquipSet("0.1", "Default"));
+			pc.addEquipSet(new EquipSet("0.1.1", Constants.EQUIP_LOCATION_EQUIPPED, pcWeapon.getName(), pcWeapon));
+			pc.addEquipSet(new EquipSet("0.1.2", Constants.EQUIP_LOCATION_CARRIED, pcGem.getName(), pcGem));
+			pc.setCalcEquipSetId("0.1");
+			applyAbility(pc, BuildUtilities.getFeatCat(), nimble, null);
+			applyAbility(pc, BuildUtilities.getFeatCat(), focused, null);
+			pc.calcActiveBonuses();
+			party.addElement(new CharacterFacadeImpl(pc, uiDelegate, dataset));
+		}
+	}
+
+	private static void addBonus(LoadContext context, Ability ability, String bonus)
+	{
+		BonusObj bonusObj = Bonus.newBonus(context, bonus);
+		assertNotNull(bonusObj, bonus);
+		ability.addToListFor(ListKey.BONUS, bonusObj);
+	}
+
+	private byte[] exportParty(File template, int exportThreads) throws Exception
+	{
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		BatchExporter.exportParty(party, template, output, exportThreads);
+		return output.toByteArray();
+	}
+
+	/**
+	 * Export the party on one thread and on several, and check that the output is
+	 * byte for byte the same.
+	 */
+	@Test
+	public void testConcurrentPartyExportMatchesSerial() throws Exception
+	{
+		File template = outputDir.resolve("party.txt").toFile();
+		Files.writeString(template.toPath(), TEMPLATE, StandardCharsets.UTF_8);
+
+		byte[] serial = exportParty(template, 1);
+		String serialText = new String(serial, StandardCharsets.UTF_8);
+		int last = -1;
+		for (int i = 0; i < PARTY_SIZE; i++)
+		{
+			int pos = serialText.indexOf("Hero" + i);
+			assertTrue(pos > last, "Hero" + i + " should follow the previous character in " + serialText);
+			last = pos;
+		}
+		// The bonus prerequisites pass for the first four characters only
+		assertEquals(4, countMatches(serialText, "Focus=2"), serialText);
+		assertEquals(2, countMatches(serialText, "Focus=0"), serialText);
+
+		for (int attempt = 0; attempt < 3; attempt++)
+		{
+			assertArrayEquals(serial, exportParty(template, 4), "Concurrent export differs from serial export");
+		}
+		assertArrayEquals(serial, exportParty(template, PARTY_SIZE),
+			"Export with a thread per character differs from serial export");
+	}
+
+	private static int countMatches(String text, String match)
+	{
+		int count = 0;
+		for (int pos = text.indexOf(match); pos >= 0; pos = text.indexOf(match, pos + 1))
+		{
+			count++;
+		}
+		return count;
+	}
+
+	@Override
+	protected void defaultSetupEnd()
+	{
+		//We will handle this locally
+	}
+}
@@ -20,6 +20,12 @@ package pcgen.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
 
 import pcgen.AbstractCharacterTestCase;
 import pcgen.cdom.base.FormulaFactory;
@@ -28,6 +34,7 @@ import pcgen.core.PlayerCharacter;
 import pcgen.core.Race;
 
 import org.junit.jupiter.api.Test;
+import org.nfunk.jep.ParseException;
 import org.nfunk.jep.SymbolTable;
 
 /**
@@ -317,4 +324,45 @@ public class PJepTest extends AbstractCharacterTestCase
 					"IF(var(\"UseAlternateDamage\")==2,-2,5)", "");
 		assertEquals(-2, val.doubleValue(), 0.1, "Test should have returned -2");
 	}
+
+	@Test
+	public void testParsedExpression() throws ParseException
+	{
+		final PJEP jep = new PJEP();
+
+		PJEP.ParsedExpression expression = jep.getParsedExpression("max(FOO,BAR)+1");
+		assertEquals(Set.of("FOO", "BAR"), expression.getVariableNames());
+		assertTrue(expression.isCachable());
+		assertSame(expression, jep.getParsedExpression("max(FOO,BAR)+1"));
+
+		expression.setVariable("FOO", 2);
+		expression.setVariable("BAR", 5);
+		assertEquals(6.0, ((Number) jep.evaluate(expression)).doubleValue(), 0.001);
+		expression.setVariable("BAR", -5);
+		assertEquals(3.0, ((Number) jep.evaluate(expression)).doubleValue(), 0.001);
+
+		assertNull(jep.getParsedExpression("max(1,"));
+	}
+
+	@Test
+	public void testPool()
+	{
+		final PjepPool pool = PjepPool.getInstance();
+		final long inUse = pool.getInUseCount();
+
+		final PJEP outer = pool.aquire();
+		final PJEP nested = pool.aquire();
+		assertNotSame(outer, nested, "Nested use needs a separate parser");
+		assertEquals(inUse + 2, pool.getInUseCount(), "In use");
+
+		pool.release(nested);
+		pool.release(outer);
+		assertEquals(inUse, pool.getInUseCount(), "In use after release");
+
+		final long created = pool.getCreatedCount();
+		final PJEP reused = pool.aquire();
+		assertSame(outer, reused, "Released parser is reused");
+		assertEquals(created, pool.getCreatedCount(), "No parser created");
+		pool.release(reused);
+	}
 }
@@ -18,9 +18,17 @@
 package pcgen.cdom.enumeration;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.Test;
 
@@ -45,4 +53,67 @@ class TypeTest
 		}, "type can't be sorted by adding to hashset") ;
 	}
 
+	/**
+	 * Each Type, including those created after the constants of the class, must have
+	 * its own ordinal, as the ordinals are used to index sets of Types.
+	 */
+	@Test
+	void testUniqueOrdinals()
+	{
+		Type.getConstant("testitem ordinal");
+		Collection<Integer> ordinals = new HashSet<>();
+		for (Type type : Type.getAllConstants())
+		{
+			assertTrue(ordinals.add(type.getOrdinal()), "Duplicate ordinal for " + type);
+		}
+	}
+
+	/**
+	 * Types created by several threads at once must each be created only once, in
+	 * any case, and must each have their own ordinal.
+	 */
+	@Test
+	void testConcurrentCreation() throws Exception
+	{
+		int threads = 4;
+		int count = 500;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try
+		{
+			List<Future<List<Type>>> results = new ArrayList<>();
+			for (int t = 0; t < threads; t++)
+			{
+				boolean upper = (t % 2) == 0;
+				results.add(executor.submit(() -> {
+					List<Type> types = new ArrayList<>();
+					for (int i = 0; i < count; i++)
+					{
+						String name = "concurrent type " + i;
+						types.add(Type.getConstant(upper ? name.toUpperCase() : name));
+					}
+					return types;
+				}));
+			}
+			List<Type> first = results.get(0).get();
+			for (Future<List<Type>> result : results)
+			{
+				List<Type> types = result.get();
+				for (int i = 0; i < count; i++)
+				{
+					assertSame(first.get(i), types.get(i));
+				}
+			}
+			Collection<Integer> ordinals = new HashSet<>();
+			for (Type type : first)
+			{
+				assertTrue(ordinals.add(type.getOrdinal()), "Duplicate ordinal for " + type);
+				assertSame(type, Type.getExistingConstant(type.toString().toLowerCase()));
+			}
+			assertEquals(count, ordinals.size());
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
 }
@@ -0,0 +1,129 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.cdom.facet.base;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import pcgen.cdom.enumeration.CharID;
+import pcgen.cdom.enumeration.DataSetID;
+import pcgen.cdom.facet.FacetLibrary;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * AbstractStorageFacetTest checks that the information stored by an
+ * AbstractStorageFacet is held separately for each resource and facet class.
+ */
+public class AbstractStorageFacetTest
+{
+
+	private final DataSetID dsid = DataSetID.getID();
+
+	private final FirstFacet first = new FirstFacet();
+
+	private final SecondFacet second = new SecondFacet();
+
+	@Test
+	public void testStorageIsPerResourceAndFacet()
+	{
+		CharID id1 = CharID.getID(dsid);
+		CharID id2 = CharID.getID(dsid);
+		assertNull(first.setCache(id1, "A"));
+		second.setCache(id1, "B");
+		first.setCache(id2, "C");
+		assertEquals("A", first.getCache(id1));
+		assertEquals("B", second.getCache(id1));
+		assertEquals("C", first.getCache(id2));
+		assertNull(second.getCache(id2));
+		assertEquals("A", first.removeCache(id1));
+		assertNull(first.getCache(id1));
+		assertEquals("B", second.getCache(id1));
+	}
+
+	@Test
+	public void testPeekAtCache()
+	{
+		CharID id = CharID.getID(dsid);
+		Map<Class<?>, Object> view = AbstractStorageFacet.peekAtCache(id);
+		assertTrue(view.isEmpty());
+		second.setCache(id, "B");
+		assertEquals(Map.of(SecondFacet.class, "B"), view);
+		assertSame(SecondFacet.class, FacetLibrary.getFacetClass(FacetLibrary.getOrdinal(SecondFacet.class)));
+	}
+
+	@Test
+	public void testConcurrentResources() throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < 16; i++)
+			{
+				results.add(executor.submit(() -> {
+					CharID id = CharID.getID(dsid);
+					for (int j = 0; j < 1000; j++)
+					{
+						first.setCache(id, j);
+						second.setCache(id, -j);
+						if (!Integer.valueOf(j).equals(first.getCache(id))
+							|| !Integer.valueOf(-j).equals(second.getCache(id)))
+						{
+							return false;
+						}
+					}
+					return true;
+				}));
+			}
+			for (Future<Boolean> result : results)
+			{
+				assertTrue(result.get());
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	private static class FirstFacet extends AbstractStorageFacet<CharID>
+	{
+		@Override
+		public void copyContents(CharID source, CharID copy)
+		{
+			setCache(copy, getCache(source));
+		}
+	}
+
+	private static class SecondFacet extends AbstractStorageFacet<CharID>
+	{
+		@Override
+		public void copyContents(CharID source, CharID copy)
+		{
+			setCache(copy, getCache(source));
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.cdom.reference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import pcgen.cdom.enumeration.ListKey;
+import pcgen.cdom.enumeration.Type;
+import pcgen.core.Language;
+import pcgen.rules.context.ConsolidatedListCommitStrategy;
+import pcgen.rules.context.LoadContext;
+import pcgen.rules.context.RuntimeLoadContext;
+import pcgen.rules.context.RuntimeReferenceContext;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * AbstractReferenceManufacturerTest checks that TYPE references are resolved to
+ * the same objects, in the same order, as testing every object against every
+ * type of every reference.
+ */
+public class AbstractReferenceManufacturerTest
+{
+	private ReferenceManufacturer<Language> mfg;
+
+	@BeforeEach
+	void setUp()
+	{
+		LoadContext context = new RuntimeLoadContext(
+			RuntimeReferenceContext.createRuntimeReferenceContext(),
+			new ConsolidatedListCommitStrategy());
+		mfg = context.getReferenceContext().getManufacturer(Language.class);
+		mfg.constructObject("Common").addToListFor(ListKey.TYPE, Type.getConstant("Spoken"));
+		Language elven = mfg.constructObject("Elven");
+		elven.addToListFor(ListKey.TYPE, Type.getConstant("Spoken"));
+		elven.addToListFor(ListKey.TYPE, Type.getConstant("Written"));
+		elven.addToListFor(ListKey.TYPE, Type.getConstant("Ancient"));
+		Language draconic = mfg.constructObject("Draconic");
+		draconic.addToListFor(ListKey.TYPE, Type.getConstant("Written"));
+		draconic.addToListFor(ListKey.TYPE, Type.getConstant("Ancient"));
+		mfg.constructObject("Druidic").addToListFor(ListKey.TYPE, Type.getConstant("Secret"));
+		Language sign = mfg.constructObject("Sign");
+		sign.addToListFor(ListKey.TYPE, Type.getConstant("Written"));
+		sign.addToListFor(ListKey.TYPE, Type.getConstant("Secret"));
+		mfg.constructObject("Untyped");
+	}
+
+	/**
+	 * Resolves the given references as the original implementation did: every
+	 * object, in the order of the manufacturer, tested against every type.
+	 */
+	private List<List<Language>> linearScan(List<String[]> typeLists)
+	{
+		List<List<Language>> expected = new ArrayList<>();
+		for (String[] types : typeLists)
+		{
+			List<Language> matches = new ArrayList<>();
+			for (Language lang : mfg.getAllObjects())
+			{
+				boolean typeOkay = true;
+				for (String type : types)
+				{
+					if (!lang.isType(type))
+					{
+						typeOkay = false;
+						break;
+					}
+				}
+				if (typeOkay)
+				{
+					matches.add(lang);
+				}
+			}
+			expected.add(matches);
+		}
+		return expected;
+	}
+
+	private static List<Language> getResolution(CDOMGroupRef<Language> ref)
+	{
+		if (ref.getObjectCount() == 0)
+		{
+			return Collections.emptyList();
+		}
+		return new ArrayList<>(ref.getContainedObjects());
+	}
+
+	@Test
+	public void testTypeResolutionMatchesLinearScan()
+	{
+		List<String[]> typeLists = List.of(new String[]{"Spoken"},
+			new String[]{"Written"}, new String[]{"Spoken", "Written"},
+			new String[]{"Written", "Ancient"},
+			new String[]{"Spoken", "Written", "Ancient"},
+			new String[]{"Written", "Secret"}, new String[]{"Spoken", "Secret"},
+			new String[]{"Secret", "Missing"}, new String[]{"Missing"},
+			new String[]{"!Spoken", "Written"});
+		List<CDOMGroupRef<Language>> refs = new ArrayList<>();
+		for (String[] types : typeLists)
+		{
+			refs.add(mfg.getTypeReference(types.clone()));
+		}
+		List<List<Language>> expected = linearScan(typeLists);
+		mfg.resolveReferences(null);
+		for (int i = 0; i < refs.size(); i++)
+		{
+			assertEquals(expected.get(i), getResolution(refs.get(i)),
+				String.join(".", typeLists.get(i)));
+		}
+		assertEquals(List.of(mfg.getObject("Elven"), mfg.getObject("Draconic")),
+			getResolution(refs.get(3)));
+		assertEquals(List.of(mfg.getObject("Draconic")), getResolution(refs.get(9)));
+	}
+
+	@Test
+	public void testCaseVariantTypes()
+	{
+		CDOMGroupRef<Language> written = mfg.getTypeReference("Written");
+		assertSame(written, mfg.getTypeReference("WRITTEN"));
+		CDOMGroupRef<Language> ancient = mfg.getTypeReference("written", "ANCIENT");
+		assertSame(ancient, mfg.getTypeReference("Ancient", "Written"));
+		CDOMGroupRef<Language> secret = mfg.getTypeReference("sEcReT", "Written");
+		List<List<Language>> expected = linearScan(List.of(new String[]{"Written"},
+			new String[]{"written", "ANCIENT"}, new String[]{"sEcReT", "Written"}));
+		mfg.resolveReferences(null);
+		assertEquals(expected.get(0), getResolution(written));
+		assertEquals(expected.get(1), getResolution(ancient));
+		assertEquals(expected.get(2), getResolution(secret));
+		assertEquals(List.of(mfg.getObject("Elven"), mfg.getObject("Draconic"),
+			mfg.getObject("Sign")), getResolution(written));
+		assertEquals(List.of(mfg.getObject("Sign")), getResolution(secret));
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.cdom.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import pcgen.cdom.enumeration.IntegerKey;
+import pcgen.cdom.enumeration.ObjectKey;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * CompactKeyMapTest checks that CompactKeyMap behaves as a Map.
+ */
+class CompactKeyMapTest
+{
+
+	@Test
+	void testPutGetRemove()
+	{
+		CompactKeyMap<IntegerKey, Integer> map = new CompactKeyMap<>();
+		assertNull(map.put(IntegerKey.HIT_DIE, 8));
+		assertNull(map.put(IntegerKey.LEVEL, 2));
+		assertEquals(8, map.put(IntegerKey.HIT_DIE, 10));
+		assertEquals(10, map.get(IntegerKey.HIT_DIE));
+		assertTrue(map.containsKey(IntegerKey.LEVEL));
+		assertEquals(2, map.size());
+		assertEquals(2, map.remove(IntegerKey.LEVEL));
+		assertNull(map.remove(IntegerKey.LEVEL));
+		assertFalse(map.containsKey(IntegerKey.LEVEL));
+		assertEquals(Map.of(IntegerKey.HIT_DIE, 10), map);
+		assertThrows(NullPointerException.class, () -> map.put(null, 1));
+	}
+
+	@Test
+	void testGrowthAndOrder()
+	{
+		CompactKeyMap<Integer, String> map = new CompactKeyMap<>();
+		Map<Integer, String> expected = new HashMap<>();
+		for (int i = 0; i < 50; i++)
+		{
+			map.put(i, "V" + i);
+			expected.put(i, "V" + i);
+		}
+		assertEquals(expected, map);
+		assertEquals(expected.hashCode(), map.hashCode());
+		assertEquals(List.of(0, 1, 2), map.keySet().stream().limit(3).toList());
+		assertEquals(expected, new CompactKeyMap<>(map));
+	}
+
+	@Test
+	void testIterator()
+	{
+		CompactKeyMap<ObjectKey<?>, Object> map = new CompactKeyMap<>();
+		map.put(ObjectKey.NAME_PI, Boolean.TRUE);
+		map.put(ObjectKey.USE_UNTRAINED, Boolean.FALSE);
+		map.put(ObjectKey.READ_ONLY, Boolean.TRUE);
+		Iterator<Map.Entry<ObjectKey<?>, Object>> it = map.entrySet().iterator();
+		it.next().setValue(Boolean.FALSE);
+		it.next();
+		it.remove();
+		assertThrows(IllegalStateException.class, it::remove);
+		assertEquals(ObjectKey.READ_ONLY, it.next().getKey());
+		assertFalse(it.hasNext());
+		assertEquals(Map.of(ObjectKey.NAME_PI, Boolean.FALSE, ObjectKey.READ_ONLY, Boolean.TRUE), map);
+
+		Iterator<ObjectKey<?>> keys = map.keySet().iterator();
+		map.put(ObjectKey.USE_UNTRAINED, Boolean.TRUE);
+		assertThrows(ConcurrentModificationException.class, keys::next);
+	}
+}
@@ -0,0 +1,204 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.gui2.tabs.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import pcgen.facade.core.CharacterFacade;
+import pcgen.gui3.JFXPanelFromResource;
+import pcgen.gui3.SimpleHtmlPanelController;
+import pcgen.io.ExportHandler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * HtmlSheetSupportTest checks that refreshes of the html sheet are coalesced, that a
+ * superseded render is not shown, that an unchanged sheet is not shown again and that
+ * only the changed sections of a sheet are replaced.
+ */
+public class HtmlSheetSupportTest
+{
+	private static final long WAIT_MILLIS = 10_000;
+
+	@TempDir
+	File tempDir;
+
+	private CharacterFacade character;
+	private SimpleHtmlPanelController controller;
+	private JFXPanelFromResource<SimpleHtmlPanelController> htmlPane;
+
+	/** The number of sheets exported so far */
+	private final AtomicInteger exports = new AtomicInteger();
+	private final CountDownLatch firstExportStarted = new CountDownLatch(1);
+	private final CountDownLatch firstExportReleased = new CountDownLatch(1);
+
+	@SuppressWarnings("unchecked")
+	@BeforeEach
+	void setUp() throws Exception
+	{
+		character = mock(CharacterFacade.class);
+		controller = mock(SimpleHtmlPanelController.class);
+		htmlPane = mock(JFXPanelFromResource.class);
+		when(htmlPane.getController()).thenReturn(controller);
+	}
+
+	/**
+	 * Makes each export of the character write the next of the given sheets. The first
+	 * export does not finish until it is released.
+	 */
+	private void exportSheets(List<String> sheets) throws Exception
+	{
+		doAnswer(invocation -> {
+			int export = exports.getAndIncrement();
+			if (export == 0)
+			{
+				firstExportStarted.countDown();
+				assertTrue(firstExportReleased.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+			}
+			BufferedWriter writer = invocation.getArgument(1);
+			writer.write(sheets.get(export));
+			writer.flush();
+			return null;
+		}).when(character).export(any(ExportHandler.class), any(BufferedWriter.class));
+	}
+
+	private void awaitExports(int count) throws InterruptedException
+	{
+		long end = System.currentTimeMillis() + WAIT_MILLIS;
+		while (exports.get() < count && System.currentTimeMillis() < end)
+		{
+			Thread.sleep(10);
+		}
+		assertEquals(count, exports.get(), "Number of exports");
+	}
+
+	@Test
+	public void testRefreshCoalescing() throws Exception
+	{
+		exportSheets(List.of("first", "second", "second", "third"));
+		HtmlSheetSupport support =
+				new HtmlSheetSupport(character, htmlPane, new File(tempDir, "sheet.htm").getPath());
+		support.install();
+		assertTrue(firstExportStarted.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+
+		// Refreshes while a sheet is rendering queue exactly one more render
+		for (int i = 0; i < 5; i++)
+		{
+			support.refresh();
+		}
+		firstExportReleased.countDown();
+
+		// The first render was superseded so only the second is shown
+		verify(controller, timeout(WAIT_MILLIS)).setHtml("second");
+		awaitExports(2);
+
+		// A sheet identical to the one shown is not loaded again
+		support.refresh();
+		awaitExports(3);
+		support.refresh();
+		verify(controller, timeout(WAIT_MILLIS)).setHtml("third");
+
+		assertEquals(4, exports.get(), "Number of exports");
+		verify(controller, never()).setHtml("first");
+		verify(controller, times(1)).setHtml("second");
+		verify(controller, times(2)).setHtml(anyString());
+	}
+
+	private static String sheet(String encounter, String statistics, String title)
+	{
+		return "<html><head><title>" + title + "</title></head><body><table><tr><td>"
+			+ "<table data-section=\"encounter\"><tr><td>" + encounter + "</td></tr></table>"
+			+ "</td><td>"
+			+ "<table data-section=\"statistics\"><tr><td>" + statistics + "</td></tr></table>"
+			+ "</td></tr></table></body></html>";
+	}
+
+	@Test
+	public void testChangedSectionsReplaced() throws Exception
+	{
+		String first = sheet("HP 10", "Str 12", "Sheet");
+		String second = sheet("HP 10", "Str 14", "Sheet");
+		String third = sheet("HP 8", "Str 14", "Renamed");
+		exportSheets(List.of(first, second, second, third));
+		firstExportReleased.countDown();
+		HtmlSheetSupport support =
+				new HtmlSheetSupport(character, htmlPane, new File(tempDir, "sheet.htm").getPath());
+		support.install();
+		verify(controller, timeout(WAIT_MILLIS)).setHtml(first);
+
+		// Only the statistics section changed
+		support.refresh();
+		verify(controller, timeout(WAIT_MILLIS)).setSections(second,
+			Map.of("statistics", "<table data-section=\"statistics\"><tr><td>Str 14</td></tr></table>"));
+
+		// Nothing changed
+		support.refresh();
+		awaitExports(3);
+
+		// The frame changed, so the whole sheet is shown
+		support.refresh();
+		verify(controller, timeout(WAIT_MILLIS)).setHtml(third);
+
+		awaitExports(4);
+		verify(controller, times(2)).setHtml(anyString());
+		verify(controller, times(1)).setSections(anyString(), anyMap());
+	}
+
+	@Test
+	public void testSheetSections()
+	{
+		String html = "<body><div data-section=\"a\"><div>x</div><DIV data-section=\"inner\">y</div></div>"
+			+ "<p>text</p><br data-section=\"b\"/><table class=\"t\" data-section=\"c\">z</table></body>";
+		HtmlSheet sheet = new HtmlSheet(html);
+		assertEquals(List.of("a", "b", "c"), List.copyOf(sheet.getSections().keySet()));
+		assertEquals("<div data-section=\"a\"><div>x</div><DIV data-section=\"inner\">y</div></div>",
+			sheet.getSections().get("a"));
+		assertEquals("<br data-section=\"b\"/>", sheet.getSections().get("b"));
+		assertEquals("<table class=\"t\" data-section=\"c\">z</table>", sheet.getSections().get("c"));
+		assertEquals(Map.of(), sheet.getChangedSections(new HtmlSheet(html)));
+		assertEquals(Map.of("c", "<table class=\"t\" data-section=\"c\">w</table>"),
+			new HtmlSheet(html.replace(">z<", ">w<")).getChangedSections(sheet));
+		assertNull(new HtmlSheet(html.replace("text", "other")).getChangedSections(sheet));
+		assertNull(sheet.getChangedSections(null));
+
+		// Sections that cannot be matched up leave the whole sheet as frame
+		assertEquals(Map.of(), new HtmlSheet("<div data-section=\"a\">x").getSections());
+		assertEquals(Map.of(),
+			new HtmlSheet("<p data-section=\"a\">x</p><p data-section=\"a\">y</p>").getSections());
+	}
+}
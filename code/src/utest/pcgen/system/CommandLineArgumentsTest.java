@@ -64,6 +64,7 @@ class CommandLineArgumentsTest {
         Assertions.assertEquals(Optional.empty(), classUnderTest.getTab());
         Assertions.assertEquals(Optional.empty(), classUnderTest.getTab());
         Assertions.assertFalse(classUnderTest.isVerbose());
+        Assertions.assertEquals(1, classUnderTest.getExportThreads());
     }
 
     @Nested
@@ -348,4 +349,25 @@ class CommandLineArgumentsTest {
             Assertions.assertFalse(classUnderTest.isVerbose());
         }
     }
+
+    @Nested
+    class ExportThreadsTest {
+        @ParameterizedTest
+        @ValueSource(strings = {"--export-threads,4"})
+        void validUsage(@ConvertWith(CSVtoArrayConverter.class) String... args) {
+            CommandLineArguments classUnderTest = from(args);
+
+            Assertions.assertEquals(4, classUnderTest.getExportThreads());
+            Assertions.assertEquals(Optional.empty(), classUnderTest.getPartyFile());
+            Assertions.assertFalse(classUnderTest.isVerbose());
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"--export-threads,", "--export-threads", "--export-threads,0",
+                "--export-threads,many", "--export-threads,2,4"})
+        void invalidUsage(@ConvertWith(CSVtoArrayConverter.class) String... args) {
+            Assertions.assertThrows(SystemExitInterceptor.SystemExitCalledException.class,
+                    () -> from(args));
+        }
+    }
 }
@@ -0,0 +1,168 @@
+/*
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.util.fop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * FopTaskTest checks the handling of stylesheets by FopTask.
+ */
+public class FopTaskTest
+{
+	private static final String IDENTITY_XSLT = "<xsl:stylesheet version=\"1.0\""
+		+ " xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">"
+		+ "<xsl:template match=\"@*|node()\"><xsl:copy><xsl:apply-templates select=\"@*|node()\"/>"
+		+ "</xsl:copy></xsl:template></xsl:stylesheet>";
+
+	@TempDir
+	Path tempDir;
+
+	private File writeStylesheet(String name, String content) throws IOException
+	{
+		Path file = tempDir.resolve(name);
+		Files.writeString(file, content, StandardCharsets.UTF_8);
+		return file.toFile().getAbsoluteFile();
+	}
+
+	/**
+	 * A stylesheet that cannot be compiled must end the task with an error, and must
+	 * not leave the thread writing the sheet into the pipe blocked once the pipe is full.
+	 */
+	@Test
+	public void testBrokenStylesheetDoesNotBlockWriter() throws Exception
+	{
+		File xsltFile = writeStylesheet("broken.xsl", "<xsl:stylesheet version=\"1.0\""
+			+ " xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\"><xsl:template match=\"/\">");
+		PipedOutputStream pipe = new PipedOutputStream();
+		FopTask task =
+				FopTask.newFopTask(new PipedInputStream(pipe, 1024), xsltFile, new ByteArrayOutputStream());
+		Thread thread = new Thread(task, "fop-test");
+		thread.setDaemon(true);
+		thread.start();
+
+		assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+			byte[] chunk = new byte[8192];
+			assertThrows(IOException.class, () -> {
+				for (int i = 0; i < 128; i++)
+				{
+					pipe.write(chunk);
+				}
+			});
+			thread.join();
+		});
+		assertFalse(task.getErrorMessages().isBlank(), "Broken stylesheet should be reported");
+	}
+
+	/**
+	 * A compiled stylesheet is reused until the modification time or the length of the
+	 * stylesheet file changes.
+	 */
+	@Test
+	public void testStylesheetCache() throws Exception
+	{
+		File xsltFile = writeStylesheet("identity.xsl", IDENTITY_XSLT);
+		long modified = xsltFile.lastModified();
+		Templates first = FopTask.getTemplates(xsltFile);
+		assertSame(first, FopTask.getTemplates(xsltFile), "Unchanged stylesheet should be reused");
+
+		// Same modification time, different length
+		writeStylesheet("identity.xsl", IDENTITY_XSLT + "\n");
+		xsltFile.setLastModified(modified);
+		Templates second = FopTask.getTemplates(xsltFile);
+		assertNotSame(first, second, "Stylesheet with a new length should be recompiled");
+		assertSame(second, FopTask.getTemplates(xsltFile));
+
+		// Same length, different modification time
+		xsltFile.setLastModified(modified - 60_000);
+		Templates third = FopTask.getTemplates(xsltFile);
+		assertNotSame(second, third, "Stylesheet with a new modification time should be recompiled");
+		assertSame(third, FopTask.getTemplates(xsltFile));
+	}
+
+	private static String transform(Templates templates, String xml) throws Exception
+	{
+		StringWriter output = new StringWriter();
+		templates.newTransformer().transform(new StreamSource(new StringReader(xml)),
+			new StreamResult(output));
+		return output.toString();
+	}
+
+	/**
+	 * A compiled stylesheet is not reused once a stylesheet it includes or imports has
+	 * changed, or once the cache has been cleared.
+	 */
+	@Test
+	public void testIncludedStylesheetCache() throws Exception
+	{
+		String header = "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">"
+			+ "<xsl:output method=\"xml\" omit-xml-declaration=\"yes\"/>";
+		File importFile = writeStylesheet("base.xsl", IDENTITY_XSLT);
+		File includeFile = writeStylesheet("part.xsl", header
+			+ "<xsl:template match=\"a\"><first/></xsl:template></xsl:stylesheet>");
+		File xsltFile = writeStylesheet("main.xsl", header.replace("<xsl:output", "<xsl:import href=\"base.xsl\"/>"
+			+ "<xsl:include href=\"part.xsl\"/><xsl:output"));
+		Files.writeString(xsltFile.toPath(), "</xsl:stylesheet>", StandardCharsets.UTF_8,
+			StandardOpenOption.APPEND);
+
+		Templates first = FopTask.getTemplates(xsltFile);
+		assertEquals("<root><first/></root>", transform(first, "<root><a/></root>"));
+		assertSame(first, FopTask.getTemplates(xsltFile), "Unchanged stylesheets should be reused");
+
+		// Edit the included stylesheet, keeping its modification time
+		long modified = includeFile.lastModified();
+		writeStylesheet("part.xsl", header
+			+ "<xsl:template match=\"a\"><second/></xsl:template></xsl:stylesheet>");
+		includeFile.setLastModified(modified);
+		Templates second = FopTask.getTemplates(xsltFile);
+		assertNotSame(first, second, "Stylesheet with an edited include should be recompiled");
+		assertEquals("<root><second/></root>", transform(second, "<root><a/></root>"));
+		assertSame(second, FopTask.getTemplates(xsltFile));
+
+		// Touch the imported stylesheet
+		importFile.setLastModified(importFile.lastModified() - 60_000);
+		Templates third = FopTask.getTemplates(xsltFile);
+		assertNotSame(second, third, "Stylesheet with a changed import should be recompiled");
+		assertSame(third, FopTask.getTemplates(xsltFile));
+
+		StylesheetCache.clear();
+		assertNotSame(third, FopTask.getTemplates(xsltFile), "Cleared stylesheet should be recompiled");
+	}
+}
@@ -12,7 +12,7 @@
 			</tr>
 			<tr valign="top">
 				<td>
-					<table>
+					<table data-section="encounter">
 						<tr><td><img src="images/icon_hp.png"/></td><td>&nbsp;<b>HP:</b>&nbsp;${pcstring('HP')}</td></tr>
 						<tr><td><img src="images/icon_bab.png"/></td><td>&nbsp;<b>BAB:</b>&nbsp;${pcstring('ATTACK.MELEE')}</td></tr>
 						<tr><td><img src="images/icon_init.png"/></td><td>&nbsp;<b>INIT:</b>&nbsp;${pcstring('INITIATIVEMOD')}</td></tr>
@@ -34,7 +34,7 @@
 					</table>
 				</td>
 				<td>
-					<table>
+					<table data-section="statistics">
 						<tr><td><img src="images/icon_bod.png"/></td><td>&nbsp;<b>Favored:</b>&nbsp;${pcstring('FAVOREDLIST')}</td></tr>
 						<tr><td><img src="images/icon_eye.png"/></td><td>&nbsp;<b>Alignment:</b>&nbsp;${pcstring('ALIGNMENT.SHORT')}</td></tr>
 <#if (pcstring('RACE') = "<none selected>")>
@@ -51,7 +51,7 @@
 					</table>
 				</td>
 				<td>
-					<table>
+					<table data-section="encumbrance">
 						<tr><td><img src="images/icon_load.png"/></td><td>&nbsp;<b>Load (Light):</b>&nbsp;${pcstring('WEIGHT.LIGHT')} ${pcstring('UNITSET.WEIGHTUNIT')}</td></tr>
 						<tr><td><img src="images/icon_load.png"/></td><td>&nbsp;<b>Load (Medium):</b>&nbsp;${pcstring('WEIGHT.MEDIUM')} ${pcstring('UNITSET.WEIGHTUNIT')}</td></tr>
 						<tr><td><img src="images/icon_load.png"/></td><td>&nbsp;<b>Load (Heavy):</b>&nbsp;${pcstring('WEIGHT.HEAVY')} ${pcstring('UNITSET.WEIGHTUNIT')}</td></tr>
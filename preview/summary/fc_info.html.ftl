@@ -12,7 +12,7 @@
 			</tr>
 			<tr valign="top">
 				<td>
-					<table>
+					<table data-section="encounter">
 						<tr><td><img src="images/icon_hp.png"/></td><td>&nbsp;<b>Vitality:</b>&nbsp;${pcstring('HP')}</td></tr>
 						<tr><td><img src="images/icon_hp.png"/></td><td>&nbsp;<b>Wounds:</b>&nbsp;${pcstring('ALTHP')}</td></tr>
 						<tr><td><img src="images/icon_bab.png"/></td><td>&nbsp;<b>BAB:</b>&nbsp;${pcstring('ATTACK.MELEE')}</td></tr>
@@ -34,7 +34,7 @@
 					</table>
 				</td>
 				<td>
-					<table>
+					<table data-section="statistics">
 <!--><td><tr><td><img src="images/icon_bod.png"/></td><td>&nbsp;<b>Favored:</b>&nbsp;${pcstring('FAVOREDLIST')}</td></tr>	-->
 <#if (pcstring('RACE') = "<none selected>")>
 						<tr><td><img src="images/icon_bod.png"/></td><td>&nbsp;<b>Race:</b>&nbsp;None</td></tr>
@@ -55,7 +55,7 @@
 					</table>
 				</td>
 				<td>
-					<table>
+					<table data-section="encumbrance">
 						<tr><td><img src="images/icon_load.png"/></td><td>&nbsp;<b>Load(L):</b>&nbsp;${pcstring('WEIGHT.LIGHT')} ${pcstring('UNITSET.WEIGHTUNIT')}</td></tr>
 						<tr><td><img src="images/icon_load.png"/></td><td>&nbsp;<b>Load(H):</b>&nbsp;${pcstring('WEIGHT.HEAVY')} ${pcstring('UNITSET.WEIGHTUNIT')}</td></tr>
 						<tr><td><img src="images/icon_load.png"/></td><td>&nbsp;<b>Dead Lift:</b>&nbsp;${pcstring('WEIGHT.OVERHEAD')} ${pcstring('UNITSET.WEIGHTUNIT')}</td></tr>
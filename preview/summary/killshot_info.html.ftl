@@ -12,12 +12,12 @@
 			</tr>
 			<tr valign="top">
 				<td>
-					<table>
+					<table data-section="encounter">
 						<!--TODO-->
 					</table>
 				</td>
 				<td>
-					<table>
+					<table data-section="statistics">
 <#if (pcstring('RACE') = "<none selected>")>
 						<tr><td><img src="images/icon_bod.png"/></td><td>&nbsp;<b>Race:</b>&nbsp;Human</td></tr>
 <#else>
@@ -30,7 +30,7 @@
 					</table>
 				</td>
 				<td>
-					<table>
+					<table data-section="encumbrance">
 						<!--TODO-->
 					</table>
 				</td>
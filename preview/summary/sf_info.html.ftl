@@ -13,7 +13,7 @@
 			</tr>
 			<tr valign="top">
 				<td>
-					<table>
+					<table data-section="encounter">
 						<tr><td><img src="images/icon_hp.png" /></td><td>&nbsp;<b>Hull Points:</b>&nbsp;${pcstring('HP')}</td></tr>
 						<tr><td><img src="images/icon_hp.png" /></td><td>&nbsp;<b>SP:</b>&nbsp;${pcstring('ALTHP')}</td></tr>
 						<tr><td><img src="images/icon_bab.png"/></td><td>&nbsp;<b>BAB:</b>&nbsp;${pcstring('ATTACK.MELEE')}</td></tr>
@@ -35,7 +35,7 @@
 					</table>
 				</td>
 				<td>
-					<table>
+					<table data-section="statistics">
 						<tr><td><img src="images/icon_eye.png"/></td><td>&nbsp;<b>Alignment:</b>&nbsp;${pcstring('ALIGNMENT.SHORT')}</td></tr>
 <#if (pcstring('RACE') = "<none selected>")>
 						<tr><td><img src="images/icon_bod.png"/></td><td>&nbsp;<b>Race:</b>&nbsp;None</td></tr>
@@ -51,7 +51,7 @@
 					</table>
 				</td>
 				<td>
-					<table>
+					<table data-section="encumbrance">
 						<tr><td><img src="images/icon_load.png"/></td><td>&nbsp;<b>Load (Unencumbered):</b>&nbsp;${pcstring('WEIGHT.UNENCUMBERED')} ${pcstring('UNITSET.WEIGHTUNIT')}</td></tr>
 						<tr><td><img src="images/icon_load.png"/></td><td>&nbsp;<b>Curr. Bulk:</b>&nbsp;${pcstring('TOTAL.WEIGHT')}</td></tr>
 						<tr><td><img src="images/icon_bod.png"/></td><td>&nbsp;<b>Armor Check Penalty:</b>&nbsp;${pcstring('ACCHECK')}</td></tr>
@@ -74,7 +74,7 @@
 			</tr>
 			<tr valign="top">
 				<td>
-					<table>
+					<table data-section="encounter">
 						<tr><td><img src="images/icon_hp.png" /></td><td>&nbsp;<b>HP:</b>&nbsp;${pcstring('HP')}</td></tr>
 						<tr><td><img src="images/icon_hp.png" /></td><td>&nbsp;<b>SP:</b>&nbsp;${pcstring('ALTHP')}</td></tr>
 						<tr><td><img src="images/icon_bab.png"/></td><td>&nbsp;<b>BAB:</b>&nbsp;${pcstring('ATTACK.MELEE')}</td></tr>
@@ -96,7 +96,7 @@
 					</table>
 				</td>
 				<td>
-					<table>
+					<table data-section="statistics">
 						<tr><td><img src="images/icon_eye.png"/></td><td>&nbsp;<b>Alignment:</b>&nbsp;${pcstring('ALIGNMENT.SHORT')}</td></tr>
 <#if (pcstring('RACE') = "<none selected>")>
 						<tr><td><img src="images/icon_bod.png"/></td><td>&nbsp;<b>Race:</b>&nbsp;None</td></tr>
@@ -112,7 +112,7 @@
 					</table>
 				</td>
 				<td>
-					<table>
+					<table data-section="encumbrance">
 						<tr><td><img src="images/icon_load.png"/></td><td>&nbsp;<b>Load (Unencumbered):</b>&nbsp;${pcstring('WEIGHT.UNENCUMBERED')} ${pcstring('UNITSET.WEIGHTUNIT')}</td></tr>
 						<tr><td><img src="images/icon_load.png"/></td><td>&nbsp;<b>Curr. Bulk:</b>&nbsp;${pcstring('TOTAL.WEIGHT')}</td></tr>
 						<tr><td><img src="images/icon_bod.png"/></td><td>&nbsp;<b>Armor Check Penalty:</b>&nbsp;${pcstring('ACCHECK')}</td></tr>